@@ -0,0 +1,95 @@
+package com.olinonee.framework.lock.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H2 没有 MySQL 的命名锁函数，基准测试通过 {@code CREATE ALIAS} 把 {@code GET_LOCK}、{@code RELEASE_LOCK} 注册为这里的 Java 函数（见 schema-h2.sql）
+ * <p>
+ * 语义和 MySQL 一致：锁属于会话，同一会话可以重入，重入几次就要释放几次；不支持连接断开时自动释放
+ * <p>
+ * 只用于让 MySQL 命名锁的代码路径在 H2 上跑起来，性能特征和 MySQL 完全不同，基准测试结果不能代表 MySQL
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public final class H2NamedLocks {
+
+    private static final ConcurrentMap<String, Holder> LOCKS = new ConcurrentHashMap<>();
+
+    private H2NamedLocks() {
+    }
+
+    /**
+     * {@code GET_LOCK(name, timeout)}
+     *
+     * @return 1 获取成功，0 超时
+     */
+    public static Integer getLock(Connection connection, String name, int timeoutSeconds) throws SQLException, InterruptedException {
+        final long session = sessionId(connection);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(timeoutSeconds, 0));
+        while (true) {
+            final Holder holder = LOCKS.compute(name, (k, current) -> {
+                if (null == current) {
+                    return new Holder(session);
+                }
+                if (current.session == session) {
+                    current.count++;
+                }
+                return current;
+            });
+            if (holder.session == session) {
+                return 1;
+            }
+            if (System.nanoTime() >= deadline) {
+                return 0;
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    /**
+     * {@code RELEASE_LOCK(name)}
+     *
+     * @return 1 释放成功，0 锁不属于当前会话，NULL 锁不存在
+     */
+    public static Integer releaseLock(Connection connection, String name) throws SQLException {
+        final long session = sessionId(connection);
+        final Integer[] result = {null};
+        LOCKS.computeIfPresent(name, (k, current) -> {
+            if (current.session != session) {
+                result[0] = 0;
+                return current;
+            }
+            result[0] = 1;
+            return --current.count == 0 ? null : current;
+        });
+        return result[0];
+    }
+
+    private static long sessionId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT SESSION_ID()")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * 持有锁的会话以及重入次数，只在 ConcurrentHashMap#compute 中修改
+     */
+    private static class Holder {
+        private final long session;
+        private int count = 1;
+
+        private Holder(long session) {
+            this.session = session;
+        }
+    }
+}
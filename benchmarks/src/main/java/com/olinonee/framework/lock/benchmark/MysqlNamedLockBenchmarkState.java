@@ -0,0 +1,55 @@
+package com.olinonee.framework.lock.benchmark;
+
+import com.olinonee.framework.lock.DistributedLockSamplesApplication;
+import com.olinonee.framework.lock.service.IDistributedLockStockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * MySQL 命名锁（GET_LOCK）基准测试的状态：以 {@code stock.distributed-lock.type=mysql-named} 启动 Spring 容器，
+ * 其余配置和 {@link StockBenchmarkState} 相同，H2 中的命名锁函数见 {@link H2NamedLocks}
+ * <p>
+ * 分别测试有无本地锁交接（local-handoff）两种情况，没有交接时每次加解锁都要在锁连接上执行一次 {@code GET_LOCK}、{@code RELEASE_LOCK}
+ * <p>
+ * 注意：这里的 {@code GET_LOCK}、{@code RELEASE_LOCK} 是 H2 中进程内的 Java 函数，没有网络往返，也没有 MySQL 锁子系统的开销，
+ * 结果只能用来比较有无本地锁交接时锁连接上的调用次数和本地排队的开销，不能代表 MySQL 命名锁的真实延迟和吞吐量，
+ * 和 MySQL 锁表、{@code FOR UPDATE} 等实现的对比也要在真实的 MySQL 上进行
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+public class MysqlNamedLockBenchmarkState {
+
+    @Param({"true", "false"})
+    String localHandoff;
+
+    ConfigurableApplicationContext context;
+    JdbcTemplate jdbcTemplate;
+
+    IDistributedLockStockService distributedLockStockService;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        this.context = new SpringApplicationBuilder(DistributedLockSamplesApplication.class)
+                .profiles("benchmark")
+                .properties("stock.distributed-lock.type=mysql-named",
+                        "stock.distributed-lock.local-handoff=" + this.localHandoff)
+                .run();
+        this.jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        this.distributedLockStockService = this.context.getBean(IDistributedLockStockService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        this.jdbcTemplate.update("UPDATE tb_stock SET count = ?, version = 0", StockBenchmarkState.INITIAL_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        this.context.close();
+    }
+}
@@ -0,0 +1,81 @@
+package com.olinonee.framework.lock.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 基准测试入口：按线程数扫描运行 {@link StockServiceBenchmark}，最后输出吞吐量和 p99 的汇总表
+ * <p>
+ * 可用的系统属性：
+ * <pre>
+ *     -Dbench.threads=1,4,16,64       扫描的线程数
+ *     -Dbench.include=StockServiceBenchmark.mysql.*   只运行匹配的基准测试（正则）
+ *     -Dbench.gc=true                 开启 GC profiler，汇总表中增加每次调用的分配字节数（比如对比 mysqlReentrantLock 和 leanReentrantLock）
+ * </pre>
+ * 每个线程数的原始结果同时输出到 {@code jmh-result-threads-N.csv}
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class StockBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        final String include = System.getProperty("bench.include", StockServiceBenchmark.class.getSimpleName());
+        final int[] threadCounts = Arrays.stream(System.getProperty("bench.threads", "1,4,16,64").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        final boolean gc = Boolean.getBoolean("bench.gc");
+
+        final List<String> rows = new ArrayList<>();
+        for (int threads : threadCounts) {
+            final ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.CSV)
+                    .result("jmh-result-threads-" + threads + ".csv");
+            if (gc) {
+                builder.addProfiler(GCProfiler.class);
+            }
+            final Options options = builder.build();
+            final Collection<RunResult> results = new Runner(options).run();
+            for (RunResult runResult : results) {
+                rows.add(format(threads, runResult));
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-45s %8s %-12s %16s %12s %14s%n", "Benchmark", "Threads", "Mode", "Score", "p99", "alloc B/op");
+        rows.forEach(System.out::println);
+    }
+
+    private static String format(int threads, RunResult runResult) {
+        final Result<?> primary = runResult.getPrimaryResult();
+        final String benchmark = runResult.getParams().getBenchmark();
+        final String name = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        final Mode mode = runResult.getParams().getMode();
+        final String p99 = mode == Mode.SampleTime
+                ? String.format("%.3f", primary.getStatistics().getPercentile(99))
+                : "-";
+        // GCProfiler 的每次调用分配字节数，没有开启时为 “-”
+        final Result<?> alloc = runResult.getSecondaryResults().get("·gc.alloc.rate.norm");
+        return String.format("%-45s %8d %-12s %16s %12s %14s", name, threads, mode.shortLabel(),
+                String.format("%.3f %s", primary.getScore(), primary.getScoreUnit()), p99,
+                null == alloc ? "-" : String.format("%.1f", alloc.getScore()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.olinonee.framework.lock.benchmark;
+
+import com.olinonee.framework.lock.DistributedLockSamplesApplication;
+import com.olinonee.framework.lock.dto.StockDeductLine;
+import com.olinonee.framework.lock.service.*;
+import com.olinonee.framework.lock.support.HotProductDetector;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基准测试共享状态：每个 fork 启动一个 Spring 容器（H2 内存库），所有线程共享同一份库存数据
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+public class StockBenchmarkState {
+
+    /**
+     * 每轮迭代开始前重置的库存量，足够大以保证测试期间不会卖完
+     */
+    static final int INITIAL_COUNT = 1_000_000_000;
+
+    static final String PRODUCT_CODE = "1001";
+
+    /**
+     * 拆分成槽位的热点商品以及槽位数
+     */
+    static final String SLOT_PRODUCT_CODE = "3001";
+    static final int SLOTS = 8;
+
+    /**
+     * 订单多商品减库存使用的明细，故意不按商品编号排序
+     */
+    static final List<StockDeductLine> ORDER_LINES = Arrays.asList(
+            new StockDeductLine("1003", 1), new StockDeductLine(PRODUCT_CODE, 1), new StockDeductLine("1002", 1));
+
+    ConfigurableApplicationContext context;
+    JdbcTemplate jdbcTemplate;
+
+    ISingletonPatternStockService singletonPatternStockService;
+    ITransactionalStockService transactionalStockService;
+    ISingletonPatternDbLockStockService singletonPatternDbLockStockService;
+    IPrototypePatternDbLockStockService prototypePatternDbLockStockService;
+    ITransactionalDbLockStockService transactionalDbLockStockService;
+    IOptimisticLockStockService optimisticLockStockService;
+    IDistributedLockStockService distributedLockStockService;
+    IQuotaStockService quotaStockService;
+    IWriteBehindStockService writeBehindStockService;
+    IOrderStockService orderStockService;
+    ISlotStockService slotStockService;
+    ILeanStockService leanStockService;
+    IIdempotentStockService idempotentStockService;
+    ILedgerStockService ledgerStockService;
+    IHotRoutingStockService hotRoutingStockService;
+    HotProductDetector hotProductDetector;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        this.context = new SpringApplicationBuilder(DistributedLockSamplesApplication.class)
+                .profiles("benchmark")
+                .run();
+        this.jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        this.singletonPatternStockService = this.context.getBean(ISingletonPatternStockService.class);
+        this.transactionalStockService = this.context.getBean(ITransactionalStockService.class);
+        this.singletonPatternDbLockStockService = this.context.getBean(ISingletonPatternDbLockStockService.class);
+        this.prototypePatternDbLockStockService = this.context.getBean(IPrototypePatternDbLockStockService.class);
+        this.transactionalDbLockStockService = this.context.getBean(ITransactionalDbLockStockService.class);
+        this.optimisticLockStockService = this.context.getBean(IOptimisticLockStockService.class);
+        this.distributedLockStockService = this.context.getBean(IDistributedLockStockService.class);
+        this.quotaStockService = this.context.getBean(IQuotaStockService.class);
+        this.writeBehindStockService = this.context.getBean(IWriteBehindStockService.class);
+        this.orderStockService = this.context.getBean(IOrderStockService.class);
+        this.slotStockService = this.context.getBean(ISlotStockService.class);
+        this.leanStockService = this.context.getBean(ILeanStockService.class);
+        this.idempotentStockService = this.context.getBean(IIdempotentStockService.class);
+        this.ledgerStockService = this.context.getBean(ILedgerStockService.class);
+        this.hotRoutingStockService = this.context.getBean(IHotRoutingStockService.class);
+        this.hotProductDetector = this.context.getBean(HotProductDetector.class);
+        this.slotStockService.splitSlots(SLOT_PRODUCT_CODE, SLOTS);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        this.jdbcTemplate.update("UPDATE tb_stock SET count = ?, version = 0", INITIAL_COUNT);
+        this.jdbcTemplate.update("UPDATE tb_stock_slot SET count = ?", INITIAL_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        this.context.close();
+    }
+}
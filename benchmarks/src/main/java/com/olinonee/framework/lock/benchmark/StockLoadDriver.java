@@ -0,0 +1,311 @@
+package com.olinonee.framework.lock.benchmark;
+
+import com.olinonee.framework.lock.DistributedLockSamplesApplication;
+import com.olinonee.framework.lock.support.StockQuotaAllocator;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 减库存压测驱动（代替 JMeter 脚本）
+ * <p>
+ * 按 “线程数 × 循环次数” 依次压测 {@code StockController} 的各个接口，用 HdrHistogram 记录每个接口的延迟分布，
+ * 压测结束后校验 {@code tb_stock} 的 {@code count + leased} 之和是否等于 “初始库存 - 成功请求数”，不相等说明出现了超卖（更新丢失）。
+ * <p>
+ * 由于接口在库存不足时同样返回成功，所以每个接口压测前都会把库存重置为 “线程数 × 循环次数”（全部放在 id 最小的一行，其他行清零，
+ * {@code leased} 清零），保证每个成功请求都应该扣减一次库存。
+ * 并发限制、异步接口队列满时返回的 429 以及商品售罄时返回的 409 都不会扣减库存，计为失败请求。
+ * <p>
+ * 配额接口 {@code deductWithQuota} 不在默认压测的接口中：实例租借出去、还没有结算的配额只记在 {@code leased} 中，
+ * 结算之前 {@code count + leased} 包含了已经扣减的部分。进程内压测时，压测前后都会结算应用内的配额再校验；
+ * 压测已启动的实例时无法结算，需要等实例的租约（{@code stock.quota.lease-millis}）到期之后再校验，校验结果仅供参考。
+ * <p>
+ * 可用的系统属性：
+ * <pre>
+ *     -Dload.baseUrl=http://localhost:10010   压测已启动的实例，不配置则在进程内以 H2 启动应用
+ *     -Dload.jdbcUrl=jdbc:mysql://...          校验库存使用的数据库，压测已启动的实例时必须配置
+ *     -Dload.jdbcUser=root -Dload.jdbcPassword=root
+ *     -Dload.threads=100 -Dload.loops=50       并发线程数、每个线程循环次数
+ *     -Dload.endpoints=mysqlSingletonPatternDbLock,mysqlTransactionalDbLockForUpdate   压测的接口
+ *     -Dload.productCode=1001
+ *     -Dload.failOnInconsistency=true          库存校验不通过时以退出码 1 结束（未加锁等演示失效的接口本身就会校验不通过）
+ * </pre>
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class StockLoadDriver {
+
+    private static final String DEFAULT_JDBC_URL = "jdbc:h2:mem:distributed_lock_samples;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    /**
+     * 默认压测的接口：所有基于数据库扣减库存的接口
+     */
+    private static final String DEFAULT_ENDPOINTS = String.join(",",
+            "baseMysqlDeductWithoutLock",
+            "baseMysqlDeductWithSynchronizedLock",
+            "baseMysqlDeductWithReentrantLock",
+            "transactionalBaseMysqlDeductWithSynchronizedLock",
+            "transactionalBaseMysqlDeductWithReentrantLock",
+            "mysqlSingletonPatternDbLock",
+            "mysqlSingletonPatternDbLockGroupCommit",
+            "mysqlPrototypePatternDbLock",
+            "mysqlTransactionalDbLock",
+            "mysqlTransactionalDbLockForUpdate",
+            "optimisticLockStockDeductWithNonAnnotatedVersion",
+            "optimisticLockStockDeductWithAnnotatedVersion",
+            "optimisticLockStockDeductWithTimestamp",
+            "baseMysqlDeductWithDistributedLock",
+            "async/baseMysqlDeductWithReentrantLock",
+            "async/baseMysqlDeductWithDistributedLock");
+
+    /**
+     * 延迟记录上限 60 秒，精度 3 位有效数字
+     */
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final String baseUrl;
+    private final String jdbcUrl;
+    private final String jdbcUser;
+    private final String jdbcPassword;
+    private final int threads;
+    private final int loops;
+    private final String productCode;
+    /**
+     * 进程内启动应用时应用内的配额分配器，压测已启动的实例时为 null
+     */
+    private final StockQuotaAllocator stockQuotaAllocator;
+
+    StockLoadDriver(String baseUrl, String jdbcUrl, String jdbcUser, String jdbcPassword, int threads, int loops, String productCode,
+                    StockQuotaAllocator stockQuotaAllocator) {
+        this.baseUrl = baseUrl;
+        this.jdbcUrl = jdbcUrl;
+        this.jdbcUser = jdbcUser;
+        this.jdbcPassword = jdbcPassword;
+        this.threads = threads;
+        this.loops = loops;
+        this.productCode = productCode;
+        this.stockQuotaAllocator = stockQuotaAllocator;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.baseUrl", "");
+        ConfigurableApplicationContext context = null;
+        int exitCode = 0;
+        if (baseUrl.isEmpty()) {
+            context = new SpringApplicationBuilder(DistributedLockSamplesApplication.class)
+                    .profiles("benchmark")
+                    // benchmark 配置中关闭了 web 容器，以命令行参数（优先级高于配置文件）重新打开
+                    .run("--spring.main.web-application-type=servlet", "--server.port=0");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            final StockLoadDriver driver = new StockLoadDriver(baseUrl,
+                    System.getProperty("load.jdbcUrl", DEFAULT_JDBC_URL),
+                    System.getProperty("load.jdbcUser", "sa"),
+                    System.getProperty("load.jdbcPassword", ""),
+                    Integer.getInteger("load.threads", 100),
+                    Integer.getInteger("load.loops", 50),
+                    System.getProperty("load.productCode", "1001"),
+                    null == context ? null : context.getBean(StockQuotaAllocator.class));
+            final List<Report> reports = new ArrayList<>();
+            for (String endpoint : System.getProperty("load.endpoints", DEFAULT_ENDPOINTS).split(",")) {
+                reports.add(driver.run(endpoint.trim()));
+            }
+            print(reports);
+            if (Boolean.getBoolean("load.failOnInconsistency") && reports.stream().anyMatch(report -> !report.consistent())) {
+                exitCode = 1;
+            }
+        } finally {
+            if (null != context) {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * 压测单个接口
+     *
+     * @param endpoint 接口名（{@code /stock/} 之后的部分）
+     * @return 压测报告
+     */
+    Report run(String endpoint) throws SQLException, InterruptedException {
+        final int total = this.threads * this.loops;
+        // 丢弃上一轮留在内存中的配额，重置库存之后重新租借
+        settleQuota();
+        setStock(total);
+
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final AtomicInteger succeeded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final String url = this.baseUrl + "/stock/" + endpoint + "?productCode=" + this.productCode;
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        final CountDownLatch done = new CountDownLatch(this.threads);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < this.threads; i++) {
+            executor.execute(() -> {
+                try {
+                    for (int loop = 0; loop < this.loops; loop++) {
+                        final long begin = System.nanoTime();
+                        final boolean ok = get(url);
+                        histogram.recordValue(Math.min(System.nanoTime() - begin, HIGHEST_TRACKABLE_NANOS));
+                        (ok ? succeeded : failed).incrementAndGet();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        final long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        settleQuota();
+        return new Report(endpoint, total, succeeded.get(), failed.get(), elapsedNanos, histogram, total, getStock());
+    }
+
+    private static boolean get(String url) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(60000);
+            final int status = connection.getResponseCode();
+            // 读完响应体，保证连接可以复用
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (null != in) {
+                    while (in.read() != -1) {
+                        // drain
+                    }
+                }
+            }
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (null != connection) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private void settleQuota() {
+        if (null != this.stockQuotaAllocator) {
+            this.stockQuotaAllocator.settle(this.productCode);
+        }
+    }
+
+    /**
+     * 重置库存：全部放在 id 最小的一行，其他仓库清零，未结算的配额清零
+     *
+     * @param count 库存数量
+     */
+    private void setStock(int count) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(this.jdbcUrl, this.jdbcUser, this.jdbcPassword);
+             PreparedStatement reset = connection.prepareStatement("UPDATE tb_stock SET count = 0, leased = 0 WHERE product_code = ?");
+             PreparedStatement query = connection.prepareStatement("SELECT MIN(id) FROM tb_stock WHERE product_code = ?");
+             PreparedStatement update = connection.prepareStatement("UPDATE tb_stock SET count = ? WHERE id = ?")) {
+            connection.setAutoCommit(false);
+            reset.setString(1, this.productCode);
+            reset.executeUpdate();
+            query.setString(1, this.productCode);
+            try (ResultSet resultSet = query.executeQuery()) {
+                if (!resultSet.next() || resultSet.getObject(1) == null) {
+                    throw new IllegalStateException("商品 " + this.productCode + " 没有库存记录！");
+                }
+                update.setInt(1, count);
+                update.setLong(2, resultSet.getLong(1));
+            }
+            update.executeUpdate();
+            connection.commit();
+        }
+    }
+
+    private int getStock() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(this.jdbcUrl, this.jdbcUser, this.jdbcPassword);
+             PreparedStatement statement = connection.prepareStatement("SELECT SUM(count + leased) FROM tb_stock WHERE product_code = ?")) {
+            statement.setString(1, this.productCode);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static void print(List<Report> reports) {
+        System.out.println();
+        System.out.printf("%-50s %8s %8s %12s %9s %9s %9s %9s %9s %8s %8s %s%n",
+                "Endpoint", "Requests", "Errors", "Throughput", "p50(ms)", "p90(ms)", "p99(ms)", "p999(ms)", "max(ms)",
+                "Expected", "Actual", "Result");
+        System.out.println(reports.stream().map(Report::toString).collect(Collectors.joining(System.lineSeparator())));
+    }
+
+    /**
+     * 单个接口的压测报告
+     */
+    static class Report {
+        private final String endpoint;
+        private final int requests;
+        private final int succeeded;
+        private final int failed;
+        private final long elapsedNanos;
+        private final Histogram histogram;
+        private final int initialStock;
+        private final int finalStock;
+
+        Report(String endpoint, int requests, int succeeded, int failed, long elapsedNanos, Histogram histogram, int initialStock, int finalStock) {
+            this.endpoint = endpoint;
+            this.requests = requests;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+            this.histogram = histogram;
+            this.initialStock = initialStock;
+            this.finalStock = finalStock;
+        }
+
+        int expectedStock() {
+            return this.initialStock - this.succeeded;
+        }
+
+        boolean consistent() {
+            return this.finalStock == expectedStock();
+        }
+
+        @Override
+        public String toString() {
+            final double throughput = this.requests / (this.elapsedNanos / 1e9);
+            return String.format("%-50s %8d %8d %10.1f/s %9.2f %9.2f %9.2f %9.2f %9.2f %8d %8d %s",
+                    this.endpoint, this.requests, this.failed, throughput,
+                    millis(this.histogram.getValueAtPercentile(50)),
+                    millis(this.histogram.getValueAtPercentile(90)),
+                    millis(this.histogram.getValueAtPercentile(99)),
+                    millis(this.histogram.getValueAtPercentile(99.9)),
+                    millis(this.histogram.getMaxValue()),
+                    expectedStock(), this.finalStock,
+                    consistent() ? "OK" : (this.finalStock > expectedStock() ? "OVERSOLD" : "OVER-DEDUCTED"));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
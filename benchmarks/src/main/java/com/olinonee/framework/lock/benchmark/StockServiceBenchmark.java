@@ -0,0 +1,181 @@
+package com.olinonee.framework.lock.benchmark;
+
+import cn.hutool.core.util.IdUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.olinonee.framework.lock.benchmark.StockBenchmarkState.PRODUCT_CODE;
+
+/**
+ * {@code service.impl} 下各个减库存策略的基准测试
+ * <p>
+ * 同时统计吞吐量（Throughput）和延迟分布（SampleTime，含 p99），线程数由 {@link StockBenchmarkRunner} 扫描
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockServiceBenchmark {
+
+    // ---------------- JVM 本地锁（内存库存） ----------------
+
+    @Benchmark
+    public void inMemorySynchronized(StockBenchmarkState state) {
+        state.singletonPatternStockService.deductWithSynchronizedLock();
+    }
+
+    @Benchmark
+    public void inMemoryReentrantLock(StockBenchmarkState state) {
+        state.singletonPatternStockService.deductWithReentrantLock();
+    }
+
+    // ---------------- JVM 本地锁 + MP 查询修改 ----------------
+
+    @Benchmark
+    public void mysqlSynchronized(StockBenchmarkState state) {
+        state.singletonPatternStockService.baseMysqlDeductWithSynchronizedLock(PRODUCT_CODE);
+    }
+
+    @Benchmark
+    public void mysqlReentrantLock(StockBenchmarkState state) {
+        state.singletonPatternStockService.baseMysqlDeductWithReentrantLock(PRODUCT_CODE);
+    }
+
+    /**
+     * 和 {@link #mysqlReentrantLock} 对比：预定义 SQL，不构造 LambdaQueryWrapper，锁外采样异步审计日志
+     */
+    @Benchmark
+    public void leanReentrantLock(StockBenchmarkState state) {
+        state.leanStockService.deductLean(PRODUCT_CODE);
+    }
+
+    @Benchmark
+    public void transactionalReentrantLock(StockBenchmarkState state) {
+        state.transactionalStockService.baseMysqlDeductWithReentrantLock(PRODUCT_CODE);
+    }
+
+    // ---------------- SQL 原子性（updateStock） ----------------
+
+    @Benchmark
+    public void singletonDbLock(StockBenchmarkState state) {
+        state.singletonPatternDbLockStockService.deductWithDbLock();
+    }
+
+    @Benchmark
+    public void singletonDbLockGroupCommit(StockBenchmarkState state) {
+        state.singletonPatternDbLockStockService.deductWithGroupCommit();
+    }
+
+    @Benchmark
+    public void prototypeDbLock(StockBenchmarkState state) {
+        state.prototypePatternDbLockStockService.deductWithDbLock();
+    }
+
+    @Benchmark
+    public void transactionalDbLock(StockBenchmarkState state) {
+        state.transactionalDbLockStockService.deductWithDbLock();
+    }
+
+    // ---------------- 悲观锁（queryStockForUpdate） ----------------
+
+    @Benchmark
+    public void transactionalForUpdate(StockBenchmarkState state) {
+        state.transactionalDbLockStockService.deductWithDbLockForUpdate();
+    }
+
+    // ---------------- 乐观锁 ----------------
+
+    @Benchmark
+    public void optimisticNonAnnotatedVersion(StockBenchmarkState state) {
+        state.optimisticLockStockService.deductWithNonAnnotatedVersion();
+    }
+
+    @Benchmark
+    public void optimisticAnnotatedVersion(StockBenchmarkState state) {
+        state.optimisticLockStockService.deductWithAnnotatedVersion();
+    }
+
+    @Benchmark
+    public void optimisticTimestamp(StockBenchmarkState state) {
+        state.optimisticLockStockService.deductWithTimestamp();
+    }
+
+    // ---------------- 分布式锁 ----------------
+
+    @Benchmark
+    public void distributedLock(StockBenchmarkState state) {
+        state.distributedLockStockService.baseMysqlDeductWithDistributedLock(PRODUCT_CODE);
+    }
+
+    /**
+     * 和 {@link #distributedLock}（MySQL 锁表）对比：同样的查询、修改流程，远端锁换成 ZooKeeper 临时顺序节点
+     */
+    @Benchmark
+    public void zookeeperLock(ZookeeperBenchmarkState state) {
+        state.distributedLockStockService.baseMysqlDeductWithDistributedLock(PRODUCT_CODE);
+    }
+
+    /**
+     * 和 {@link #transactionalForUpdate} 对比：锁不依赖数据行和业务事务，远端锁换成锁专用连接上的 MySQL 命名锁（GET_LOCK）
+     */
+    @Benchmark
+    public void mysqlNamedLock(MysqlNamedLockBenchmarkState state) {
+        state.distributedLockStockService.baseMysqlDeductWithDistributedLock(PRODUCT_CODE);
+    }
+
+    // ---------------- 实例级库存配额 ----------------
+
+    @Benchmark
+    public void quota(StockBenchmarkState state) {
+        state.quotaStockService.deductWithQuota(PRODUCT_CODE);
+    }
+
+    // ---------------- write-behind（内存扣减 + 日志） ----------------
+
+    @Benchmark
+    public void writeBehind(StockBenchmarkState state) {
+        state.writeBehindStockService.deductWithWriteBehind(PRODUCT_CODE);
+    }
+
+    // ---------------- 订单多商品（按商品编号顺序加锁） ----------------
+
+    @Benchmark
+    public void order(StockBenchmarkState state) {
+        state.orderStockService.deductOrder(StockBenchmarkState.ORDER_LINES);
+    }
+
+    // ---------------- 热点商品库存槽位 ----------------
+
+    @Benchmark
+    public void slots(StockBenchmarkState state) {
+        state.slotStockService.deductWithSlots(StockBenchmarkState.SLOT_PRODUCT_CODE);
+    }
+
+    // ---------------- 幂等减库存（去重表 + 布隆过滤器） ----------------
+
+    @Benchmark
+    public void idempotent(StockBenchmarkState state) {
+        state.idempotentStockService.deductIdempotent(IdUtil.fastSimpleUUID(), PRODUCT_CODE);
+    }
+
+    // ---------------- 库存流水账本（批量追加流水，不修改库存行） ----------------
+
+    @Benchmark
+    public void ledger(StockBenchmarkState state) {
+        state.ledgerStockService.deductWithLedger(null, PRODUCT_CODE);
+    }
+
+    // ---------------- 按热点自动路由（基准测试没有 web 拦截器，这里代替拦截器统计访问次数） ----------------
+
+    @Benchmark
+    public void hotRouting(StockBenchmarkState state) {
+        state.hotProductDetector.record(PRODUCT_CODE);
+        state.hotRoutingStockService.deductWithHotRouting(PRODUCT_CODE);
+    }
+}
@@ -0,0 +1,58 @@
+package com.olinonee.framework.lock.benchmark;
+
+import com.olinonee.framework.lock.DistributedLockSamplesApplication;
+import com.olinonee.framework.lock.service.IDistributedLockStockService;
+import org.apache.curator.test.TestingServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+
+/**
+ * ZooKeeper 分布式锁基准测试的状态：启动进程内的 ZooKeeper 服务端，
+ * 再以 {@code stock.distributed-lock.type=zookeeper} 启动 Spring 容器，其余配置和 {@link StockBenchmarkState} 相同
+ * <p>
+ * 分别测试有无本地锁交接（local-handoff）两种情况，没有交接时每次加解锁都是一次 ZooKeeper 写请求（创建、删除临时顺序节点）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+public class ZookeeperBenchmarkState {
+
+    @Param({"true", "false"})
+    String localHandoff;
+
+    TestingServer server;
+    ConfigurableApplicationContext context;
+    JdbcTemplate jdbcTemplate;
+
+    IDistributedLockStockService distributedLockStockService;
+
+    @Setup(Level.Trial)
+    public void startContext() throws Exception {
+        this.server = new TestingServer();
+        this.context = new SpringApplicationBuilder(DistributedLockSamplesApplication.class)
+                .profiles("benchmark")
+                .properties("stock.distributed-lock.type=zookeeper",
+                        "stock.distributed-lock.local-handoff=" + this.localHandoff,
+                        "stock.distributed-lock.zookeeper.connect-string=" + this.server.getConnectString())
+                .run();
+        this.jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        this.distributedLockStockService = this.context.getBean(IDistributedLockStockService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        this.jdbcTemplate.update("UPDATE tb_stock SET count = ?, version = 0", StockBenchmarkState.INITIAL_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() throws IOException {
+        this.context.close();
+        this.server.close();
+    }
+}
@@ -26,12 +26,80 @@ CREATE TABLE `tb_stock`  (
   `product_code` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '商品编号',
   `warehouse` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '仓库',
   `count` int(0) NOT NULL COMMENT '库存数量',
-  PRIMARY KEY (`id`) USING BTREE
-) ENGINE = InnoDB AUTO_INCREMENT = 2 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = Dynamic;
+  `leased` int(0) NOT NULL DEFAULT 0 COMMENT '实例租借出去、尚未结算的配额',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_product_code`(`product_code`) USING BTREE
+) ENGINE = InnoDB AUTO_INCREMENT = 7 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = Dynamic;
 
 -- ----------------------------
 -- Records of tb_stock
 -- ----------------------------
-INSERT INTO `tb_stock` VALUES (1, '1001', '北京仓', 5000);
+INSERT INTO `tb_stock` VALUES (1, '1001', '北京仓', 5000, 0);
+INSERT INTO `tb_stock` VALUES (2, '1002', '北京仓', 5000, 0);
+INSERT INTO `tb_stock` VALUES (3, '1003', '北京仓', 5000, 0);
+INSERT INTO `tb_stock` VALUES (4, '2001', '北京仓', 5000, 0);
+INSERT INTO `tb_stock` VALUES (5, '2001', '上海仓', 5000, 0);
+INSERT INTO `tb_stock` VALUES (6, '2001', '广州仓', 5000, 0);
+
+-- ----------------------------
+-- Table structure for tb_distributed_lock
+-- ----------------------------
+DROP TABLE IF EXISTS `tb_distributed_lock`;
+CREATE TABLE `tb_distributed_lock`  (
+  `lock_key` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '锁的key',
+  `owner` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '锁持有者（实例id:线程id）',
+  `expire_time` datetime(3) NOT NULL COMMENT '租约过期时间',
+  PRIMARY KEY (`lock_key`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for tb_stock_journal_checkpoint
+-- ----------------------------
+DROP TABLE IF EXISTS `tb_stock_journal_checkpoint`;
+CREATE TABLE `tb_stock_journal_checkpoint`  (
+  `journal_id` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '日志id',
+  `epoch` bigint(0) NOT NULL COMMENT '日志文件轮次',
+  `flushed_offset` bigint(0) NOT NULL COMMENT '已同步到库存表的位置',
+  PRIMARY KEY (`journal_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for tb_stock_slot
+-- ----------------------------
+DROP TABLE IF EXISTS `tb_stock_slot`;
+CREATE TABLE `tb_stock_slot`  (
+  `product_code` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '商品编号',
+  `slot_no` int(0) NOT NULL COMMENT '槽位编号，从 0 开始',
+  `count` int(0) NOT NULL COMMENT '槽位库存数量',
+  PRIMARY KEY (`product_code`, `slot_no`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for tb_stock_request
+-- ----------------------------
+DROP TABLE IF EXISTS `tb_stock_request`;
+CREATE TABLE `tb_stock_request`  (
+  `request_id` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '请求id',
+  `product_code` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '商品编号',
+  `count` int(0) NOT NULL COMMENT '扣减数量',
+  `gmt_create` datetime(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
+  PRIMARY KEY (`request_id`) USING BTREE,
+  INDEX `idx_gmt_create`(`gmt_create`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for tb_stock_movement
+-- ----------------------------
+DROP TABLE IF EXISTS `tb_stock_movement`;
+CREATE TABLE `tb_stock_movement`  (
+  `id` bigint(0) NOT NULL AUTO_INCREMENT COMMENT '流水id',
+  `request_id` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL DEFAULT NULL COMMENT '请求id',
+  `product_code` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '商品编号',
+  `warehouse` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '仓库',
+  `delta` int(0) NOT NULL COMMENT '库存变化量，扣减为负数',
+  `gmt_create` datetime(3) NOT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_product_code_id`(`product_code`, `id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci ROW_FORMAT = Dynamic;
 
 SET FOREIGN_KEY_CHECKS = 1;
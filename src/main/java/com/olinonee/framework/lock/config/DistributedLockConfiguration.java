@@ -0,0 +1,155 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.distributed.DistributedLockFactory;
+import com.olinonee.framework.lock.distributed.LocalHandoffDistributedLockFactory;
+import com.olinonee.framework.lock.distributed.MysqlNamedDistributedLockFactory;
+import com.olinonee.framework.lock.distributed.MysqlTableDistributedLockFactory;
+import com.olinonee.framework.lock.distributed.OwnerAwareDistributedLockFactory;
+import com.olinonee.framework.lock.distributed.RedisDistributedLockFactory;
+import com.olinonee.framework.lock.distributed.SpringDataRedisLockClient;
+import com.olinonee.framework.lock.distributed.ZookeeperDistributedLockFactory;
+import com.olinonee.framework.lock.mapper.DistributedLockMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 分布式锁 配置类，通过 {@code stock.distributed-lock.type} 选择远端锁的实现，
+ * {@code stock.distributed-lock.local-handoff} 开启时（默认）在远端锁前面加一层本地锁
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class DistributedLockConfiguration {
+
+    /**
+     * 远端锁工厂的 bean 名称，不同实现同时只会启用一个
+     */
+    public static final String REMOTE_LOCK_FACTORY = "remoteDistributedLockFactory";
+
+    /**
+     * 两级分布式锁：本地锁 + 远端锁，本地排队的线程之间直接交接远端锁
+     *
+     * @param remoteDistributedLockFactory 远端锁工厂
+     * @param stockProperties              库存配置
+     * @return DistributedLockFactory
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "stock.distributed-lock", name = "local-handoff", havingValue = "true", matchIfMissing = true)
+    public DistributedLockFactory localHandoffDistributedLockFactory(@Qualifier(REMOTE_LOCK_FACTORY) OwnerAwareDistributedLockFactory remoteDistributedLockFactory,
+                                                                    StockProperties stockProperties) {
+        final StockProperties.DistributedLock distributedLock = stockProperties.getDistributedLock();
+        return new LocalHandoffDistributedLockFactory(remoteDistributedLockFactory, distributedLock.getMaxHandoffs(), distributedLock.getLeaseMillis());
+    }
+
+    /**
+     * 基于 MySQL 锁表的分布式锁（默认）
+     *
+     * @param distributedLockMapper 分布式锁表 mapper
+     * @param transactionManager    事务管理器
+     * @param stockProperties       库存配置
+     * @return MysqlTableDistributedLockFactory
+     */
+    @Bean(name = REMOTE_LOCK_FACTORY, destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "stock.distributed-lock", name = "type", havingValue = "mysql", matchIfMissing = true)
+    public MysqlTableDistributedLockFactory mysqlTableDistributedLockFactory(DistributedLockMapper distributedLockMapper,
+                                                                            PlatformTransactionManager transactionManager,
+                                                                            StockProperties stockProperties) {
+        return new MysqlTableDistributedLockFactory(distributedLockMapper, transactionManager,
+                stockProperties.getDistributedLock().getLeaseMillis());
+    }
+
+    /**
+     * 基于 MySQL 命名锁（GET_LOCK）的分布式锁，使用独立的连接池，连接参数和业务数据源相同，关闭时连接池随之关闭
+     *
+     * @param dataSourceProperties 数据源配置
+     * @param stockProperties      库存配置
+     * @return MysqlNamedDistributedLockFactory
+     */
+    @Bean(name = REMOTE_LOCK_FACTORY, destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "stock.distributed-lock", name = "type", havingValue = "mysql-named")
+    public MysqlNamedDistributedLockFactory mysqlNamedDistributedLockFactory(DataSourceProperties dataSourceProperties,
+                                                                            StockProperties stockProperties) {
+        final StockProperties.DistributedLock.MysqlNamed mysqlNamed = stockProperties.getDistributedLock().getMysqlNamed();
+        // 不注册成 bean，否则会替换掉自动配置的业务数据源
+        final HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("stock-named-lock-pool");
+        dataSource.setMaximumPoolSize(mysqlNamed.getSessions());
+        dataSource.setMinimumIdle(0);
+        return new MysqlNamedDistributedLockFactory(dataSource, mysqlNamed.getSessions(), mysqlNamed.getKeepaliveMillis());
+    }
+
+    /**
+     * 基于 Redis 的分布式锁
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "stock.distributed-lock", name = "type", havingValue = "redis")
+    public static class Redis {
+
+        /**
+         * 基于 Redis 的分布式锁工厂
+         *
+         * @param stringRedisTemplate redis 模板
+         * @param stockProperties     库存配置
+         * @return RedisDistributedLockFactory
+         */
+        @Bean(name = REMOTE_LOCK_FACTORY, destroyMethod = "shutdown")
+        public RedisDistributedLockFactory redisDistributedLockFactory(StringRedisTemplate stringRedisTemplate,
+                                                                       StockProperties stockProperties) {
+            return new RedisDistributedLockFactory(new SpringDataRedisLockClient(stringRedisTemplate),
+                    stockProperties.getDistributedLock().getLeaseMillis());
+        }
+
+        /**
+         * 订阅锁释放消息，唤醒本实例中等待的线程
+         *
+         * @param redisConnectionFactory      redis 连接工厂
+         * @param redisDistributedLockFactory 基于 Redis 的分布式锁工厂
+         * @return RedisMessageListenerContainer
+         */
+        @Bean
+        public RedisMessageListenerContainer redisLockReleaseListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                               RedisDistributedLockFactory redisDistributedLockFactory) {
+            final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(redisConnectionFactory);
+            container.addMessageListener((message, pattern) ->
+                            redisDistributedLockFactory.onReleaseMessage(new String(message.getChannel(), StandardCharsets.UTF_8)),
+                    new PatternTopic(RedisDistributedLockFactory.CHANNEL_PREFIX + "*"));
+            return container;
+        }
+    }
+
+    /**
+     * 基于 ZooKeeper 的分布式锁
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "stock.distributed-lock", name = "type", havingValue = "zookeeper")
+    public static class Zookeeper {
+
+        /**
+         * 基于 ZooKeeper 的分布式锁工厂，关闭时结束会话，本实例的锁节点随之删除
+         *
+         * @param stockProperties 库存配置
+         * @return ZookeeperDistributedLockFactory
+         */
+        @Bean(name = REMOTE_LOCK_FACTORY, destroyMethod = "shutdown")
+        public ZookeeperDistributedLockFactory zookeeperDistributedLockFactory(StockProperties stockProperties) {
+            final StockProperties.DistributedLock.Zookeeper zookeeper = stockProperties.getDistributedLock().getZookeeper();
+            return new ZookeeperDistributedLockFactory(zookeeper.getConnectString(), zookeeper.getSessionTimeoutMillis(), zookeeper.getRootPath());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.StockDeductionExecutor;
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 异步接口 配置类
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockAsyncConfiguration {
+
+    /**
+     * 没有配置线程数、也没有配置连接池大小时的默认线程数（HikariCP 默认的最大连接数）
+     */
+    private static final int DEFAULT_THREADS = 10;
+
+    /**
+     * 减库存专用线程池，线程数默认和 JDBC 连接池大小一致
+     *
+     * @param dataSource      数据源
+     * @param stockMetrics    减库存埋点
+     * @param meterRegistry   指标注册表
+     * @param stockProperties 库存配置
+     * @return StockDeductionExecutor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public StockDeductionExecutor stockDeductionExecutor(DataSource dataSource, StockMetrics stockMetrics,
+                                                         MeterRegistry meterRegistry, StockProperties stockProperties) {
+        final StockProperties.Async async = stockProperties.getAsync();
+        int threads = async.getThreads();
+        if (threads <= 0 && dataSource instanceof HikariDataSource) {
+            threads = ((HikariDataSource) dataSource).getMaximumPoolSize();
+        }
+        if (threads <= 0) {
+            // 连接池还没有初始化时最大连接数是 -1（未配置），按 HikariCP 的默认值
+            threads = DEFAULT_THREADS;
+        }
+        final StockDeductionExecutor executor = new StockDeductionExecutor(threads, async.getQueueCapacity(), stockMetrics);
+        Gauge.builder("stock.async.queue", executor, StockDeductionExecutor::getQueueSize).register(meterRegistry);
+        Gauge.builder("stock.async.active", executor, StockDeductionExecutor::getActiveCount).register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,33 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.StockAuditLogger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 减库存审计日志 配置类
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockAuditConfiguration {
+
+    /**
+     * 采样、异步输出的审计日志
+     *
+     * @param meterRegistry   指标注册表
+     * @param stockProperties 库存配置
+     * @return StockAuditLogger
+     */
+    @Bean(destroyMethod = "shutdown")
+    public StockAuditLogger stockAuditLogger(MeterRegistry meterRegistry, StockProperties stockProperties) {
+        final StockProperties.Audit audit = stockProperties.getAudit();
+        final StockAuditLogger stockAuditLogger = new StockAuditLogger(audit.getSampleRate(), audit.getQueueCapacity());
+        FunctionCounter.builder("stock.audit.dropped", stockAuditLogger, StockAuditLogger::getDropped).register(meterRegistry);
+        return stockAuditLogger;
+    }
+}
@@ -0,0 +1,31 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.support.StockDeductionBatcher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 减库存合并提交 配置类
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockBatchConfiguration {
+
+    /**
+     * 减库存合并提交器
+     *
+     * @param stockMapper     库存 mapper
+     * @param stockProperties 库存配置
+     * @return StockDeductionBatcher
+     */
+    @Bean(destroyMethod = "shutdown")
+    public StockDeductionBatcher stockDeductionBatcher(StockMapper stockMapper, StockProperties stockProperties) {
+        final StockProperties.Batch batch = stockProperties.getBatch();
+        return new StockDeductionBatcher(stockMapper, batch.getWindowMillis(), batch.getMaxSize(),
+                batch.getTimeoutMillis(), batch.getFlushThreads());
+    }
+}
@@ -0,0 +1,89 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.support.StockCacheInvalidationInterceptor;
+import com.olinonee.framework.lock.support.StockNearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 库存近端缓存 配置类，{@code stock.cache.broadcast} 开启时通过 Redis 发布订阅在实例之间广播失效消息
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockCacheConfiguration {
+
+    /**
+     * 失效消息的 Redis 频道
+     */
+    public static final String EVICT_CHANNEL = "stock:cache:evict";
+
+    /**
+     * 库存近端缓存
+     *
+     * @param stockMapper     库存 mapper
+     * @param meterRegistry   指标注册表
+     * @param stockProperties 库存配置
+     * @return StockNearCache
+     */
+    @Bean
+    public StockNearCache stockNearCache(StockMapper stockMapper, MeterRegistry meterRegistry, StockProperties stockProperties) {
+        final StockProperties.Cache cache = stockProperties.getCache();
+        final StockNearCache stockNearCache = new StockNearCache(stockMapper::selectTotalCount, cache.getMaximumSize(), cache.getTtlMillis());
+        CaffeineCacheMetrics.monitor(meterRegistry, stockNearCache.getCache(), "stock");
+        return stockNearCache;
+    }
+
+    /**
+     * 库存表写语句提交后失效缓存
+     *
+     * @param stockNearCacheProvider 库存近端缓存
+     * @return StockCacheInvalidationInterceptor
+     */
+    @Bean
+    public StockCacheInvalidationInterceptor stockCacheInvalidationInterceptor(ObjectProvider<StockNearCache> stockNearCacheProvider) {
+        return new StockCacheInvalidationInterceptor(stockNearCacheProvider);
+    }
+
+    /**
+     * 实例之间广播失效消息
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "stock.cache", name = "broadcast", havingValue = "true")
+    public static class Broadcast {
+
+        /**
+         * 订阅其他实例的失效消息，同时把本实例的失效消息发布出去
+         *
+         * @param redisConnectionFactory redis 连接工厂
+         * @param stringRedisTemplate    redis 模板
+         * @param stockNearCache         库存近端缓存
+         * @return RedisMessageListenerContainer
+         */
+        @Bean
+        public RedisMessageListenerContainer stockCacheEvictListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                              StringRedisTemplate stringRedisTemplate,
+                                                                              StockNearCache stockNearCache) {
+            stockNearCache.setBroadcaster(message -> stringRedisTemplate.convertAndSend(EVICT_CHANNEL, message));
+            final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(redisConnectionFactory);
+            container.addMessageListener((message, pattern) ->
+                            stockNearCache.onEvictMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(EVICT_CHANNEL));
+            return container;
+        }
+    }
+}
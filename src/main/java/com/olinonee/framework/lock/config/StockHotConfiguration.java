@@ -0,0 +1,57 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.HotProductDetector;
+import com.olinonee.framework.lock.support.HotProductHandlerInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 热点商品探测 配置类
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockHotConfiguration {
+
+    /**
+     * 热点商品探测器，当前热点商品数通过 {@code stock.hot.products} 指标暴露
+     *
+     * @param meterRegistry   指标注册表
+     * @param stockProperties 库存配置
+     * @return HotProductDetector
+     */
+    @Bean(destroyMethod = "shutdown")
+    public HotProductDetector hotProductDetector(MeterRegistry meterRegistry, StockProperties stockProperties) {
+        final StockProperties.Hot hot = stockProperties.getHot();
+        final HotProductDetector detector = new HotProductDetector(hot.getWindowMillis(), hot.getBuckets(), hot.getThreshold(),
+                hot.getCoolRatio(), hot.getTopK(), hot.getSketchWidth(), hot.getSketchDepth());
+        Gauge.builder("stock.hot.products", detector, HotProductDetector::getHotCount).register(meterRegistry);
+        return detector;
+    }
+
+    /**
+     * 为减库存接口注册热点统计拦截器
+     *
+     * @param hotProductDetector 热点商品探测器
+     * @param stockProperties    库存配置
+     * @return WebMvcConfigurer
+     */
+    @Bean
+    public WebMvcConfigurer hotProductWebMvcConfigurer(HotProductDetector hotProductDetector, StockProperties stockProperties) {
+        final StockProperties.Hot hot = stockProperties.getHot();
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HotProductHandlerInterceptor(hotProductDetector))
+                        .addPathPatterns(hot.getPathPatterns())
+                        .excludePathPatterns(hot.getExcludePathPatterns());
+            }
+        };
+    }
+}
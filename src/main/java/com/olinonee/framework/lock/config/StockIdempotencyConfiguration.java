@@ -0,0 +1,40 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.mapper.StockRequestMapper;
+import com.olinonee.framework.lock.support.StockRequestDeduplicator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 幂等减库存 配置类
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockIdempotencyConfiguration {
+
+    /**
+     * 减库存请求去重（去重表 + 布隆过滤器）
+     *
+     * @param stockRequestMapper 去重表 mapper
+     * @param meterRegistry      指标注册表
+     * @param stockProperties    库存配置
+     * @return StockRequestDeduplicator
+     */
+    @Bean(destroyMethod = "shutdown")
+    public StockRequestDeduplicator stockRequestDeduplicator(StockRequestMapper stockRequestMapper, MeterRegistry meterRegistry,
+                                                             StockProperties stockProperties) {
+        final StockProperties.Idempotency idempotency = stockProperties.getIdempotency();
+        final StockRequestDeduplicator deduplicator = new StockRequestDeduplicator(stockRequestMapper, idempotency.getExpectedInsertions(),
+                idempotency.getFpp(), idempotency.getWindowMillis(), idempotency.getRetentionMillis());
+        FunctionCounter.builder("stock.idempotency.lookups", deduplicator, StockRequestDeduplicator::getLookups)
+                .tag("result", "queried").register(meterRegistry);
+        FunctionCounter.builder("stock.idempotency.lookups", deduplicator, StockRequestDeduplicator::getSkippedLookups)
+                .tag("result", "skipped").register(meterRegistry);
+        return deduplicator;
+    }
+}
@@ -0,0 +1,47 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.mapper.StockJournalCheckpointMapper;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.mapper.StockMovementMapper;
+import com.olinonee.framework.lock.support.StockLedger;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 库存流水账本 配置类，{@code stock.ledger.enabled=true} 时生效
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "stock.ledger", name = "enabled", havingValue = "true")
+public class StockLedgerConfiguration {
+
+    /**
+     * 库存流水账本，启动时初始化检查点，关闭时提交队列中剩余的流水；必须在数据库初始化（建表脚本）之后启动
+     *
+     * @param sqlSessionFactory            SqlSessionFactory（批量插入）
+     * @param stockMapper                  库存 mapper
+     * @param stockMovementMapper          库存流水 mapper
+     * @param stockJournalCheckpointMapper 检查点 mapper
+     * @param transactionManager           事务管理器
+     * @param stockProperties              库存配置
+     * @return StockLedger
+     */
+    @DependsOnDatabaseInitialization
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public StockLedger stockLedger(SqlSessionFactory sqlSessionFactory, StockMapper stockMapper, StockMovementMapper stockMovementMapper,
+                                   StockJournalCheckpointMapper stockJournalCheckpointMapper, PlatformTransactionManager transactionManager,
+                                   StockProperties stockProperties) {
+        final StockProperties.Ledger ledger = stockProperties.getLedger();
+        return new StockLedger(sqlSessionFactory, stockMapper, stockMovementMapper, stockJournalCheckpointMapper,
+                new TransactionTemplate(transactionManager), ledger.getMaxBatchSize(), ledger.getTimeoutMillis(),
+                ledger.getSnapshotIntervalMillis(), ledger.getSnapshotLagMillis());
+    }
+}
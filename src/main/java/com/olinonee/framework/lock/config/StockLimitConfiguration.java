@@ -0,0 +1,57 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.AdaptiveConcurrencyLimiter;
+import com.olinonee.framework.lock.support.StockConcurrencyLimitHandlerInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 库存接口自适应并发限制 配置类，{@code stock.limit.enabled=false} 时关闭
+ * <pre>
+ *     stock.limit            当前并发限制，带 endpoint 标签
+ *     stock.limit.inflight   正在处理的请求数
+ *     stock.limit.rejected   超过限制被拒绝的请求数
+ * </pre>
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "stock.limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StockLimitConfiguration {
+
+    /**
+     * 为库存接口注册并发限制拦截器，排在埋点拦截器之前，被拒绝的请求不计入减库存耗时
+     *
+     * @param meterRegistry   指标注册表
+     * @param stockProperties 库存配置
+     * @return WebMvcConfigurer
+     */
+    @Bean
+    public WebMvcConfigurer stockLimitWebMvcConfigurer(MeterRegistry meterRegistry, StockProperties stockProperties) {
+        final StockProperties.Limit limit = stockProperties.getLimit();
+        final StockConcurrencyLimitHandlerInterceptor interceptor = new StockConcurrencyLimitHandlerInterceptor(endpoint -> {
+            final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limit.getInitialLimit(), limit.getMinLimit(),
+                    limit.getMaxLimit(), limit.getTolerance(), limit.getSmoothing(), limit.getBackoffRatio(),
+                    limit.getWindowSamples(), limit.getProbeWindows());
+            Gauge.builder("stock.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).tag("endpoint", endpoint).register(meterRegistry);
+            Gauge.builder("stock.limit.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight).tag("endpoint", endpoint).register(meterRegistry);
+            FunctionCounter.builder("stock.limit.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected).tag("endpoint", endpoint).register(meterRegistry);
+            return limiter;
+        });
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns(limit.getPathPatterns()).order(Ordered.HIGHEST_PRECEDENCE + 1);
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.LockDeadlockDetector;
+import com.olinonee.framework.lock.support.StripedLockRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 库存锁 配置类
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockLockConfiguration {
+
+    /**
+     * 按商品编号分段的 JVM 本地锁注册表
+     *
+     * @param stockProperties 库存配置
+     * @return StripedLockRegistry
+     */
+    @Bean
+    public StripedLockRegistry stripedLockRegistry(StockProperties stockProperties) {
+        return new StripedLockRegistry(stockProperties.getLock().getStripes());
+    }
+
+    /**
+     * 按商品编号加锁时的死锁检测器
+     *
+     * @param meterRegistry   指标注册表
+     * @param stockProperties 库存配置
+     * @return LockDeadlockDetector
+     */
+    @Bean(destroyMethod = "shutdown")
+    public LockDeadlockDetector lockDeadlockDetector(MeterRegistry meterRegistry, StockProperties stockProperties) {
+        final LockDeadlockDetector detector = new LockDeadlockDetector(stockProperties.getLock().getDeadlockScanMillis());
+        FunctionCounter.builder("stock.lock.deadlocks", detector, LockDeadlockDetector::getDetectedCount).register(meterRegistry);
+        return detector;
+    }
+}
@@ -0,0 +1,60 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.olinonee.framework.lock.support.StockMetricsHandlerInterceptor;
+import com.olinonee.framework.lock.support.StockStatementMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 减库存埋点 配置类，指标通过 actuator 的 {@code /actuator/prometheus} 端点暴露
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockMetricsConfiguration {
+
+    /**
+     * 减库存埋点
+     *
+     * @param meterRegistry   指标注册表
+     * @param stockProperties 库存配置
+     * @return StockMetrics
+     */
+    @Bean
+    public StockMetrics stockMetrics(MeterRegistry meterRegistry, StockProperties stockProperties) {
+        return new StockMetrics(meterRegistry, stockProperties.getMetrics().getProductBuckets());
+    }
+
+    /**
+     * SQL 执行耗时统计插件，mybatis-plus 会自动注册容器中的插件
+     *
+     * @param stockMetrics 减库存埋点
+     * @return StockStatementMetricsInterceptor
+     */
+    @Bean
+    public StockStatementMetricsInterceptor stockStatementMetricsInterceptor(StockMetrics stockMetrics) {
+        return new StockStatementMetricsInterceptor(stockMetrics);
+    }
+
+    /**
+     * 为库存接口注册埋点拦截器
+     *
+     * @param stockMetrics 减库存埋点
+     * @return WebMvcConfigurer
+     */
+    @Bean
+    public WebMvcConfigurer stockMetricsWebMvcConfigurer(StockMetrics stockMetrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new StockMetricsHandlerInterceptor(stockMetrics)).addPathPatterns("/stock/**");
+            }
+        };
+    }
+}
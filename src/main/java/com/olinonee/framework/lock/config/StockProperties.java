@@ -0,0 +1,484 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.OptimisticRetryTemplate;
+import com.olinonee.framework.lock.support.StockWriteBehindJournal;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 库存相关配置项，统一使用 {@code stock} 前缀
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "stock")
+public class StockProperties {
+
+    /**
+     * JVM 本地锁配置
+     */
+    private Lock lock = new Lock();
+
+    /**
+     * 合并提交（group commit）配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 乐观锁重试配置
+     */
+    private Retry retry = new Retry();
+
+    /**
+     * 埋点配置
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * 分布式锁配置
+     */
+    private DistributedLock distributedLock = new DistributedLock();
+
+    /**
+     * 实例级库存配额配置
+     */
+    private Quota quota = new Quota();
+
+    /**
+     * write-behind 模式配置
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 异步接口配置
+     */
+    private Async async = new Async();
+
+    /**
+     * 多仓库存分配配置
+     */
+    private Allocation allocation = new Allocation();
+
+    /**
+     * 热点商品库存槽位配置
+     */
+    private Slot slot = new Slot();
+
+    /**
+     * 库存近端缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 减库存审计日志配置
+     */
+    private Audit audit = new Audit();
+
+    /**
+     * 幂等减库存配置
+     */
+    private Idempotency idempotency = new Idempotency();
+
+    /**
+     * 库存流水账本配置
+     */
+    private Ledger ledger = new Ledger();
+
+    /**
+     * 库存接口自适应并发限制配置
+     */
+    private Limit limit = new Limit();
+
+    /**
+     * 热点商品探测配置
+     */
+    private Hot hot = new Hot();
+
+    /**
+     * 售罄标记配置
+     */
+    private SoldOut soldOut = new SoldOut();
+
+    @Data
+    public static class Lock {
+        /**
+         * 分段锁的段数，会向上取整为 2 的幂，段数固定，因此内存占用不会随商品数量增长
+         */
+        private int stripes = 64;
+        /**
+         * ThreadMXBean 兜底死锁检测的间隔（毫秒），小于等于 0 表示只做等待图检测
+         */
+        private long deadlockScanMillis = 1000;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * 合并窗口（毫秒），窗口内同一商品的请求合并成一条 UPDATE
+         */
+        private long windowMillis = 2;
+        /**
+         * 单批最大请求数，凑满立即提交
+         */
+        private int maxSize = 100;
+        /**
+         * 调用方等待批次提交结果的超时时间（毫秒）
+         */
+        private long timeoutMillis = 3000;
+        /**
+         * 提交线程数
+         */
+        private int flushThreads = 2;
+    }
+
+    @Data
+    public static class Retry {
+        /**
+         * 最大尝试次数（含第一次）
+         */
+        private int maxAttempts = 10;
+        /**
+         * 第一次重试的退避时间上限（毫秒），之后每次翻倍
+         */
+        private long initialBackoffMillis = 5;
+        /**
+         * 退避时间上限（毫秒）
+         */
+        private long maxBackoffMillis = 100;
+        /**
+         * 超过最大尝试次数之后的处理策略
+         */
+        private OptimisticRetryTemplate.GiveUpPolicy giveUpPolicy = OptimisticRetryTemplate.GiveUpPolicy.FAIL;
+    }
+
+    @Data
+    public static class Metrics {
+        /**
+         * 商品编号按哈希分桶后作为指标标签，控制指标基数
+         */
+        private int productBuckets = 16;
+    }
+
+    @Data
+    public static class DistributedLock {
+        /**
+         * 分布式锁实现：mysql（锁表 + 看门狗续期）、mysql-named（GET_LOCK 命名锁）、redis（SET NX PX + 看门狗续期）、zookeeper（临时顺序节点）
+         */
+        private String type = "mysql";
+        /**
+         * 租约时间（毫秒），持有者宕机后超过该时间锁自动失效（mysql、redis 实现持有期间每隔 1/3 租约时间自动续期）
+         */
+        private long leaseMillis = 30000;
+        /**
+         * 是否在远端锁前面加一层本地锁，同一实例内只有一个线程去竞争远端锁
+         */
+        private boolean localHandoff = true;
+        /**
+         * 远端锁在本地线程之间连续交接的次数上限，达到上限后释放远端锁，避免其他实例饿死
+         */
+        private int maxHandoffs = 16;
+        /**
+         * zookeeper 实现的配置
+         */
+        private Zookeeper zookeeper = new Zookeeper();
+        /**
+         * mysql-named 实现的配置
+         */
+        private MysqlNamed mysqlNamed = new MysqlNamed();
+
+        @Data
+        public static class Zookeeper {
+            /**
+             * ZooKeeper 地址，多个地址用逗号分隔
+             */
+            private String connectString = "127.0.0.1:2181";
+            /**
+             * 会话超时时间（毫秒），实例宕机后超过该时间锁自动释放，要大于业务中可能出现的停顿（比如 Full GC）
+             */
+            private int sessionTimeoutMillis = 15000;
+            /**
+             * 锁节点的根路径
+             */
+            private String rootPath = "/distributed-lock-samples/locks";
+        }
+
+        @Data
+        public static class MysqlNamed {
+            /**
+             * 锁会话数，即锁专用连接池的连接数，每个会话可以同时持有多个锁
+             */
+            private int sessions = 4;
+            /**
+             * 会话保活间隔（毫秒），要小于 MySQL 的 wait_timeout
+             */
+            private long keepaliveMillis = 60000;
+        }
+    }
+
+    @Data
+    public static class Quota {
+        /**
+         * 每次从数据库租借的库存块大小
+         */
+        private int blockSize = 200;
+        /**
+         * 剩余配额低于该值时异步补充下一块
+         */
+        private int lowWatermark = 40;
+        /**
+         * 租约时间（毫秒），租借后超过该时间结算配额，未用完的归还到数据库
+         */
+        private long leaseMillis = 60000;
+        /**
+         * 数据库库存耗尽后，间隔多久再去数据库检查（其他实例可能归还了配额）
+         */
+        private long exhaustedRecheckMillis = 1000;
+    }
+
+    @Data
+    public static class WriteBehind {
+        /**
+         * 是否开启 write-behind 模式，开启后这些商品的库存只能通过日志修改（单实例独占）
+         */
+        private boolean enabled = false;
+        /**
+         * 日志文件目录
+         */
+        private String journalDir = "journal";
+        /**
+         * 日志 id，同时也是日志文件名，每个实例需要不同
+         */
+        private String journalId = "stock";
+        /**
+         * 日志文件容量（字节），写满后同步到数据库并从头开始写
+         */
+        private int capacityBytes = 64 * 1024 * 1024;
+        /**
+         * 落盘方式：GROUP（等待落盘后返回）、INTERVAL（写入 mmap 即返回，按固定间隔落盘）
+         */
+        private StockWriteBehindJournal.SyncMode syncMode = StockWriteBehindJournal.SyncMode.GROUP;
+        /**
+         * INTERVAL 模式的落盘间隔（毫秒）
+         */
+        private long fsyncIntervalMillis = 10;
+        /**
+         * 同步到数据库的间隔（毫秒）
+         */
+        private long flushIntervalMillis = 200;
+    }
+
+    @Data
+    public static class Async {
+        /**
+         * 减库存线程数，小于等于 0 时取 JDBC 连接池的最大连接数
+         */
+        private int threads = 0;
+        /**
+         * 排队上限，队列满时接口返回 429
+         */
+        private int queueCapacity = 200;
+    }
+
+    @Data
+    public static class Allocation {
+        /**
+         * 仓库优先级，靠前的仓库优先发货，未配置的仓库排在最后（按 id 顺序）
+         */
+        private List<String> warehousePriority = new ArrayList<>();
+    }
+
+    @Data
+    public static class Slot {
+        /**
+         * 扣减时随机选择第一个尝试的槽位，false 表示按线程 id 哈希选择（同一线程总是从同一个槽位开始）
+         */
+        private boolean random = false;
+    }
+
+    @Data
+    public static class Cache {
+        /**
+         * 最多缓存的商品数
+         */
+        private long maximumSize = 10000;
+        /**
+         * 写入后的存活时间（毫秒），其他实例的修改最多延迟这么久可见
+         */
+        private long ttlMillis = 1000;
+        /**
+         * 是否通过 Redis 在实例之间广播失效消息
+         */
+        private boolean broadcast = false;
+    }
+
+    @Data
+    public static class Audit {
+        /**
+         * 采样比例，[0, 1]，0 表示不记录
+         */
+        private double sampleRate = 0.01;
+        /**
+         * 异步输出队列的容量，队列满时丢弃
+         */
+        private int queueCapacity = 1024;
+    }
+
+    @Data
+    public static class Idempotency {
+        /**
+         * 布隆过滤器每个窗口预计的请求数
+         */
+        private int expectedInsertions = 1_000_000;
+        /**
+         * 布隆过滤器误判率，误判只会多查一次去重表
+         */
+        private double fpp = 0.01;
+        /**
+         * 布隆过滤器的轮换窗口（毫秒），请求 id 在本实例中被记住一到两个窗口
+         */
+        private long windowMillis = 600000;
+        /**
+         * 去重记录的保留时间（毫秒），需要大于客户端的最长重试时间
+         */
+        private long retentionMillis = 86400000;
+    }
+
+    @Data
+    public static class Ledger {
+        /**
+         * 是否开启库存流水账本，开启后这些商品的扣减只能通过本实例的账本进行（单实例、单仓库商品）
+         */
+        private boolean enabled = false;
+        /**
+         * 每批最多插入的流水条数
+         */
+        private int maxBatchSize = 200;
+        /**
+         * 等待流水提交的超时时间（毫秒）
+         */
+        private long timeoutMillis = 3000;
+        /**
+         * 把流水合并到库存快照的间隔（毫秒）
+         */
+        private long snapshotIntervalMillis = 5000;
+        /**
+         * 只合并写入超过该时间（毫秒）的流水，需要大于流水批次的最长提交时间
+         */
+        private long snapshotLagMillis = 1000;
+    }
+
+    @Data
+    public static class Limit {
+        /**
+         * 是否开启
+         */
+        private boolean enabled = true;
+        /**
+         * 需要限制的接口，每个接口方法单独限制
+         */
+        private List<String> pathPatterns = new ArrayList<>(Collections.singletonList("/stock/**"));
+        /**
+         * 初始并发限制
+         */
+        private int initialLimit = 20;
+        /**
+         * 最小并发限制
+         */
+        private int minLimit = 2;
+        /**
+         * 最大并发限制
+         */
+        private int maxLimit = 200;
+        /**
+         * 耗时容忍倍数，耗时不超过无负载耗时的该倍数时不减小限制
+         */
+        private double tolerance = 2.0;
+        /**
+         * 平滑系数，(0, 1]，越大调整越快
+         */
+        private double smoothing = 0.2;
+        /**
+         * 请求失败时的乘性减小比例
+         */
+        private double backoffRatio = 0.9;
+        /**
+         * 每个窗口的样本数，每个窗口调整一次限制
+         */
+        private int windowSamples = 20;
+        /**
+         * 每隔多少个窗口重新测量无负载耗时
+         */
+        private int probeWindows = 500;
+    }
+
+    @Data
+    public static class Hot {
+        /**
+         * 滑动窗口长度（毫秒）
+         */
+        private long windowMillis = 10000;
+        /**
+         * 子窗口数，窗口每次滑动 windowMillis / buckets
+         */
+        private int buckets = 5;
+        /**
+         * 窗口内访问次数达到该值时标记为热点
+         */
+        private long threshold = 1000;
+        /**
+         * 访问次数低于 threshold * coolRatio 时取消热点标记
+         */
+        private double coolRatio = 0.5;
+        /**
+         * 维护访问次数最多的商品数
+         */
+        private int topK = 10;
+        /**
+         * count-min sketch 每行的计数器个数
+         */
+        private int sketchWidth = 2048;
+        /**
+         * count-min sketch 的行数
+         */
+        private int sketchDepth = 4;
+        /**
+         * 统计的减库存接口
+         */
+        private List<String> pathPatterns = new ArrayList<>(Collections.singletonList("/stock/**"));
+        /**
+         * 不统计的接口（查询、运维接口，以及没有 productCode 参数的接口）
+         */
+        private List<String> excludePathPatterns = new ArrayList<>(Arrays.asList(
+                "/stock/query*", "/stock/isAvailable", "/stock/*Slots", "/stock/snapshotLedger", "/stock/deductOrder", "/stock/restock"));
+    }
+
+    @Data
+    public static class SoldOut {
+        /**
+         * 售罄标记的有效期（毫秒），过期后重新访问数据库确认
+         */
+        private long ttlMillis = 1000;
+        /**
+         * 是否通过 Redis 在实例之间同步售罄标记
+         */
+        private boolean broadcast = false;
+        /**
+         * 检查售罄标记的减库存接口
+         */
+        private List<String> pathPatterns = new ArrayList<>(Collections.singletonList("/stock/**"));
+        /**
+         * 不检查的接口（查询、补货等运维接口，以及没有 productCode 参数的接口）
+         */
+        private List<String> excludePathPatterns = new ArrayList<>(Arrays.asList(
+                "/stock/query*", "/stock/isAvailable", "/stock/*Slots", "/stock/snapshotLedger", "/stock/deductOrder", "/stock/restock"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.support.StockQuotaAllocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 实例级库存配额 配置类
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockQuotaConfiguration {
+
+    /**
+     * 库存配额分配器，关闭时结算配额，归还未用完的部分
+     *
+     * @param stockMapper     库存 mapper
+     * @param stockProperties 库存配置
+     * @return StockQuotaAllocator
+     */
+    @Bean(destroyMethod = "shutdown")
+    public StockQuotaAllocator stockQuotaAllocator(StockMapper stockMapper, StockProperties stockProperties) {
+        final StockProperties.Quota quota = stockProperties.getQuota();
+        return new StockQuotaAllocator(stockMapper, quota.getBlockSize(), quota.getLowWatermark(),
+                quota.getLeaseMillis(), quota.getExhaustedRecheckMillis());
+    }
+}
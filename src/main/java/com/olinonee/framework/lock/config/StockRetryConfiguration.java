@@ -0,0 +1,29 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.OptimisticRetryTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 乐观锁重试 配置类
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockRetryConfiguration {
+
+    /**
+     * 乐观锁重试模板
+     *
+     * @param stockProperties 库存配置
+     * @return OptimisticRetryTemplate
+     */
+    @Bean
+    public OptimisticRetryTemplate optimisticRetryTemplate(StockProperties stockProperties) {
+        final StockProperties.Retry retry = stockProperties.getRetry();
+        return new OptimisticRetryTemplate(retry.getMaxAttempts(), retry.getInitialBackoffMillis(),
+                retry.getMaxBackoffMillis(), retry.getGiveUpPolicy());
+    }
+}
@@ -0,0 +1,101 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.support.SoldOutHandlerInterceptor;
+import com.olinonee.framework.lock.support.SoldOutRegistry;
+import com.olinonee.framework.lock.support.StockMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 售罄标记 配置类，{@code stock.sold-out.broadcast} 开启时通过 Redis 发布订阅在实例之间同步标记
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class StockSoldOutConfiguration {
+
+    /**
+     * 售罄标记的 Redis 频道
+     */
+    public static final String SOLD_OUT_CHANNEL = "stock:sold-out";
+
+    /**
+     * 售罄标记，减库存发现库存不足时标记，当前售罄商品数通过 {@code stock.sold-out.products} 指标暴露
+     *
+     * @param stockMetrics    减库存埋点
+     * @param meterRegistry   指标注册表
+     * @param stockProperties 库存配置
+     * @return SoldOutRegistry
+     */
+    @Bean
+    public SoldOutRegistry soldOutRegistry(StockMetrics stockMetrics, MeterRegistry meterRegistry, StockProperties stockProperties) {
+        final SoldOutRegistry soldOutRegistry = new SoldOutRegistry(stockProperties.getSoldOut().getTtlMillis());
+        stockMetrics.setSoldOutListener(soldOutRegistry::markSoldOut);
+        Gauge.builder("stock.sold-out.products", soldOutRegistry, registry -> registry.soldOutProducts().size()).register(meterRegistry);
+        return soldOutRegistry;
+    }
+
+    /**
+     * 为减库存接口注册售罄拦截器，排在所有拦截器之前，售罄的请求不占用并发限制
+     *
+     * @param soldOutRegistry 售罄标记
+     * @param stockProperties 库存配置
+     * @return WebMvcConfigurer
+     */
+    @Bean
+    public WebMvcConfigurer soldOutWebMvcConfigurer(SoldOutRegistry soldOutRegistry, StockProperties stockProperties) {
+        final StockProperties.SoldOut soldOut = stockProperties.getSoldOut();
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SoldOutHandlerInterceptor(soldOutRegistry))
+                        .addPathPatterns(soldOut.getPathPatterns())
+                        .excludePathPatterns(soldOut.getExcludePathPatterns())
+                        .order(Ordered.HIGHEST_PRECEDENCE);
+            }
+        };
+    }
+
+    /**
+     * 实例之间同步售罄标记
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "stock.sold-out", name = "broadcast", havingValue = "true")
+    public static class Broadcast {
+
+        /**
+         * 订阅其他实例的售罄消息，同时把本实例的售罄消息发布出去
+         *
+         * @param redisConnectionFactory redis 连接工厂
+         * @param stringRedisTemplate    redis 模板
+         * @param soldOutRegistry        售罄标记
+         * @return RedisMessageListenerContainer
+         */
+        @Bean
+        public RedisMessageListenerContainer soldOutListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                      StringRedisTemplate stringRedisTemplate,
+                                                                      SoldOutRegistry soldOutRegistry) {
+            soldOutRegistry.setBroadcaster(message -> stringRedisTemplate.convertAndSend(SOLD_OUT_CHANNEL, message));
+            final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(redisConnectionFactory);
+            container.addMessageListener((message, pattern) ->
+                            soldOutRegistry.onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(SOLD_OUT_CHANNEL));
+            return container;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.olinonee.framework.lock.config;
+
+import com.olinonee.framework.lock.mapper.StockJournalCheckpointMapper;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.support.StockWriteBehindJournal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Paths;
+
+/**
+ * write-behind 模式 配置类，{@code stock.write-behind.enabled=true} 时生效
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "stock.write-behind", name = "enabled", havingValue = "true")
+public class StockWriteBehindConfiguration {
+
+    /**
+     * 减库存 write-behind 日志，启动时回放未同步的日志，关闭时同步剩余的扣减；启动时要读写检查点，必须在数据库初始化（建表脚本）之后创建
+     *
+     * @param stockMapper                  库存 mapper
+     * @param stockJournalCheckpointMapper 库存日志检查点 mapper
+     * @param transactionManager           事务管理器
+     * @param stockProperties              库存配置
+     * @return StockWriteBehindJournal
+     */
+    @DependsOnDatabaseInitialization
+    @Bean(destroyMethod = "shutdown")
+    public StockWriteBehindJournal stockWriteBehindJournal(StockMapper stockMapper, StockJournalCheckpointMapper stockJournalCheckpointMapper,
+                                                           PlatformTransactionManager transactionManager, StockProperties stockProperties) {
+        final StockProperties.WriteBehind writeBehind = stockProperties.getWriteBehind();
+        return new StockWriteBehindJournal(stockMapper, stockJournalCheckpointMapper, new TransactionTemplate(transactionManager),
+                Paths.get(writeBehind.getJournalDir()), writeBehind.getJournalId(), writeBehind.getCapacityBytes(),
+                writeBehind.getSyncMode(), writeBehind.getFsyncIntervalMillis(), writeBehind.getFlushIntervalMillis());
+    }
+}
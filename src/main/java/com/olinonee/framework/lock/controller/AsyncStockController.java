@@ -0,0 +1,89 @@
+package com.olinonee.framework.lock.controller;
+
+import com.olinonee.framework.lock.service.IDistributedLockStockService;
+import com.olinonee.framework.lock.service.ISingletonPatternStockService;
+import com.olinonee.framework.lock.service.ITransactionalDbLockStockService;
+import com.olinonee.framework.lock.service.ITransactionalStockService;
+import com.olinonee.framework.lock.support.StockDeductionExecutor;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 库存 异步控制器
+ * <p>
+ * 和 {@link StockController} 中对应的接口逻辑相同，只是减库存交给 {@link StockDeductionExecutor} 执行，
+ * Tomcat 线程立即释放去处理其他请求；线程池队列满时返回 429，
+ * 超过 {@code spring.mvc.async.request-timeout} 仍未完成时返回 503（已经开始执行的减库存不会被取消）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@RestController
+@AllArgsConstructor
+@RequestMapping("/stock/async")
+public class AsyncStockController {
+
+    private final ISingletonPatternStockService stockService; // 单例
+    private final ITransactionalStockService transactionalStockService; // 事务
+    private final ITransactionalDbLockStockService transactionalDbLockStockService; // 事务数据库锁
+    private final IDistributedLockStockService distributedLockStockService; // 分布式锁
+
+    private final StockDeductionExecutor stockDeductionExecutor;
+
+    @GetMapping("/baseMysqlDeductWithReentrantLock")
+    public CompletableFuture<String> asyncBaseMysqlDeductWithReentrantLock(@RequestParam(defaultValue = "1001") String productCode) {
+        return this.stockDeductionExecutor.submit(() -> {
+            this.stockService.baseMysqlDeductWithReentrantLock(productCode);
+            return "[asyncBaseMysqlDeductWithReentrantLock] - 已经成功执行减库存！！";
+        });
+    }
+
+    @GetMapping("/transactionalBaseMysqlDeductWithReentrantLock")
+    public CompletableFuture<String> asyncTransactionalBaseMysqlDeductWithReentrantLock(@RequestParam(defaultValue = "1001") String productCode) {
+        return this.stockDeductionExecutor.submit(() -> {
+            this.transactionalStockService.baseMysqlDeductWithReentrantLock(productCode);
+            return "[asyncTransactionalBaseMysqlDeductWithReentrantLock] - 已经成功执行减库存！！";
+        });
+    }
+
+    @GetMapping("/mysqlTransactionalDbLockForUpdate")
+    public DeferredResult<String> asyncMysqlTransactionalDbLockForUpdate() {
+        return defer(this.stockDeductionExecutor.submit(() -> {
+            this.transactionalDbLockStockService.deductWithDbLockForUpdate();
+            return "[asyncMysqlTransactionalDbLockForUpdate] - 已经成功执行减库存！！";
+        }));
+    }
+
+    @GetMapping("/baseMysqlDeductWithDistributedLock")
+    public DeferredResult<String> asyncBaseMysqlDeductWithDistributedLock(@RequestParam(defaultValue = "1001") String productCode) {
+        return defer(this.stockDeductionExecutor.submit(() -> {
+            this.distributedLockStockService.baseMysqlDeductWithDistributedLock(productCode);
+            return "[asyncBaseMysqlDeductWithDistributedLock] - 已经成功执行减库存！！";
+        }));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejected() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("减库存请求过多，请稍后重试！！");
+    }
+
+    private DeferredResult<String> defer(CompletableFuture<String> future) {
+        final DeferredResult<String> deferredResult = new DeferredResult<>();
+        future.whenComplete((result, error) -> {
+            if (null != error) {
+                deferredResult.setErrorResult(error instanceof CompletionException && null != error.getCause() ? error.getCause() : error);
+            } else {
+                deferredResult.setResult(result);
+            }
+        });
+        return deferredResult;
+    }
+}
@@ -1,10 +1,13 @@
 package com.olinonee.framework.lock.controller;
 
+import com.olinonee.framework.lock.dto.HotProduct;
+import com.olinonee.framework.lock.dto.StockDeductLine;
 import com.olinonee.framework.lock.service.*;
 import lombok.AllArgsConstructor;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
 
 /**
  * 库存 控制器
@@ -26,6 +29,17 @@ public class StockController {
     private final ITransactionalDbLockStockService transactionalDbLockStockService; // 事务数据库锁
 
     private final IOptimisticLockStockService optimisticLockStockService; // 乐观锁
+    private final IDistributedLockStockService distributedLockStockService; // 分布式锁
+    private final IQuotaStockService quotaStockService; // 实例级库存配额
+    private final IWriteBehindStockService writeBehindStockService; // write-behind
+    private final IOrderStockService orderStockService; // 订单多商品
+    private final ISlotStockService slotStockService; // 热点商品库存槽位
+    private final IStockQueryService stockQueryService; // 库存查询（近端缓存）
+    private final ILeanStockService leanStockService; // 精简热路径
+    private final IIdempotentStockService idempotentStockService; // 幂等减库存
+    private final ILedgerStockService ledgerStockService; // 库存流水账本
+    private final IHotRoutingStockService hotRoutingStockService; // 按热点自动路由
+    private final ISoldOutStockService soldOutStockService; // 售罄标记、补货
 
     @GetMapping("/deductWithoutLock")
     public String deductWithoutLock() {
@@ -46,32 +60,32 @@ public class StockController {
     }
 
     @GetMapping("/baseMysqlDeductWithoutLock")
-    public String baseMysqlDeductWithoutLock() {
-        this.stockService.baseMysqlDeductWithoutLock();
+    public String baseMysqlDeductWithoutLock(@RequestParam(defaultValue = "1001") String productCode) {
+        this.stockService.baseMysqlDeductWithoutLock(productCode);
         return "[baseMysqlDeductWithoutLock] - 已经成功执行减库存！！";
     }
 
     @GetMapping("/baseMysqlDeductWithSynchronizedLock")
-    public String baseMysqlDeductWithSynchronizedLock() {
-        this.stockService.baseMysqlDeductWithSynchronizedLock();
+    public String baseMysqlDeductWithSynchronizedLock(@RequestParam(defaultValue = "1001") String productCode) {
+        this.stockService.baseMysqlDeductWithSynchronizedLock(productCode);
         return "[baseMysqlDeductWithSynchronizedLock] - 已经成功执行减库存！！";
     }
 
     @GetMapping("/baseMysqlDeductWithReentrantLock")
-    public String baseMysqlDeductWithReentrantLock() {
-        this.stockService.baseMysqlDeductWithReentrantLock();
+    public String baseMysqlDeductWithReentrantLock(@RequestParam(defaultValue = "1001") String productCode) {
+        this.stockService.baseMysqlDeductWithReentrantLock(productCode);
         return "[baseMysqlDeductWithReentrantLock] - 已经成功执行减库存！！";
     }
 
     @GetMapping("/transactionalBaseMysqlDeductWithSynchronizedLock")
-    public String transactionalBaseMysqlDeductWithSynchronizedLock() {
-        this.transactionalStockService.baseMysqlDeductWithSynchronizedLock();
+    public String transactionalBaseMysqlDeductWithSynchronizedLock(@RequestParam(defaultValue = "1001") String productCode) {
+        this.transactionalStockService.baseMysqlDeductWithSynchronizedLock(productCode);
         return "[transactionalBaseMysqlDeductWithSynchronizedLock] - 已经成功执行减库存！！";
     }
 
     @GetMapping("/transactionalBaseMysqlDeductWithReentrantLock")
-    public String transactionalBaseMysqlDeductWithReentrantLock() {
-        this.transactionalStockService.baseMysqlDeductWithReentrantLock();
+    public String transactionalBaseMysqlDeductWithReentrantLock(@RequestParam(defaultValue = "1001") String productCode) {
+        this.transactionalStockService.baseMysqlDeductWithReentrantLock(productCode);
         return "[transactionalBaseMysqlDeductWithReentrantLock] - 已经成功执行减库存！！";
     }
 
@@ -81,6 +95,12 @@ public class StockController {
         return "[mysqlSingletonPatternDbLock] - 已经成功执行减库存！！";
     }
 
+    @GetMapping("/mysqlSingletonPatternDbLockGroupCommit")
+    public String mysqlSingletonPatternDbLockGroupCommit() {
+        this.singletonPatternDbLockStockService.deductWithGroupCommit();
+        return "[mysqlSingletonPatternDbLockGroupCommit] - 已经成功执行减库存！！";
+    }
+
     @GetMapping("/mysqlPrototypePatternDbLock")
     public String mysqlPrototypePatternDbLock() {
         this.prototypePatternDbLockStockService.deductWithDbLock();
@@ -99,6 +119,12 @@ public class StockController {
         return "[mysqlTransactionalDbLockForUpdate] - 已经成功执行减库存！！";
     }
 
+    @GetMapping("/mysqlTransactionalDbLockSkipLocked")
+    public String mysqlTransactionalDbLockSkipLocked(@RequestParam(defaultValue = "1001") String productCode) {
+        this.transactionalDbLockStockService.deductWithWarehouseSkipLocked(productCode);
+        return "[mysqlTransactionalDbLockSkipLocked] - 已经成功执行减库存！！";
+    }
+
     @GetMapping("/optimisticLockStockDeductWithNonAnnotatedVersion")
     public String optimisticLockStockDeductWithNonAnnotatedVersion() {
         this.optimisticLockStockService.deductWithNonAnnotatedVersion();
@@ -116,4 +142,120 @@ public class StockController {
         this.optimisticLockStockService.deductWithTimestamp();
         return "[optimisticLockStockDeductWithTimestamp] - 已经成功执行减库存！！";
     }
+
+    @GetMapping("/baseMysqlDeductWithDistributedLock")
+    public String baseMysqlDeductWithDistributedLock(@RequestParam(defaultValue = "1001") String productCode) {
+        this.distributedLockStockService.baseMysqlDeductWithDistributedLock(productCode);
+        return "[baseMysqlDeductWithDistributedLock] - 已经成功执行减库存！！";
+    }
+
+    @GetMapping("/deductWithQuota")
+    public String deductWithQuota(@RequestParam(defaultValue = "1001") String productCode) {
+        this.quotaStockService.deductWithQuota(productCode);
+        return "[deductWithQuota] - 已经成功执行减库存！！";
+    }
+
+    @GetMapping("/deductWithWriteBehind")
+    public String deductWithWriteBehind(@RequestParam(defaultValue = "1001") String productCode) {
+        this.writeBehindStockService.deductWithWriteBehind(productCode);
+        return "[deductWithWriteBehind] - 已经成功执行减库存！！";
+    }
+
+    @PostMapping("/deductOrder")
+    public String deductOrder(@RequestBody List<StockDeductLine> lines) {
+        if (this.orderStockService.deductOrder(lines)) {
+            return "[deductOrder] - 已经成功执行减库存！！";
+        }
+        return "[deductOrder] - 库存不足，订单未扣减！！";
+    }
+
+    @GetMapping("/deductWithSlots")
+    public String deductWithSlots(@RequestParam(defaultValue = "1001") String productCode) {
+        this.slotStockService.deductWithSlots(productCode);
+        return "[deductWithSlots] - 已经成功执行减库存！！";
+    }
+
+    @PostMapping("/splitSlots")
+    public String splitSlots(@RequestParam(defaultValue = "1001") String productCode, @RequestParam(defaultValue = "8") int slots) {
+        final int total = this.slotStockService.splitSlots(productCode, slots);
+        return "[splitSlots] - 已经将库存 " + total + " 拆分为 " + slots + " 个槽位！！";
+    }
+
+    @PostMapping("/mergeSlots")
+    public String mergeSlots(@RequestParam(defaultValue = "1001") String productCode) {
+        final int merged = this.slotStockService.mergeSlots(productCode);
+        return "[mergeSlots] - 已经将槽位中的库存 " + merged + " 合并回库存记录！！";
+    }
+
+    @GetMapping("/queryTotalStock")
+    public String queryTotalStock(@RequestParam(defaultValue = "1001") String productCode) {
+        return "[queryTotalStock] - 总库存为：" + this.slotStockService.queryTotalStock(productCode);
+    }
+
+    @GetMapping("/queryStock")
+    public String queryStock(@RequestParam(defaultValue = "1001") String productCode) {
+        return "[queryStock] - 库存余量为：" + this.stockQueryService.queryStock(productCode);
+    }
+
+    @GetMapping("/isAvailable")
+    public String isAvailable(@RequestParam(defaultValue = "1001") String productCode, @RequestParam(defaultValue = "1") int count) {
+        return "[isAvailable] - " + (this.stockQueryService.isAvailable(productCode, count) ? "可售" : "库存不足");
+    }
+
+    @GetMapping("/deductLean")
+    public String deductLean(@RequestParam(defaultValue = "1001") String productCode) {
+        this.leanStockService.deductLean(productCode);
+        return "[deductLean] - 已经成功执行减库存！！";
+    }
+
+    @GetMapping("/deductIdempotent")
+    public String deductIdempotent(@RequestParam String requestId, @RequestParam(defaultValue = "1001") String productCode) {
+        switch (this.idempotentStockService.deductIdempotent(requestId, productCode)) {
+            case DUPLICATE:
+                return "[deductIdempotent] - 重复请求，之前已经成功执行减库存！！";
+            case REJECTED:
+                return "[deductIdempotent] - 库存不足！！";
+            default:
+                return "[deductIdempotent] - 已经成功执行减库存！！";
+        }
+    }
+
+    @GetMapping("/deductWithLedger")
+    public String deductWithLedger(@RequestParam(required = false) String requestId, @RequestParam(defaultValue = "1001") String productCode) {
+        this.ledgerStockService.deductWithLedger(requestId, productCode);
+        return "[deductWithLedger] - 已经成功执行减库存！！";
+    }
+
+    @GetMapping("/queryLedgerStock")
+    public String queryLedgerStock(@RequestParam(defaultValue = "1001") String productCode) {
+        return "[queryLedgerStock] - 库存余量为：" + this.ledgerStockService.queryLedgerStock(productCode);
+    }
+
+    @PostMapping("/snapshotLedger")
+    public String snapshotLedger() {
+        return "[snapshotLedger] - 已经将库存流水合并到库存快照：" + this.ledgerStockService.snapshot() + " 条！！";
+    }
+
+    @GetMapping("/deductWithHotRouting")
+    public String deductWithHotRouting(@RequestParam(defaultValue = "1001") String productCode) {
+        this.hotRoutingStockService.deductWithHotRouting(productCode);
+        return "[deductWithHotRouting] - 已经成功执行减库存！！";
+    }
+
+    @GetMapping("/queryHotProducts")
+    public List<HotProduct> queryHotProducts() {
+        return this.hotRoutingStockService.queryHotProducts();
+    }
+
+    @PostMapping("/restock")
+    public String restock(@RequestParam(defaultValue = "1001") String productCode, @RequestParam(defaultValue = "北京仓") String warehouse,
+                          @RequestParam(defaultValue = "100") int count) {
+        this.soldOutStockService.restock(productCode, warehouse, count);
+        return "[restock] - 已经成功补货 " + count + " 件，售罄标记已清除！！";
+    }
+
+    @GetMapping("/querySoldOutProducts")
+    public Set<String> querySoldOutProducts() {
+        return this.soldOutStockService.querySoldOutProducts();
+    }
 }
@@ -0,0 +1,151 @@
+package com.olinonee.framework.lock.distributed;
+
+import cn.hutool.core.lang.Assert;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式锁 抽象类
+ * <p>
+ * 负责同一线程的可重入计数：只有第一次加锁时才真正去远端获取锁，最后一次解锁时才真正释放，子类只需要实现一次获取、释放即可
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public abstract class AbstractDistributedLock implements DistributedLock {
+
+    /**
+     * 当前线程持有的锁以及重入次数，计数归零时移除，不会无限增长
+     */
+    private static final ThreadLocal<Map<String, Integer>> HOLD_COUNTS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final long MIN_POLL_MILLIS = 5;
+    private static final long MAX_POLL_MILLIS = 100;
+
+    private final String key;
+
+    protected AbstractDistributedLock(String key) {
+        this.key = Assert.notBlank(key, "锁的 key 不能为空！");
+    }
+
+    @Override
+    public String getKey() {
+        return this.key;
+    }
+
+    @Override
+    public void lock() {
+        try {
+            tryLock(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待分布式锁时被中断：" + this.key, e);
+        }
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+        final Map<String, Integer> holdCounts = HOLD_COUNTS.get();
+        final String holdKey = holdKey();
+        final Integer count = holdCounts.get(holdKey);
+        if (null != count) {
+            holdCounts.put(holdKey, count + 1);
+            return true;
+        }
+        if (!acquire(unit.toNanos(timeout))) {
+            return false;
+        }
+        holdCounts.put(holdKey, 1);
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        final Map<String, Integer> holdCounts = HOLD_COUNTS.get();
+        final String holdKey = holdKey();
+        final Integer count = holdCounts.get(holdKey);
+        if (null == count) {
+            throw new IllegalMonitorStateException("当前线程未持有分布式锁：" + this.key);
+        }
+        if (count > 1) {
+            holdCounts.put(holdKey, count - 1);
+            return;
+        }
+        holdCounts.remove(holdKey);
+        release();
+    }
+
+    /**
+     * 当前线程是否持有该锁
+     *
+     * @return 是否持有
+     */
+    public boolean isHeldByCurrentThread() {
+        return HOLD_COUNTS.get().containsKey(holdKey());
+    }
+
+    /**
+     * 在远端获取锁
+     *
+     * @param timeoutNanos 最长等待时间（纳秒）
+     * @return 是否获取成功
+     * @throws InterruptedException 等待时被中断
+     */
+    protected abstract boolean acquire(long timeoutNanos) throws InterruptedException;
+
+    /**
+     * 在远端释放锁
+     */
+    protected abstract void release();
+
+    /**
+     * 轮询获取锁，每次失败之后等待的时间逐渐加长（带随机抖动），直到超时
+     *
+     * @param timeoutNanos 最长等待时间（纳秒）
+     * @param attempt      一次获取
+     * @return 是否获取成功
+     * @throws InterruptedException 等待时被中断
+     */
+    protected boolean pollAcquire(long timeoutNanos, Attempt attempt) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        long pollMillis = MIN_POLL_MILLIS;
+        while (true) {
+            if (attempt.tryOnce()) {
+                return true;
+            }
+            final long remainingNanos = deadline - System.nanoTime();
+            if (timeoutNanos != Long.MAX_VALUE && remainingNanos <= 0) {
+                return false;
+            }
+            final long sleepMillis = ThreadLocalRandom.current().nextLong(MIN_POLL_MILLIS, pollMillis + 1);
+            TimeUnit.MILLISECONDS.sleep(timeoutNanos == Long.MAX_VALUE ? sleepMillis : Math.min(sleepMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos) + 1));
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    /**
+     * 区分不同实现的重入计数，避免同一个 key 在不同的锁实现之间串用
+     *
+     * @return 重入计数的 key
+     */
+    protected String holdKey() {
+        return getClass().getName() + ":" + this.key;
+    }
+
+    /**
+     * 一次获取锁的尝试
+     */
+    @FunctionalInterface
+    protected interface Attempt {
+        /**
+         * 尝试一次
+         *
+         * @return 是否获取成功
+         */
+        boolean tryOnce();
+    }
+}
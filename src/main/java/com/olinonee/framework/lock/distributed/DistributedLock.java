@@ -0,0 +1,42 @@
+package com.olinonee.framework.lock.distributed;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式锁
+ * <p>
+ * 跨实例（JVM）互斥，同一线程可重入，加锁和解锁必须在同一个线程中进行
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface DistributedLock {
+
+    /**
+     * 锁的 key
+     *
+     * @return key
+     */
+    String getKey();
+
+    /**
+     * 加锁，获取不到则一直阻塞
+     */
+    void lock();
+
+    /**
+     * 尝试加锁，最多等待指定的时间
+     *
+     * @param timeout 等待时间
+     * @param unit    时间单位
+     * @return 是否加锁成功
+     * @throws InterruptedException 等待时被中断
+     */
+    boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * 解锁
+     */
+    void unlock();
+}
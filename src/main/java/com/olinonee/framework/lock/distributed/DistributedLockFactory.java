@@ -0,0 +1,19 @@
+package com.olinonee.framework.lock.distributed;
+
+/**
+ * 分布式锁工厂（SPI），不同的实现对应不同的锁存储，比如 MySQL 锁表
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface DistributedLockFactory {
+
+    /**
+     * 获取 key 对应的分布式锁
+     *
+     * @param key 锁的 key
+     * @return DistributedLock
+     */
+    DistributedLock getLock(String key);
+}
@@ -0,0 +1,192 @@
+package com.olinonee.framework.lock.distributed;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.util.IdUtil;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 两级分布式锁工厂：本地锁 + 远端锁
+ * <p>
+ * 同一实例内的线程先在本地按 key 排队（公平的 {@link ReentrantLock}），只有拿到本地锁的线程才去竞争远端锁，
+ * 远端（数据库、Redis）收到的加锁请求从 “线程数” 次降为 “实例数” 次。
+ * <p>
+ * 远端锁以实例级的持有者身份获取，释放时如果本地还有线程在排队，就不释放远端锁，直接交给下一个本地线程（交接），
+ * 省掉一次释放和一次加锁的网络往返；为了不让其他实例饿死，连续交接次数达到上限、或者远端锁持有时间超过租约的一半之后，
+ * 必须释放远端锁，重新和其他实例竞争。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class LocalHandoffDistributedLockFactory implements DistributedLockFactory {
+
+    private final OwnerAwareDistributedLockFactory delegate;
+    private final int maxHandoffs;
+    private final long maxHoldNanos;
+
+    /**
+     * 远端锁的持有者：当前实例，与线程无关
+     */
+    private final String owner = IdUtil.fastSimpleUUID() + ":handoff";
+    private final ConcurrentMap<String, KeyState> states = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate    远端锁工厂
+     * @param maxHandoffs 连续交接次数上限，0 表示不交接
+     * @param leaseMillis 远端锁租约时间（毫秒），持有时间超过一半后不再交接
+     */
+    public LocalHandoffDistributedLockFactory(OwnerAwareDistributedLockFactory delegate, int maxHandoffs, long leaseMillis) {
+        Assert.isTrue(maxHandoffs >= 0, "交接次数上限不能小于 0！");
+        Assert.isTrue(leaseMillis > 0, "租约时间必须大于 0！");
+        this.delegate = delegate;
+        this.maxHandoffs = maxHandoffs;
+        this.maxHoldNanos = TimeUnit.MILLISECONDS.toNanos(leaseMillis) / 2;
+    }
+
+    @Override
+    public DistributedLock getLock(String key) {
+        return new LocalHandoffDistributedLock(key);
+    }
+
+    private KeyState retain(String key) {
+        return this.states.compute(key, (k, state) -> {
+            final KeyState current = null == state ? new KeyState(this.delegate.getLock(k, this.owner)) : state;
+            current.users++;
+            return current;
+        });
+    }
+
+    private void dispose(String key, KeyState state) {
+        this.states.computeIfPresent(key, (k, current) -> {
+            if (current != state) {
+                return current;
+            }
+            current.users--;
+            // 没有线程在使用了就移除，避免 map 无限增长；此时远端锁一定已经释放
+            return current.users == 0 ? null : current;
+        });
+    }
+
+    /**
+     * 交接或者释放远端锁，必须持有本地锁
+     *
+     * @param state key 的状态
+     * @return 是否交接给了下一个本地线程
+     */
+    private boolean handOffOrRelease(KeyState state) {
+        if (!state.remoteHeld) {
+            return false;
+        }
+        if (state.local.hasQueuedThreads() && state.handoffs < this.maxHandoffs
+                && System.nanoTime() - state.remoteAcquiredAt < this.maxHoldNanos) {
+            state.handoffs++;
+            return true;
+        }
+        state.remoteHeld = false;
+        state.handoffs = 0;
+        state.remote.release();
+        return false;
+    }
+
+    /**
+     * 交接之后排队的线程可能已经超时离开，此时没有人会释放远端锁，尝试拿到本地锁后补一次释放
+     *
+     * @param state key 的状态
+     */
+    private void releaseIfAbandoned(KeyState state) {
+        if (!state.local.hasQueuedThreads() && state.local.tryLock()) {
+            try {
+                handOffOrRelease(state);
+            } finally {
+                state.local.unlock();
+            }
+        }
+    }
+
+    /**
+     * 每个 key 的本地锁以及远端锁状态，除 users 外的字段都只在持有本地锁时访问
+     */
+    private static class KeyState {
+        private final ReentrantLock local = new ReentrantLock(true);
+        private final AbstractDistributedLock remote;
+        private boolean remoteHeld;
+        private long remoteAcquiredAt;
+        private int handoffs;
+        /**
+         * 正在使用的线程数，只在 ConcurrentHashMap#compute 中修改
+         */
+        private int users;
+
+        private KeyState(AbstractDistributedLock remote) {
+            this.remote = remote;
+        }
+    }
+
+    /**
+     * 两级分布式锁，重入由 {@link AbstractDistributedLock} 处理，这里只负责一次获取和释放
+     */
+    private class LocalHandoffDistributedLock extends AbstractDistributedLock {
+
+        private LocalHandoffDistributedLock(String key) {
+            super(key);
+        }
+
+        @Override
+        protected boolean acquire(long timeoutNanos) throws InterruptedException {
+            final long deadline = System.nanoTime() + timeoutNanos;
+            final KeyState state = retain(getKey());
+            boolean acquired = false;
+            try {
+                if (timeoutNanos == Long.MAX_VALUE) {
+                    state.local.lockInterruptibly();
+                } else if (!state.local.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    releaseIfAbandoned(state);
+                    return false;
+                }
+                try {
+                    if (!state.remoteHeld) {
+                        final long remainingNanos = timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, deadline - System.nanoTime());
+                        if (!state.remote.acquire(remainingNanos)) {
+                            return false;
+                        }
+                        state.remoteHeld = true;
+                        state.remoteAcquiredAt = System.nanoTime();
+                    }
+                    acquired = true;
+                    return true;
+                } finally {
+                    if (!acquired) {
+                        state.local.unlock();
+                    }
+                }
+            } finally {
+                if (!acquired) {
+                    dispose(getKey(), state);
+                }
+            }
+        }
+
+        @Override
+        protected void release() {
+            final KeyState state = states.get(getKey());
+            try {
+                final boolean handedOff;
+                try {
+                    handedOff = handOffOrRelease(state);
+                } finally {
+                    state.local.unlock();
+                }
+                if (handedOff) {
+                    releaseIfAbandoned(state);
+                }
+            } finally {
+                // 远端锁释放失败（比如已经随连接断开释放）时同样要减少使用数
+                dispose(getKey(), state);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.olinonee.framework.lock.distributed;
+
+/**
+ * 基于 MySQL 命名锁的分布式锁
+ * <p>
+ * 加锁：在锁会话上执行 {@code SELECT GET_LOCK(name, 0)}，获取失败时按退避间隔轮询，直到超时，等待期间不占用连接；<br>
+ * 解锁：{@code SELECT RELEASE_LOCK(name)}，锁已经随连接断开释放时抛出 {@link IllegalStateException}。
+ * <p>
+ * 和 {@code SELECT ... FOR UPDATE} 相比，锁不依赖数据行，也不需要把锁放在业务事务里，业务事务提交、回滚都不影响锁；
+ * 和锁表相比，没有租约，持有者宕机（连接断开）时服务端立即释放锁。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class MysqlNamedDistributedLock extends AbstractDistributedLock {
+
+    private final MysqlNamedDistributedLockFactory factory;
+    /**
+     * 指定的锁持有者，为空时以 “实例 id:线程 id” 作为持有者
+     */
+    private final String owner;
+
+    MysqlNamedDistributedLock(String key, MysqlNamedDistributedLockFactory factory, String owner) {
+        super(key);
+        this.factory = factory;
+        this.owner = owner;
+    }
+
+    @Override
+    protected boolean acquire(long timeoutNanos) throws InterruptedException {
+        final String owner = owner();
+        return pollAcquire(timeoutNanos, () -> this.factory.tryGetLock(getKey(), owner));
+    }
+
+    @Override
+    protected void release() {
+        this.factory.releaseLock(getKey(), owner());
+    }
+
+    /**
+     * 锁是否仍然被当前持有者持有：连接断开之后服务端已经释放了锁，返回 false
+     *
+     * @return 是否持有
+     */
+    public boolean isHeld() {
+        return this.factory.isHeld(getKey(), owner());
+    }
+
+    private String owner() {
+        return null != this.owner ? this.owner : this.factory.owner();
+    }
+}
@@ -0,0 +1,320 @@
+package com.olinonee.framework.lock.distributed;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 MySQL 命名锁（{@code GET_LOCK} / {@code RELEASE_LOCK}）的分布式锁工厂
+ * <p>
+ * 命名锁属于数据库会话（连接），和数据行、业务事务都无关，任意 key 都可以加锁，不需要预先插入记录；连接断开时 MySQL 自动释放该连接持有的所有命名锁。
+ * <p>
+ * 锁使用独立的小连接池，池中的每个连接固定作为一个锁会话，不归还，不占用业务连接：
+ * <ul>
+ *     <li>复用：锁名按哈希固定分配到某个会话，一个会话同时持有多个不同名称的锁；
+ *     加锁使用 {@code GET_LOCK(name, 0)}，不在连接上阻塞等待，等待由调用线程轮询完成，会话始终可以被其他锁使用</li>
+ *     <li>本地互斥：同一会话对同名锁的 {@code GET_LOCK} 是可重入的，本实例的不同持有者之间由会话内的持有表保证互斥</li>
+ *     <li>保活：定期检测每个会话的连接，防止空闲连接被 {@code wait_timeout} 断开；
+ *     连接确实断开（{@code isValid} 失败或者 SQLState 为 {@code 08} 类）时丢弃该连接（服务端随之释放它持有的锁），下次使用时从连接池重新获取。
+ *     其他 SQL 异常（比如语句超时）不丢弃连接，抛给调用方，会话以及会话上其他持有者的锁不受影响</li>
+ *     <li>锁丢失：连接断开后持有者的锁已经被服务端释放，持有者解锁时抛出 {@link IllegalStateException}，
+ *     也可以通过 {@link MysqlNamedDistributedLock#isHeld()} 检查锁是否还在</li>
+ *     <li>释放失败：{@code RELEASE_LOCK} 因为连接断开以外的原因失败时，锁仍然留在服务端，会话记下该锁，保活时重试释放，
+ *     重试成功之前本实例不会再在该会话上获取同名的锁（同一连接上的 {@code GET_LOCK} 是重入，会多出一次持有）</li>
+ * </ul>
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class MysqlNamedDistributedLockFactory implements OwnerAwareDistributedLockFactory {
+
+    /**
+     * 锁名前缀，MySQL 命名锁的名称最长 64 个字符，超出时使用 key 的 MD5
+     */
+    static final String NAME_PREFIX = "stock-lock:";
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 3;
+    /**
+     * SQLState 的连接异常类别（connection exception）
+     */
+    private static final String CONNECTION_EXCEPTION_CLASS = "08";
+
+    private final HikariDataSource dataSource;
+    private final LockSession[] sessions;
+    private final String instanceId = IdUtil.fastSimpleUUID();
+    private final ScheduledExecutorService keepaliveExecutor;
+
+    /**
+     * @param dataSource      锁专用的连接池，最大连接数不能小于会话数
+     * @param sessions        锁会话数
+     * @param keepaliveMillis 会话保活间隔（毫秒），要小于 MySQL 的 {@code wait_timeout}
+     */
+    public MysqlNamedDistributedLockFactory(HikariDataSource dataSource, int sessions, long keepaliveMillis) {
+        Assert.isTrue(sessions > 0, "锁会话数必须大于 0！");
+        Assert.isTrue(dataSource.getMaximumPoolSize() >= sessions, "连接池的最大连接数不能小于锁会话数！");
+        Assert.isTrue(keepaliveMillis > 0, "保活间隔必须大于 0！");
+        this.dataSource = dataSource;
+        this.sessions = new LockSession[sessions];
+        for (int i = 0; i < sessions; i++) {
+            this.sessions[i] = new LockSession(i);
+        }
+        this.keepaliveExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("mysql-named-lock-keepalive-", true));
+        this.keepaliveExecutor.scheduleWithFixedDelay(this::keepalive, keepaliveMillis, keepaliveMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public DistributedLock getLock(String key) {
+        return getLock(key, null);
+    }
+
+    @Override
+    public AbstractDistributedLock getLock(String key, String owner) {
+        return new MysqlNamedDistributedLock(key, this, owner);
+    }
+
+    /**
+     * 停止保活，关闭连接池，连接关闭后服务端释放所有命名锁
+     */
+    public void shutdown() {
+        this.keepaliveExecutor.shutdownNow();
+        this.dataSource.close();
+    }
+
+    String owner() {
+        return this.instanceId + ":" + Thread.currentThread().getId();
+    }
+
+    /**
+     * 尝试一次获取命名锁，不等待
+     *
+     * @param key   锁的 key
+     * @param owner 持有者
+     * @return 是否获取成功
+     */
+    boolean tryGetLock(String key, String owner) {
+        final String name = lockName(key);
+        return session(name).tryGetLock(name, owner);
+    }
+
+    /**
+     * 释放命名锁
+     *
+     * @param key   锁的 key
+     * @param owner 持有者
+     * @throws IllegalStateException 锁已经随连接断开释放，或者释放失败
+     */
+    void releaseLock(String key, String owner) {
+        final String name = lockName(key);
+        session(name).releaseLock(name, owner);
+    }
+
+    /**
+     * 持有者是否仍然持有命名锁，会检测会话的连接，连接已经断开时丢弃连接并返回 false
+     *
+     * @param key   锁的 key
+     * @param owner 持有者
+     * @return 是否持有
+     */
+    boolean isHeld(String key, String owner) {
+        final String name = lockName(key);
+        return session(name).isHeld(name, owner);
+    }
+
+    private String lockName(String key) {
+        final String name = NAME_PREFIX + key;
+        return name.length() <= MAX_NAME_LENGTH ? name : NAME_PREFIX + DigestUtil.md5Hex(key);
+    }
+
+    private LockSession session(String name) {
+        return this.sessions[Math.floorMod(name.hashCode(), this.sessions.length)];
+    }
+
+    /**
+     * 连接是否确实已经断开：SQLState 为连接异常类别，或者连接校验失败
+     */
+    private static boolean isConnectionLost(SQLException e, Connection connection) {
+        final String sqlState = e.getSQLState();
+        if (null != sqlState && sqlState.startsWith(CONNECTION_EXCEPTION_CLASS)) {
+            return true;
+        }
+        try {
+            return null != connection && !connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException validationException) {
+            return true;
+        }
+    }
+
+    private void keepalive() {
+        for (LockSession session : this.sessions) {
+            try {
+                session.keepalive();
+            } catch (Exception e) {
+                log.error("[MysqlNamedDistributedLockFactory#keepalive] - 锁会话 {} 保活失败", session.index, e);
+            }
+        }
+    }
+
+    /**
+     * 一个锁会话：固定占用连接池中的一个连接，所有操作在该对象的监视器下串行执行
+     */
+    private class LockSession {
+        private final int index;
+        private Connection connection;
+        /**
+         * 本会话持有的锁名以及持有者
+         */
+        private final Map<String, String> held = new HashMap<>();
+        /**
+         * 释放失败、仍然留在服务端的锁名，保活时重试释放
+         */
+        private final Set<String> pendingRelease = new HashSet<>();
+
+        private LockSession(int index) {
+            this.index = index;
+        }
+
+        synchronized boolean tryGetLock(String name, String owner) {
+            if (this.held.containsKey(name) || this.pendingRelease.contains(name)) {
+                // 本实例的其他持有者正持有该锁（或者该锁还没有释放掉），不能再去数据库重入
+                return false;
+            }
+            try {
+                final Integer result = queryInt(connection(), "SELECT GET_LOCK(?, 0)", name);
+                if (null != result && result == 1) {
+                    this.held.put(name, owner);
+                    return true;
+                }
+                return false;
+            } catch (SQLException e) {
+                discardIfLost(e);
+                throw new IllegalStateException("获取命名锁失败：" + name, e);
+            }
+        }
+
+        synchronized void releaseLock(String name, String owner) {
+            if (!owner.equals(this.held.get(name))) {
+                throw new IllegalStateException("命名锁已随连接断开释放：" + name);
+            }
+            this.held.remove(name);
+            try {
+                final Integer result = queryInt(connection(), "SELECT RELEASE_LOCK(?)", name);
+                if (null == result || result != 1) {
+                    log.warn("[MysqlNamedDistributedLockFactory#releaseLock] - 锁 {} 不属于当前会话，释放结果：{}", name, result);
+                }
+            } catch (SQLException e) {
+                // 连接断开时服务端已经释放了该锁；否则锁还在服务端，记下来由保活重试释放
+                if (!discardIfLost(e)) {
+                    this.pendingRelease.add(name);
+                }
+                throw new IllegalStateException("释放命名锁失败：" + name, e);
+            }
+        }
+
+        synchronized boolean isHeld(String name, String owner) {
+            if (!owner.equals(this.held.get(name))) {
+                return false;
+            }
+            if (!isValid()) {
+                discard(null);
+                return false;
+            }
+            return true;
+        }
+
+        synchronized void keepalive() {
+            if (null == this.connection) {
+                return;
+            }
+            if (!isValid()) {
+                discard(null);
+                return;
+            }
+            final Iterator<String> iterator = this.pendingRelease.iterator();
+            while (iterator.hasNext()) {
+                final String name = iterator.next();
+                try {
+                    queryInt(this.connection, "SELECT RELEASE_LOCK(?)", name);
+                    iterator.remove();
+                } catch (SQLException e) {
+                    if (discardIfLost(e)) {
+                        return;
+                    }
+                    log.warn("[MysqlNamedDistributedLockFactory#keepalive] - 锁会话 {} 重试释放锁 {} 失败", this.index, name, e);
+                }
+            }
+        }
+
+        private Connection connection() throws SQLException {
+            if (null == this.connection) {
+                this.connection = MysqlNamedDistributedLockFactory.this.dataSource.getConnection();
+                this.connection.setAutoCommit(true);
+            }
+            return this.connection;
+        }
+
+        private boolean isValid() {
+            try {
+                return this.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * 连接确实断开时丢弃连接，其他异常保留会话
+         *
+         * @param cause SQL 异常
+         * @return 是否丢弃了连接
+         */
+        private boolean discardIfLost(SQLException cause) {
+            if (!isConnectionLost(cause, this.connection)) {
+                return false;
+            }
+            discard(cause);
+            return true;
+        }
+
+        /**
+         * 丢弃连接：从连接池中驱逐（物理关闭），服务端释放该连接持有的所有命名锁，持有者之后解锁时会收到异常
+         */
+        private void discard(SQLException cause) {
+            log.warn("[MysqlNamedDistributedLockFactory#discard] - 锁会话 {} 的连接已断开，持有的 {} 个锁已经释放", this.index, this.held.size(), cause);
+            this.held.clear();
+            this.pendingRelease.clear();
+            if (null != this.connection) {
+                MysqlNamedDistributedLockFactory.this.dataSource.evictConnection(this.connection);
+                this.connection = null;
+            }
+        }
+
+        private Integer queryInt(Connection connection, String sql, String name) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, name);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    final int value = resultSet.getInt(1);
+                    return resultSet.wasNull() ? null : value;
+                }
+            }
+        }
+    }
+}
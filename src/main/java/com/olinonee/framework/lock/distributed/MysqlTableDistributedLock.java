@@ -0,0 +1,56 @@
+package com.olinonee.framework.lock.distributed;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于 MySQL 锁表的分布式锁
+ * <p>
+ * 加锁就是往 {@code tb_distributed_lock} 插入一条以锁 key 为主键的记录，主键冲突说明锁已被其他实例持有；
+ * 记录带有租约过期时间，加锁成功后由看门狗定时续期，持有者存活期间锁不会过期；持有者宕机之后停止续期，其他实例可以在租约过期后接管。
+ * <p>
+ * 每条加锁、续期、解锁语句都在独立的短事务中执行并立即提交（REQUIRES_NEW），与业务事务无关，
+ * 持锁期间不会一直占用一个连接，业务事务中调用也能立刻对其他实例可见。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class MysqlTableDistributedLock extends AbstractDistributedLock {
+
+    private final MysqlTableDistributedLockFactory factory;
+    /**
+     * 指定的锁持有者，为空时以 “实例 id:线程 id” 作为持有者
+     */
+    private final String owner;
+
+    MysqlTableDistributedLock(String key, MysqlTableDistributedLockFactory factory, String owner) {
+        super(key);
+        this.factory = factory;
+        this.owner = owner;
+    }
+
+    @Override
+    protected boolean acquire(long timeoutNanos) throws InterruptedException {
+        final String owner = owner();
+        if (!pollAcquire(timeoutNanos, () -> this.factory.tryInsert(getKey(), owner) || this.factory.tryTakeOver(getKey(), owner))) {
+            return false;
+        }
+        this.factory.startWatchdog(getKey(), owner);
+        return true;
+    }
+
+    @Override
+    protected void release() {
+        final String owner = owner();
+        this.factory.stopWatchdog(getKey(), owner);
+        if (!this.factory.deleteLock(getKey(), owner)) {
+            // 续期失败（例如数据库长时间不可用）超过了租约，锁已经被其他实例接管
+            log.warn("[MysqlTableDistributedLock#release] - 锁 {} 已过期被其他实例接管", getKey());
+        }
+    }
+
+    private String owner() {
+        return null != this.owner ? this.owner : this.factory.owner();
+    }
+}
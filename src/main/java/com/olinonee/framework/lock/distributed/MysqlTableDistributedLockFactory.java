@@ -0,0 +1,113 @@
+package com.olinonee.framework.lock.distributed;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.IdUtil;
+import com.olinonee.framework.lock.mapper.DistributedLockMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.*;
+
+/**
+ * 基于 MySQL 锁表的分布式锁工厂
+ * <p>
+ * 除了创建锁之外，还负责看门狗：持有锁期间每隔 1/3 租约时间把过期时间往后推一个租约，
+ * 续期时 owner 不匹配说明锁已经被其他实例接管，停止续期。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class MysqlTableDistributedLockFactory implements OwnerAwareDistributedLockFactory {
+
+    private final DistributedLockMapper distributedLockMapper;
+    private final TransactionTemplate requiresNewTransactionTemplate;
+    private final long leaseMillis;
+
+    /**
+     * 当前实例的唯一标识，和线程 id 一起组成锁持有者
+     */
+    private final String instanceId = IdUtil.fastSimpleUUID();
+    private final ScheduledExecutorService watchdogExecutor;
+    private final ConcurrentMap<String, ScheduledFuture<?>> watchdogs = new ConcurrentHashMap<>();
+
+    public MysqlTableDistributedLockFactory(DistributedLockMapper distributedLockMapper, PlatformTransactionManager transactionManager, long leaseMillis) {
+        Assert.isTrue(leaseMillis >= 3, "租约时间过短！");
+        this.distributedLockMapper = distributedLockMapper;
+        this.requiresNewTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseMillis = leaseMillis;
+        this.watchdogExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("mysql-lock-watchdog-", true));
+    }
+
+    @Override
+    public DistributedLock getLock(String key) {
+        return getLock(key, null);
+    }
+
+    @Override
+    public AbstractDistributedLock getLock(String key, String owner) {
+        return new MysqlTableDistributedLock(key, this, owner);
+    }
+
+    /**
+     * 停止所有看门狗
+     */
+    public void shutdown() {
+        this.watchdogExecutor.shutdownNow();
+    }
+
+    String owner() {
+        return this.instanceId + ":" + Thread.currentThread().getId();
+    }
+
+    boolean tryInsert(String key, String owner) {
+        try {
+            return Boolean.TRUE.equals(this.requiresNewTransactionTemplate.execute(
+                    status -> this.distributedLockMapper.insertLock(key, owner, this.leaseMillis) > 0));
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    boolean tryTakeOver(String key, String owner) {
+        return Boolean.TRUE.equals(this.requiresNewTransactionTemplate.execute(
+                status -> this.distributedLockMapper.takeOverExpiredLock(key, owner, this.leaseMillis) > 0));
+    }
+
+    boolean deleteLock(String key, String owner) {
+        return Boolean.TRUE.equals(this.requiresNewTransactionTemplate.execute(
+                status -> this.distributedLockMapper.deleteLock(key, owner) > 0));
+    }
+
+    void startWatchdog(String key, String owner) {
+        final long period = this.leaseMillis / 3;
+        final String watchdogKey = key + "|" + owner;
+        final ScheduledFuture<?> future = this.watchdogExecutor.scheduleAtFixedRate(() -> {
+            try {
+                final Boolean renewed = this.requiresNewTransactionTemplate.execute(
+                        status -> this.distributedLockMapper.renewLock(key, owner, this.leaseMillis) > 0);
+                if (!Boolean.TRUE.equals(renewed)) {
+                    log.warn("[MysqlTableDistributedLockFactory#watchdog] - 锁 {} 续期失败，锁已丢失", key);
+                    stopWatchdog(key, owner);
+                }
+            } catch (Exception e) {
+                // 数据库抖动等情况，下个周期继续续期
+                log.warn("[MysqlTableDistributedLockFactory#watchdog] - 锁 {} 续期异常", key, e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        this.watchdogs.put(watchdogKey, future);
+    }
+
+    void stopWatchdog(String key, String owner) {
+        final ScheduledFuture<?> future = this.watchdogs.remove(key + "|" + owner);
+        if (null != future) {
+            future.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.olinonee.framework.lock.distributed;
+
+/**
+ * 支持指定持有者的分布式锁工厂
+ * <p>
+ * {@link #getLock(String)} 返回的锁以 “实例 id:线程 id” 作为持有者，加锁和解锁必须在同一个线程；
+ * {@link #getLock(String, String)} 返回的锁以指定的持有者身份在远端加解锁，与线程无关，
+ * 本实例内的多个线程可以接力持有同一把远端锁，由调用方保证同一时刻只有一个线程在使用（见 {@link LocalHandoffDistributedLockFactory}）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface OwnerAwareDistributedLockFactory extends DistributedLockFactory {
+
+    /**
+     * 获取以指定持有者身份加解锁的分布式锁
+     *
+     * @param key   锁的 key
+     * @param owner 锁持有者
+     * @return AbstractDistributedLock
+     */
+    AbstractDistributedLock getLock(String key, String owner);
+}
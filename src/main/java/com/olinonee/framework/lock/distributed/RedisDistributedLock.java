@@ -0,0 +1,79 @@
+package com.olinonee.framework.lock.distributed;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Redis 的分布式锁
+ * <p>
+ * 加锁：{@code SET key owner NX PX lease}，owner 为 “实例 id:线程 id”（或指定的持有者），加锁成功后由看门狗定时续期，持有者存活期间锁不会过期；<br>
+ * 解锁：Lua 脚本比较 owner 后删除，防止误删其他持有者的锁，删除后发布释放消息；<br>
+ * 等待：不再固定间隔轮询，而是等待释放消息（最多等到锁的租约到期，防止持有者宕机没有发布消息）。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class RedisDistributedLock extends AbstractDistributedLock {
+
+    /**
+     * 查不到剩余过期时间时的最长等待时间
+     */
+    private static final long DEFAULT_WAIT_MILLIS = 100;
+
+    private final RedisDistributedLockFactory factory;
+    /**
+     * 指定的锁持有者，为空时以 “实例 id:线程 id” 作为持有者
+     */
+    private final String owner;
+
+    RedisDistributedLock(String key, RedisDistributedLockFactory factory, String owner) {
+        super(key);
+        this.factory = factory;
+        this.owner = owner;
+    }
+
+    @Override
+    protected boolean acquire(long timeoutNanos) throws InterruptedException {
+        final String redisKey = this.factory.redisKey(getKey());
+        final String owner = owner();
+        final RedisDistributedLockFactory.ReleaseSignal signal = this.factory.subscribe(getKey());
+        try {
+            final long deadline = System.nanoTime() + timeoutNanos;
+            while (true) {
+                // 先记下当前的释放次数，再尝试加锁，避免加锁失败和开始等待之间的释放消息丢失
+                final long generation = signal.generation();
+                if (this.factory.client().setIfAbsent(redisKey, owner, this.factory.leaseMillis())) {
+                    this.factory.startWatchdog(redisKey, owner);
+                    return true;
+                }
+
+                long waitMillis = this.factory.client().pttl(redisKey);
+                if (waitMillis <= 0) {
+                    waitMillis = DEFAULT_WAIT_MILLIS;
+                }
+                if (timeoutNanos != Long.MAX_VALUE) {
+                    final long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    waitMillis = Math.min(waitMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos) + 1);
+                }
+                signal.await(generation, waitMillis);
+            }
+        } finally {
+            this.factory.unsubscribe(getKey(), signal);
+        }
+    }
+
+    @Override
+    protected void release() {
+        final String redisKey = this.factory.redisKey(getKey());
+        final String owner = owner();
+        this.factory.stopWatchdog(redisKey, owner);
+        this.factory.client().compareAndDelete(redisKey, owner, this.factory.channel(getKey()));
+    }
+
+    private String owner() {
+        return null != this.owner ? this.owner : this.factory.owner();
+    }
+}
@@ -0,0 +1,166 @@
+package com.olinonee.framework.lock.distributed;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.*;
+
+/**
+ * 基于 Redis 的分布式锁工厂
+ * <p>
+ * 除了创建锁之外，还负责：
+ * <ul>
+ *     <li>看门狗：持有锁期间每隔 1/3 租约时间续期一次，续期失败说明锁已丢失，停止续期</li>
+ *     <li>释放通知：订阅 {@value #CHANNEL_PREFIX}* 频道，收到某个锁的释放消息后唤醒本实例中等待该锁的线程</li>
+ * </ul>
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class RedisDistributedLockFactory implements OwnerAwareDistributedLockFactory {
+
+    public static final String KEY_PREFIX = "lock:";
+    public static final String CHANNEL_PREFIX = "lock:release:";
+
+    private final RedisLockClient client;
+    private final long leaseMillis;
+    private final String instanceId = IdUtil.fastSimpleUUID();
+    private final ScheduledExecutorService watchdogExecutor;
+    private final ConcurrentMap<String, ScheduledFuture<?>> watchdogs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ReleaseSignal> signals = new ConcurrentHashMap<>();
+
+    public RedisDistributedLockFactory(RedisLockClient client, long leaseMillis) {
+        Assert.isTrue(leaseMillis >= 3, "租约时间过短！");
+        this.client = client;
+        this.leaseMillis = leaseMillis;
+        this.watchdogExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("redis-lock-watchdog-", true));
+    }
+
+    @Override
+    public DistributedLock getLock(String key) {
+        return getLock(key, null);
+    }
+
+    @Override
+    public AbstractDistributedLock getLock(String key, String owner) {
+        return new RedisDistributedLock(key, this, owner);
+    }
+
+    /**
+     * 收到释放消息，唤醒等待该锁的线程
+     *
+     * @param channel 消息频道
+     */
+    public void onReleaseMessage(String channel) {
+        if (!channel.startsWith(CHANNEL_PREFIX)) {
+            return;
+        }
+        final ReleaseSignal signal = this.signals.get(channel.substring(CHANNEL_PREFIX.length()));
+        if (null != signal) {
+            signal.signalAll();
+        }
+    }
+
+    /**
+     * 停止所有看门狗
+     */
+    public void shutdown() {
+        this.watchdogExecutor.shutdownNow();
+    }
+
+    RedisLockClient client() {
+        return this.client;
+    }
+
+    long leaseMillis() {
+        return this.leaseMillis;
+    }
+
+    String redisKey(String key) {
+        return KEY_PREFIX + key;
+    }
+
+    String channel(String key) {
+        return CHANNEL_PREFIX + key;
+    }
+
+    String owner() {
+        return this.instanceId + ":" + Thread.currentThread().getId();
+    }
+
+    void startWatchdog(String redisKey, String owner) {
+        final long period = this.leaseMillis / 3;
+        final String watchdogKey = redisKey + "|" + owner;
+        final ScheduledFuture<?> future = this.watchdogExecutor.scheduleAtFixedRate(() -> {
+            try {
+                if (!this.client.compareAndExpire(redisKey, owner, this.leaseMillis)) {
+                    log.warn("[RedisDistributedLockFactory#watchdog] - 锁 {} 续期失败，锁已丢失", redisKey);
+                    stopWatchdog(redisKey, owner);
+                }
+            } catch (Exception e) {
+                // 网络抖动等情况，下个周期继续续期
+                log.warn("[RedisDistributedLockFactory#watchdog] - 锁 {} 续期异常", redisKey, e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        this.watchdogs.put(watchdogKey, future);
+    }
+
+    void stopWatchdog(String redisKey, String owner) {
+        final ScheduledFuture<?> future = this.watchdogs.remove(redisKey + "|" + owner);
+        if (null != future) {
+            future.cancel(false);
+        }
+    }
+
+    ReleaseSignal subscribe(String key) {
+        return this.signals.compute(key, (k, signal) -> {
+            final ReleaseSignal current = null == signal ? new ReleaseSignal() : signal;
+            current.waiters++;
+            return current;
+        });
+    }
+
+    void unsubscribe(String key, ReleaseSignal signal) {
+        this.signals.computeIfPresent(key, (k, current) -> {
+            if (current != signal) {
+                return current;
+            }
+            current.waiters--;
+            // 没有等待者了就移除，避免 map 无限增长
+            return current.waiters == 0 ? null : current;
+        });
+    }
+
+    /**
+     * 某个锁的释放信号，用释放次数（generation）判断等待期间是否发生过释放
+     */
+    static class ReleaseSignal {
+        /**
+         * 等待者数量，只在 ConcurrentHashMap#compute 中修改
+         */
+        private int waiters;
+        private long generation;
+
+        synchronized long generation() {
+            return this.generation;
+        }
+
+        synchronized void signalAll() {
+            this.generation++;
+            notifyAll();
+        }
+
+        synchronized void await(long observedGeneration, long timeoutMillis) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + timeoutMillis;
+            long remaining = timeoutMillis;
+            while (this.generation == observedGeneration && remaining > 0) {
+                wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+    }
+}
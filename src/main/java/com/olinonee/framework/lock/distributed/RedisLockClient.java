@@ -0,0 +1,49 @@
+package com.olinonee.framework.lock.distributed;
+
+/**
+ * Redis 分布式锁用到的命令，单独抽出来便于替换成进程内的实现进行测试
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface RedisLockClient {
+
+    /**
+     * {@code SET key value NX PX leaseMillis}
+     *
+     * @param key         锁的 key
+     * @param value       锁持有者标识
+     * @param leaseMillis 租约时间（毫秒）
+     * @return 是否设置成功
+     */
+    boolean setIfAbsent(String key, String value, long leaseMillis);
+
+    /**
+     * 比较持有者后删除，删除成功后向 channel 发布释放消息（Lua 脚本，原子执行）
+     *
+     * @param key     锁的 key
+     * @param value   锁持有者标识
+     * @param channel 释放消息的频道
+     * @return 是否删除成功
+     */
+    boolean compareAndDelete(String key, String value, String channel);
+
+    /**
+     * 比较持有者后续期（Lua 脚本，原子执行）
+     *
+     * @param key         锁的 key
+     * @param value       锁持有者标识
+     * @param leaseMillis 租约时间（毫秒）
+     * @return 是否续期成功
+     */
+    boolean compareAndExpire(String key, String value, long leaseMillis);
+
+    /**
+     * {@code PTTL key}
+     *
+     * @param key 锁的 key
+     * @return 剩余过期时间（毫秒），key 不存在返回 -2，没有过期时间返回 -1
+     */
+    long pttl(String key);
+}
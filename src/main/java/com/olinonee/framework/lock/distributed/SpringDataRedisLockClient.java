@@ -0,0 +1,68 @@
+package com.olinonee.framework.lock.distributed;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 spring-data-redis 的 {@link RedisLockClient} 实现
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class SpringDataRedisLockClient implements RedisLockClient {
+
+    /**
+     * 只有持有者才能删除，删除之后通知等待者
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "redis.call('del', KEYS[1]); " +
+                    "redis.call('publish', KEYS[2], ARGV[1]); " +
+                    "return 1; " +
+                    "end; " +
+                    "return 0;", Long.class);
+
+    /**
+     * 只有持有者才能续期
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "return redis.call('pexpire', KEYS[1], ARGV[2]); " +
+                    "end; " +
+                    "return 0;", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public SpringDataRedisLockClient(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long leaseMillis) {
+        return Boolean.TRUE.equals(this.stringRedisTemplate.opsForValue().setIfAbsent(key, value, leaseMillis, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public boolean compareAndDelete(String key, String value, String channel) {
+        final Long result = this.stringRedisTemplate.execute(RELEASE_SCRIPT, Arrays.asList(key, channel), value);
+        return null != result && result > 0;
+    }
+
+    @Override
+    public boolean compareAndExpire(String key, String value, long leaseMillis) {
+        final Long result = this.stringRedisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(key), value, String.valueOf(leaseMillis));
+        return null != result && result > 0;
+    }
+
+    @Override
+    public long pttl(String key) {
+        final Long ttl = this.stringRedisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+        return null == ttl ? -2 : ttl;
+    }
+}
@@ -0,0 +1,113 @@
+package com.olinonee.framework.lock.distributed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 ZooKeeper 的分布式锁
+ * <p>
+ * 加锁：在锁的父节点下创建临时顺序节点，序号最小的节点持有锁；<br>
+ * 等待：每个等待者只监听序号紧挨在自己前面的节点，前一个节点删除时只唤醒下一个等待者，没有羊群效应，
+ * 唤醒后重新查询一次子节点（前一个节点可能是超时放弃的等待者，而不是持有者）；<br>
+ * 解锁：删除自己的节点。超时、中断放弃等待时同样删除自己的节点。
+ * <p>
+ * 锁节点是会话的临时节点，持有者宕机、会话过期后由服务端删除，不需要租约和续期；
+ * 相应地，会话过期时持锁的线程会失去锁的保护，会话超时时间要大于业务中可能出现的停顿（比如 Full GC）。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class ZookeeperDistributedLock extends AbstractDistributedLock {
+
+    private final ZookeeperDistributedLockFactory factory;
+    /**
+     * 指定的锁持有者，为空时以 “实例 id:线程 id” 作为持有者
+     */
+    private final String owner;
+
+    ZookeeperDistributedLock(String key, ZookeeperDistributedLockFactory factory, String owner) {
+        super(key);
+        this.factory = factory;
+        this.owner = owner;
+    }
+
+    @Override
+    protected boolean acquire(long timeoutNanos) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        final String owner = owner();
+        final String parent = this.factory.parentPath(getKey());
+        final ZookeeperDistributedLockFactory.LockNode node = this.factory.createNode(parent, owner);
+        boolean acquired = false;
+        try {
+            acquired = awaitTurn(parent, node.getName(), timeoutNanos, deadline);
+            if (acquired) {
+                this.factory.holdNode(getKey(), owner, node);
+            }
+            return acquired;
+        } finally {
+            if (!acquired) {
+                deleteQuietly(node.getPath());
+            }
+        }
+    }
+
+    @Override
+    protected void release() {
+        final ZookeeperDistributedLockFactory.LockNode node = this.factory.releaseNode(getKey(), owner());
+        if (null == node) {
+            log.warn("[ZookeeperDistributedLock#release] - 锁 {} 已随会话过期释放", getKey());
+            return;
+        }
+        this.factory.deleteNode(node.getPath());
+    }
+
+    /**
+     * 等待自己的节点成为序号最小的节点
+     */
+    private boolean awaitTurn(String parent, String node, long timeoutNanos, long deadline) throws InterruptedException {
+        while (true) {
+            final List<String> children = this.factory.sortedChildren(parent);
+            final int index = children.indexOf(node);
+            if (index < 0) {
+                throw new IllegalStateException("锁节点已被删除，会话可能已经过期：" + parent + "/" + node);
+            }
+            if (index == 0) {
+                return true;
+            }
+
+            final CountDownLatch deleted = new CountDownLatch(1);
+            if (!this.factory.watchDeletion(parent + "/" + children.get(index - 1), deleted)) {
+                // 查询子节点之后前一个节点已经删除，重新检查
+                continue;
+            }
+            if (timeoutNanos == Long.MAX_VALUE) {
+                deleted.await();
+            } else {
+                final long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0 || !deleted.await(remainingNanos, TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * 放弃等待时删除自己的节点，失败时只记录日志，节点会在会话结束时由服务端删除
+     */
+    private void deleteQuietly(String path) {
+        try {
+            this.factory.deleteNode(path);
+        } catch (Exception e) {
+            log.warn("[ZookeeperDistributedLock#deleteQuietly] - 删除锁节点 {} 失败", path, e);
+        }
+    }
+
+    private String owner() {
+        return null != this.owner ? this.owner : this.factory.owner();
+    }
+}
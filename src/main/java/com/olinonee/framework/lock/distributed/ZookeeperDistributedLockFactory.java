@@ -0,0 +1,363 @@
+package com.olinonee.framework.lock.distributed;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.zookeeper.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 基于 ZooKeeper 的分布式锁工厂
+ * <p>
+ * 除了创建锁之外，还负责：
+ * <ul>
+ *     <li>会话：所有锁共用一个 ZooKeeper 会话，锁节点都是该会话的临时节点，实例宕机、会话过期后由服务端自动删除；
+ *     会话过期后下一次使用时重新建立会话</li>
+ *     <li>锁节点：记录每个持有者创建的锁节点以及创建它的会话，解锁时删除；创建节点时网络中断的，按节点名称前缀找回已经创建的节点；
+ *     会话过期时只丢弃该会话创建的节点记录，过期事件晚于重连到达时不会影响新会话上的锁</li>
+ * </ul>
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class ZookeeperDistributedLockFactory implements OwnerAwareDistributedLockFactory {
+
+    /**
+     * 锁节点名称中固定的部分，完整名称为 “随机前缀-lock-序号”
+     */
+    static final String NODE_MARKER = "-lock-";
+
+    /**
+     * 顺序节点序号的长度
+     */
+    private static final int SEQUENCE_LENGTH = 10;
+
+    /**
+     * 连接中断（ConnectionLoss）时的重试次数和重试间隔
+     */
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_INTERVAL_MILLIS = 100;
+
+    private final String connectString;
+    private final int sessionTimeoutMillis;
+    private final String rootPath;
+    private final String instanceId = IdUtil.fastSimpleUUID();
+
+    private volatile ZooKeeper zooKeeper;
+    private volatile boolean running = true;
+
+    /**
+     * 持有者当前持有的锁节点，key 为 “锁的 key|持有者”
+     */
+    private final ConcurrentMap<String, LockNode> heldNodes = new ConcurrentHashMap<>();
+
+    /**
+     * @param connectString        ZooKeeper 地址，多个地址用逗号分隔
+     * @param sessionTimeoutMillis 会话超时时间（毫秒），实例宕机后超过该时间锁自动释放
+     * @param rootPath             锁节点的根路径
+     */
+    public ZookeeperDistributedLockFactory(String connectString, int sessionTimeoutMillis, String rootPath) {
+        Assert.notBlank(connectString, "ZooKeeper 地址不能为空！");
+        Assert.isTrue(sessionTimeoutMillis > 0, "会话超时时间必须大于 0！");
+        Assert.isTrue(rootPath.startsWith("/") && !rootPath.endsWith("/"), "根路径必须以 / 开头，且不能以 / 结尾！");
+        this.connectString = connectString;
+        this.sessionTimeoutMillis = sessionTimeoutMillis;
+        this.rootPath = rootPath;
+        this.zooKeeper = connect();
+        createPersistentPath(rootPath);
+    }
+
+    @Override
+    public DistributedLock getLock(String key) {
+        return getLock(key, null);
+    }
+
+    @Override
+    public AbstractDistributedLock getLock(String key, String owner) {
+        return new ZookeeperDistributedLock(key, this, owner);
+    }
+
+    /**
+     * 关闭会话，本实例创建的锁节点随之删除
+     */
+    public synchronized void shutdown() {
+        this.running = false;
+        try {
+            this.zooKeeper.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    String owner() {
+        return this.instanceId + ":" + Thread.currentThread().getId();
+    }
+
+    /**
+     * 锁的父节点，同一个锁的所有等待者在它下面创建顺序节点
+     */
+    String parentPath(String key) {
+        return this.rootPath + "/" + key.replace('/', '_');
+    }
+
+    /**
+     * 创建临时顺序节点，节点数据为持有者
+     *
+     * @param parent 父节点
+     * @param owner  持有者
+     * @return 锁节点
+     */
+    LockNode createNode(String parent, String owner) {
+        // 随机前缀用来在连接中断后确认节点是否已经创建，前缀不参与排序
+        final String prefix = IdUtil.fastSimpleUUID() + NODE_MARKER;
+        final byte[] data = owner.getBytes(StandardCharsets.UTF_8);
+        for (int attempt = 0; ; attempt++) {
+            final ZooKeeper zk = client();
+            try {
+                final String path = zk.create(parent + "/" + prefix, data, ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL_SEQUENTIAL);
+                return new LockNode(parent, path.substring(parent.length() + 1), zk.getSessionId());
+            } catch (KeeperException.NoNodeException e) {
+                // 父节点是容器节点，最后一个子节点删除后会被服务端清理，重新创建即可
+                createContainer(parent);
+            } catch (KeeperException.ConnectionLossException e) {
+                // 创建请求可能已经在服务端执行成功，找回该节点，否则它会一直挡住后面的等待者，直到会话过期
+                for (String child : children(parent)) {
+                    if (child.startsWith(prefix)) {
+                        return new LockNode(parent, child, zk.getSessionId());
+                    }
+                }
+                if (attempt >= MAX_RETRIES) {
+                    throw new IllegalStateException("创建锁节点失败：" + parent, e);
+                }
+                sleepBeforeRetry();
+            } catch (KeeperException e) {
+                throw new IllegalStateException("创建锁节点失败：" + parent, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("创建锁节点时被中断：" + parent, e);
+            }
+        }
+    }
+
+    /**
+     * 父节点下的锁节点，按序号从小到大排序，父节点不存在时返回空列表
+     */
+    List<String> sortedChildren(String parent) {
+        return children(parent).stream()
+                .filter(child -> child.contains(NODE_MARKER))
+                .sorted(Comparator.comparing(child -> child.substring(child.length() - SEQUENCE_LENGTH)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 监听节点删除
+     *
+     * @param path    节点路径
+     * @param deleted 节点删除（或会话结束）时计数减一
+     * @return 节点是否存在，不存在时不会注册监听
+     */
+    boolean watchDeletion(String path, CountDownLatch deleted) {
+        return null != execute("监听锁节点：" + path, zk -> zk.exists(path, event -> {
+            // 连接中断时客户端会在重连后自动重新注册监听，不需要唤醒等待者
+            if (event.getType() != Watcher.Event.EventType.None
+                    || event.getState() == Watcher.Event.KeeperState.Expired
+                    || event.getState() == Watcher.Event.KeeperState.Closed) {
+                deleted.countDown();
+            }
+        }));
+    }
+
+    /**
+     * 删除锁节点，节点已经不存在（会话过期）时忽略
+     */
+    void deleteNode(String path) {
+        execute("删除锁节点：" + path, zk -> {
+            try {
+                zk.delete(path, -1);
+            } catch (KeeperException.NoNodeException e) {
+                log.warn("[ZookeeperDistributedLockFactory#deleteNode] - 锁节点 {} 已经不存在，会话可能已经过期", path);
+            }
+            return null;
+        });
+    }
+
+    void holdNode(String key, String owner, LockNode node) {
+        this.heldNodes.put(key + "|" + owner, node);
+    }
+
+    LockNode releaseNode(String key, String owner) {
+        return this.heldNodes.remove(key + "|" + owner);
+    }
+
+    private List<String> children(String parent) {
+        return execute("查询锁节点：" + parent, zk -> {
+            try {
+                return zk.getChildren(parent, false);
+            } catch (KeeperException.NoNodeException e) {
+                return Collections.<String>emptyList();
+            }
+        });
+    }
+
+    private void createPersistentPath(String path) {
+        int index = 0;
+        while ((index = path.indexOf('/', index + 1)) > 0) {
+            createIfAbsent(path.substring(0, index), CreateMode.PERSISTENT);
+        }
+        createIfAbsent(path, CreateMode.PERSISTENT);
+    }
+
+    private void createContainer(String path) {
+        createIfAbsent(path, CreateMode.CONTAINER);
+    }
+
+    private void createIfAbsent(String path, CreateMode mode) {
+        execute("创建节点：" + path, zk -> {
+            try {
+                zk.create(path, new byte[0], ZooDefs.Ids.OPEN_ACL_UNSAFE, mode);
+            } catch (KeeperException.NodeExistsException ignored) {
+                // 其他实例已经创建
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 执行幂等的 ZooKeeper 操作，连接中断时重试
+     */
+    private <T> T execute(String action, ZookeeperCall<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return call.call(client());
+            } catch (KeeperException.ConnectionLossException e) {
+                if (attempt >= MAX_RETRIES) {
+                    throw new IllegalStateException(action + " 失败", e);
+                }
+                sleepBeforeRetry();
+            } catch (KeeperException e) {
+                throw new IllegalStateException(action + " 失败", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(action + " 时被中断", e);
+            }
+        }
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(RETRY_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("重试 ZooKeeper 操作时被中断", e);
+        }
+    }
+
+    /**
+     * 当前会话，会话过期后重新建立
+     */
+    private ZooKeeper client() {
+        final ZooKeeper current = this.zooKeeper;
+        if (current.getState().isAlive()) {
+            return current;
+        }
+        synchronized (this) {
+            if (!this.running) {
+                throw new IllegalStateException("ZooKeeper 分布式锁工厂已关闭！");
+            }
+            if (!this.zooKeeper.getState().isAlive()) {
+                this.zooKeeper = connect();
+            }
+            return this.zooKeeper;
+        }
+    }
+
+    private ZooKeeper connect() {
+        final CountDownLatch connected = new CountDownLatch(1);
+        // 过期事件在该会话自己的事件线程上回调，此时可能已经重连，只能按会话 id 丢弃它创建的节点
+        final AtomicLong sessionId = new AtomicLong();
+        try {
+            final ZooKeeper zk = new ZooKeeper(this.connectString, this.sessionTimeoutMillis, event -> {
+                if (event.getState() == Watcher.Event.KeeperState.SyncConnected) {
+                    connected.countDown();
+                } else if (event.getState() == Watcher.Event.KeeperState.Expired) {
+                    onExpired(sessionId.get());
+                }
+            });
+            if (!connected.await(this.sessionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                zk.close();
+                throw new IllegalStateException("连接 ZooKeeper 超时：" + this.connectString);
+            }
+            sessionId.set(zk.getSessionId());
+            return zk;
+        } catch (IOException e) {
+            throw new IllegalStateException("连接 ZooKeeper 失败：" + this.connectString, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("连接 ZooKeeper 时被中断：" + this.connectString, e);
+        }
+    }
+
+    /**
+     * 会话过期，服务端已经删除了该会话的所有锁节点，在该会话上持锁的线程已经不再受锁保护
+     * <p>
+     * 只丢弃该会话创建的节点记录：过期事件到达之前可能已经重连，新会话上刚刚获取的锁不受影响
+     *
+     * @param sessionId 过期的会话 id
+     */
+    void onExpired(long sessionId) {
+        final int[] expired = {0};
+        this.heldNodes.values().removeIf(node -> {
+            final boolean matched = node.sessionId == sessionId;
+            if (matched) {
+                expired[0]++;
+            }
+            return matched;
+        });
+        log.warn("[ZookeeperDistributedLockFactory#onExpired] - 会话 0x{} 过期，本实例在该会话上持有的 {} 个锁已经失效",
+                Long.toHexString(sessionId), expired[0]);
+    }
+
+    /**
+     * 锁节点以及创建它的会话
+     */
+    static class LockNode {
+        private final String parent;
+        private final String name;
+        private final long sessionId;
+
+        private LockNode(String parent, String name, long sessionId) {
+            this.parent = parent;
+            this.name = name;
+            this.sessionId = sessionId;
+        }
+
+        String getName() {
+            return this.name;
+        }
+
+        String getPath() {
+            return this.parent + "/" + this.name;
+        }
+    }
+
+    /**
+     * 一次 ZooKeeper 操作
+     */
+    @FunctionalInterface
+    private interface ZookeeperCall<T> {
+        T call(ZooKeeper zk) throws KeeperException, InterruptedException;
+    }
+}
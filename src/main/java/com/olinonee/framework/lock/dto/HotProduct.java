@@ -0,0 +1,25 @@
+package com.olinonee.framework.lock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 热点商品探测结果
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotProduct {
+
+    // 商品编号
+    private String productCode;
+    // 窗口内访问次数的估计值
+    private long count;
+    // 是否被标记为热点
+    private boolean hot;
+}
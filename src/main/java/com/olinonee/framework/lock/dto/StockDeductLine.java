@@ -0,0 +1,23 @@
+package com.olinonee.framework.lock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 订单中的一行减库存明细
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDeductLine {
+
+    // 商品编号
+    private String productCode;
+    // 扣减数量
+    private Integer count;
+}
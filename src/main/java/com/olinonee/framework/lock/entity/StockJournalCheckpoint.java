@@ -0,0 +1,22 @@
+package com.olinonee.framework.lock.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+/**
+ * 库存日志检查点：日志中已经同步到 {@code tb_stock} 的位置
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Data
+@TableName("tb_stock_journal_checkpoint")
+public class StockJournalCheckpoint {
+
+    private String journalId;
+    // 日志文件的轮次，每次日志文件从头开始写时加 1
+    private Long epoch;
+    // 该轮次中已经同步到数据库的位置
+    private Long flushedOffset;
+}
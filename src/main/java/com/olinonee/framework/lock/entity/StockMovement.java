@@ -0,0 +1,25 @@
+package com.olinonee.framework.lock.entity;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 库存流水（只追加，不修改）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Data
+public class StockMovement {
+
+    private Long id;
+    // 请求 id，可以为空
+    private String requestId;
+    private String productCode;
+    private String warehouse;
+    // 库存变化量，扣减为负数，入库为正数
+    private Integer delta;
+    private Date gmtCreate;
+}
@@ -0,0 +1,21 @@
+package com.olinonee.framework.lock.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+/**
+ * 库存槽位：热点商品的库存拆分到多行，每行是总库存的一部分
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Data
+@TableName("tb_stock_slot")
+public class StockSlot {
+
+    private String productCode;
+    // 槽位编号，从 0 开始连续编号
+    private Integer slotNo;
+    private Integer count;
+}
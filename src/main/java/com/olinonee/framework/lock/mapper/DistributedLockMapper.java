@@ -0,0 +1,24 @@
+package com.olinonee.framework.lock.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 分布式锁表 mapper接口
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Mapper
+public interface DistributedLockMapper {
+
+    int insertLock(@Param("lockKey") String lockKey, @Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    int takeOverExpiredLock(@Param("lockKey") String lockKey, @Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    int renewLock(@Param("lockKey") String lockKey, @Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    int deleteLock(@Param("lockKey") String lockKey, @Param("owner") String owner);
+
+}
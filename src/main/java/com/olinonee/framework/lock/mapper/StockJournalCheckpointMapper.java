@@ -0,0 +1,25 @@
+package com.olinonee.framework.lock.mapper;
+
+import com.olinonee.framework.lock.entity.StockJournalCheckpoint;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 库存日志检查点 mapper接口
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Mapper
+public interface StockJournalCheckpointMapper {
+
+    StockJournalCheckpoint selectCheckpoint(@Param("journalId") String journalId);
+
+    StockJournalCheckpoint selectCheckpointForUpdate(@Param("journalId") String journalId);
+
+    int insertCheckpointIfAbsent(@Param("journalId") String journalId);
+
+    int saveCheckpoint(@Param("journalId") String journalId, @Param("epoch") long epoch, @Param("flushedOffset") long flushedOffset);
+
+}
@@ -5,7 +5,9 @@ import com.olinonee.framework.lock.entity.Stock;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 库存 mapper接口
@@ -21,4 +23,31 @@ public interface StockMapper extends BaseMapper<Stock> {
 
     List<Stock> queryStockForUpdate(@Param("productCode") String productCode);
 
+    int leaseStock(@Param("id") Long id, @Param("count") Integer count);
+
+    int settleLease(@Param("id") Long id, @Param("leased") Integer leased, @Param("unused") Integer unused);
+
+    int selectOutstanding(@Param("productCode") String productCode);
+
+    int applyDeduction(@Param("id") Long id, @Param("count") Integer count);
+
+    List<Stock> queryStocksForUpdate(@Param("productCodes") Collection<String> productCodes);
+
+    int deductStocks(@Param("deductions") Map<Long, Integer> deductions);
+
+    List<Long> selectAvailableWarehouseIds(@Param("productCode") String productCode, @Param("count") Integer count,
+                                           @Param("warehousePriority") List<String> warehousePriority);
+
+    Stock selectWarehouseSkipLocked(@Param("id") Long id, @Param("count") Integer count);
+
+    Stock selectWarehouseForUpdate(@Param("id") Long id, @Param("count") Integer count);
+
+    int selectTotalCount(@Param("productCode") String productCode);
+
+    Stock selectStockByProductCode(@Param("productCode") String productCode);
+
+    int updateCount(@Param("id") Long id, @Param("productCode") String productCode, @Param("count") Integer count);
+
+    int applyMovement(@Param("productCode") String productCode, @Param("warehouse") String warehouse, @Param("delta") Integer delta);
+
 }
@@ -0,0 +1,28 @@
+package com.olinonee.framework.lock.mapper;
+
+import com.olinonee.framework.lock.entity.StockMovement;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 库存流水 mapper接口
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Mapper
+public interface StockMovementMapper {
+
+    int insertMovement(StockMovement movement);
+
+    Long selectMaxMovementId(@Param("fromId") long fromId, @Param("before") Date before);
+
+    List<StockMovement> sumMovements(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    int selectLedgerStock(@Param("productCode") String productCode, @Param("checkpointId") String checkpointId);
+
+}
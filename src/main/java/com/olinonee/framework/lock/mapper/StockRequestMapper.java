@@ -0,0 +1,24 @@
+package com.olinonee.framework.lock.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+
+/**
+ * 减库存请求去重表 mapper接口
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Mapper
+public interface StockRequestMapper {
+
+    int countRequest(@Param("requestId") String requestId);
+
+    int insertRequest(@Param("requestId") String requestId, @Param("productCode") String productCode, @Param("count") Integer count);
+
+    int deleteExpired(@Param("before") Date before, @Param("limit") int limit);
+
+}
@@ -0,0 +1,29 @@
+package com.olinonee.framework.lock.mapper;
+
+import com.olinonee.framework.lock.entity.StockSlot;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 库存槽位 mapper接口
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Mapper
+public interface StockSlotMapper {
+
+    int countSlots(@Param("productCode") String productCode);
+
+    int deductSlot(@Param("productCode") String productCode, @Param("slotNo") int slotNo, @Param("count") Integer count);
+
+    List<StockSlot> selectSlotsForUpdate(@Param("productCode") String productCode);
+
+    int insertSlots(@Param("slots") List<StockSlot> slots);
+
+    int deleteSlots(@Param("productCode") String productCode);
+
+}
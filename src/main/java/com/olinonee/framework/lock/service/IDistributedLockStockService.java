@@ -0,0 +1,18 @@
+package com.olinonee.framework.lock.service;
+
+/**
+ * 库存业务 接口（分布式锁）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface IDistributedLockStockService {
+
+    /**
+     * 减库存（超卖问题），基于 MySQL 数据库，使用分布式锁
+     *
+     * @param productCode 商品编号
+     */
+    void baseMysqlDeductWithDistributedLock(String productCode);
+}
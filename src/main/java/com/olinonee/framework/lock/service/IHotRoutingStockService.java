@@ -0,0 +1,29 @@
+package com.olinonee.framework.lock.service;
+
+import com.olinonee.framework.lock.dto.HotProduct;
+
+import java.util.List;
+
+/**
+ * 库存业务 接口（按热点自动路由）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface IHotRoutingStockService {
+
+    /**
+     * 减库存，热点商品走合并提交，其余商品直接条件更新
+     *
+     * @param productCode 商品编号
+     */
+    void deductWithHotRouting(String productCode);
+
+    /**
+     * 访问次数最多的商品及其热点标记
+     *
+     * @return 商品列表
+     */
+    List<HotProduct> queryHotProducts();
+}
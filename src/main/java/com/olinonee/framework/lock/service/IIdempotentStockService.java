@@ -0,0 +1,38 @@
+package com.olinonee.framework.lock.service;
+
+/**
+ * 库存业务 接口（幂等减库存）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface IIdempotentStockService {
+
+    /**
+     * 按请求 id 幂等减库存，同一个请求 id 重试多少次都只扣减一次
+     *
+     * @param requestId   请求 id（客户端生成，重试时不变）
+     * @param productCode 商品编号
+     * @return 扣减结果
+     */
+    Result deductIdempotent(String requestId, String productCode);
+
+    /**
+     * 扣减结果
+     */
+    enum Result {
+        /**
+         * 扣减成功
+         */
+        DEDUCTED,
+        /**
+         * 重复请求，之前已经扣减成功，本次不再扣减
+         */
+        DUPLICATE,
+        /**
+         * 库存不足，没有扣减，也没有记录请求 id，可以重试
+         */
+        REJECTED
+    }
+}
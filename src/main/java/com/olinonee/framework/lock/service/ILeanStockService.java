@@ -0,0 +1,18 @@
+package com.olinonee.framework.lock.service;
+
+/**
+ * 库存业务 接口（精简热路径）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface ILeanStockService {
+
+    /**
+     * 减库存，基于 MySQL 数据库，使用 ReentrantLock 分段锁，预定义 SQL，不构造查询条件，锁内不输出日志
+     *
+     * @param productCode 商品编号
+     */
+    void deductLean(String productCode);
+}
@@ -0,0 +1,34 @@
+package com.olinonee.framework.lock.service;
+
+/**
+ * 库存业务 接口（库存流水账本）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface ILedgerStockService {
+
+    /**
+     * 减库存，追加一条库存流水，不修改库存行
+     *
+     * @param requestId   请求 id，可以为空
+     * @param productCode 商品编号
+     */
+    void deductWithLedger(String requestId, String productCode);
+
+    /**
+     * 查询当前库存（库存快照 + 快照之后的流水）
+     *
+     * @param productCode 商品编号
+     * @return 当前库存
+     */
+    int queryLedgerStock(String productCode);
+
+    /**
+     * 立即把库存流水合并到库存快照
+     *
+     * @return 合并的流水汇总条数
+     */
+    int snapshot();
+}
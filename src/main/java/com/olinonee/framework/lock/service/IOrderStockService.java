@@ -0,0 +1,23 @@
+package com.olinonee.framework.lock.service;
+
+import com.olinonee.framework.lock.dto.StockDeductLine;
+
+import java.util.List;
+
+/**
+ * 库存业务 接口（订单多商品减库存）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface IOrderStockService {
+
+    /**
+     * 一个订单中的多个商品一起减库存，要么全部成功，要么全部不扣减
+     *
+     * @param lines 减库存明细
+     * @return 是否扣减成功，任意一个商品库存不足时返回 false
+     */
+    boolean deductOrder(List<StockDeductLine> lines);
+}
@@ -0,0 +1,18 @@
+package com.olinonee.framework.lock.service;
+
+/**
+ * 库存业务 接口（实例级库存配额）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface IQuotaStockService {
+
+    /**
+     * 减库存，从本实例预先租借的库存配额中扣减，数据库每块库存只写一次
+     *
+     * @param productCode 商品编号
+     */
+    void deductWithQuota(String productCode);
+}
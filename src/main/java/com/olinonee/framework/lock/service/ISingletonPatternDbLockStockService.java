@@ -13,4 +13,9 @@ public interface ISingletonPatternDbLockStockService {
      * 使用数据库锁（原子性，行锁或者表锁）减库存
      */
     void deductWithDbLock();
+
+    /**
+     * 使用数据库锁减库存，同一商品的并发请求合并成一条 UPDATE 提交（group commit）
+     */
+    void deductWithGroupCommit();
 }
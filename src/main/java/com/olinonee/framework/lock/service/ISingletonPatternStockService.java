@@ -26,16 +26,22 @@ public interface ISingletonPatternStockService {
 
     /**
      * 减库存（超卖问题），基于 MySQL 数据库，未使用锁情况
+     *
+     * @param productCode 商品编号
      */
-    void baseMysqlDeductWithoutLock();
+    void baseMysqlDeductWithoutLock(String productCode);
 
     /**
      * 减库存（超卖问题），基于 MySQL 数据库，使用 synchronized 锁
+     *
+     * @param productCode 商品编号
      */
-    void baseMysqlDeductWithSynchronizedLock();
+    void baseMysqlDeductWithSynchronizedLock(String productCode);
 
     /**
      * 减库存（超卖问题），基于 MySQL 数据库，使用 ReentrantLock 锁
+     *
+     * @param productCode 商品编号
      */
-    void baseMysqlDeductWithReentrantLock();
+    void baseMysqlDeductWithReentrantLock(String productCode);
 }
@@ -0,0 +1,43 @@
+package com.olinonee.framework.lock.service;
+
+/**
+ * 库存业务 接口（热点商品库存槽位）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface ISlotStockService {
+
+    /**
+     * 从商品的某个槽位减库存，槽位没货时依次尝试其他槽位
+     *
+     * @param productCode 商品编号
+     */
+    void deductWithSlots(String productCode);
+
+    /**
+     * 把商品的库存（含已有的槽位）重新平均拆分到指定数量的槽位，可以在线执行
+     *
+     * @param productCode 商品编号
+     * @param slots       槽位数
+     * @return 拆分的库存总数
+     */
+    int splitSlots(String productCode, int slots);
+
+    /**
+     * 把商品所有槽位的库存合并回库存记录，可以在线执行
+     *
+     * @param productCode 商品编号
+     * @return 合并的库存数
+     */
+    int mergeSlots(String productCode);
+
+    /**
+     * 查询商品总库存（库存记录 + 所有槽位）
+     *
+     * @param productCode 商品编号
+     * @return 总库存
+     */
+    int queryTotalStock(String productCode);
+}
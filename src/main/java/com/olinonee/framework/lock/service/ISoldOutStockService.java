@@ -0,0 +1,29 @@
+package com.olinonee.framework.lock.service;
+
+import java.util.Set;
+
+/**
+ * 库存业务 接口（售罄标记、补货）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface ISoldOutStockService {
+
+    /**
+     * 补货到指定仓库，开启 write-behind 日志或者库存流水账本时经过它们补货，补货提交后清除商品的售罄标记（包括其他实例）
+     *
+     * @param productCode 商品编号
+     * @param warehouse   仓库
+     * @param count       补货数量
+     */
+    void restock(String productCode, String warehouse, int count);
+
+    /**
+     * 当前被标记为售罄的商品
+     *
+     * @return 商品编号
+     */
+    Set<String> querySoldOutProducts();
+}
@@ -0,0 +1,28 @@
+package com.olinonee.framework.lock.service;
+
+/**
+ * 库存查询 接口
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface IStockQueryService {
+
+    /**
+     * 查询商品库存（近端缓存，用于展示）
+     *
+     * @param productCode 商品编号
+     * @return 总库存
+     */
+    int queryStock(String productCode);
+
+    /**
+     * 可售判断（近端缓存，下单前的预判，扣减时仍以数据库为准）
+     *
+     * @param productCode 商品编号
+     * @param count       购买数量
+     * @return 是否可售
+     */
+    boolean isAvailable(String productCode, int count);
+}
@@ -18,4 +18,11 @@ public interface ITransactionalDbLockStockService {
      * 使用 select ... for update 更新减库存，悲观锁（行级锁）
      */
     void deductWithDbLockForUpdate();
+
+    /**
+     * 多仓库存分配，使用 select ... for update skip locked 锁定一个有货的仓库，并发请求分散到不同的仓库
+     *
+     * @param productCode 商品编号
+     */
+    void deductWithWarehouseSkipLocked(String productCode);
 }
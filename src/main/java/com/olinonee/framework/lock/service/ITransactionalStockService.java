@@ -11,11 +11,15 @@ public interface ITransactionalStockService {
 
     /**
      * 减库存（超卖问题），基于 MySQL 数据库，使用 事务 + synchronized 锁
+     *
+     * @param productCode 商品编号
      */
-    void baseMysqlDeductWithSynchronizedLock();
+    void baseMysqlDeductWithSynchronizedLock(String productCode);
 
     /**
      * 减库存（超卖问题），基于 MySQL 数据库，使用 事务 + ReentrantLock 锁
+     *
+     * @param productCode 商品编号
      */
-    void baseMysqlDeductWithReentrantLock();
+    void baseMysqlDeductWithReentrantLock(String productCode);
 }
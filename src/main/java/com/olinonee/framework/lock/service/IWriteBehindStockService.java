@@ -0,0 +1,18 @@
+package com.olinonee.framework.lock.service;
+
+/**
+ * 库存业务 接口（write-behind）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public interface IWriteBehindStockService {
+
+    /**
+     * 减库存，在内存中扣减并写入日志，异步同步到数据库
+     *
+     * @param productCode 商品编号
+     */
+    void deductWithWriteBehind(String productCode);
+}
@@ -0,0 +1,61 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.olinonee.framework.lock.distributed.DistributedLock;
+import com.olinonee.framework.lock.distributed.DistributedLockFactory;
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.service.IDistributedLockStockService;
+import com.olinonee.framework.lock.support.LockDeadlockDetector;
+import com.olinonee.framework.lock.support.StockMetrics;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 库存业务 接口实现类（分布式锁）
+ * <p>
+ * 和 {@link SingletonPatternStockServiceImpl#baseMysqlDeductWithReentrantLock} 的查询、修改流程一样，只是把 JVM 本地锁换成了分布式锁，
+ * 多实例（集群）部署时依然有效，具体使用哪种分布式锁由 {@code stock.distributed-lock.type} 决定
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class DistributedLockStockServiceImpl implements IDistributedLockStockService {
+
+    private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+    private final DistributedLockFactory distributedLockFactory;
+    private final LockDeadlockDetector lockDeadlockDetector;
+
+    /**
+     * 减库存（超卖问题），基于 MySQL 数据库，使用分布式锁，集群下有效解决超卖问题
+     */
+    @Override
+    public void baseMysqlDeductWithDistributedLock(String productCode) {
+        final DistributedLock lock = this.distributedLockFactory.getLock("stock:" + productCode);
+        final long waitStart = System.nanoTime();
+        this.lockDeadlockDetector.lock(lock.getKey(), lock::tryLock);
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+        try {
+            LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+            stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
+            final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
+
+            if (null != stk && stk.getCount() > 0) {
+                stk.setCount(stk.getCount() - 1);
+                log.info("[DistributedLockStockServiceImpl#baseMysqlDeductWithDistributedLock] - 库存余量为：{}", stk.getCount());
+                this.stockMapper.updateById(stk);
+            } else {
+                this.stockMetrics.soldOut(productCode);
+            }
+        } finally {
+            this.lockDeadlockDetector.unlock(lock.getKey(), lock::unlock);
+            this.stockMetrics.lockReleased(acquiredAt);
+        }
+    }
+}
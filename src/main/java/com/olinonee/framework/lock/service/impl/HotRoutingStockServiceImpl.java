@@ -0,0 +1,50 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.dto.HotProduct;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.service.IHotRoutingStockService;
+import com.olinonee.framework.lock.support.HotProductDetector;
+import com.olinonee.framework.lock.support.StockDeductionBatcher;
+import com.olinonee.framework.lock.support.StockMetrics;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 库存业务 接口实现类（按热点自动路由）
+ * <p>
+ * 冷门商品几乎没有并发，一条 {@code UPDATE ... WHERE count >= ?} 最快；热点商品的并发请求都在争同一行的行锁，
+ * 交给 {@link StockDeductionBatcher} 合并提交，每一批只获取一次行锁。两种方式都直接扣减 {@code tb_stock}，
+ * 商品在冷热之间切换时不需要迁移任何状态
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class HotRoutingStockServiceImpl implements IHotRoutingStockService {
+
+    private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+    private final HotProductDetector hotProductDetector;
+    private final StockDeductionBatcher stockDeductionBatcher;
+
+    @Override
+    public void deductWithHotRouting(String productCode) {
+        final boolean deducted = this.hotProductDetector.isHot(productCode)
+                ? this.stockDeductionBatcher.deduct(productCode, 1)
+                : this.stockMapper.updateStock(productCode, 1) > 0;
+        if (!deducted) {
+            this.stockMetrics.soldOut(productCode);
+        }
+    }
+
+    @Override
+    public List<HotProduct> queryHotProducts() {
+        return this.hotProductDetector.topProducts();
+    }
+}
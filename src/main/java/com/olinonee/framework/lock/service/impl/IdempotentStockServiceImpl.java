@@ -0,0 +1,56 @@
+package com.olinonee.framework.lock.service.impl;
+
+import cn.hutool.core.lang.Assert;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.service.IIdempotentStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.olinonee.framework.lock.support.StockRequestDeduplicator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+/**
+ * 库存业务 接口实现类（幂等减库存）
+ * <p>
+ * 客户端超时重试时，{@code updateStock} 没有幂等键，同一个请求会被扣减多次。这里在同一个事务中先记录请求 id、再扣减：
+ * 请求 id 已经存在说明之前扣减成功过，直接返回；扣减失败时事务回滚，请求 id 一起回滚
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class IdempotentStockServiceImpl implements IIdempotentStockService {
+
+    /**
+     * 请求 id 最大长度，和去重表字段长度一致
+     */
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+    private final StockRequestDeduplicator stockRequestDeduplicator;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Result deductIdempotent(String requestId, String productCode) {
+        Assert.notBlank(requestId, "请求 id 不能为空！");
+        Assert.isTrue(requestId.length() <= MAX_REQUEST_ID_LENGTH, "请求 id 长度不能超过 {}！", MAX_REQUEST_ID_LENGTH);
+        // 1.已经处理过，或者并发的同一个请求先提交了
+        if (this.stockRequestDeduplicator.isProcessed(requestId) || !this.stockRequestDeduplicator.record(requestId, productCode, 1)) {
+            log.info("[IdempotentStockServiceImpl#deductIdempotent] - 重复请求：{}", requestId);
+            return Result.DUPLICATE;
+        }
+        // 2.扣减库存，库存不足时回滚请求记录，重试时重新判断
+        if (this.stockMapper.updateStock(productCode, 1) == 0) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            this.stockMetrics.soldOut(productCode);
+            return Result.REJECTED;
+        }
+        return Result.DEDUCTED;
+    }
+}
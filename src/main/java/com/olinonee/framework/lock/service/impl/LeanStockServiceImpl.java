@@ -0,0 +1,63 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.service.ILeanStockService;
+import com.olinonee.framework.lock.support.LockDeadlockDetector;
+import com.olinonee.framework.lock.support.StockAuditLogger;
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.olinonee.framework.lock.support.StripedLockRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 库存业务 接口实现类（精简热路径）
+ * <p>
+ * 和 {@code SingletonPatternStockServiceImpl#baseMysqlDeductWithReentrantLock} 的加锁方式、SQL 次数完全一样，区别只在热路径上的开销：
+ * <ul>
+ *     <li>查询、更新使用 mapper XML 中预定义的语句，参数固定绑定，不再每次构造 {@code LambdaQueryWrapper}（lambda 序列化解析字段名），
+ *     也不经过 {@code updateById} 的动态 SQL</li>
+ *     <li>锁内不输出日志，释放锁之后交给 {@link StockAuditLogger} 采样、异步输出</li>
+ * </ul>
+ * 两者的分配速率可以通过基准测试 {@code mysqlReentrantLock} 和 {@code leanReentrantLock} 对比（{@code -Dbench.gc=true}）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Service
+@AllArgsConstructor
+public class LeanStockServiceImpl implements ILeanStockService {
+
+    private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+    private final StripedLockRegistry stripedLockRegistry;
+    private final LockDeadlockDetector lockDeadlockDetector;
+    private final StockAuditLogger stockAuditLogger;
+
+    @Override
+    public void deductLean(String productCode) {
+        final ReentrantLock productLock = this.stripedLockRegistry.getLock(productCode);
+        final long waitStart = System.nanoTime();
+        this.lockDeadlockDetector.lock(productLock);
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+        int remaining = -1;
+        try {
+            final Stock stock = this.stockMapper.selectStockByProductCode(productCode);
+            if (null != stock && stock.getCount() > 0) {
+                remaining = stock.getCount() - 1;
+                this.stockMapper.updateCount(stock.getId(), productCode, remaining);
+            } else {
+                this.stockMetrics.soldOut(productCode);
+            }
+        } finally {
+            this.lockDeadlockDetector.unlock(productLock);
+            this.stockMetrics.lockReleased(acquiredAt);
+        }
+        if (remaining >= 0) {
+            this.stockAuditLogger.record("deductLean", productCode, remaining);
+        }
+    }
+}
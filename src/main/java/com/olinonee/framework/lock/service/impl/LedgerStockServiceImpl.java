@@ -0,0 +1,53 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.service.ILedgerStockService;
+import com.olinonee.framework.lock.support.StockLedger;
+import com.olinonee.framework.lock.support.StockMetrics;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+/**
+ * 库存业务 接口实现类（库存流水账本）
+ * <p>
+ * 扣减只追加流水，批量插入，不竞争库存热点行的行锁；库存快照由后台线程定期合并；
+ * 只适用于单实例、单仓库商品的场景，需要开启 {@code stock.ledger.enabled}
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class LedgerStockServiceImpl implements ILedgerStockService {
+
+    private final StockMetrics stockMetrics;
+    private final ObjectProvider<StockLedger> stockLedgerProvider;
+
+    @Override
+    public void deductWithLedger(String requestId, String productCode) {
+        if (!stockLedger().deduct(requestId, productCode, 1)) {
+            this.stockMetrics.soldOut(productCode);
+        }
+    }
+
+    @Override
+    public int queryLedgerStock(String productCode) {
+        return stockLedger().queryStock(productCode);
+    }
+
+    @Override
+    public int snapshot() {
+        return stockLedger().snapshot();
+    }
+
+    private StockLedger stockLedger() {
+        final StockLedger stockLedger = this.stockLedgerProvider.getIfAvailable();
+        if (null == stockLedger) {
+            throw new IllegalStateException("未开启库存流水账本，请配置 stock.ledger.enabled=true");
+        }
+        return stockLedger;
+    }
+}
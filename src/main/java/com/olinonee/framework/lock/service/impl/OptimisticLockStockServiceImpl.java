@@ -6,6 +6,10 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.olinonee.framework.lock.entity.Stock;
 import com.olinonee.framework.lock.mapper.StockMapper;
 import com.olinonee.framework.lock.service.IOptimisticLockStockService;
+import com.olinonee.framework.lock.support.OptimisticRetryTemplate;
+import com.olinonee.framework.lock.support.OptimisticRetryTemplate.Outcome;
+import com.olinonee.framework.lock.support.OptimisticRetryTemplate.RetryResult;
+import com.olinonee.framework.lock.support.StockMetrics;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +18,9 @@ import java.util.List;
 
 /**
  * 库存业务 接口实现类（乐观锁）
+ * <p>
+ * 版本冲突之后不再递归调用自身重试，而是交给 {@link OptimisticRetryTemplate} 循环重试（指数退避 + 随机抖动，有最大尝试次数），
+ * 重试时只按主键重新读取 CAS 相关的列，不再重新执行完整的 selectList
  *
  * @author olinH, olinone666@gmail.com
  * @version v1.0.0
@@ -25,24 +32,21 @@ import java.util.List;
 public class OptimisticLockStockServiceImpl implements IOptimisticLockStockService {
 
     private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
 
     /**
      * 使用 version 版本号（非注解模式），QPS为 150.227/sec，有效解决超卖问题
      * <p>
-     * <strong>注意：</strong>使用此方法时，要把 Stock 实体的 version 字段上面的 @Version 注解去掉，同时存在的话，会形成死循环，导致栈溢出
+     * <strong>注意：</strong>使用此方法时，要把 Stock 实体的 version 字段上面的 @Version 注解去掉，同时存在的话，每次更新都会冲突，直到重试次数耗尽
      */
     @Override
     public void deductWithNonAnnotatedVersion() {
-        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-
-        // 1.查询库存信息
-        stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
-        final List<Stock> stockList = this.stockMapper.selectList(stockLambdaQueryWrapper);
-
-        // 取第一个库存
-        final Stock stock = Assert.notEmpty(stockList, "查询的数据为空！").get(0);
-        // 2.判断库存是否充足
-        if (null != stock && stock.getCount() > 0) {
+        final RetryResult result = this.optimisticRetryTemplate.execute(queryStock("1001"), this::refreshStock, stock -> {
+            // 2.判断库存是否充足
+            if (null == stock || stock.getCount() <= 0) {
+                return Outcome.REJECTED;
+            }
             // 3.扣减库存
             stock.setCount(stock.getCount() - 1);
             final Integer version = stock.getVersion();
@@ -50,12 +54,11 @@ public class OptimisticLockStockServiceImpl implements IOptimisticLockStockServi
             final LambdaUpdateWrapper<Stock> updateWrapper = new LambdaUpdateWrapper<>();
             updateWrapper.eq(Stock::getId, stock.getId());
             updateWrapper.eq(Stock::getVersion, version);
-            final int updateRows = this.stockMapper.update(stock, updateWrapper);
-            // 更新行数是否为 0（更新失败），为 0 则重试，也就是递归调用
-            if (updateRows == 0) {
-                this.deductWithNonAnnotatedVersion();
-            }
-        }
+            // 更新行数是否为 0（更新失败），为 0 则重试
+            return this.stockMapper.update(stock, updateWrapper) > 0 ? Outcome.SUCCESS : Outcome.CONFLICT;
+        });
+        log.info("[OptimisticLockStockServiceImpl#deductWithNonAnnotatedVersion] - 结果：{}，尝试次数：{}", result.getOutcome(), result.getAttempts());
+        record(result);
     }
 
     /**
@@ -65,52 +68,77 @@ public class OptimisticLockStockServiceImpl implements IOptimisticLockStockServi
      */
     @Override
     public void deductWithAnnotatedVersion() {
-        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-
-        // 1.查询库存信息
-        stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
-        final List<Stock> stockList = this.stockMapper.selectList(stockLambdaQueryWrapper);
-
-        // 取第一个库存
-        final Stock stock = Assert.notEmpty(stockList, "查询的数据为空！").get(0);
-        // 2.判断库存是否充足
-        if (null != stock && stock.getCount() > 0) {
-            // 3.扣减库存
-            stock.setCount(stock.getCount() - 1);
-            final LambdaUpdateWrapper<Stock> updateWrapper = new LambdaUpdateWrapper<>();
-            updateWrapper.eq(Stock::getId, stock.getId());
-            final int updateRows = this.stockMapper.update(stock, updateWrapper);
-            // 更新行数是否为 0（更新失败），为 0 则重试，也就是递归调用
-            if (updateRows == 0) {
-                this.deductWithAnnotatedVersion();
-            }
-        }
+        final RetryResult result = this.optimisticRetryTemplate.execute(queryStock("1001"), this::refreshStock, this::deductWithVersionAnnotation);
+        log.info("[OptimisticLockStockServiceImpl#deductWithAnnotatedVersion] - 结果：{}，尝试次数：{}", result.getOutcome(), result.getAttempts());
+        record(result);
     }
 
     /**
      * 使用 timestamp 时间戳
+     * <p>
+     * Stock 实体的 gmtModified 字段上面加了 @Version 注解，由乐观锁插件自动拼接时间戳条件
      */
     @Override
     public void deductWithTimestamp() {
-        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+        final RetryResult result = this.optimisticRetryTemplate.execute(queryStock("1001"), this::refreshStock, this::deductWithVersionAnnotation);
+        log.info("[OptimisticLockStockServiceImpl#deductWithTimestamp] - 结果：{}，尝试次数：{}", result.getOutcome(), result.getAttempts());
+        record(result);
+    }
 
-        // 1.查询库存信息
-        stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
-        final List<Stock> stockList = this.stockMapper.selectList(stockLambdaQueryWrapper);
+    /**
+     * 记录尝试次数以及库存不足的情况
+     *
+     * @param result 执行结果
+     */
+    private void record(RetryResult result) {
+        this.stockMetrics.recordAttempts(result.getAttempts());
+        if (result.getOutcome() == Outcome.REJECTED) {
+            this.stockMetrics.soldOut("1001");
+        }
+    }
 
-        // 取第一个库存
-        final Stock stock = Assert.notEmpty(stockList, "查询的数据为空！").get(0);
+    /**
+     * 单次扣减，版本条件由乐观锁插件根据 @Version 注解自动拼接
+     *
+     * @param stock 库存
+     * @return 本次尝试的结果
+     */
+    private Outcome deductWithVersionAnnotation(Stock stock) {
         // 2.判断库存是否充足
-        if (null != stock && stock.getCount() > 0) {
-            // 3.扣减库存
-            stock.setCount(stock.getCount() - 1);
-            final LambdaUpdateWrapper<Stock> updateWrapper = new LambdaUpdateWrapper<>();
-            updateWrapper.eq(Stock::getId, stock.getId());
-            final int updateRows = this.stockMapper.update(stock, updateWrapper);
-            // 更新行数是否为 0（更新失败），为 0 则重试，也就是递归调用
-            if (updateRows == 0) {
-                this.deductWithAnnotatedVersion();
-            }
+        if (null == stock || stock.getCount() <= 0) {
+            return Outcome.REJECTED;
         }
+        // 3.扣减库存
+        stock.setCount(stock.getCount() - 1);
+        final LambdaUpdateWrapper<Stock> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(Stock::getId, stock.getId());
+        // 更新行数是否为 0（更新失败），为 0 则重试
+        return this.stockMapper.update(stock, updateWrapper) > 0 ? Outcome.SUCCESS : Outcome.CONFLICT;
+    }
+
+    /**
+     * 1.查询库存信息，取第一个库存
+     *
+     * @param productCode 商品编号
+     * @return 库存
+     */
+    private Stock queryStock(String productCode) {
+        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+        stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
+        final List<Stock> stockList = this.stockMapper.selectList(stockLambdaQueryWrapper);
+        return Assert.notEmpty(stockList, "查询的数据为空！").get(0);
+    }
+
+    /**
+     * 重试前按主键重新读取 CAS 相关的列，其余列为 null，更新时也不会被写回
+     *
+     * @param stale 上一次读取的库存
+     * @return 最新库存
+     */
+    private Stock refreshStock(Stock stale) {
+        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+        stockLambdaQueryWrapper.select(Stock::getId, Stock::getCount, Stock::getVersion, Stock::getGmtModified)
+                .eq(Stock::getId, stale.getId());
+        return this.stockMapper.selectOne(stockLambdaQueryWrapper);
     }
 }
@@ -0,0 +1,88 @@
+package com.olinonee.framework.lock.service.impl;
+
+import cn.hutool.core.lang.Assert;
+import com.olinonee.framework.lock.dto.StockDeductLine;
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.service.IOrderStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * 库存业务 接口实现类（订单多商品减库存）
+ * <p>
+ * 多个商品依次调用单商品减库存时，两个订单以相反的顺序锁定同样的商品就会循环等待（参考 {@code entity.DeadLock} 和 doc/死锁.md），
+ * 数据库只能回滚其中一个事务。这里在一个事务中：
+ * <ol>
+ *     <li>合并同一商品的多行明细，按商品编号排序</li>
+ *     <li>一条 {@code SELECT ... FOR UPDATE} 锁定所有商品（按商品编号升序加锁，所有订单的加锁顺序一致）</li>
+ *     <li>校验所有商品的库存，任意一个不足则整个订单不扣减</li>
+ *     <li>一条 {@code UPDATE ... CASE} 扣减所有商品</li>
+ * </ol>
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class OrderStockServiceImpl implements IOrderStockService {
+
+    private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean deductOrder(List<StockDeductLine> lines) {
+        Assert.notEmpty(lines, "减库存明细不能为空！");
+        // 1.合并同一商品的多行明细，TreeMap 按商品编号排序
+        final SortedMap<String, Integer> quantities = new TreeMap<>();
+        for (StockDeductLine line : lines) {
+            Assert.notBlank(line.getProductCode(), "商品编号不能为空！");
+            Assert.isTrue(null != line.getCount() && line.getCount() > 0, "扣减数量必须大于 0！");
+            quantities.merge(line.getProductCode(), line.getCount(), Integer::sum);
+        }
+
+        // 2.按商品编号顺序锁定所有商品，行锁在事务提交或者回滚时释放
+        final long waitStart = System.nanoTime();
+        final List<Stock> stocks = this.stockMapper.queryStocksForUpdate(quantities.keySet());
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                OrderStockServiceImpl.this.stockMetrics.lockReleased(acquiredAt);
+            }
+        });
+
+        // 3.校验库存，同一商品有多条记录时和单商品减库存一样取第一条
+        final Map<String, Stock> stockByCode = new HashMap<>();
+        stocks.forEach(stock -> stockByCode.putIfAbsent(stock.getProductCode(), stock));
+        final Map<Long, Integer> deductions = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            final Stock stock = stockByCode.get(entry.getKey());
+            if (null == stock || stock.getCount() < entry.getValue()) {
+                log.info("[OrderStockServiceImpl#deductOrder] - 商品 {} 库存不足，订单不扣减", entry.getKey());
+                this.stockMetrics.rejected();
+                return false;
+            }
+            deductions.put(stock.getId(), entry.getValue());
+        }
+
+        // 4.一条语句扣减所有商品
+        final int rows = this.stockMapper.deductStocks(deductions);
+        if (rows != deductions.size()) {
+            // 回滚整个订单
+            throw new IllegalStateException("订单减库存失败，预期更新 " + deductions.size() + " 行，实际更新 " + rows + " 行");
+        }
+        log.info("[OrderStockServiceImpl#deductOrder] - 订单减库存成功：{}", quantities);
+        return true;
+    }
+}
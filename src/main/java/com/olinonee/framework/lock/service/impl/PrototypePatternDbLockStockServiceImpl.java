@@ -2,6 +2,7 @@ package com.olinonee.framework.lock.service.impl;
 
 import com.olinonee.framework.lock.mapper.StockMapper;
 import com.olinonee.framework.lock.service.IPrototypePatternDbLockStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -25,13 +26,16 @@ import org.springframework.stereotype.Service;
 public class PrototypePatternDbLockStockServiceImpl implements IPrototypePatternDbLockStockService {
 
     private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
 
     /**
      * 使用数据库锁（原子性，行锁或者表锁）减库存，避免jvm锁失效的问题，QPS为 951.837/sec，有效解决超卖问题
      */
     @Override
     public void deductWithDbLock() {
-        this.stockMapper.updateStock("1001", 1);
+        if (this.stockMapper.updateStock("1001", 1) == 0) {
+            this.stockMetrics.soldOut("1001");
+        }
         log.info("[PrototypePatternDbLockStockServiceImpl#deductWithDbLock]");
     }
 }
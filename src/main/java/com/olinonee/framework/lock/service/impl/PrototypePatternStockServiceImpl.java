@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.olinonee.framework.lock.entity.Stock;
 import com.olinonee.framework.lock.mapper.StockMapper;
 import com.olinonee.framework.lock.service.IPrototypePatternStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -37,6 +38,7 @@ public class PrototypePatternStockServiceImpl implements IPrototypePatternStockS
     private final int total = stock.getStockNum();
     private final ReentrantLock reentrantLock = new ReentrantLock();
     private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
 
 
     /**
@@ -52,9 +54,17 @@ public class PrototypePatternStockServiceImpl implements IPrototypePatternStockS
      * 减库存（超卖问题），使用 synchronized 锁，多例模式下，此方式会失效
      */
     @Override
-    public synchronized void deductWithSynchronizedLock() {
-        stock.setStockNum(stock.getStockNum() - 1);
-        log.info("[PrototypePatternStockServiceImpl#deductWithSynchronizedLock] - 总库存为：{}，库存余量为：{}", total, stock.getStockNum());
+    public void deductWithSynchronizedLock() {
+        final long waitStart = System.nanoTime();
+        synchronized (this) {
+            final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+            try {
+                stock.setStockNum(stock.getStockNum() - 1);
+                log.info("[PrototypePatternStockServiceImpl#deductWithSynchronizedLock] - 总库存为：{}，库存余量为：{}", total, stock.getStockNum());
+            } finally {
+                this.stockMetrics.lockReleased(acquiredAt);
+            }
+        }
     }
 
     /**
@@ -62,12 +72,15 @@ public class PrototypePatternStockServiceImpl implements IPrototypePatternStockS
      */
     @Override
     public void deductWithReentrantLock() {
+        final long waitStart = System.nanoTime();
         reentrantLock.lock();
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
         try {
             stock.setStockNum(stock.getStockNum() - 1);
             log.info("[PrototypePatternStockServiceImpl#deductWithReentrantLock] - 总库存为：{}，库存余量为：{}", total, stock.getStockNum());
         } finally {
             reentrantLock.unlock();
+            this.stockMetrics.lockReleased(acquiredAt);
         }
     }
 
@@ -75,15 +88,17 @@ public class PrototypePatternStockServiceImpl implements IPrototypePatternStockS
      * 减库存（超卖问题），基于 MySQL 数据库，未使用锁情况，经过使用 JMeter 测试（100用户，循环50次，测试并发量 1193.602/sec），会出现超卖问题（理想已售完，但实际库存还有）
      */
     @Override
-    public void baseMysqlDeductWithoutLock() {
+    public void baseMysqlDeductWithoutLock(String productCode) {
         LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-        stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
+        stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
         final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
 
         if (null != stk && stk.getCount() > 0) {
             stk.setCount(stk.getCount() - 1);
             log.info("[PrototypePatternStockServiceImpl#baseMysqlDeductWithoutLock] - 库存余量为：{}", stk.getCount());
             this.stockMapper.updateById(stk);
+        } else {
+            this.stockMetrics.soldOut(productCode);
         }
     }
 
@@ -91,15 +106,25 @@ public class PrototypePatternStockServiceImpl implements IPrototypePatternStockS
      * 减库存（超卖问题），基于 MySQL 数据库，使用 synchronized 锁，QPS为 496.968/sec，多例模式下，此方式会失效
      */
     @Override
-    public synchronized void baseMysqlDeductWithSynchronizedLock() {
-        LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-        stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
-        final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
+    public void baseMysqlDeductWithSynchronizedLock(String productCode) {
+        final long waitStart = System.nanoTime();
+        synchronized (this) {
+            final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+            try {
+                LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+                stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
+                final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
 
-        if (null != stk && stk.getCount() > 0) {
-            stk.setCount(stk.getCount() - 1);
-            log.info("[PrototypePatternStockServiceImpl#baseMysqlDeductWithSynchronizedLock] - 库存余量为：{}", stk.getCount());
-            this.stockMapper.updateById(stk);
+                if (null != stk && stk.getCount() > 0) {
+                    stk.setCount(stk.getCount() - 1);
+                    log.info("[PrototypePatternStockServiceImpl#baseMysqlDeductWithSynchronizedLock] - 库存余量为：{}", stk.getCount());
+                    this.stockMapper.updateById(stk);
+                } else {
+                    this.stockMetrics.soldOut(productCode);
+                }
+            } finally {
+                this.stockMetrics.lockReleased(acquiredAt);
+            }
         }
     }
 
@@ -107,20 +132,25 @@ public class PrototypePatternStockServiceImpl implements IPrototypePatternStockS
      * 减库存（超卖问题），基于 MySQL 数据库，使用 ReentrantLock 锁，QPS为 496.574/sec，多例模式下，此方式会失效
      */
     @Override
-    public void baseMysqlDeductWithReentrantLock() {
+    public void baseMysqlDeductWithReentrantLock(String productCode) {
+        final long waitStart = System.nanoTime();
         reentrantLock.lock();
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
         try {
             LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-            stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
+            stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
             final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
 
             if (null != stk && stk.getCount() > 0) {
                 stk.setCount(stk.getCount() - 1);
                 log.info("[PrototypePatternStockServiceImpl#baseMysqlDeductWithReentrantLock] - 库存余量为：{}", stk.getCount());
                 this.stockMapper.updateById(stk);
+            } else {
+                this.stockMetrics.soldOut(productCode);
             }
         } finally {
             reentrantLock.unlock();
+            this.stockMetrics.lockReleased(acquiredAt);
         }
     }
 }
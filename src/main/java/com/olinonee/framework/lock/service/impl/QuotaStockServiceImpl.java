@@ -0,0 +1,39 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.service.IQuotaStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.olinonee.framework.lock.support.StockQuotaAllocator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 库存业务 接口实现类（实例级库存配额）
+ * <p>
+ * 适合单个商品的秒杀场景：每个实例先从数据库租借一块库存，请求在内存中无锁扣减，配额用完之前不访问数据库，
+ * 集群下同样不会超卖（配额已经从数据库扣除）
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class QuotaStockServiceImpl implements IQuotaStockService {
+
+    private final StockMetrics stockMetrics;
+    private final StockQuotaAllocator stockQuotaAllocator;
+
+    @Override
+    public void deductWithQuota(String productCode) {
+        if (this.stockQuotaAllocator.deduct(productCode, 1)) {
+            log.info("[QuotaStockServiceImpl#deductWithQuota] - 本实例剩余配额为：{}", this.stockQuotaAllocator.available(productCode));
+        } else if (this.stockQuotaAllocator.isSoldOut(productCode)) {
+            this.stockMetrics.soldOut(productCode);
+        } else {
+            // 其他实例还持有配额，只是本实例暂时租不到，不能标记售罄
+            this.stockMetrics.rejected();
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.olinonee.framework.lock.entity.Stock;
 import com.olinonee.framework.lock.mapper.StockMapper;
 import com.olinonee.framework.lock.service.ISingletonPatternStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.olinonee.framework.lock.support.LockDeadlockDetector;
+import com.olinonee.framework.lock.support.StripedLockRegistry;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -31,6 +34,9 @@ public class SingletonPatternStockServiceImpl implements ISingletonPatternStockS
     private final int total = stock.getStockNum();
     private final ReentrantLock reentrantLock = new ReentrantLock();
     private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+    private final StripedLockRegistry stripedLockRegistry;
+    private final LockDeadlockDetector lockDeadlockDetector;
 
 
     /**
@@ -46,9 +52,17 @@ public class SingletonPatternStockServiceImpl implements ISingletonPatternStockS
      * 减库存（超卖问题），使用 synchronized 锁，有效解决超卖问题
      */
     @Override
-    public synchronized void deductWithSynchronizedLock() {
-        stock.setStockNum(stock.getStockNum() - 1);
-        log.info("[SinglePatternStockServiceImpl#deductWithSynchronizedLock] - 总库存为：{}，库存余量为：{}", total, stock.getStockNum());
+    public void deductWithSynchronizedLock() {
+        final long waitStart = System.nanoTime();
+        synchronized (this) {
+            final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+            try {
+                stock.setStockNum(stock.getStockNum() - 1);
+                log.info("[SinglePatternStockServiceImpl#deductWithSynchronizedLock] - 总库存为：{}，库存余量为：{}", total, stock.getStockNum());
+            } finally {
+                this.stockMetrics.lockReleased(acquiredAt);
+            }
+        }
     }
 
     /**
@@ -56,12 +70,15 @@ public class SingletonPatternStockServiceImpl implements ISingletonPatternStockS
      */
     @Override
     public void deductWithReentrantLock() {
+        final long waitStart = System.nanoTime();
         reentrantLock.lock();
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
         try {
             stock.setStockNum(stock.getStockNum() - 1);
             log.info("[SinglePatternStockServiceImpl#deductWithReentrantLock] - 总库存为：{}，库存余量为：{}", total, stock.getStockNum());
         } finally {
             reentrantLock.unlock();
+            this.stockMetrics.lockReleased(acquiredAt);
         }
     }
 
@@ -69,52 +86,74 @@ public class SingletonPatternStockServiceImpl implements ISingletonPatternStockS
      * 减库存（超卖问题），基于 MySQL 数据库，未使用锁情况，经过使用 JMeter 测试（100用户，循环50次，测试并发量 1193.602/sec），会出现超卖问题（理想已售完，但实际库存还有）
      */
     @Override
-    public void baseMysqlDeductWithoutLock() {
+    public void baseMysqlDeductWithoutLock(String productCode) {
         LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-        stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
+        stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
         final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
 
         if (null != stk && stk.getCount() > 0) {
             stk.setCount(stk.getCount() - 1);
             log.info("[SinglePatternStockServiceImpl#baseMysqlDeductWithoutLock] - 库存余量为：{}", stk.getCount());
             this.stockMapper.updateById(stk);
+        } else {
+            this.stockMetrics.soldOut(productCode);
         }
     }
 
     /**
      * 减库存（超卖问题），基于 MySQL 数据库，使用 synchronized 锁，QPS为 496.968/sec，有效解决超卖问题
+     * <p>
+     * 锁粒度为商品编号（分段锁），同一商品串行扣减，不同商品之间互不阻塞
      */
     @Override
-    public synchronized void baseMysqlDeductWithSynchronizedLock() {
-        LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-        stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
-        final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
+    public void baseMysqlDeductWithSynchronizedLock(String productCode) {
+        final long waitStart = System.nanoTime();
+        synchronized (this.stripedLockRegistry.getMonitor(productCode)) {
+            final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+            try {
+                LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+                stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
+                final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
 
-        if (null != stk && stk.getCount() > 0) {
-            stk.setCount(stk.getCount() - 1);
-            log.info("[SinglePatternStockServiceImpl#baseMysqlDeductWithSynchronizedLock] - 库存余量为：{}", stk.getCount());
-            this.stockMapper.updateById(stk);
+                if (null != stk && stk.getCount() > 0) {
+                    stk.setCount(stk.getCount() - 1);
+                    log.info("[SinglePatternStockServiceImpl#baseMysqlDeductWithSynchronizedLock] - 库存余量为：{}", stk.getCount());
+                    this.stockMapper.updateById(stk);
+                } else {
+                    this.stockMetrics.soldOut(productCode);
+                }
+            } finally {
+                this.stockMetrics.lockReleased(acquiredAt);
+            }
         }
     }
 
     /**
      * 减库存（超卖问题），基于 MySQL 数据库，使用 ReentrantLock 锁，QPS为 496.574/sec，有效解决超卖问题
+     * <p>
+     * 锁粒度为商品编号（分段锁），同一商品串行扣减，不同商品之间互不阻塞
      */
     @Override
-    public void baseMysqlDeductWithReentrantLock() {
-        reentrantLock.lock();
+    public void baseMysqlDeductWithReentrantLock(String productCode) {
+        final ReentrantLock productLock = this.stripedLockRegistry.getLock(productCode);
+        final long waitStart = System.nanoTime();
+        this.lockDeadlockDetector.lock(productLock, productLock::tryLock);
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
         try {
             LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-            stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
+            stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
             final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
 
             if (null != stk && stk.getCount() > 0) {
                 stk.setCount(stk.getCount() - 1);
                 log.info("[SinglePatternStockServiceImpl#baseMysqlDeductWithReentrantLock] - 库存余量为：{}", stk.getCount());
                 this.stockMapper.updateById(stk);
+            } else {
+                this.stockMetrics.soldOut(productCode);
             }
         } finally {
-            reentrantLock.unlock();
+            this.lockDeadlockDetector.unlock(productLock, productLock::unlock);
+            this.stockMetrics.lockReleased(acquiredAt);
         }
     }
 }
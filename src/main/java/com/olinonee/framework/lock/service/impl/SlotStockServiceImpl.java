@@ -0,0 +1,170 @@
+package com.olinonee.framework.lock.service.impl;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.lang.Assert;
+import com.olinonee.framework.lock.config.StockProperties;
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.entity.StockSlot;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.mapper.StockSlotMapper;
+import com.olinonee.framework.lock.service.ISlotStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 库存业务 接口实现类（热点商品库存槽位）
+ * <p>
+ * 所有基于数据库的方案最终都落在同一行 {@code tb_stock} 记录上，同一商品的扣减在这一行的行锁上串行。
+ * 这里把热点商品的库存拆分到 {@code tb_stock_slot} 中的 N 行（槽位），每次扣减只锁定其中一行，行锁竞争降为原来的 1/N：
+ * <ul>
+ *     <li>扣减：按线程 id 哈希（或随机）选择第一个槽位，槽位没货时依次尝试下一个，全部没货时再尝试库存记录（拆分之后的补货）</li>
+ *     <li>拆分、合并：先锁库存记录、再按槽位编号顺序锁定所有槽位，和扣减（每次只锁一行）之间不会循环等待，可以在线执行</li>
+ *     <li>总库存：库存记录加上所有槽位</li>
+ * </ul>
+ * 拆分之后库存记录清零，其他方案扣减该商品都会库存不足，需要先合并。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class SlotStockServiceImpl implements ISlotStockService {
+
+    /**
+     * 槽位数上限
+     */
+    private static final int MAX_SLOTS = 1024;
+
+    private final StockMapper stockMapper;
+    private final StockSlotMapper stockSlotMapper;
+    private final StockMetrics stockMetrics;
+    private final StockProperties stockProperties;
+
+    /**
+     * 商品的槽位数，本实例拆分、合并之后更新；其他实例拆分、合并时，由扣减失败触发重新加载
+     */
+    private final ConcurrentMap<String, Integer> slotCounts = new ConcurrentHashMap<>();
+
+    @Override
+    public void deductWithSlots(String productCode) {
+        final int slots = this.slotCounts.computeIfAbsent(productCode, this.stockSlotMapper::countSlots);
+        if (deductFromSlots(productCode, slots) || this.stockMapper.updateStock(productCode, 1) > 0) {
+            return;
+        }
+        // 槽位数可能已经被其他实例修改，重新加载后再试一次
+        final int reloaded = this.stockSlotMapper.countSlots(productCode);
+        this.slotCounts.put(productCode, reloaded);
+        if (reloaded != slots && deductFromSlots(productCode, reloaded)) {
+            return;
+        }
+        this.stockMetrics.soldOut(productCode);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int splitSlots(String productCode, int slots) {
+        Assert.isTrue(slots > 0 && slots <= MAX_SLOTS, "槽位数必须在 [1, {}] 之间！", MAX_SLOTS);
+        // 1.先锁库存记录，再锁所有槽位，收回全部库存
+        final Stock stock = lockStock(productCode);
+        final int total = stock.getCount() + sumAndDeleteSlots(productCode);
+
+        // 2.平均拆分，余数分给编号靠前的槽位
+        final List<StockSlot> stockSlots = new ArrayList<>(slots);
+        for (int slotNo = 0; slotNo < slots; slotNo++) {
+            final StockSlot stockSlot = new StockSlot();
+            stockSlot.setProductCode(productCode);
+            stockSlot.setSlotNo(slotNo);
+            stockSlot.setCount(total / slots + (slotNo < total % slots ? 1 : 0));
+            stockSlots.add(stockSlot);
+        }
+        this.stockSlotMapper.insertSlots(stockSlots);
+
+        // 3.库存记录清零，之后的补货直接加到库存记录上，槽位扣完之后会扣减到
+        stock.setCount(0);
+        this.stockMapper.updateById(stock);
+        cacheSlotsAfterCommit(productCode, slots);
+        log.info("[SlotStockServiceImpl#splitSlots] - 商品 {} 的库存 {} 已拆分为 {} 个槽位", productCode, total, slots);
+        return total;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int mergeSlots(String productCode) {
+        final Stock stock = lockStock(productCode);
+        final int merged = sumAndDeleteSlots(productCode);
+        stock.setCount(stock.getCount() + merged);
+        this.stockMapper.updateById(stock);
+        cacheSlotsAfterCommit(productCode, 0);
+        log.info("[SlotStockServiceImpl#mergeSlots] - 商品 {} 的槽位已合并，合并库存 {}，库存余量为：{}", productCode, merged, stock.getCount());
+        return merged;
+    }
+
+    @Override
+    public int queryTotalStock(String productCode) {
+        return this.stockMapper.selectTotalCount(productCode);
+    }
+
+    /**
+     * 从第一个槽位开始依次尝试，每次只锁定一行
+     *
+     * @param productCode 商品编号
+     * @param slots       槽位数
+     * @return 是否扣减成功
+     */
+    private boolean deductFromSlots(String productCode, int slots) {
+        if (slots <= 0) {
+            return false;
+        }
+        final int first = this.stockProperties.getSlot().isRandom()
+                ? ThreadLocalRandom.current().nextInt(slots)
+                : (int) Math.floorMod(Thread.currentThread().getId(), (long) slots);
+        for (int i = 0; i < slots; i++) {
+            final int slotNo = (first + i) % slots;
+            if (this.stockSlotMapper.deductSlot(productCode, slotNo, 1) > 0) {
+                log.info("[SlotStockServiceImpl#deductWithSlots] - 商品 {} 从槽位 {} 扣减成功", productCode, slotNo);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 锁定商品的库存记录，多仓商品和 {@code deductWithDbLockForUpdate} 一样取第一条
+     */
+    private Stock lockStock(String productCode) {
+        final Stock stock = CollUtil.getFirst(this.stockMapper.queryStockForUpdate(productCode));
+        Assert.notNull(stock, "商品 {} 不存在！", productCode);
+        return stock;
+    }
+
+    /**
+     * 按槽位编号顺序锁定所有槽位，删除并返回库存之和
+     */
+    private int sumAndDeleteSlots(String productCode) {
+        final int sum = this.stockSlotMapper.selectSlotsForUpdate(productCode).stream().mapToInt(StockSlot::getCount).sum();
+        this.stockSlotMapper.deleteSlots(productCode);
+        return sum;
+    }
+
+    private void cacheSlotsAfterCommit(String productCode, int slots) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                SlotStockServiceImpl.this.slotCounts.put(productCode, slots);
+            }
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.olinonee.framework.lock.service.impl;
+
+import cn.hutool.core.lang.Assert;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.service.ISoldOutStockService;
+import com.olinonee.framework.lock.support.SoldOutRegistry;
+import com.olinonee.framework.lock.support.StockLedger;
+import com.olinonee.framework.lock.support.StockWriteBehindJournal;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * 库存业务 接口实现类（售罄标记、补货）
+ * <p>
+ * write-behind 日志、库存流水账本开启时，它们的内存库存是扣减的依据，补货要经过它们，否则内存库存看不到补货，清除售罄标记之后马上又被重新标记
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class SoldOutStockServiceImpl implements ISoldOutStockService {
+
+    private final StockMapper stockMapper;
+    private final SoldOutRegistry soldOutRegistry;
+    private final ObjectProvider<StockWriteBehindJournal> stockWriteBehindJournalProvider;
+    private final ObjectProvider<StockLedger> stockLedgerProvider;
+
+    @Override
+    public void restock(String productCode, String warehouse, int count) {
+        Assert.isTrue(count > 0, "补货数量必须大于 0！");
+        final StockWriteBehindJournal journal = this.stockWriteBehindJournalProvider.getIfAvailable();
+        final StockLedger ledger = this.stockLedgerProvider.getIfAvailable();
+        if (null != journal) {
+            journal.restock(productCode, warehouse, count);
+        } else if (null != ledger && ledger.supports(productCode)) {
+            ledger.restock(productCode, warehouse, count);
+        } else {
+            Assert.isTrue(this.stockMapper.applyMovement(productCode, warehouse, count) > 0, "商品 {} 在仓库 {} 没有库存记录！", productCode, warehouse);
+        }
+        // 补货已经提交、内存库存已经增加，再清除，避免其他请求读到旧的库存又重新标记为售罄
+        this.soldOutRegistry.clear(productCode);
+        log.info("[SoldOutStockServiceImpl#restock] - 商品 {} 仓库 {} 补货：{}", productCode, warehouse, count);
+    }
+
+    @Override
+    public Set<String> querySoldOutProducts() {
+        return this.soldOutRegistry.soldOutProducts();
+    }
+}
@@ -0,0 +1,32 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.service.IStockQueryService;
+import com.olinonee.framework.lock.support.StockNearCache;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * 库存查询 接口实现类
+ * <p>
+ * 读请求走近端缓存，命中时只是一次内存读取，不访问数据库；库存修改提交后缓存失效，其他实例的修改最多延迟缓存存活时间
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Service
+@AllArgsConstructor
+public class StockQueryServiceImpl implements IStockQueryService {
+
+    private final StockNearCache stockNearCache;
+
+    @Override
+    public int queryStock(String productCode) {
+        return this.stockNearCache.get(productCode);
+    }
+
+    @Override
+    public boolean isAvailable(String productCode, int count) {
+        return this.stockNearCache.get(productCode) >= count;
+    }
+}
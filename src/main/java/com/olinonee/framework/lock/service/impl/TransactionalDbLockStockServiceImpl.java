@@ -2,15 +2,20 @@ package com.olinonee.framework.lock.service.impl;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjUtil;
+import com.olinonee.framework.lock.config.StockProperties;
 import com.olinonee.framework.lock.entity.Stock;
 import com.olinonee.framework.lock.mapper.StockMapper;
 import com.olinonee.framework.lock.service.ITransactionalDbLockStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  * 库存业务 接口实现类（事务）
@@ -27,6 +32,8 @@ import java.util.List;
 public class TransactionalDbLockStockServiceImpl implements ITransactionalDbLockStockService {
 
     private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+    private final StockProperties stockProperties;
 
     /**
      * 使用数据库锁（原子性，行锁或者表锁）减库存，避免jvm锁失效的问题，QPS为 869.565/sec，有效解决超卖问题
@@ -34,7 +41,9 @@ public class TransactionalDbLockStockServiceImpl implements ITransactionalDbLock
     @Override
     @Transactional
     public void deductWithDbLock() {
-        this.stockMapper.updateStock("1001", 1);
+        if (this.stockMapper.updateStock("1001", 1) == 0) {
+            this.stockMetrics.soldOut("1001");
+        }
         log.info("[TransactionalDbLockStockServiceImpl#deductWithDbLock]");
     }
 
@@ -57,8 +66,16 @@ public class TransactionalDbLockStockServiceImpl implements ITransactionalDbLock
     @Override
     @Transactional
     public void deductWithDbLockForUpdate() {
-        // 1.查询库存信息并锁定库存信息
+        // 1.查询库存信息并锁定库存信息，行锁在事务提交或者回滚时释放
+        final long waitStart = System.nanoTime();
         final List<Stock> stocks = this.stockMapper.queryStockForUpdate("1001");
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionalDbLockStockServiceImpl.this.stockMetrics.lockReleased(acquiredAt);
+            }
+        });
         // 实际中这里需要引入仓库自动调配算法，选取最近仓库进行货调配，为了简单，默认取第一条记录
         final Stock stock = CollUtil.getFirst(stocks);
 
@@ -67,6 +84,80 @@ public class TransactionalDbLockStockServiceImpl implements ITransactionalDbLock
             // 3.扣减库存
             stock.setCount(stock.getCount() - 1);
             this.stockMapper.updateById(stock);
+        } else {
+            this.stockMetrics.soldOut("1001");
+        }
+    }
+
+    /**
+     * 多仓库存分配，悲观锁（行级锁）只锁定一个仓库的库存记录
+     * <p>
+     * {@link #deductWithDbLockForUpdate()} 锁定商品在所有仓库的记录，同一商品的请求全部串行；
+     * 这里先用普通读按仓库优先级查出有货的仓库（不加锁），再按顺序逐个用主键加锁，通过 {@code SKIP LOCKED} 跳过其他事务正在扣减的仓库，
+     * 同一商品的并发请求各自锁定不同的仓库，吞吐量随仓库数量增长：
+     * <pre>
+     *     # 命令行窗口1的SQL
+     *     1.begin;
+     *     2.SELECT id FROM `tb_stock` WHERE product_code = '2001' AND count >= 1 ORDER BY id; -- 1（北京仓）, 2（上海仓）
+     *     3.SELECT * FROM `tb_stock` WHERE id = 1 AND count >= 1 FOR UPDATE SKIP LOCKED; -- 北京仓
+     *
+     *     # 命令行窗口2的SQL（不阻塞）
+     *     1.begin;
+     *     2.SELECT id FROM `tb_stock` WHERE product_code = '2001' AND count >= 1 ORDER BY id; -- 1（北京仓）, 2（上海仓）
+     *     3.SELECT * FROM `tb_stock` WHERE id = 1 AND count >= 1 FOR UPDATE SKIP LOCKED; -- 被窗口1锁定，跳过
+     *     4.SELECT * FROM `tb_stock` WHERE id = 2 AND count >= 1 FOR UPDATE SKIP LOCKED; -- 上海仓
+     * </pre>
+     * 不能把排序和加锁放在一条语句里：按优先级排序需要 filesort，InnoDB 在排序之前就锁定了所有满足条件的行，
+     * 第一个请求会锁住所有有货的仓库，后面的请求全部被跳过。
+     * <p>
+     * 所有有货的仓库都被锁定时，退回到普通的 {@code FOR UPDATE} 按优先级依次等待，加锁后重新校验库存，
+     * 都不满足说明所有仓库都没货了。
+     */
+    @Override
+    @Transactional
+    public void deductWithWarehouseSkipLocked(String productCode) {
+        final List<String> warehousePriority = this.stockProperties.getAllocation().getWarehousePriority();
+        // 1.按优先级查出有货的仓库，只读不加锁
+        final List<Long> candidates = this.stockMapper.selectAvailableWarehouseIds(productCode, 1, warehousePriority);
+        // 2.逐个锁定，跳过被其他事务锁定的仓库，行锁在事务提交或者回滚时释放
+        final long waitStart = System.nanoTime();
+        Stock stock = lockFirst(candidates, this.stockMapper::selectWarehouseSkipLocked);
+        if (ObjUtil.isNull(stock)) {
+            // 有货的仓库都在被扣减，或者已经全部卖完，排队等待
+            stock = lockFirst(candidates, this.stockMapper::selectWarehouseForUpdate);
+        }
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionalDbLockStockServiceImpl.this.stockMetrics.lockReleased(acquiredAt);
+            }
+        });
+
+        // 3.扣减库存，加锁时已经校验过库存
+        if (ObjUtil.isNotNull(stock)) {
+            stock.setCount(stock.getCount() - 1);
+            log.info("[TransactionalDbLockStockServiceImpl#deductWithWarehouseSkipLocked] - {} 库存余量为：{}", stock.getWarehouse(), stock.getCount());
+            this.stockMapper.updateById(stock);
+        } else {
+            this.stockMetrics.soldOut(productCode);
+        }
+    }
+
+    /**
+     * 按顺序锁定第一个仍然有货的仓库
+     *
+     * @param candidates 按优先级排序的库存记录 id
+     * @param lock       按主键加锁的查询，加锁失败或者库存不足时返回 null
+     * @return 锁定的库存记录，都没有锁定时返回 null
+     */
+    private Stock lockFirst(List<Long> candidates, BiFunction<Long, Integer, Stock> lock) {
+        for (Long id : candidates) {
+            final Stock stock = lock.apply(id, 1);
+            if (ObjUtil.isNotNull(stock)) {
+                return stock;
+            }
         }
+        return null;
     }
 }
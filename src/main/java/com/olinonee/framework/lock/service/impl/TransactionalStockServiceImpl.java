@@ -4,6 +4,9 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.olinonee.framework.lock.entity.Stock;
 import com.olinonee.framework.lock.mapper.StockMapper;
 import com.olinonee.framework.lock.service.ITransactionalStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.olinonee.framework.lock.support.LockDeadlockDetector;
+import com.olinonee.framework.lock.support.StripedLockRegistry;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,8 +28,10 @@ import java.util.concurrent.locks.ReentrantLock;
 @AllArgsConstructor
 public class TransactionalStockServiceImpl implements ITransactionalStockService {
 
-    private final ReentrantLock reentrantLock = new ReentrantLock();
     private final StockMapper stockMapper;
+    private final StockMetrics stockMetrics;
+    private final StripedLockRegistry stripedLockRegistry;
+    private final LockDeadlockDetector lockDeadlockDetector;
 
     /**
      * 减库存（超卖问题），基于 MySQL 数据库，使用 事务 + synchronized 锁，QPS为 852.1/sec，spring 事务模式下，此方式会失效
@@ -36,18 +41,30 @@ public class TransactionalStockServiceImpl implements ITransactionalStockService
      * 要想解决这个问题，可以参考 {@link TransactionalStockServiceImpl#baseMysqlDeductWithReentrantLock} 方法事务的使用，
      * 其实就是 {@code @Transactional} 注解将隔离级别从 “默认”（aop 底层默认采用数据库的隔离级别） 改为 “读未提交”（read uncommitted 简称 ru），
      * 这样一来就可以读取还未提交的数据，但是也有缺点，会带来脏读等问题。这里只在当前示例中这样使用，但是实际互联网项目中采用的是 “读已提交”（read committed 简称 rc）事务隔离级别
+     * <p>
+     * 锁粒度为商品编号（分段锁），失效原因与锁粒度无关：锁在事务提交之前就已经释放了
      */
     @Override
     @Transactional
-    public synchronized void baseMysqlDeductWithSynchronizedLock() {
-        LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-        stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
-        final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
+    public void baseMysqlDeductWithSynchronizedLock(String productCode) {
+        final long waitStart = System.nanoTime();
+        synchronized (this.stripedLockRegistry.getMonitor(productCode)) {
+            final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
+            try {
+                LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+                stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
+                final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
 
-        if (null != stk && stk.getCount() > 0) {
-            stk.setCount(stk.getCount() - 1);
-            log.info("[TransactionalStockServiceImpl#baseMysqlDeductWithSynchronizedLock] - 库存余量为：{}", stk.getCount());
-            this.stockMapper.updateById(stk);
+                if (null != stk && stk.getCount() > 0) {
+                    stk.setCount(stk.getCount() - 1);
+                    log.info("[TransactionalStockServiceImpl#baseMysqlDeductWithSynchronizedLock] - 库存余量为：{}", stk.getCount());
+                    this.stockMapper.updateById(stk);
+                } else {
+                    this.stockMetrics.soldOut(productCode);
+                }
+            } finally {
+                this.stockMetrics.lockReleased(acquiredAt);
+            }
         }
     }
 
@@ -55,23 +72,31 @@ public class TransactionalStockServiceImpl implements ITransactionalStockService
      * 减库存（超卖问题），基于 MySQL 数据库，使用 事务 + ReentrantLock 锁，QPS为 814.7/sec，使用 spring 下的 “读未提交” 事务隔离级别，来解决并发失效的问题
      * <p>
      * 注意：这里只在当前示例中这样使用，但是实际互联网项目中采用的是 “读已提交”（read committed 简称 rc）事务隔离级别
+     * <p>
+     * 锁粒度为商品编号（分段锁），同一商品串行扣减，不同商品之间互不阻塞
      */
     @Override
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
-    public void baseMysqlDeductWithReentrantLock() {
-        reentrantLock.lock();
+    public void baseMysqlDeductWithReentrantLock(String productCode) {
+        final ReentrantLock productLock = this.stripedLockRegistry.getLock(productCode);
+        final long waitStart = System.nanoTime();
+        this.lockDeadlockDetector.lock(productLock, productLock::tryLock);
+        final long acquiredAt = this.stockMetrics.lockAcquired(waitStart);
         try {
             LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
-            stockLambdaQueryWrapper.eq(Stock::getProductCode, "1001");
+            stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
             final Stock stk = this.stockMapper.selectOne(stockLambdaQueryWrapper);
 
             if (null != stk && stk.getCount() > 0) {
                 stk.setCount(stk.getCount() - 1);
                 log.info("[TransactionalStockServiceImpl#baseMysqlDeductWithReentrantLock] - 库存余量为：{}", stk.getCount());
                 this.stockMapper.updateById(stk);
+            } else {
+                this.stockMetrics.soldOut(productCode);
             }
         } finally {
-            reentrantLock.unlock();
+            this.lockDeadlockDetector.unlock(productLock, productLock::unlock);
+            this.stockMetrics.lockReleased(acquiredAt);
         }
     }
 }
@@ -0,0 +1,41 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.service.IWriteBehindStockService;
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.olinonee.framework.lock.support.StockWriteBehindJournal;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+/**
+ * 库存业务 接口实现类（write-behind）
+ * <p>
+ * 内存中的库存是权威值，扣减只写内存和本地日志，数据库由后台线程批量同步，请求延迟在微秒级；
+ * 只适用于单实例独占商品库存的场景，需要开启 {@code stock.write-behind.enabled}
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class WriteBehindStockServiceImpl implements IWriteBehindStockService {
+
+    private final StockMetrics stockMetrics;
+    private final ObjectProvider<StockWriteBehindJournal> stockWriteBehindJournalProvider;
+
+    @Override
+    public void deductWithWriteBehind(String productCode) {
+        final StockWriteBehindJournal journal = this.stockWriteBehindJournalProvider.getIfAvailable();
+        if (null == journal) {
+            throw new IllegalStateException("未开启 write-behind 模式，请配置 stock.write-behind.enabled=true");
+        }
+        if (journal.deduct(productCode, 1)) {
+            log.info("[WriteBehindStockServiceImpl#deductWithWriteBehind] - 库存余量为：{}", journal.available(productCode));
+        } else {
+            this.stockMetrics.soldOut(productCode);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发限制器（基于延迟梯度，参考 Netflix concurrency-limits 的 Gradient / Vegas 算法）
+ * <p>
+ * 同时在处理的请求数超过当前限制时直接拒绝，不在连接池、行锁上排队。限制值根据请求耗时自动调整：
+ * 每攒满一个窗口的样本，用窗口平均耗时和无负载耗时（窗口平均耗时的最小值）计算梯度
+ * {@code gradient = clamp(tolerance * minRtt / rtt, 0.5, 1)}，新的限制为 {@code limit * gradient + sqrt(limit)}，再做平滑：
+ * <ul>
+ *     <li>耗时在容忍范围内：梯度为 1，限制按 sqrt(limit) 缓慢增加（请求数远小于限制时不增加）</li>
+ *     <li>耗时增加（开始排队）：梯度小于 1，限制随之减小，最多减半</li>
+ *     <li>窗口内有请求失败（超时、异常）：按 backoffRatio 乘性减小</li>
+ * </ul>
+ * 稳定时限制收敛到让耗时保持在无负载耗时附近的并发数，多余的请求被快速拒绝，吞吐量保持在峰值。
+ * 无负载耗时每隔 probeWindows 个窗口用当前窗口重新测量一次，避免数据量增长等原因导致耗时整体上升后限制无法恢复。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 拒绝时 {@link #tryAcquire()} 的返回值
+     */
+    public static final long REJECTED = -1;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int windowSamples;
+    private final int probeWindows;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile double limit;
+
+    /**
+     * 窗口统计，只在持有 this 的监视器时访问
+     */
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInflight;
+    private boolean windowDropped;
+    private double minRtt = Double.MAX_VALUE;
+    private int windowsSinceProbe;
+
+    /**
+     * @param initialLimit  初始限制
+     * @param minLimit      最小限制
+     * @param maxLimit      最大限制
+     * @param tolerance     耗时容忍倍数，耗时不超过无负载耗时的该倍数时不减小限制
+     * @param smoothing     平滑系数，(0, 1]，越大调整越快
+     * @param backoffRatio  请求失败时的乘性减小比例，(0, 1)
+     * @param windowSamples 每个窗口的样本数
+     * @param probeWindows  每隔多少个窗口重新测量无负载耗时
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                                      double backoffRatio, int windowSamples, int probeWindows) {
+        Assert.isTrue(minLimit > 0 && minLimit <= initialLimit && initialLimit <= maxLimit, "必须满足 0 < 最小限制 <= 初始限制 <= 最大限制！");
+        Assert.isTrue(tolerance >= 1, "耗时容忍倍数不能小于 1！");
+        Assert.isTrue(smoothing > 0 && smoothing <= 1, "平滑系数必须在 (0, 1] 之间！");
+        Assert.isTrue(backoffRatio > 0 && backoffRatio < 1, "减小比例必须在 (0, 1) 之间！");
+        Assert.isTrue(windowSamples > 0 && probeWindows > 0, "窗口样本数、重新测量间隔必须大于 0！");
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.windowSamples = windowSamples;
+        this.probeWindows = probeWindows;
+    }
+
+    /**
+     * 尝试进入，进入成功后必须调用 {@link #release(long, boolean)}
+     *
+     * @return 进入时间（纳秒），超过限制时返回 {@link #REJECTED}
+     */
+    public long tryAcquire() {
+        while (true) {
+            final int current = this.inflight.get();
+            if (current >= (int) this.limit) {
+                this.rejected.increment();
+                return REJECTED;
+            }
+            if (this.inflight.compareAndSet(current, current + 1)) {
+                return System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * 请求结束，记录耗时样本
+     *
+     * @param startNanos {@link #tryAcquire()} 的返回值
+     * @param dropped    请求是否失败（超时、异常），失败时乘性减小限制
+     */
+    public void release(long startNanos, boolean dropped) {
+        final long rtt = System.nanoTime() - startNanos;
+        final int current = this.inflight.getAndDecrement();
+        synchronized (this) {
+            this.windowRttSum += rtt;
+            this.windowMaxInflight = Math.max(this.windowMaxInflight, current);
+            this.windowDropped |= dropped;
+            if (++this.windowCount >= this.windowSamples) {
+                update(this.windowRttSum / (double) this.windowCount, this.windowMaxInflight, this.windowDropped);
+                this.windowRttSum = 0;
+                this.windowCount = 0;
+                this.windowMaxInflight = 0;
+                this.windowDropped = false;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) this.limit;
+    }
+
+    public int getInflight() {
+        return this.inflight.get();
+    }
+
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * 一个窗口结束，调整限制，必须持有 this 的监视器
+     */
+    private void update(double rtt, int maxInflight, boolean dropped) {
+        double newLimit;
+        if (dropped) {
+            newLimit = this.limit * this.backoffRatio;
+        } else {
+            if (++this.windowsSinceProbe >= this.probeWindows) {
+                this.minRtt = rtt;
+                this.windowsSinceProbe = 0;
+            } else {
+                this.minRtt = Math.min(this.minRtt, rtt);
+            }
+            final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, this.tolerance * this.minRtt / rtt));
+            if (gradient >= 1.0 && maxInflight < this.limit / 2) {
+                // 请求数远小于限制，耗时说明不了限制是否合适，保持不变
+                return;
+            }
+            newLimit = this.limit * gradient + Math.sqrt(this.limit);
+            newLimit = this.limit * (1 - this.smoothing) + newLimit * this.smoothing;
+        }
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,228 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.lang.hash.MurmurHash;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.olinonee.framework.lock.dto.HotProduct;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 热点商品探测器（滑动窗口 count-min sketch + top-K）
+ * <p>
+ * 每次减库存调用一次 {@link #record(String)}。窗口被划分为若干个子窗口，每个子窗口一个 count-min sketch，
+ * 商品在整个窗口内的访问次数为各子窗口 sketch 之和的估计值（只会高估，不会低估），内存占用和商品数量无关。
+ * 窗口内访问次数达到 threshold 的商品被标记为热点；每次滑动子窗口时，访问次数低于 {@code threshold * coolRatio} 的热点商品被取消标记，
+ * 两个阈值之间留出余量，避免商品在阈值附近来回切换。
+ * <p>
+ * 同时维护访问次数最多的 K 个商品，K 很小，用线性扫描代替堆；更新时只尝试加锁（tryLock），
+ * 热点商品的并发请求不会在这里排队，偶尔跳过一次更新不影响结果。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class HotProductDetector {
+
+    private final int width;
+    private final int depth;
+    private final long threshold;
+    private final long coolThreshold;
+    private final int topK;
+
+    /**
+     * 子窗口的 sketch，下标 [row * width + column]
+     */
+    private final AtomicReferenceArray<AtomicLongArray> buckets;
+    private volatile int current;
+
+    private final Set<String> hotProducts = ConcurrentHashMap.newKeySet();
+    /**
+     * top-K 商品及其估计次数，只在持有 topLock 时访问
+     */
+    private final Map<String, Long> top = new HashMap<>();
+    private final ReentrantLock topLock = new ReentrantLock();
+    /**
+     * top-K 已满时的最小估计次数，估计次数不超过它的商品不会进入 top-K
+     */
+    private volatile long topFloor;
+    private final ScheduledExecutorService slideExecutor;
+
+    /**
+     * @param windowMillis  窗口长度（毫秒）
+     * @param buckets       子窗口数，窗口每次滑动 windowMillis / buckets
+     * @param threshold     窗口内访问次数达到该值时标记为热点
+     * @param coolRatio     访问次数低于 threshold * coolRatio 时取消标记，(0, 1]
+     * @param topK          维护访问次数最多的商品数
+     * @param width         sketch 每行的计数器个数，越大误差越小
+     * @param depth         sketch 的行数（哈希函数个数），越大误差超出范围的概率越小
+     */
+    public HotProductDetector(long windowMillis, int buckets, long threshold, double coolRatio, int topK, int width, int depth) {
+        Assert.isTrue(buckets > 0 && windowMillis >= buckets, "子窗口数必须大于 0，且不能大于窗口长度（毫秒）！");
+        Assert.isTrue(threshold > 0, "热点阈值必须大于 0！");
+        Assert.isTrue(coolRatio > 0 && coolRatio <= 1, "冷却比例必须在 (0, 1] 之间！");
+        Assert.isTrue(topK > 0 && width > 0 && depth > 0, "top-K、sketch 宽度和深度必须大于 0！");
+        this.width = width;
+        this.depth = depth;
+        this.threshold = threshold;
+        this.coolThreshold = (long) Math.ceil(threshold * coolRatio);
+        this.topK = topK;
+        this.buckets = new AtomicReferenceArray<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            this.buckets.set(i, new AtomicLongArray(width * depth));
+        }
+        final long slideMillis = windowMillis / buckets;
+        this.slideExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("stock-hot-slide-", true));
+        this.slideExecutor.scheduleAtFixedRate(this::slide, slideMillis, slideMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param productCode 商品编号
+     * @return 窗口内访问次数的估计值
+     */
+    public long record(String productCode) {
+        final long[] hash = MurmurHash.hash128(productCode);
+        final AtomicLongArray bucket = this.buckets.get(this.current);
+        for (int row = 0; row < this.depth; row++) {
+            bucket.incrementAndGet(index(hash, row));
+        }
+        final long estimate = estimate(hash);
+        if (estimate >= this.threshold && !this.hotProducts.contains(productCode) && this.hotProducts.add(productCode)) {
+            log.info("[HotProductDetector#record] - 商品 {} 成为热点，窗口内访问次数：{}", productCode, estimate);
+        }
+        if (estimate > this.topFloor && this.topLock.tryLock()) {
+            try {
+                offer(productCode, estimate);
+            } finally {
+                this.topLock.unlock();
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * 商品当前是否为热点
+     *
+     * @param productCode 商品编号
+     * @return 是否为热点
+     */
+    public boolean isHot(String productCode) {
+        return this.hotProducts.contains(productCode);
+    }
+
+    /**
+     * 窗口内访问次数的估计值
+     *
+     * @param productCode 商品编号
+     * @return 估计值
+     */
+    public long estimate(String productCode) {
+        return estimate(MurmurHash.hash128(productCode));
+    }
+
+    /**
+     * 访问次数最多的 K 个商品，按访问次数从多到少排序
+     *
+     * @return 商品列表
+     */
+    public List<HotProduct> topProducts() {
+        final List<HotProduct> products = new ArrayList<>(this.topK);
+        this.topLock.lock();
+        try {
+            this.top.forEach((productCode, count) -> products.add(new HotProduct(productCode, count, isHot(productCode))));
+        } finally {
+            this.topLock.unlock();
+        }
+        products.sort(Comparator.comparingLong(HotProduct::getCount).reversed());
+        return products;
+    }
+
+    public int getHotCount() {
+        return this.hotProducts.size();
+    }
+
+    public void shutdown() {
+        this.slideExecutor.shutdown();
+    }
+
+    /**
+     * 滑动一个子窗口：清空最旧的子窗口，重新估计热点商品和 top-K
+     */
+    void slide() {
+        try {
+            final int next = (this.current + 1) % this.buckets.length();
+            this.buckets.set(next, new AtomicLongArray(this.width * this.depth));
+            this.current = next;
+
+            for (String productCode : this.hotProducts) {
+                final long estimate = estimate(productCode);
+                if (estimate < this.coolThreshold) {
+                    this.hotProducts.remove(productCode);
+                    log.info("[HotProductDetector#slide] - 商品 {} 不再是热点，窗口内访问次数：{}", productCode, estimate);
+                }
+            }
+
+            this.topLock.lock();
+            try {
+                this.top.replaceAll((productCode, count) -> estimate(productCode));
+                this.top.values().removeIf(count -> count == 0);
+                this.topFloor = this.top.size() < this.topK ? 0 : Collections.min(this.top.values());
+            } finally {
+                this.topLock.unlock();
+            }
+        } catch (Exception e) {
+            log.error("[HotProductDetector#slide] - 滑动窗口失败", e);
+        }
+    }
+
+    /**
+     * 更新 top-K，必须持有 topLock
+     */
+    private void offer(String productCode, long estimate) {
+        if (this.top.containsKey(productCode) || this.top.size() < this.topK) {
+            this.top.put(productCode, estimate);
+        } else {
+            final Map.Entry<String, Long> min = Collections.min(this.top.entrySet(), Map.Entry.comparingByValue());
+            if (estimate <= min.getValue()) {
+                return;
+            }
+            this.top.remove(min.getKey());
+            this.top.put(productCode, estimate);
+        }
+        this.topFloor = this.top.size() < this.topK ? 0 : Collections.min(this.top.values());
+    }
+
+    /**
+     * 各子窗口 sketch 之和的 count-min 估计：每一行先跨子窗口求和，再取各行的最小值
+     */
+    private long estimate(long[] hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < this.depth; row++) {
+            final int index = index(hash, row);
+            long sum = 0;
+            for (int i = 0; i < this.buckets.length(); i++) {
+                sum += this.buckets.get(i).get(index);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * 双重哈希：第 row 行的列为 (h1 + row * h2) mod width
+     */
+    private int index(long[] hash, int row) {
+        return row * this.width + (int) Math.floorMod(hash[0] + row * hash[1], (long) this.width);
+    }
+}
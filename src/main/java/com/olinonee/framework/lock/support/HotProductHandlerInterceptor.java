@@ -0,0 +1,35 @@
+package com.olinonee.framework.lock.support;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 减库存接口拦截器：把每次减库存请求的商品编号交给 {@link HotProductDetector} 统计
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class HotProductHandlerInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String DEFAULT_PRODUCT_CODE = "1001";
+
+    private final HotProductDetector hotProductDetector;
+
+    public HotProductHandlerInterceptor(HotProductDetector hotProductDetector) {
+        this.hotProductDetector = hotProductDetector;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC) {
+            final String productCode = request.getParameter("productCode");
+            this.hotProductDetector.record(null == productCode ? DEFAULT_PRODUCT_CODE : productCode);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,336 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 应用层锁的死锁检测器（等待图）
+ * <p>
+ * 通过 {@link #lock(Object, TimedAcquire)} / {@link #unlock(Object, Runnable)} 加解锁时，记录每个资源（锁）的持有线程，
+ * 以及每个线程正在等待的资源，构成等待图：线程 → 等待的资源 → 资源的持有线程 → ……
+ * <p>
+ * 每个线程同时只会等待一个资源，每个资源同时只有一个持有者，所以每个节点最多只有一条出边，
+ * 只有新增的等待边才可能形成环，因此每次开始等待时，沿着这条边往下走一遍即可（增量检测）：走回当前线程就是死锁。
+ * 当前线程是环中最后一个开始等待的（最年轻的等待者），直接让它放弃等待，抛出 {@link LockDeadlockException}，
+ * 事务回滚、连接归还连接池，其他线程继续执行，而不是所有线程一起卡到请求超时。
+ * <p>
+ * 没有经过检测器的锁（比如 synchronized 的对象监视器）不在等待图中，由后台线程定期调用
+ * {@link ThreadMXBean#findDeadlockedThreads()} 兜底：环中有登记过的等待者时，中断其中最年轻的一个；
+ * 全部阻塞在对象监视器上时无法中断，只能记录日志和指标，需要人工处理。
+ * <p>
+ * 分布式锁按 key 登记，只能发现本实例内的线程之间的死锁，跨实例的死锁仍然依赖锁的租约超时。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class LockDeadlockDetector {
+
+    /**
+     * 资源 → 持有线程
+     */
+    private final ConcurrentMap<Object, Thread> holders = new ConcurrentHashMap<>();
+    /**
+     * 当前线程持有的资源以及重入次数，计数归零时移除
+     */
+    private final ThreadLocal<Map<Object, Integer>> holdCounts = ThreadLocal.withInitial(HashMap::new);
+    /**
+     * 线程 → 正在等待的资源，只在持有 this 的监视器时访问，保证检测时看到的等待图是一致的
+     */
+    private final Map<Thread, Wait> waits = new HashMap<>();
+    private final LongAdder detected = new LongAdder();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService scanExecutor;
+    /**
+     * 上一次兜底检测报告过的死锁线程，同一个无法解除的死锁只报告一次，只在扫描线程中访问
+     */
+    private Set<Long> lastReported = Collections.emptySet();
+
+    /**
+     * @param scanIntervalMillis {@link ThreadMXBean} 兜底检测的间隔（毫秒），小于等于 0 表示不开启
+     */
+    public LockDeadlockDetector(long scanIntervalMillis) {
+        if (scanIntervalMillis > 0) {
+            this.scanExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("stock-deadlock-", true));
+            this.scanExecutor.scheduleWithFixedDelay(this::scan, scanIntervalMillis, scanIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scanExecutor = null;
+        }
+    }
+
+    /**
+     * 加锁，获取不到则一直阻塞，等待期间登记到等待图
+     *
+     * @param resource 资源，同一把锁必须始终使用同一个（equals 相等的）资源
+     * @param acquire  实际的加锁操作，比如 {@code ReentrantLock::tryLock}
+     * @throws LockDeadlockException 检测到死锁，当前线程被选为牺牲者
+     */
+    public void lock(Object resource, TimedAcquire acquire) {
+        Assert.notNull(resource, "资源不能为空！");
+        try {
+            // 无竞争时不进入等待图
+            if (acquire.tryLock(0, TimeUnit.NANOSECONDS)) {
+                held(resource);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待锁时被中断：" + resource, e);
+        }
+
+        final Wait wait = startWaiting(resource);
+        final boolean acquired;
+        try {
+            acquired = acquire.tryLock(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            if (wait.victim) {
+                throw new LockDeadlockException(wait.cycle);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待锁时被中断：" + resource, e);
+        } finally {
+            stopWaiting(wait);
+        }
+        if (!acquired) {
+            throw new IllegalStateException("获取锁失败：" + resource);
+        }
+        if (wait.victim) {
+            // 被选为牺牲者的同时拿到了锁，环已经解除，清掉多余的中断标记
+            Thread.interrupted();
+        }
+        held(resource);
+    }
+
+    /**
+     * 以锁本身作为资源加锁，无竞争时不创建加锁操作的 lambda
+     *
+     * @param lock 锁
+     * @throws LockDeadlockException 检测到死锁，当前线程被选为牺牲者
+     */
+    public void lock(Lock lock) {
+        if (lock.tryLock()) {
+            held(lock);
+            return;
+        }
+        lock(lock, lock::tryLock);
+    }
+
+    /**
+     * 解锁，对应 {@link #lock(Lock)}
+     *
+     * @param lock 锁
+     */
+    public void unlock(Lock lock) {
+        released(lock);
+        lock.unlock();
+    }
+
+    /**
+     * 解锁
+     *
+     * @param resource 资源
+     * @param release  实际的解锁操作，比如 {@code ReentrantLock::unlock}
+     */
+    public void unlock(Object resource, Runnable release) {
+        released(resource);
+        release.run();
+    }
+
+    private void released(Object resource) {
+        final Map<Object, Integer> counts = this.holdCounts.get();
+        final Integer count = counts.get(resource);
+        if (null != count) {
+            if (count > 1) {
+                counts.put(resource, count - 1);
+            } else {
+                counts.remove(resource);
+                // 先移除再解锁，条件移除不会误删下一个持有者
+                this.holders.remove(resource, Thread.currentThread());
+            }
+        }
+    }
+
+    /**
+     * 检测到的死锁次数（含兜底检测）
+     *
+     * @return 次数
+     */
+    public long getDetectedCount() {
+        return this.detected.sum();
+    }
+
+    public void shutdown() {
+        if (null != this.scanExecutor) {
+            this.scanExecutor.shutdownNow();
+        }
+    }
+
+    private void held(Object resource) {
+        final Map<Object, Integer> counts = this.holdCounts.get();
+        final Integer count = counts.get(resource);
+        if (null == count) {
+            counts.put(resource, 1);
+            this.holders.put(resource, Thread.currentThread());
+        } else {
+            counts.put(resource, count + 1);
+        }
+    }
+
+    private synchronized Wait startWaiting(Object resource) {
+        final Thread current = Thread.currentThread();
+        final List<Thread> chain = findCycle(current, resource);
+        if (null != chain) {
+            this.detected.increment();
+            final String cycle = describe(current, resource, chain);
+            log.warn("[LockDeadlockDetector#startWaiting] - {}，当前线程放弃等待", cycle);
+            throw new LockDeadlockException(cycle);
+        }
+        final Wait wait = new Wait(current, resource, System.nanoTime());
+        this.waits.put(current, wait);
+        return wait;
+    }
+
+    private synchronized void stopWaiting(Wait wait) {
+        this.waits.remove(wait.thread, wait);
+    }
+
+    /**
+     * 从当前线程的新等待边出发，沿着 “资源的持有者 → 持有者等待的资源” 往下走
+     *
+     * @param current  当前线程
+     * @param resource 当前线程要等待的资源
+     * @return 走回当前线程时，返回途经的其他线程；否则返回 null
+     */
+    private List<Thread> findCycle(Thread current, Object resource) {
+        final List<Thread> chain = new ArrayList<>();
+        final Set<Thread> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Object waitingFor = resource;
+        while (true) {
+            final Thread holder = this.holders.get(waitingFor);
+            if (null == holder) {
+                return null;
+            }
+            if (holder == current) {
+                return chain;
+            }
+            final Wait wait = this.waits.get(holder);
+            // 持有者没有在等待，或者走进了一个不包含当前线程的环
+            if (null == wait || !visited.add(holder)) {
+                return null;
+            }
+            chain.add(holder);
+            waitingFor = wait.resource;
+        }
+    }
+
+    private String describe(Thread current, Object resource, List<Thread> chain) {
+        final StringBuilder builder = new StringBuilder("检测到死锁：[").append(current.getName()).append("] 等待 ").append(resource);
+        for (Thread thread : chain) {
+            builder.append("（持有者 [").append(thread.getName()).append("]）→ [").append(thread.getName())
+                    .append("] 等待 ").append(this.waits.get(thread).resource);
+        }
+        return builder.append("（持有者 [").append(current.getName()).append("]）").toString();
+    }
+
+    /**
+     * {@link ThreadMXBean} 兜底检测，可以发现对象监视器、以及没有经过检测器的 {@code java.util.concurrent} 锁上的死锁
+     */
+    private void scan() {
+        try {
+            final long[] threadIds = this.threadMXBean.findDeadlockedThreads();
+            if (null == threadIds) {
+                this.lastReported = Collections.emptySet();
+                return;
+            }
+            final Set<Long> deadlocked = new HashSet<>();
+            for (long threadId : threadIds) {
+                deadlocked.add(threadId);
+            }
+            if (deadlocked.equals(this.lastReported)) {
+                return;
+            }
+            this.lastReported = deadlocked;
+            this.detected.increment();
+
+            final StringBuilder dump = new StringBuilder();
+            for (ThreadInfo threadInfo : this.threadMXBean.getThreadInfo(threadIds, true, true)) {
+                if (null != threadInfo) {
+                    dump.append(threadInfo);
+                }
+            }
+            log.error("[LockDeadlockDetector#scan] - JVM 检测到死锁：\n{}", dump);
+            breakCycle(deadlocked);
+        } catch (RuntimeException e) {
+            log.warn("[LockDeadlockDetector#scan] - 死锁检测失败", e);
+        }
+    }
+
+    /**
+     * 中断环中最年轻的登记过的等待者
+     *
+     * @param deadlocked 死锁的线程 id
+     */
+    private synchronized void breakCycle(Set<Long> deadlocked) {
+        Wait victim = null;
+        for (Wait wait : this.waits.values()) {
+            if (deadlocked.contains(wait.thread.getId()) && (null == victim || wait.startNanos - victim.startNanos > 0)) {
+                victim = wait;
+            }
+        }
+        if (null == victim) {
+            log.error("[LockDeadlockDetector#scan] - 死锁线程都阻塞在对象监视器（synchronized）或者未登记的锁上，无法自动解除");
+            return;
+        }
+        victim.cycle = "检测到死锁：[" + victim.thread.getName() + "] 等待 " + victim.resource + " 时与线程 " + deadlocked + " 循环等待";
+        victim.victim = true;
+        log.warn("[LockDeadlockDetector#scan] - 中断最年轻的等待者 [{}]", victim.thread.getName());
+        victim.thread.interrupt();
+    }
+
+    /**
+     * 实际的加锁操作
+     */
+    @FunctionalInterface
+    public interface TimedAcquire {
+        /**
+         * 尝试加锁，最多等待指定的时间，{@link Long#MAX_VALUE} 纳秒表示一直等待
+         *
+         * @param timeout 等待时间
+         * @param unit    时间单位
+         * @return 是否加锁成功
+         * @throws InterruptedException 等待时被中断
+         */
+        boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException;
+    }
+
+    /**
+     * 一个线程对一个资源的等待
+     */
+    private static class Wait {
+        private final Thread thread;
+        private final Object resource;
+        private final long startNanos;
+        private volatile boolean victim;
+        private volatile String cycle;
+
+        private Wait(Thread thread, Object resource, long startNanos) {
+            this.thread = thread;
+            this.resource = resource;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.olinonee.framework.lock.support;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 等待锁时检测到死锁，当前线程被选为牺牲者，放弃等待
+ * <p>
+ * 调用方应该回滚事务、释放已经持有的锁之后再重试，接口返回 409
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class LockDeadlockException extends IllegalStateException {
+
+    public LockDeadlockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,139 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 乐观锁重试模板
+ * <p>
+ * 用循环代替递归重试，避免高并发下栈溢出；每次 CAS 失败后按指数退避（带随机抖动）等待一段时间再重试，
+ * 避免所有线程同时重试把数据库打满；超过最大尝试次数之后按 {@link GiveUpPolicy} 处理。
+ * <p>
+ * 第一次尝试使用调用方传入的数据，之后每次重试之前都会调用刷新函数重新读取数据（只需要读取 CAS 相关的列即可）。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class OptimisticRetryTemplate {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final GiveUpPolicy giveUpPolicy;
+
+    public OptimisticRetryTemplate(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, GiveUpPolicy giveUpPolicy) {
+        Assert.isTrue(maxAttempts > 0, "最大尝试次数必须大于 0！");
+        Assert.isTrue(initialBackoffMillis >= 0 && maxBackoffMillis >= initialBackoffMillis, "退避时间配置不合法！");
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.giveUpPolicy = Assert.notNull(giveUpPolicy, "放弃策略不能为空！");
+    }
+
+    /**
+     * 执行带重试的乐观锁操作
+     *
+     * @param initial   第一次尝试使用的数据
+     * @param refresher 重试之前重新读取数据
+     * @param action    一次尝试，返回本次尝试的结果
+     * @param <T>       数据类型
+     * @return 执行结果（含尝试次数）
+     */
+    public <T> RetryResult execute(T initial, UnaryOperator<T> refresher, Function<T, Outcome> action) {
+        T current = initial;
+        for (int attempt = 1; attempt <= this.maxAttempts; attempt++) {
+            if (attempt > 1) {
+                backoff(attempt - 1);
+                current = refresher.apply(current);
+            }
+            final Outcome outcome = action.apply(current);
+            if (outcome != Outcome.CONFLICT) {
+                return new RetryResult(outcome, attempt);
+            }
+        }
+
+        if (this.giveUpPolicy == GiveUpPolicy.FAIL) {
+            throw new IllegalStateException("乐观锁重试 " + this.maxAttempts + " 次后仍然冲突，放弃执行！");
+        }
+        log.warn("[OptimisticRetryTemplate#execute] - 乐观锁重试 {} 次后仍然冲突，放弃执行", this.maxAttempts);
+        return new RetryResult(Outcome.CONFLICT, this.maxAttempts);
+    }
+
+    /**
+     * 第 n 次退避的等待时间上限：min(max, initial * 2^(n-1))，实际等待时间在 [0, 上限] 之间随机（full jitter）
+     *
+     * @param retry 第几次重试，从 1 开始
+     * @return 等待时间上限（毫秒）
+     */
+    long backoffCeilingMillis(int retry) {
+        final int shift = Math.min(retry - 1, 30);
+        return Math.min(this.maxBackoffMillis, this.initialBackoffMillis << shift);
+    }
+
+    private void backoff(int retry) {
+        final long ceiling = backoffCeilingMillis(retry);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("乐观锁重试等待时被中断！", e);
+        }
+    }
+
+    /**
+     * 单次尝试的结果
+     */
+    public enum Outcome {
+        /**
+         * 更新成功
+         */
+        SUCCESS,
+        /**
+         * 版本冲突，需要重试
+         */
+        CONFLICT,
+        /**
+         * 不满足业务条件（比如库存不足），无需重试
+         */
+        REJECTED
+    }
+
+    /**
+     * 超过最大尝试次数之后的处理策略
+     */
+    public enum GiveUpPolicy {
+        /**
+         * 抛出异常
+         */
+        FAIL,
+        /**
+         * 记录告警日志后返回
+         */
+        IGNORE
+    }
+
+    /**
+     * 执行结果
+     */
+    @Getter
+    public static class RetryResult {
+        private final Outcome outcome;
+        private final int attempts;
+
+        RetryResult(Outcome outcome, int attempts) {
+            this.outcome = outcome;
+            this.attempts = attempts;
+        }
+    }
+}
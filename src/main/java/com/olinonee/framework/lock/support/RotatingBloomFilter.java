@@ -0,0 +1,111 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.lang.hash.MurmurHash;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按时间窗口轮换的布隆过滤器（线程安全）
+ * <p>
+ * 同时保留两代：写入只写当前代，查询两代都查；每个窗口调用一次 {@link #rotate()}，当前代变为上一代，上一代丢弃，
+ * 因此一个元素至少被记住一个窗口、最多两个窗口，内存占用固定，不会随时间推移被写满导致误判率上升。
+ * <p>
+ * 返回 false 表示一定没有见过（在记忆范围内）；返回 true 表示可能见过，需要再去数据库确认。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class RotatingBloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    /**
+     * @param expectedInsertions 每个窗口预计写入的元素数
+     * @param fpp                期望的误判率
+     */
+    public RotatingBloomFilter(int expectedInsertions, double fpp) {
+        Assert.isTrue(expectedInsertions > 0, "预计写入数必须大于 0！");
+        Assert.isTrue(fpp > 0 && fpp < 1, "误判率必须在 (0, 1) 之间！");
+        // m = -n * ln(p) / (ln2)^2，k = m / n * ln2
+        final long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashes = Math.max(1, (int) Math.round((double) this.bits / expectedInsertions * Math.log(2)));
+        this.current = new Generation(this.bits);
+        this.previous = new Generation(this.bits);
+    }
+
+    public void put(String value) {
+        final Generation generation = this.current;
+        final long[] hash = MurmurHash.hash128(value);
+        for (int i = 0; i < this.hashes; i++) {
+            generation.set(index(hash, i));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        final long[] hash = MurmurHash.hash128(value);
+        return contains(this.current, hash) || contains(this.previous, hash);
+    }
+
+    /**
+     * 进入下一个窗口
+     */
+    public void rotate() {
+        this.previous = this.current;
+        this.current = new Generation(this.bits);
+    }
+
+    /**
+     * 哈希函数个数
+     *
+     * @return 个数
+     */
+    public int getHashes() {
+        return this.hashes;
+    }
+
+    private boolean contains(Generation generation, long[] hash) {
+        for (int i = 0; i < this.hashes; i++) {
+            if (!generation.get(index(hash, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 双重哈希：h1 + i * h2 模拟 k 个哈希函数
+     */
+    private int index(long[] hash, int i) {
+        return (int) Math.floorMod(hash[0] + i * hash[1], (long) this.bits);
+    }
+
+    /**
+     * 一代位图
+     */
+    private static class Generation {
+        private final AtomicLongArray words;
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+        }
+
+        private void set(int index) {
+            final int word = index >>> 6;
+            final long mask = 1L << index;
+            long value;
+            while (((value = this.words.get(word)) & mask) == 0 && !this.words.compareAndSet(word, value, value | mask)) {
+                // CAS 失败重试
+            }
+        }
+
+        private boolean get(int index) {
+            return (this.words.get(index >>> 6) & (1L << index)) != 0;
+        }
+    }
+}
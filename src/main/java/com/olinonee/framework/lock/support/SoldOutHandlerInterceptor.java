@@ -0,0 +1,43 @@
+package com.olinonee.framework.lock.support;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 减库存接口售罄拦截器：商品已经售罄时直接返回 409，不进入加锁、访问数据库的流程
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class SoldOutHandlerInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String DEFAULT_PRODUCT_CODE = "1001";
+
+    private final SoldOutRegistry soldOutRegistry;
+
+    public SoldOutHandlerInterceptor(SoldOutRegistry soldOutRegistry) {
+        this.soldOutRegistry = soldOutRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        final String productCode = request.getParameter("productCode");
+        if (!this.soldOutRegistry.isSoldOut(null == productCode ? DEFAULT_PRODUCT_CODE : productCode)) {
+            return true;
+        }
+        response.setStatus(HttpStatus.CONFLICT.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("[" + ((HandlerMethod) handler).getMethod().getName() + "] - 商品已售罄！！");
+        return false;
+    }
+}
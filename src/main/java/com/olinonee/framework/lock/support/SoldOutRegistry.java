@@ -0,0 +1,130 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 售罄标记（负缓存）
+ * <p>
+ * 减库存第一次发现商品库存不足时标记为售罄，之后的请求在加锁、访问数据库之前检查标记直接失败，售罄之后流量最大的时候也不再占用数据库连接。
+ * 标记通过广播器同步给其他实例（第一次标记时广播一次），补货时清除并广播。
+ * <p>
+ * 标记在 ttlMillis 之后自动失效，失效后的第一个请求重新访问数据库确认：
+ * 直接修改数据库补货、补货时并发请求重新标记等情况，最多影响 ttlMillis。
+ * <p>
+ * 广播消息格式：{@code +商品编号} 标记售罄，{@code -商品编号} 清除标记
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class SoldOutRegistry {
+
+    private static final char MARK = '+';
+    private static final char CLEAR = '-';
+
+    /**
+     * 商品编号 -> 标记失效时间（{@link System#nanoTime()}）
+     */
+    private final ConcurrentMap<String, Long> soldOut = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private volatile Consumer<String> broadcaster = message -> {
+    };
+
+    /**
+     * @param ttlMillis 售罄标记的有效期（毫秒）
+     */
+    public SoldOutRegistry(long ttlMillis) {
+        Assert.isTrue(ttlMillis > 0, "有效期必须大于 0！");
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * 商品是否已经售罄
+     *
+     * @param productCode 商品编号
+     * @return 是否已经售罄
+     */
+    public boolean isSoldOut(String productCode) {
+        final Long expiresAt = this.soldOut.get(productCode);
+        if (null == expiresAt) {
+            return false;
+        }
+        if (System.nanoTime() - expiresAt < 0) {
+            return true;
+        }
+        this.soldOut.remove(productCode, expiresAt);
+        return false;
+    }
+
+    /**
+     * 标记商品售罄，第一次标记时广播给其他实例
+     *
+     * @param productCode 商品编号
+     */
+    public void markSoldOut(String productCode) {
+        if (null == this.soldOut.put(productCode, System.nanoTime() + this.ttlNanos)) {
+            log.info("[SoldOutRegistry#markSoldOut] - 商品 {} 已售罄", productCode);
+            this.broadcaster.accept(MARK + productCode);
+        }
+    }
+
+    /**
+     * 补货后清除售罄标记，并广播给其他实例
+     *
+     * @param productCode 商品编号
+     */
+    public void clear(String productCode) {
+        this.soldOut.remove(productCode);
+        this.broadcaster.accept(CLEAR + productCode);
+    }
+
+    /**
+     * 处理其他实例广播的消息，不再转发
+     *
+     * @param message 广播消息
+     */
+    public void onMessage(String message) {
+        if (null == message || message.length() < 2) {
+            return;
+        }
+        final String productCode = message.substring(1);
+        if (message.charAt(0) == MARK) {
+            this.soldOut.put(productCode, System.nanoTime() + this.ttlNanos);
+        } else if (message.charAt(0) == CLEAR) {
+            this.soldOut.remove(productCode);
+        }
+    }
+
+    /**
+     * 当前被标记为售罄的商品
+     *
+     * @return 商品编号
+     */
+    public Set<String> soldOutProducts() {
+        final Set<String> products = new TreeSet<>();
+        this.soldOut.keySet().forEach(productCode -> {
+            if (isSoldOut(productCode)) {
+                products.add(productCode);
+            }
+        });
+        return products;
+    }
+
+    /**
+     * 设置广播器，未设置时只在本实例生效
+     *
+     * @param broadcaster 广播器
+     */
+    public void setBroadcaster(Consumer<String> broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+}
@@ -0,0 +1,119 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 减库存审计日志：按比例采样，异步输出
+ * <p>
+ * 在锁内同步输出 INFO 日志会拉长锁的持有时间（格式化、IO），这里在锁外调用，只做一次采样判断和一次入队，
+ * 由后台线程输出；队列满时直接丢弃并计数，不阻塞请求线程。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j(topic = "stock.audit")
+public class StockAuditLogger {
+
+    private final double sampleRate;
+    private final BlockingQueue<AuditEvent> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    /**
+     * @param sampleRate    采样比例，[0, 1]，0 表示不记录
+     * @param queueCapacity 队列容量
+     */
+    public StockAuditLogger(double sampleRate, int queueCapacity) {
+        this(sampleRate, queueCapacity, true);
+    }
+
+    /**
+     * @param startWriter 是否启动后台输出线程，不启动时事件只在 {@link #shutdown()} 时输出
+     */
+    StockAuditLogger(double sampleRate, int queueCapacity, boolean startWriter) {
+        Assert.isTrue(sampleRate >= 0 && sampleRate <= 1, "采样比例必须在 [0, 1] 之间！");
+        Assert.isTrue(queueCapacity > 0, "队列容量必须大于 0！");
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new NamedThreadFactory("stock-audit-", true).newThread(this::drain);
+        if (startWriter) {
+            this.writer.start();
+        }
+    }
+
+    /**
+     * 记录一次减库存，未被采样时不产生任何对象
+     *
+     * @param strategy    策略
+     * @param productCode 商品编号
+     * @param remaining   库存余量
+     */
+    public void record(String strategy, String productCode, int remaining) {
+        if (this.sampleRate <= 0 || (this.sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= this.sampleRate)) {
+            return;
+        }
+        if (!this.queue.offer(new AuditEvent(strategy, productCode, remaining))) {
+            this.dropped.increment();
+        }
+    }
+
+    /**
+     * 队列满时丢弃的条数
+     *
+     * @return 条数
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * 等待输出的条数
+     *
+     * @return 条数
+     */
+    int getPending() {
+        return this.queue.size();
+    }
+
+    public void shutdown() {
+        this.writer.interrupt();
+        AuditEvent event;
+        while (null != (event = this.queue.poll())) {
+            write(event);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                write(this.queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(AuditEvent event) {
+        log.info("[{}] - 商品 {} 库存余量为：{}", event.strategy, event.productCode, event.remaining);
+    }
+
+    private static class AuditEvent {
+        private final String strategy;
+        private final String productCode;
+        private final int remaining;
+
+        private AuditEvent(String strategy, String productCode, int remaining) {
+            this.strategy = strategy;
+            this.productCode = productCode;
+            this.remaining = remaining;
+        }
+    }
+}
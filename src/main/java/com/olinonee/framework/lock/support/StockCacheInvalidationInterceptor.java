@@ -0,0 +1,104 @@
+package com.olinonee.framework.lock.support;
+
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.entity.StockSlot;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.mapper.StockSlotMapper;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.*;
+
+/**
+ * MyBatis 插件：库存表（{@code tb_stock}、{@code tb_stock_slot}）的写语句执行成功后，事务提交时失效 {@link StockNearCache} 中对应的商品
+ * <p>
+ * 所有扣减方案都要经过 mapper，在这里统一失效，不需要每个方案各自处理；从参数中取不到商品编号的语句（比如按 id 批量扣减）失效所有商品
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class StockCacheInvalidationInterceptor implements Interceptor {
+
+    private static final String STOCK_MAPPER = StockMapper.class.getName() + ".";
+    private static final String STOCK_SLOT_MAPPER = StockSlotMapper.class.getName() + ".";
+
+    /**
+     * 延迟获取：缓存依赖 mapper，mapper 又依赖注册了本插件的 SqlSessionFactory
+     */
+    private final ObjectProvider<StockNearCache> stockNearCacheProvider;
+
+    public StockCacheInvalidationInterceptor(ObjectProvider<StockNearCache> stockNearCacheProvider) {
+        this.stockNearCacheProvider = stockNearCacheProvider;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        final Object result = invocation.proceed();
+        final String id = ((MappedStatement) invocation.getArgs()[0]).getId();
+        if ((id.startsWith(STOCK_MAPPER) || id.startsWith(STOCK_SLOT_MAPPER))
+                && result instanceof Integer && (Integer) result > 0) {
+            final StockNearCache stockNearCache = this.stockNearCacheProvider.getIfAvailable();
+            if (null != stockNearCache) {
+                stockNearCache.evictAfterCommit(productCodes(invocation.getArgs()[1]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从语句参数中取出修改的商品编号
+     *
+     * @param parameter 语句参数
+     * @return 商品编号，取不到时返回 null
+     */
+    static Set<String> productCodes(Object parameter) {
+        final Set<String> productCodes = new HashSet<>();
+        return collect(parameter, productCodes) ? productCodes : null;
+    }
+
+    private static boolean collect(Object parameter, Set<String> productCodes) {
+        if (parameter instanceof Stock) {
+            return add(((Stock) parameter).getProductCode(), productCodes);
+        }
+        if (parameter instanceof StockSlot) {
+            return add(((StockSlot) parameter).getProductCode(), productCodes);
+        }
+        if (!(parameter instanceof Map)) {
+            return false;
+        }
+        // @Param 参数（MapperMethod.ParamMap 取不存在的 key 会抛异常，先判断）
+        final Map<?, ?> params = (Map<?, ?>) parameter;
+        if (params.containsKey("productCode")) {
+            return add(params.get("productCode"), productCodes);
+        }
+        if (params.containsKey("productCodes") || params.containsKey("slots")) {
+            final Object values = params.containsKey("productCodes") ? params.get("productCodes") : params.get("slots");
+            if (!(values instanceof Collection)) {
+                return false;
+            }
+            for (Object value : (Collection<?>) values) {
+                if (!(value instanceof String ? add(value, productCodes) : collect(value, productCodes))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // BaseMapper#updateById、BaseMapper#update 的实体参数
+        return params.containsKey("et") && collect(params.get("et"), productCodes);
+    }
+
+    private static boolean add(Object productCode, Set<String> productCodes) {
+        if (!(productCode instanceof String)) {
+            return false;
+        }
+        productCodes.add((String) productCode);
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.olinonee.framework.lock.support;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * 库存接口并发限制拦截器：每个接口方法一个 {@link AdaptiveConcurrencyLimiter}，超过限制的请求直接返回 429
+ * <p>
+ * 异步接口在异步分派（ASYNC）结束后才释放，限制的是包含排队在内的整个处理过程
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class StockConcurrencyLimitHandlerInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = StockConcurrencyLimitHandlerInterceptor.class.getName() + ".START";
+    private static final String LIMITER_ATTRIBUTE = StockConcurrencyLimitHandlerInterceptor.class.getName() + ".LIMITER";
+
+    private final Function<String, AdaptiveConcurrencyLimiter> limiterFactory;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * @param limiterFactory 按接口名创建限制器（同时注册指标），每个接口只调用一次
+     */
+    public StockConcurrencyLimitHandlerInterceptor(Function<String, AdaptiveConcurrencyLimiter> limiterFactory) {
+        this.limiterFactory = limiterFactory;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        final String endpoint = ((HandlerMethod) handler).getMethod().getName();
+        final AdaptiveConcurrencyLimiter limiter = this.limiters.computeIfAbsent(endpoint, this.limiterFactory);
+        final long start = limiter.tryAcquire();
+        if (start == AdaptiveConcurrencyLimiter.REJECTED) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("[" + endpoint + "] - 系统繁忙，请稍后重试！！");
+            return false;
+        }
+        request.setAttribute(START_ATTRIBUTE, start);
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        final Object limiter = request.getAttribute(LIMITER_ATTRIBUTE);
+        if (null == limiter) {
+            return;
+        }
+        request.removeAttribute(LIMITER_ATTRIBUTE);
+        final boolean dropped = null != ex || response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        ((AdaptiveConcurrencyLimiter) limiter).release((Long) request.getAttribute(START_ATTRIBUTE), dropped);
+    }
+}
@@ -0,0 +1,238 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 减库存合并提交器（group commit）
+ * <p>
+ * 同一商品的并发扣减请求先进入队列，等待一个很短的时间窗口或者凑满一批之后，合并成一条
+ * {@code UPDATE tb_stock SET count = count - N WHERE product_code = ? AND count >= N} 执行，
+ * 这样热点行每一批只需要获取一次行锁，而不是每个请求一次。
+ * <p>
+ * 如果剩余库存不足以满足整批请求，会重新查询剩余库存，按请求到达顺序挑选能满足的请求再提交一次，其余请求返回失败，
+ * 调用方依旧是同步语义：{@link #deduct(String, int)} 会阻塞直到所在批次提交完成。
+ * 等待超时的请求如果还没有被提交线程取走，会被取消，不会再被提交；已经取走的请求则继续等待提交结果。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class StockDeductionBatcher {
+
+    /**
+     * 库存不足时，按剩余库存重新挑选请求再提交的最大次数（其他实例可能同时在扣减）
+     */
+    private static final int MAX_PARTIAL_ATTEMPTS = 3;
+
+    private final StockMapper stockMapper;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService flushExecutor;
+    private final ConcurrentMap<String, ProductQueue> queues = new ConcurrentHashMap<>();
+
+    public StockDeductionBatcher(StockMapper stockMapper, long windowMillis, int maxBatchSize, long timeoutMillis, int flushThreads) {
+        Assert.isTrue(windowMillis >= 0, "时间窗口不能小于 0！");
+        Assert.isTrue(maxBatchSize > 0, "批次大小必须大于 0！");
+        Assert.isTrue(flushThreads > 0, "提交线程数必须大于 0！");
+        this.stockMapper = stockMapper;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.flushExecutor = Executors.newScheduledThreadPool(flushThreads, new NamedThreadFactory("stock-batch-", true));
+    }
+
+    /**
+     * 减库存，阻塞直到所在批次提交完成
+     *
+     * @param productCode 商品编号
+     * @param count       扣减数量
+     * @return 是否扣减成功，库存不足时返回 false
+     */
+    public boolean deduct(String productCode, int count) {
+        Assert.notBlank(productCode, "商品编号不能为空！");
+        Assert.isTrue(count > 0, "扣减数量必须大于 0！");
+
+        final DeductRequest request = new DeductRequest(count);
+        final ProductQueue queue = this.queues.computeIfAbsent(productCode, ProductQueue::new);
+        queue.requests.add(request);
+        final int pending = queue.pending.incrementAndGet();
+        if (pending >= this.maxBatchSize && queue.immediate.compareAndSet(false, true)) {
+            // 凑满一批，立即提交（提交开始前只预约一次）
+            this.flushExecutor.execute(() -> flush(queue));
+        } else if (queue.scheduled.compareAndSet(false, true)) {
+            // 当前窗口的第一个请求，负责预约提交
+            this.flushExecutor.schedule(() -> flush(queue), this.windowMillis, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            return request.result.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待合并提交结果时被中断！", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("合并提交减库存失败！", e.getCause());
+        } catch (TimeoutException e) {
+            if (request.cancel()) {
+                // 请求还没有被提交线程取走，取消之后不会再被提交
+                throw new IllegalStateException("等待合并提交结果超时！", e);
+            }
+            // 请求已经在提交中，结果马上就会确定，必须等到结果，否则调用方会把已经扣减的请求当成失败
+            return awaitClaimed(request);
+        }
+    }
+
+    /**
+     * 关闭提交线程池，队列中剩余的请求会在关闭前提交完
+     */
+    public void shutdown() {
+        this.queues.values().forEach(this::flush);
+        this.flushExecutor.shutdown();
+    }
+
+    private void flush(ProductQueue queue) {
+        // 先放开预约标记，之后到达的请求会预约下一个窗口
+        queue.scheduled.set(false);
+        queue.immediate.set(false);
+        queue.flushLock.lock();
+        try {
+            List<DeductRequest> batch;
+            while (!(batch = drain(queue)).isEmpty()) {
+                try {
+                    apply(queue.productCode, batch);
+                } catch (Exception e) {
+                    log.error("[StockDeductionBatcher#flush] - 商品 {} 合并提交失败，批次大小：{}", queue.productCode, batch.size(), e);
+                    batch.forEach(request -> request.result.completeExceptionally(e));
+                }
+            }
+        } finally {
+            queue.flushLock.unlock();
+        }
+    }
+
+    private List<DeductRequest> drain(ProductQueue queue) {
+        final List<DeductRequest> batch = new ArrayList<>(Math.min(queue.pending.get(), this.maxBatchSize));
+        DeductRequest request;
+        int polled = 0;
+        while (batch.size() < this.maxBatchSize && null != (request = queue.requests.poll())) {
+            polled++;
+            // 跳过已经超时取消的请求，取走之后调用方不能再取消
+            if (request.claim()) {
+                batch.add(request);
+            }
+        }
+        queue.pending.addAndGet(-polled);
+        return batch;
+    }
+
+    private boolean awaitClaimed(DeductRequest request) {
+        try {
+            return request.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待合并提交结果时被中断！", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("合并提交减库存失败！", e.getCause());
+        }
+    }
+
+    private void apply(String productCode, List<DeductRequest> batch) {
+        final int total = batch.stream().mapToInt(request -> request.count).sum();
+        if (this.stockMapper.updateStock(productCode, total) > 0) {
+            batch.forEach(request -> request.result.complete(true));
+            return;
+        }
+
+        // 剩余库存不足以满足整批请求，按到达顺序挑选能满足的请求
+        for (int attempt = 0; attempt < MAX_PARTIAL_ATTEMPTS; attempt++) {
+            int available = queryAvailable(productCode);
+            final List<DeductRequest> accepted = new ArrayList<>();
+            final List<DeductRequest> rejected = new ArrayList<>();
+            int acceptedTotal = 0;
+            for (DeductRequest request : batch) {
+                if (request.count <= available) {
+                    accepted.add(request);
+                    acceptedTotal += request.count;
+                    available -= request.count;
+                } else {
+                    rejected.add(request);
+                }
+            }
+            if (accepted.isEmpty()) {
+                break;
+            }
+            if (this.stockMapper.updateStock(productCode, acceptedTotal) > 0) {
+                accepted.forEach(request -> request.result.complete(true));
+                rejected.forEach(request -> request.result.complete(false));
+                log.info("[StockDeductionBatcher#apply] - 商品 {} 库存不足，部分提交：成功 {} 个，失败 {} 个", productCode, accepted.size(), rejected.size());
+                return;
+            }
+        }
+        batch.forEach(request -> request.result.complete(false));
+    }
+
+    private int queryAvailable(String productCode) {
+        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+        stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
+        final Stock stock = this.stockMapper.selectOne(stockLambdaQueryWrapper);
+        return null == stock || null == stock.getCount() ? 0 : stock.getCount();
+    }
+
+    /**
+     * 单个商品的请求队列
+     */
+    private static class ProductQueue {
+        private final String productCode;
+        private final Queue<DeductRequest> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean immediate = new AtomicBoolean();
+        private final ReentrantLock flushLock = new ReentrantLock();
+
+        private ProductQueue(String productCode) {
+            this.productCode = productCode;
+        }
+    }
+
+    /**
+     * 单个扣减请求
+     */
+    private static class DeductRequest {
+        private static final int WAITING = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        private final int count;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        /**
+         * 请求状态：等待提交、已被提交线程取走、调用方已超时取消，只能从等待状态转换一次
+         */
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private DeductRequest(int count) {
+            this.count = count;
+        }
+
+        private boolean claim() {
+            return this.state.compareAndSet(WAITING, CLAIMED);
+        }
+
+        private boolean cancel() {
+            return this.state.compareAndSet(WAITING, CANCELLED);
+        }
+    }
+}
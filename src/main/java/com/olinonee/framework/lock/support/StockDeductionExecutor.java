@@ -0,0 +1,75 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 减库存专用线程池
+ * <p>
+ * 异步接口把减库存任务交给该线程池执行，Tomcat 线程不再阻塞在锁等待和数据库访问上；
+ * 线程数和 JDBC 连接池大小一致（多了也只能等连接），队列有界，队列满时直接拒绝（接口返回 429），
+ * 锁竞争造成的积压不会拖垮整个实例。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class StockDeductionExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final StockMetrics stockMetrics;
+
+    public StockDeductionExecutor(int threads, int queueCapacity, StockMetrics stockMetrics) {
+        Assert.isTrue(threads > 0, "线程数必须大于 0！");
+        Assert.isTrue(queueCapacity > 0, "队列容量必须大于 0！");
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("stock-deduct-", false),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.stockMetrics = stockMetrics;
+    }
+
+    /**
+     * 提交减库存任务，减库存埋点的上下文会传递给执行线程
+     *
+     * @param task 减库存任务
+     * @param <T>  任务结果类型
+     * @return 任务结果
+     * @throws RejectedExecutionException 队列已满
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(this.stockMetrics.propagate(task), this.executor);
+        } catch (RejectedExecutionException e) {
+            this.stockMetrics.end(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 排队中的任务数
+     *
+     * @return 排队中的任务数
+     */
+    public int getQueueSize() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * 正在执行的任务数
+     *
+     * @return 正在执行的任务数
+     */
+    public int getActiveCount() {
+        return this.executor.getActiveCount();
+    }
+
+    /**
+     * 关闭线程池，已提交的任务会执行完
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
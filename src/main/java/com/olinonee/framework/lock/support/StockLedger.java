@@ -0,0 +1,388 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.entity.StockJournalCheckpoint;
+import com.olinonee.framework.lock.entity.StockMovement;
+import com.olinonee.framework.lock.mapper.StockJournalCheckpointMapper;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.mapper.StockMovementMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 库存流水账本
+ * <p>
+ * 扣减不再修改 {@code tb_stock} 的热点行，而是追加一条库存流水到 {@code tb_stock_movement}：
+ * 后台写入线程把并发到达的流水攒成一批，通过 JDBC 批量插入在一个事务中提交，调用方阻塞直到所在批次提交完成。
+ * 快照线程定期把检查点之后的流水按商品、仓库汇总，合并到 {@code tb_stock}，并在同一个事务中推进检查点；
+ * 当前库存 = 库存快照 + 检查点之后的流水，每一次库存变化都可以追溯到具体的请求。
+ * <p>
+ * 剩余库存的校验在内存中完成（第一次访问商品时按快照 + 流水加载），和 write-behind 模式一样只适用于单实例：
+ * 开启后这些商品的扣减只能通过本实例的账本进行，多个实例各自按内存库存校验会超卖。流水只记录一个仓库，因此只支持单仓库（一行库存记录）的商品。
+ * 等待超时的流水如果还没有被写入线程取走，会被取消并还原内存库存，不会再被提交。补货同样通过账本追加一条正数流水，不直接修改 {@code tb_stock}。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class StockLedger {
+
+    /**
+     * 快照检查点 id，检查点记录已经合并到库存快照的最大流水 id
+     */
+    static final String CHECKPOINT_ID = "ledger";
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final StockMapper stockMapper;
+    private final StockMovementMapper stockMovementMapper;
+    private final StockJournalCheckpointMapper checkpointMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final long snapshotIntervalMillis;
+    private final long snapshotLagMillis;
+
+    private final ConcurrentMap<String, ProductStock> products = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingMovement> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread writer;
+    private ScheduledExecutorService snapshotExecutor;
+
+    public StockLedger(SqlSessionFactory sqlSessionFactory, StockMapper stockMapper, StockMovementMapper stockMovementMapper,
+                       StockJournalCheckpointMapper checkpointMapper, TransactionTemplate transactionTemplate,
+                       int maxBatchSize, long timeoutMillis, long snapshotIntervalMillis, long snapshotLagMillis) {
+        Assert.isTrue(maxBatchSize > 0, "批次大小必须大于 0！");
+        Assert.isTrue(snapshotIntervalMillis > 0, "快照间隔必须大于 0！");
+        Assert.isTrue(snapshotLagMillis >= 0, "快照延迟不能小于 0！");
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.stockMapper = stockMapper;
+        this.stockMovementMapper = stockMovementMapper;
+        this.checkpointMapper = checkpointMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        this.snapshotLagMillis = snapshotLagMillis;
+    }
+
+    /**
+     * 初始化检查点，启动写入线程和快照线程
+     */
+    public synchronized void start() {
+        if (this.running) {
+            return;
+        }
+        this.checkpointMapper.insertCheckpointIfAbsent(CHECKPOINT_ID);
+        this.running = true;
+        this.writer = new Thread(this::writeLoop, "stock-ledger-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("stock-ledger-snapshot-", true));
+        this.snapshotExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (Exception e) {
+                log.error("[StockLedger#snapshot] - 合并库存流水失败，下次继续合并", e);
+            }
+        }, this.snapshotIntervalMillis, this.snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 减库存，追加一条流水，阻塞直到流水提交完成
+     *
+     * @param requestId   请求 id，可以为空
+     * @param productCode 商品编号
+     * @param count       扣减数量
+     * @return 是否扣减成功，库存不足时返回 false
+     */
+    public boolean deduct(String requestId, String productCode, int count) {
+        Assert.notBlank(productCode, "商品编号不能为空！");
+        Assert.isTrue(count > 0, "扣减数量必须大于 0！");
+        if (!this.running) {
+            throw new IllegalStateException("库存流水账本未启动或已关闭！");
+        }
+
+        final ProductStock stock = this.products.computeIfAbsent(productCode, this::load);
+        synchronized (stock) {
+            if (stock.available < count) {
+                return false;
+            }
+            stock.available -= count;
+        }
+        return submit(new PendingMovement(stock, movement(requestId, productCode, stock.warehouse, -count)));
+    }
+
+    /**
+     * 补货，追加一条正数流水，阻塞直到流水提交完成；流水提交之后才增加内存库存，提交失败的补货不会被扣减
+     *
+     * @param productCode 商品编号
+     * @param warehouse   仓库，必须是商品所在的仓库
+     * @param count       补货数量
+     */
+    public void restock(String productCode, String warehouse, int count) {
+        Assert.notBlank(productCode, "商品编号不能为空！");
+        Assert.isTrue(count > 0, "补货数量必须大于 0！");
+        if (!this.running) {
+            throw new IllegalStateException("库存流水账本未启动或已关闭！");
+        }
+
+        final ProductStock stock = this.products.computeIfAbsent(productCode, this::load);
+        Assert.isTrue(null != stock.warehouse && stock.warehouse.equals(warehouse), "商品 {} 在仓库 {} 没有库存记录！", productCode, warehouse);
+        submit(new PendingMovement(stock, movement(null, productCode, warehouse, count)));
+    }
+
+    /**
+     * 商品是否可以通过账本扣减、补货：已经加载过，或者只有一行库存记录
+     *
+     * @param productCode 商品编号
+     * @return 是否支持
+     */
+    public boolean supports(String productCode) {
+        if (this.products.containsKey(productCode)) {
+            return true;
+        }
+        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+        stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
+        return this.stockMapper.selectCount(stockLambdaQueryWrapper) == 1;
+    }
+
+    private StockMovement movement(String requestId, String productCode, String warehouse, int delta) {
+        final StockMovement movement = new StockMovement();
+        movement.setRequestId(requestId);
+        movement.setProductCode(productCode);
+        movement.setWarehouse(warehouse);
+        movement.setDelta(delta);
+        movement.setGmtCreate(new Date());
+        return movement;
+    }
+
+    /**
+     * 把流水交给写入线程，阻塞直到所在批次提交完成
+     *
+     * @param pending 等待提交的流水
+     * @return 是否提交成功
+     */
+    private boolean submit(PendingMovement pending) {
+        this.queue.add(pending);
+        try {
+            return pending.result.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待库存流水提交时被中断！", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("库存流水提交失败！", e.getCause());
+        } catch (TimeoutException e) {
+            if (pending.cancel()) {
+                // 流水还没有被写入线程取走，取消之后不会再被提交，和提交失败一样还原内存库存
+                pending.rollback();
+                throw new IllegalStateException("等待库存流水提交超时！", e);
+            }
+            // 流水已经在提交中，必须等到结果，否则调用方会把已经扣减的库存当成失败
+            return awaitClaimed(pending);
+        }
+    }
+
+    /**
+     * 查询当前库存（库存快照 + 快照之后的流水）
+     *
+     * @param productCode 商品编号
+     * @return 当前库存
+     */
+    public int queryStock(String productCode) {
+        return this.stockMovementMapper.selectLedgerStock(productCode, CHECKPOINT_ID);
+    }
+
+    /**
+     * 把检查点之后、写入超过 {@code snapshotLagMillis} 的流水合并到库存快照
+     *
+     * @return 合并的流水汇总条数（按商品、仓库汇总）
+     */
+    public int snapshot() {
+        final Integer merged = this.transactionTemplate.execute(status -> {
+            final StockJournalCheckpoint checkpoint = this.checkpointMapper.selectCheckpointForUpdate(CHECKPOINT_ID);
+            final long fromId = null == checkpoint ? 0 : checkpoint.getFlushedOffset();
+            final Long toId = this.stockMovementMapper.selectMaxMovementId(fromId, new Date(System.currentTimeMillis() - this.snapshotLagMillis));
+            if (null == toId) {
+                return 0;
+            }
+            final List<StockMovement> sums = this.stockMovementMapper.sumMovements(fromId, toId);
+            sums.forEach(sum -> {
+                if (this.stockMapper.applyMovement(sum.getProductCode(), sum.getWarehouse(), sum.getDelta()) == 0) {
+                    log.warn("[StockLedger#snapshot] - 商品 {} 仓库 {} 不存在，流水 {} 未能合并", sum.getProductCode(), sum.getWarehouse(), sum.getDelta());
+                }
+            });
+            this.checkpointMapper.saveCheckpoint(CHECKPOINT_ID, 0, toId);
+            log.info("[StockLedger#snapshot] - 流水 ({}, {}] 已经合并到库存快照：{} 条", fromId, toId, sums.size());
+            return sums.size();
+        });
+        return null == merged ? 0 : merged;
+    }
+
+    /**
+     * 停止快照线程，提交队列中剩余的流水
+     */
+    public synchronized void shutdown() {
+        if (!this.running) {
+            return;
+        }
+        this.snapshotExecutor.shutdown();
+        this.running = false;
+        try {
+            this.writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean awaitClaimed(PendingMovement pending) {
+        try {
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待库存流水提交时被中断！", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("库存流水提交失败！", e.getCause());
+        }
+    }
+
+    private ProductStock load(String productCode) {
+        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+        stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode);
+        final List<Stock> stocks = this.stockMapper.selectList(stockLambdaQueryWrapper);
+        if (stocks.isEmpty()) {
+            return new ProductStock(null, 0);
+        }
+        Assert.isTrue(stocks.size() == 1, "库存流水账本只支持单仓库商品，商品 {} 有 {} 个仓库！", productCode, stocks.size());
+        return new ProductStock(stocks.get(0).getWarehouse(), queryStock(productCode));
+    }
+
+    /**
+     * 写入线程：有流水就立即提交，提交期间到达的流水合并到下一批
+     */
+    private void writeLoop() {
+        final List<PendingMovement> batch = new ArrayList<>(this.maxBatchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                final PendingMovement first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (null == first) {
+                    continue;
+                }
+                batch.add(first);
+                this.queue.drainTo(batch, this.maxBatchSize - 1);
+                // 跳过已经超时取消的流水，取走之后调用方不能再取消
+                batch.removeIf(pending -> !pending.claim());
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingMovement> batch) {
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                // BATCH 执行器复用事务中的连接，所有插入在一次 executeBatch 中发送
+                try (SqlSession sqlSession = this.sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+                    final StockMovementMapper batchMapper = sqlSession.getMapper(StockMovementMapper.class);
+                    batch.forEach(pending -> batchMapper.insertMovement(pending.movement));
+                    sqlSession.flushStatements();
+                }
+            });
+        } catch (Exception e) {
+            log.error("[StockLedger#write] - 库存流水提交失败，批次大小：{}", batch.size(), e);
+            // 还原内存中已经扣减的库存
+            batch.forEach(pending -> {
+                pending.rollback();
+                pending.result.completeExceptionally(e);
+            });
+            return;
+        }
+        batch.forEach(pending -> {
+            pending.commit();
+            pending.result.complete(true);
+        });
+    }
+
+    /**
+     * 单个商品的内存库存，available 只在持有该对象的监视器时修改
+     */
+    private static class ProductStock {
+        private final String warehouse;
+        private long available;
+
+        private ProductStock(String warehouse, long available) {
+            this.warehouse = warehouse;
+            this.available = available;
+        }
+    }
+
+    /**
+     * 等待提交的流水
+     */
+    private static class PendingMovement {
+        private static final int WAITING = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        private final ProductStock stock;
+        private final StockMovement movement;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        /**
+         * 流水状态：等待提交、已被写入线程取走、调用方已超时取消，只能从等待状态转换一次
+         */
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private PendingMovement(ProductStock stock, StockMovement movement) {
+            this.stock = stock;
+            this.movement = movement;
+        }
+
+        private boolean claim() {
+            return this.state.compareAndSet(WAITING, CLAIMED);
+        }
+
+        private boolean cancel() {
+            return this.state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        /**
+         * 提交成功：补货此时才增加内存库存，扣减在追加之前已经扣除
+         */
+        private void commit() {
+            if (this.movement.getDelta() > 0) {
+                synchronized (this.stock) {
+                    this.stock.available += this.movement.getDelta();
+                }
+            }
+        }
+
+        /**
+         * 提交失败或者取消：还原追加之前已经扣除的内存库存
+         */
+        private void rollback() {
+            if (this.movement.getDelta() < 0) {
+                synchronized (this.stock) {
+                    this.stock.available -= this.movement.getDelta();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 减库存埋点
+ * <p>
+ * 一次减库存请求开始时通过 {@link #begin(String, String)} 绑定当前线程的策略和商品编号，
+ * 之后锁等待、锁持有、SQL 执行、乐观锁重试、库存不足等指标都会自动带上这两个标签，请求结束时调用 {@link #end(Throwable)} 解绑。
+ * <p>
+ * 商品编号按哈希分桶后作为标签，避免商品数量增长导致指标基数失控。
+ * <pre>
+ *     stock.deduct               整个减库存请求耗时，额外带 outcome 标签（success、rejected、error）
+ *     stock.lock.wait            获取锁的等待时间（JVM 锁、悲观锁）
+ *     stock.lock.hold            持有锁的时间（临界区耗时）
+ *     stock.db.statement         SQL 执行耗时，额外带 statement 标签
+ *     stock.optimistic.attempts  乐观锁每次请求的尝试次数
+ *     stock.deduct.rejected      库存不足被拒绝的扣减次数
+ * </pre>
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class StockMetrics {
+
+    private static final String NONE = "none";
+
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final int productBuckets;
+    private volatile Consumer<String> soldOutListener = productCode -> {
+    };
+
+    public StockMetrics(MeterRegistry meterRegistry, int productBuckets) {
+        Assert.isTrue(productBuckets > 0, "商品分桶数必须大于 0！");
+        this.meterRegistry = meterRegistry;
+        this.productBuckets = productBuckets;
+    }
+
+    /**
+     * 开始一次减库存请求，绑定当前线程的策略和商品编号
+     *
+     * @param strategy    策略（接口名）
+     * @param productCode 商品编号
+     */
+    public void begin(String strategy, String productCode) {
+        CONTEXT.set(new Context(strategy, bucket(productCode), System.nanoTime()));
+    }
+
+    /**
+     * 结束当前线程的减库存请求，记录整体耗时
+     *
+     * @param error 请求抛出的异常，没有则为 null
+     */
+    public void end(Throwable error) {
+        final Context context = CONTEXT.get();
+        if (null == context) {
+            return;
+        }
+        CONTEXT.remove();
+        final String outcome = null != error ? "error" : context.rejected ? "rejected" : "success";
+        this.meterRegistry.timer("stock.deduct", context.tags().and("outcome", outcome))
+                .record(System.nanoTime() - context.startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 解绑当前线程的上下文，不记录耗时，用于请求转为异步处理之后释放请求线程
+     */
+    public void detach() {
+        CONTEXT.remove();
+    }
+
+    /**
+     * 把当前线程的上下文传递给在其他线程执行的减库存任务，任务结束时由执行线程调用 {@link #end(Throwable)}，
+     * 整体耗时从请求开始算起，包含排队时间
+     *
+     * @param task 减库存任务
+     * @param <T>  任务结果类型
+     * @return 绑定了上下文的任务
+     */
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        final Context context = CONTEXT.get();
+        if (null == context) {
+            return task;
+        }
+        return () -> {
+            CONTEXT.set(context);
+            Throwable error = null;
+            try {
+                return task.get();
+            } catch (RuntimeException | Error e) {
+                error = e;
+                throw e;
+            } finally {
+                end(error);
+            }
+        };
+    }
+
+    /**
+     * 锁获取成功，记录等待时间
+     *
+     * @param waitStartNanos 开始等待锁的时间（{@link System#nanoTime()}）
+     * @return 获取到锁的时间，供 {@link #lockReleased(long)} 使用
+     */
+    public long lockAcquired(long waitStartNanos) {
+        final long acquiredNanos = System.nanoTime();
+        this.meterRegistry.timer("stock.lock.wait", currentTags()).record(acquiredNanos - waitStartNanos, TimeUnit.NANOSECONDS);
+        return acquiredNanos;
+    }
+
+    /**
+     * 锁已释放，记录持有时间
+     *
+     * @param acquiredNanos 获取到锁的时间
+     */
+    public void lockReleased(long acquiredNanos) {
+        this.meterRegistry.timer("stock.lock.hold", currentTags()).record(System.nanoTime() - acquiredNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一条 SQL 的执行耗时
+     *
+     * @param statement    mapper 语句 id
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void recordStatement(String statement, long elapsedNanos) {
+        this.meterRegistry.timer("stock.db.statement", currentTags().and("statement", statement))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录乐观锁一次请求的尝试次数
+     *
+     * @param attempts 尝试次数
+     */
+    public void recordAttempts(int attempts) {
+        this.meterRegistry.summary("stock.optimistic.attempts", currentTags()).record(attempts);
+    }
+
+    /**
+     * 库存不足，扣减被拒绝
+     */
+    public void rejected() {
+        final Context context = CONTEXT.get();
+        if (null != context) {
+            context.rejected = true;
+        }
+        this.meterRegistry.counter("stock.deduct.rejected", currentTags()).increment();
+    }
+
+    /**
+     * 单商品扣减时库存不足（商品已经售罄），除了记录拒绝之外还会通知售罄监听器
+     *
+     * @param productCode 商品编号
+     */
+    public void soldOut(String productCode) {
+        rejected();
+        this.soldOutListener.accept(productCode);
+    }
+
+    /**
+     * 设置售罄监听器
+     *
+     * @param soldOutListener 售罄监听器，参数为商品编号
+     */
+    public void setSoldOutListener(Consumer<String> soldOutListener) {
+        this.soldOutListener = soldOutListener;
+    }
+
+    String bucket(String productCode) {
+        if (null == productCode) {
+            return NONE;
+        }
+        return "bucket-" + Math.floorMod(productCode.hashCode(), this.productBuckets);
+    }
+
+    private Tags currentTags() {
+        final Context context = CONTEXT.get();
+        return null == context ? Tags.of("strategy", NONE, "product", NONE) : context.tags();
+    }
+
+    /**
+     * 当前线程的减库存上下文
+     */
+    private static class Context {
+        private final String strategy;
+        private final String product;
+        private final long startNanos;
+        private boolean rejected;
+
+        private Context(String strategy, String product, long startNanos) {
+            this.strategy = strategy;
+            this.product = product;
+            this.startNanos = startNanos;
+        }
+
+        private Tags tags() {
+            return Tags.of("strategy", this.strategy, "product", this.product);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.olinonee.framework.lock.support;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 库存接口拦截器：以接口方法名作为策略标签，在请求开始、结束时绑定、解绑 {@link StockMetrics} 的上下文
+ * <p>
+ * 异步接口的上下文由执行减库存的线程负责结束（见 {@link StockMetrics#propagate}），请求线程只解绑，异步分派（ASYNC）时不再重新绑定
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class StockMetricsHandlerInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String DEFAULT_PRODUCT_CODE = "1001";
+
+    private final StockMetrics stockMetrics;
+
+    public StockMetricsHandlerInterceptor(StockMetrics stockMetrics) {
+        this.stockMetrics = stockMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC) {
+            final String productCode = request.getParameter("productCode");
+            this.stockMetrics.begin(((HandlerMethod) handler).getMethod().getName(),
+                    null == productCode ? DEFAULT_PRODUCT_CODE : productCode);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        this.stockMetrics.detach();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        this.stockMetrics.end(ex);
+    }
+}
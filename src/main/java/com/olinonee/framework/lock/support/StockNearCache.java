@@ -0,0 +1,137 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 库存近端缓存（本地缓存）：商品编号 → 总库存
+ * <p>
+ * 基于 Caffeine（W-TinyLFU 淘汰策略），按容量和写入后的存活时间淘汰，只用于展示、可售判断等读请求，扣减仍然以数据库为准。
+ * <p>
+ * 库存修改的事务提交之后失效对应的商品（见 {@link StockCacheInvalidationInterceptor}），没有事务时立即失效；
+ * Caffeine 的加载和失效对同一个 key 是互斥的，失效之前开始的加载不会在失效之后把旧值写回缓存。
+ * 开启广播时，失效消息同时发送给其他实例；其他实例修改库存、消息丢失时，最多在存活时间之后读到新值。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class StockNearCache {
+
+    /**
+     * 广播消息中表示失效所有商品
+     */
+    public static final String ALL = "*";
+
+    private final Cache<String, Integer> cache;
+    private final Function<String, Integer> loader;
+    private volatile Consumer<String> broadcaster = productCode -> {
+    };
+
+    /**
+     * @param loader      从数据库加载总库存
+     * @param maximumSize 最多缓存的商品数
+     * @param ttlMillis   写入后的存活时间（毫秒）
+     */
+    public StockNearCache(Function<String, Integer> loader, long maximumSize, long ttlMillis) {
+        Assert.isTrue(maximumSize > 0, "缓存容量必须大于 0！");
+        Assert.isTrue(ttlMillis > 0, "存活时间必须大于 0！");
+        this.loader = loader;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 查询商品总库存，未命中时从数据库加载
+     *
+     * @param productCode 商品编号
+     * @return 总库存
+     */
+    public int get(String productCode) {
+        Assert.notBlank(productCode, "商品编号不能为空！");
+        return this.cache.get(productCode, this.loader);
+    }
+
+    /**
+     * 当前事务提交之后失效商品，不在事务中时立即失效
+     *
+     * @param productCodes 商品编号，null 表示无法确定修改了哪些商品，失效所有商品
+     */
+    public void evictAfterCommit(Collection<String> productCodes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(productCodes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(productCodes);
+            }
+        });
+    }
+
+    /**
+     * 收到其他实例的失效消息，只失效本地缓存，不再广播
+     *
+     * @param message 商品编号，或者 {@link #ALL}
+     */
+    public void onEvictMessage(String message) {
+        if (ALL.equals(message)) {
+            this.cache.invalidateAll();
+        } else {
+            this.cache.invalidate(message);
+        }
+    }
+
+    /**
+     * 设置失效消息的广播方式，不设置则只失效本地缓存
+     *
+     * @param broadcaster 广播方式
+     */
+    public void setBroadcaster(Consumer<String> broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * 底层缓存，用于注册指标
+     *
+     * @return Cache
+     */
+    public Cache<String, Integer> getCache() {
+        return this.cache;
+    }
+
+    private void evict(Collection<String> productCodes) {
+        if (null == productCodes) {
+            this.cache.invalidateAll();
+            broadcast(ALL);
+            return;
+        }
+        for (String productCode : productCodes) {
+            this.cache.invalidate(productCode);
+            broadcast(productCode);
+        }
+    }
+
+    private void broadcast(String message) {
+        try {
+            this.broadcaster.accept(message);
+        } catch (RuntimeException e) {
+            // 广播失败不影响已经提交的事务，其他实例最多在存活时间之后读到新值
+            log.warn("[StockNearCache#broadcast] - 广播库存缓存失效消息失败：{}", message, e);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 库存配额分配器（实例级库存预分配）
+ * <p>
+ * 每个实例一次从 {@code tb_stock} 中租借一块库存（比如 200 件）到内存，请求直接在内存中无锁（CAS）扣减，
+ * 数据库写入从每个请求一次降为每块一次；剩余配额低于水位线时异步补充下一块，配额耗尽时同步补充。
+ * <p>
+ * 租借就是 {@code UPDATE tb_stock SET count = count - N, leased = leased + N WHERE id = ? AND count >= N}，库存已经从数据库扣除，各实例的配额之和不会超过总库存，因此不会超卖；
+ * 商品有多个仓库时每次从剩余库存最多的一行租借。配额用完后再也租不到、超过租约时间、或者实例关闭时结算：未用完的配额归还到最近一次租借的那一行，
+ * 租借出去的数量从 {@code leased} 中扣除。{@code count + leased} 就是全局剩余（含各实例还没有结算的配额），为 0 时商品才算售罄。
+ * 实例宕机时没有结算的配额留在 {@code leased} 中，商品不会被判定为售罄，需要对账补回。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class StockQuotaAllocator {
+
+    /**
+     * 剩余库存不足一块时，按剩余库存重新租借的最大次数（其他实例可能同时在租借）
+     */
+    private static final int MAX_LEASE_ATTEMPTS = 3;
+
+    private final StockMapper stockMapper;
+    private final int blockSize;
+    private final int lowWatermark;
+    private final long leaseMillis;
+    private final long exhaustedRecheckMillis;
+    private final ScheduledExecutorService refillExecutor;
+    private final ConcurrentMap<String, Quota> quotas = new ConcurrentHashMap<>();
+
+    /**
+     * @param stockMapper            库存 mapper
+     * @param blockSize              每次租借的库存块大小
+     * @param lowWatermark           剩余配额低于该值时异步补充
+     * @param leaseMillis            租约时间（毫秒），超过该时间结算配额，未用完的归还到数据库
+     * @param exhaustedRecheckMillis 数据库库存耗尽后，间隔多久再去数据库检查（其他实例可能归还配额）
+     */
+    public StockQuotaAllocator(StockMapper stockMapper, int blockSize, int lowWatermark, long leaseMillis, long exhaustedRecheckMillis) {
+        Assert.isTrue(blockSize > 0, "库存块大小必须大于 0！");
+        Assert.isTrue(lowWatermark >= 0 && lowWatermark < blockSize, "水位线必须在 [0, 库存块大小) 之间！");
+        Assert.isTrue(leaseMillis > 0, "租约时间必须大于 0！");
+        this.stockMapper = stockMapper;
+        this.blockSize = blockSize;
+        this.lowWatermark = lowWatermark;
+        this.leaseMillis = leaseMillis;
+        this.exhaustedRecheckMillis = exhaustedRecheckMillis;
+        this.refillExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("stock-quota-", true));
+        final long checkPeriod = Math.max(1, leaseMillis / 4);
+        this.refillExecutor.scheduleWithFixedDelay(this::returnExpired, checkPeriod, checkPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 减库存，优先从本实例的配额中扣减
+     *
+     * @param productCode 商品编号
+     * @param count       扣减数量
+     * @return 是否扣减成功，库存不足时返回 false
+     */
+    public boolean deduct(String productCode, int count) {
+        Assert.notBlank(productCode, "商品编号不能为空！");
+        Assert.isTrue(count > 0, "扣减数量必须大于 0！");
+
+        final Quota quota = this.quotas.computeIfAbsent(productCode, Quota::new);
+        if (tryTake(quota, count)) {
+            return true;
+        }
+
+        // 配额不足，同步补充；同一商品只有一个线程去数据库租借，其他线程等它租借完成后再扣减
+        quota.refillLock.lock();
+        try {
+            while (!tryTake(quota, count)) {
+                if (System.currentTimeMillis() < quota.exhaustedUntil) {
+                    return false;
+                }
+                if (!lease(quota, Math.max(this.blockSize, count))) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            quota.refillLock.unlock();
+        }
+    }
+
+    /**
+     * 商品是否已经售罄：本实例最近一次租借失败时，本实例的配额已经结算，数据库中没有剩余库存，其他实例也都没有未结算的配额
+     * <p>
+     * 租借失败不等于售罄：其他实例可能还持有配额，它们用完或者到期结算后才能确定，这期间只是本实例暂时租不到
+     *
+     * @param productCode 商品编号
+     * @return 是否售罄
+     */
+    public boolean isSoldOut(String productCode) {
+        final Quota quota = this.quotas.get(productCode);
+        return null != quota && quota.soldOut;
+    }
+
+    /**
+     * 本实例剩余的配额
+     *
+     * @param productCode 商品编号
+     * @return 剩余配额
+     */
+    public long available(String productCode) {
+        final Quota quota = this.quotas.get(productCode);
+        return null == quota ? 0 : quota.available.get();
+    }
+
+    /**
+     * 本实例已从配额中扣减的总量
+     *
+     * @param productCode 商品编号
+     * @return 已扣减总量
+     */
+    public long deducted(String productCode) {
+        final Quota quota = this.quotas.get(productCode);
+        return null == quota ? 0 : quota.deducted.sum();
+    }
+
+    /**
+     * 结算并丢弃单个商品在本实例的配额，下次扣减重新租借
+     * <p>
+     * 库存被人工重置（比如压测前重置库存）之后调用，调用期间不应该有该商品的扣减请求
+     *
+     * @param productCode 商品编号
+     */
+    public void settle(String productCode) {
+        final Quota quota = this.quotas.remove(productCode);
+        if (null != quota) {
+            settle(quota);
+        }
+    }
+
+    /**
+     * 停止补充并结算所有配额
+     */
+    public void shutdown() {
+        this.refillExecutor.shutdownNow();
+        this.quotas.values().forEach(this::settle);
+    }
+
+    private boolean tryTake(Quota quota, int count) {
+        long current;
+        do {
+            current = quota.available.get();
+            if (current < count) {
+                return false;
+            }
+        } while (!quota.available.compareAndSet(current, current - count));
+        quota.deducted.add(count);
+        if (current - count <= this.lowWatermark) {
+            refillAsync(quota);
+        }
+        return true;
+    }
+
+    private void refillAsync(Quota quota) {
+        if (!quota.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.refillExecutor.execute(() -> {
+                quota.refillLock.lock();
+                try {
+                    if (quota.available.get() <= this.lowWatermark && System.currentTimeMillis() >= quota.exhaustedUntil) {
+                        lease(quota, this.blockSize);
+                    }
+                } catch (Exception e) {
+                    log.error("[StockQuotaAllocator#refillAsync] - 商品 {} 补充配额失败", quota.productCode, e);
+                } finally {
+                    quota.refillLock.unlock();
+                    quota.refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 已经关闭
+            quota.refilling.set(false);
+        }
+    }
+
+    /**
+     * 从数据库租借一块库存，必须持有 refillLock
+     *
+     * @param quota 配额
+     * @param size  期望租借的数量
+     * @return 是否租借到了库存
+     */
+    private boolean lease(Quota quota, int size) {
+        int leased = 0;
+        // 剩余库存不足一块时有多少租多少，其他实例同时租借导致更新失败时重新查询
+        for (int attempt = 0; attempt < MAX_LEASE_ATTEMPTS && leased == 0; attempt++) {
+            final Stock stock = queryLargest(quota.productCode);
+            if (null == stock) {
+                break;
+            }
+            final int partial = Math.min(size, stock.getCount());
+            if (this.stockMapper.leaseStock(stock.getId(), partial) > 0) {
+                leased = partial;
+                quota.stockId = stock.getId();
+                quota.leasedRows.merge(stock.getId(), partial, Integer::sum);
+            }
+        }
+
+        if (leased == 0) {
+            quota.exhaustedUntil = System.currentTimeMillis() + this.exhaustedRecheckMillis;
+            // 本实例的配额已经用完时先结算，再看全局剩余；本实例还有配额（比如异步补充时）说明还没有售罄
+            if (quota.available.get() == 0) {
+                settle(quota);
+                quota.soldOut = this.stockMapper.selectOutstanding(quota.productCode) == 0;
+            }
+            log.info("[StockQuotaAllocator#lease] - 商品 {} 数据库库存已耗尽，是否售罄：{}", quota.productCode, quota.soldOut);
+            return false;
+        }
+        quota.soldOut = false;
+        quota.leasedAt = System.currentTimeMillis();
+        quota.available.addAndGet(leased);
+        log.info("[StockQuotaAllocator#lease] - 商品 {} 租借配额：{}", quota.productCode, leased);
+        return true;
+    }
+
+    private void returnExpired() {
+        final long now = System.currentTimeMillis();
+        this.quotas.values().forEach(quota -> {
+            if (now - quota.leasedAt >= this.leaseMillis) {
+                settle(quota);
+            }
+        });
+    }
+
+    /**
+     * 结算配额：未用完的归还到最近一次租借的那一行，每一行租借出去的数量从 leased 中扣除
+     *
+     * @param quota 配额
+     */
+    private void settle(Quota quota) {
+        quota.refillLock.lock();
+        long unused = 0;
+        try {
+            if (quota.leasedRows.isEmpty()) {
+                return;
+            }
+            unused = quota.available.getAndSet(0);
+            final Iterator<Map.Entry<Long, Integer>> iterator = quota.leasedRows.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Long, Integer> leasedRow = iterator.next();
+                final boolean current = leasedRow.getKey().equals(quota.stockId);
+                this.stockMapper.settleLease(leasedRow.getKey(), leasedRow.getValue(), current ? (int) unused : 0);
+                // 逐行移除，失败后下次只结算剩下的行
+                iterator.remove();
+                if (current) {
+                    unused = 0;
+                }
+            }
+            log.info("[StockQuotaAllocator#settle] - 商品 {} 配额已结算", quota.productCode);
+        } catch (Exception e) {
+            // 未用完的配额还没有归还，放回本实例继续使用
+            quota.available.addAndGet(unused);
+            log.error("[StockQuotaAllocator#settle] - 商品 {} 结算配额失败", quota.productCode, e);
+        } finally {
+            quota.refillLock.unlock();
+        }
+    }
+
+    /**
+     * 剩余库存最多的库存记录，商品可能有多个仓库（多行）
+     *
+     * @param productCode 商品编号
+     * @return 库存记录，没有剩余库存时返回 null
+     */
+    private Stock queryLargest(String productCode) {
+        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+        stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode)
+                .gt(Stock::getCount, 0);
+        return this.stockMapper.selectList(stockLambdaQueryWrapper).stream()
+                .max(Comparator.comparingInt(Stock::getCount))
+                .orElse(null);
+    }
+
+    /**
+     * 单个商品在本实例的配额
+     */
+    private static class Quota {
+        private final String productCode;
+        /**
+         * 剩余配额，CAS 扣减保证不会扣成负数
+         */
+        private final AtomicLong available = new AtomicLong();
+        /**
+         * 已扣减总量，只用于统计，写多读少
+         */
+        private final LongAdder deducted = new LongAdder();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private final ReentrantLock refillLock = new ReentrantLock();
+        /**
+         * 最近一次租借的库存记录 id，未用完的配额归还到这一行
+         */
+        private volatile Long stockId;
+        /**
+         * 本实例从每一行租借、还没有结算的数量，只在持有 refillLock 时访问
+         */
+        private final Map<Long, Integer> leasedRows = new HashMap<>();
+        private volatile boolean soldOut;
+        private volatile long leasedAt;
+        private volatile long exhaustedUntil;
+
+        private Quota(String productCode) {
+            this.productCode = productCode;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.olinonee.framework.lock.mapper.StockRequestMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 减库存请求去重
+ * <p>
+ * 请求 id 记录在去重表 {@code tb_stock_request} 中，和扣减在同一个事务里插入，主键保证同一个请求只会扣减一次；
+ * 扣减失败（库存不足、异常）时事务回滚，记录一起回滚，重试时会重新扣减。
+ * <p>
+ * 插入之前查一次去重表，可以让重复的请求直接返回、不再竞争库存行锁；本实例的布隆过滤器判定 “一定没有见过” 的请求跳过这次查询，
+ * 正常请求（绝大多数）只有一次主键插入，没有额外的索引读。布隆过滤器只是优化：重试被路由到其他实例、或者已经轮换出记忆窗口时，
+ * 仍然由插入时的主键冲突兜底。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class StockRequestDeduplicator {
+
+    /**
+     * 每次清理删除的最大行数
+     */
+    private static final int PURGE_BATCH = 1000;
+
+    private final StockRequestMapper stockRequestMapper;
+    private final RotatingBloomFilter bloomFilter;
+    private final long retentionMillis;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder skippedLookups = new LongAdder();
+
+    /**
+     * @param stockRequestMapper 去重表 mapper
+     * @param expectedInsertions 布隆过滤器每个窗口预计的请求数
+     * @param fpp                布隆过滤器误判率
+     * @param windowMillis       布隆过滤器的轮换窗口（毫秒）
+     * @param retentionMillis    去重记录的保留时间（毫秒），超过后同一个请求 id 会被当作新请求
+     */
+    public StockRequestDeduplicator(StockRequestMapper stockRequestMapper, int expectedInsertions, double fpp,
+                                    long windowMillis, long retentionMillis) {
+        Assert.isTrue(windowMillis > 0, "轮换窗口必须大于 0！");
+        Assert.isTrue(retentionMillis > 0, "保留时间必须大于 0！");
+        this.stockRequestMapper = stockRequestMapper;
+        this.bloomFilter = new RotatingBloomFilter(expectedInsertions, fpp);
+        this.retentionMillis = retentionMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("stock-dedupe-", true));
+        this.scheduler.scheduleAtFixedRate(this.bloomFilter::rotate, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        final long purgePeriod = Math.max(1000, retentionMillis / 10);
+        this.scheduler.scheduleWithFixedDelay(this::purge, purgePeriod, purgePeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 请求是否已经处理过（提交过），布隆过滤器判定一定没有见过时不查询数据库
+     *
+     * @param requestId 请求 id
+     * @return 是否已经处理过
+     */
+    public boolean isProcessed(String requestId) {
+        if (!this.bloomFilter.mightContain(requestId)) {
+            this.skippedLookups.increment();
+            return false;
+        }
+        this.lookups.increment();
+        return this.stockRequestMapper.countRequest(requestId) > 0;
+    }
+
+    /**
+     * 在当前事务中记录请求，必须和扣减在同一个事务中
+     *
+     * @param requestId   请求 id
+     * @param productCode 商品编号
+     * @param count       扣减数量
+     * @return 是否是第一次记录，false 表示其他事务已经记录过（重复请求）
+     */
+    public boolean record(String requestId, String productCode, int count) {
+        this.bloomFilter.put(requestId);
+        return this.stockRequestMapper.insertRequest(requestId, productCode, count) > 0;
+    }
+
+    /**
+     * 查询去重表的次数
+     *
+     * @return 次数
+     */
+    public long getLookups() {
+        return this.lookups.sum();
+    }
+
+    /**
+     * 布隆过滤器跳过查询的次数
+     *
+     * @return 次数
+     */
+    public long getSkippedLookups() {
+        return this.skippedLookups.sum();
+    }
+
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    private void purge() {
+        try {
+            final Date before = new Date(System.currentTimeMillis() - this.retentionMillis);
+            int deleted;
+            do {
+                deleted = this.stockRequestMapper.deleteExpired(before, PURGE_BATCH);
+            } while (deleted == PURGE_BATCH && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            log.warn("[StockRequestDeduplicator#purge] - 清理过期的去重记录失败", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.olinonee.framework.lock.support;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * MyBatis 插件：统计每条 SQL 的执行耗时（含等待 InnoDB 行锁的时间），交给 {@link StockMetrics} 记录
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class StockStatementMetricsInterceptor implements Interceptor {
+
+    private final StockMetrics stockMetrics;
+
+    public StockStatementMetricsInterceptor(StockMetrics stockMetrics) {
+        this.stockMetrics = stockMetrics;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        final MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        final long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            this.stockMetrics.recordStatement(shortId(mappedStatement.getId()), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 去掉 mapper 的包名，只保留 “类名.方法名”
+     */
+    private static String shortId(String id) {
+        final int methodDot = id.lastIndexOf('.');
+        final int classDot = methodDot > 0 ? id.lastIndexOf('.', methodDot - 1) : -1;
+        return id.substring(classDot + 1);
+    }
+}
@@ -0,0 +1,511 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.entity.StockJournalCheckpoint;
+import com.olinonee.framework.lock.mapper.StockJournalCheckpointMapper;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 减库存 write-behind 日志
+ * <p>
+ * 内存中的库存计数是权威值，扣减只在内存中校验、修改，并追加一条记录到内存映射（mmap）的日志文件，
+ * 后台线程定期把各商品累计的扣减量合并成一条 UPDATE 同步到 {@code tb_stock}，数据库不在请求的关键路径上。
+ * <p>
+ * 落盘方式（{@link SyncMode}）：
+ * <ul>
+ *     <li>GROUP：等待日志落盘（fsync）后才返回，多个请求共用一次 fsync，确认过的扣减不会丢失</li>
+ *     <li>INTERVAL：写入 mmap 即返回，每隔固定时间 fsync 一次，进程崩溃不丢数据（页缓存仍在），操作系统崩溃可能丢失最后一个间隔</li>
+ * </ul>
+ * 同步到数据库时，日志位置（检查点）和库存扣减在同一个事务中提交，重启时从检查点开始回放日志，每条记录只会同步一次。
+ * <p>
+ * 日志记录格式：{@code [2 字节商品编号长度][商品编号][4 字节扣减数量][4 字节 CRC32]}，CRC 包含日志轮次（epoch），
+ * 日志写满时先同步到数据库，再把轮次加 1 从头开始写，上一轮残留的记录因为 CRC 不匹配不会被回放。
+ * <p>
+ * 注意：内存计数只在第一次访问商品时从数据库加载，开启该模式后，这些商品的库存只能通过该日志修改（单实例独占）。
+ * 商品有多个仓库（多行）时只接管 id 最小的一行，扣减只同步到这一行；回放日志时按同样的规则找到同一行，日志记录中不需要保存行 id。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+@Slf4j
+public class StockWriteBehindJournal {
+
+    /**
+     * 文件头：8 字节日志轮次 + 8 字节保留
+     */
+    static final int HEADER_SIZE = 16;
+    private static final int MAX_CODE_BYTES = 256;
+    private static final int RECORD_OVERHEAD = 2 + 4 + 4;
+
+    private final StockMapper stockMapper;
+    private final StockJournalCheckpointMapper checkpointMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String journalId;
+    private final SyncMode syncMode;
+    private final long fsyncIntervalMillis;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private final ConcurrentMap<String, ProductStock> products = new ConcurrentHashMap<>();
+    /**
+     * 追加锁：保护内存库存、日志写入位置和轮次
+     */
+    private final ReentrantLock appendLock = new ReentrantLock();
+    /**
+     * 同步锁：同一时刻只有一个线程把日志同步到数据库，保证检查点只会前进，加锁顺序为 flushLock -> appendLock
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ByteBuffer writeBuffer;
+    private final CRC32 writeCrc = new CRC32();
+    private long epoch;
+    private int position;
+
+    /**
+     * 累计写入、已落盘的字节数（不随轮次重置），用于判断某条记录是否已经落盘
+     */
+    private final Object syncMonitor = new Object();
+    private volatile long writtenBytes;
+    private long syncedBytes;
+    private volatile boolean running = true;
+    private final Thread syncThread;
+    private final ScheduledExecutorService flushExecutor;
+
+    public StockWriteBehindJournal(StockMapper stockMapper, StockJournalCheckpointMapper checkpointMapper, TransactionTemplate transactionTemplate,
+                                   Path journalDir, String journalId, int capacity, SyncMode syncMode,
+                                   long fsyncIntervalMillis, long flushIntervalMillis) {
+        Assert.notBlank(journalId, "日志 id 不能为空！");
+        Assert.isTrue(capacity >= 4096, "日志文件容量不能小于 4096 字节！");
+        Assert.isTrue(fsyncIntervalMillis > 0 && flushIntervalMillis > 0, "落盘、同步间隔必须大于 0！");
+        this.stockMapper = stockMapper;
+        this.checkpointMapper = checkpointMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.journalId = journalId;
+        this.capacity = capacity;
+        this.syncMode = syncMode;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        try {
+            Files.createDirectories(journalDir);
+            this.channel = new RandomAccessFile(journalDir.resolve(journalId + ".journal").toFile(), "rw").getChannel();
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new IllegalStateException("打开库存日志文件失败：" + journalDir, e);
+        }
+        this.writeBuffer = this.buffer.duplicate();
+
+        recover();
+
+        this.syncThread = new Thread(this::syncLoop, "stock-journal-sync");
+        this.syncThread.setDaemon(true);
+        this.syncThread.start();
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("stock-journal-flush-", true));
+        this.flushExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                flush(false);
+            } catch (Exception e) {
+                log.error("[StockWriteBehindJournal#flush] - 同步库存日志到数据库失败，下次继续同步", e);
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 减库存，在内存中扣减并写入日志
+     *
+     * @param productCode 商品编号
+     * @param count       扣减数量
+     * @return 是否扣减成功，库存不足时返回 false
+     */
+    public boolean deduct(String productCode, int count) {
+        Assert.notBlank(productCode, "商品编号不能为空！");
+        Assert.isTrue(count > 0, "扣减数量必须大于 0！");
+        final byte[] code = productCode.getBytes(StandardCharsets.UTF_8);
+        Assert.isTrue(code.length <= MAX_CODE_BYTES, "商品编号过长！");
+
+        final ProductStock stock = this.products.computeIfAbsent(productCode, this::load);
+        final int recordSize = RECORD_OVERHEAD + code.length;
+        long written;
+        while (true) {
+            this.appendLock.lock();
+            try {
+                if (stock.available < count) {
+                    return false;
+                }
+                if (this.position + recordSize <= this.capacity) {
+                    append(code, count);
+                    stock.available -= count;
+                    stock.pending += count;
+                    written = this.writtenBytes;
+                    break;
+                }
+            } finally {
+                this.appendLock.unlock();
+            }
+            // 日志写满，同步到数据库后从头开始写
+            flush(true);
+        }
+
+        if (this.syncMode == SyncMode.GROUP) {
+            awaitSync(written);
+        }
+        return true;
+    }
+
+    /**
+     * 补货：直接增加数据库中的库存，补货到日志接管的那一行时同时增加内存库存
+     * <p>
+     * 补货不写入日志，在追加锁内先提交数据库再修改内存，期间不会有扣减；商品还未加载时先加载，避免加载时读到补货之后的库存再重复增加
+     *
+     * @param productCode 商品编号
+     * @param warehouse   仓库
+     * @param count       补货数量
+     */
+    public void restock(String productCode, String warehouse, int count) {
+        Assert.notBlank(productCode, "商品编号不能为空！");
+        Assert.isTrue(count > 0, "补货数量必须大于 0！");
+        final ProductStock stock = this.products.computeIfAbsent(productCode, this::load);
+        this.appendLock.lock();
+        try {
+            final Integer updated = this.transactionTemplate.execute(status -> this.stockMapper.applyMovement(productCode, warehouse, count));
+            Assert.isTrue(null != updated && updated > 0, "商品 {} 在仓库 {} 没有库存记录！", productCode, warehouse);
+            if (warehouse.equals(stock.warehouse)) {
+                stock.available += count;
+            }
+        } finally {
+            this.appendLock.unlock();
+        }
+    }
+
+    /**
+     * 内存中的剩余库存
+     *
+     * @param productCode 商品编号
+     * @return 剩余库存，还未加载时返回 -1
+     */
+    public long available(String productCode) {
+        final ProductStock stock = this.products.get(productCode);
+        return null == stock ? -1 : stock.available;
+    }
+
+    /**
+     * 把日志中还未同步的扣减同步到数据库
+     *
+     * @param rollover 同步之后如果日志没有新的写入，是否从头开始写
+     */
+    public void flush(boolean rollover) {
+        this.flushLock.lock();
+        try {
+            final Map<Long, Long> deltas = new HashMap<>();
+            final Map<Long, ProductStock> flushed = new HashMap<>();
+            final long snapshotEpoch;
+            final int snapshotPosition;
+            this.appendLock.lock();
+            try {
+                this.products.forEach((productCode, stock) -> {
+                    if (stock.pending > 0) {
+                        deltas.put(stock.stockId, stock.pending);
+                        flushed.put(stock.stockId, stock);
+                        stock.pending = 0;
+                    }
+                });
+                snapshotEpoch = this.epoch;
+                snapshotPosition = this.position;
+            } finally {
+                this.appendLock.unlock();
+            }
+
+            if (!deltas.isEmpty()) {
+                try {
+                    apply(deltas, snapshotEpoch, snapshotPosition);
+                } catch (RuntimeException e) {
+                    // 还原未同步的扣减，下次同步时一起提交
+                    this.appendLock.lock();
+                    try {
+                        deltas.forEach((stockId, delta) -> flushed.get(stockId).pending += delta);
+                    } finally {
+                        this.appendLock.unlock();
+                    }
+                    throw e;
+                }
+            }
+
+            if (rollover || snapshotPosition >= this.capacity / 2) {
+                this.appendLock.lock();
+                try {
+                    // 同步期间没有新的写入，日志中的记录都已经同步到数据库，可以从头开始写
+                    if (this.epoch == snapshotEpoch && this.position == snapshotPosition && this.position > HEADER_SIZE) {
+                        roll(this.epoch + 1);
+                    }
+                } finally {
+                    this.appendLock.unlock();
+                }
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * 停止后台线程，同步剩余的扣减并落盘
+     */
+    public void shutdown() {
+        this.flushExecutor.shutdown();
+        try {
+            this.flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            flush(false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.running = false;
+            synchronized (this.syncMonitor) {
+                this.syncMonitor.notifyAll();
+            }
+            this.buffer.force();
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                log.warn("[StockWriteBehindJournal#shutdown] - 关闭库存日志文件失败", e);
+            }
+        }
+    }
+
+    private ProductStock load(String productCode) {
+        final Stock stock = queryTarget(productCode);
+        return null == stock ? new ProductStock(null, null, 0) : new ProductStock(stock.getId(), stock.getWarehouse(), stock.getCount());
+    }
+
+    /**
+     * 日志接管的库存记录：商品可能有多个仓库（多行），固定取 id 最小的一行
+     *
+     * @param productCode 商品编号
+     * @return 库存记录，商品不存在时返回 null
+     */
+    private Stock queryTarget(String productCode) {
+        final LambdaQueryWrapper<Stock> stockLambdaQueryWrapper = new LambdaQueryWrapper<>();
+        stockLambdaQueryWrapper.eq(Stock::getProductCode, productCode)
+                .orderByAsc(Stock::getId);
+        final List<Stock> stocks = this.stockMapper.selectList(stockLambdaQueryWrapper);
+        return stocks.isEmpty() ? null : stocks.get(0);
+    }
+
+    /**
+     * 追加一条记录，必须持有 appendLock
+     */
+    private void append(byte[] code, int count) {
+        this.writeBuffer.position(this.position);
+        this.writeBuffer.putShort((short) code.length);
+        this.writeBuffer.put(code);
+        this.writeBuffer.putInt(count);
+        this.writeBuffer.putInt(crc(this.writeCrc, this.epoch, code, count));
+        final int recordSize = this.writeBuffer.position() - this.position;
+        this.position += recordSize;
+        this.writtenBytes += recordSize;
+    }
+
+    /**
+     * 从头开始写新一轮日志，必须持有 appendLock
+     */
+    private void roll(long newEpoch) {
+        this.epoch = newEpoch;
+        this.position = HEADER_SIZE;
+        this.buffer.putLong(0, newEpoch);
+        this.buffer.force();
+    }
+
+    private void apply(Map<Long, Long> deltas, long epoch, int position) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            deltas.forEach((stockId, delta) -> {
+                if (this.stockMapper.applyDeduction(stockId, Math.toIntExact(delta)) == 0) {
+                    log.warn("[StockWriteBehindJournal#apply] - 库存记录 {} 不存在，扣减 {} 未能同步", stockId, delta);
+                }
+            });
+            this.checkpointMapper.saveCheckpoint(this.journalId, epoch, position);
+        });
+    }
+
+    /**
+     * 启动时回放检查点之后的日志，同步到数据库后开始新一轮日志
+     */
+    private void recover() {
+        final long fileEpoch = this.buffer.getLong(0);
+        final StockJournalCheckpoint checkpoint = this.checkpointMapper.selectCheckpoint(this.journalId);
+        final long checkpointEpoch = null == checkpoint ? 0 : checkpoint.getEpoch();
+
+        int start = -1;
+        if (fileEpoch == 0) {
+            // 新建的日志文件，没有需要回放的记录
+            log.info("[StockWriteBehindJournal#recover] - 新建库存日志 {}", this.journalId);
+        } else if (fileEpoch == checkpointEpoch) {
+            start = checkpoint.getFlushedOffset().intValue();
+        } else if (fileEpoch > checkpointEpoch) {
+            // 日志从头开始写之后还没有同步过，整轮都需要回放
+            start = HEADER_SIZE;
+        } else {
+            log.warn("[StockWriteBehindJournal#recover] - 日志文件轮次 {} 落后于检查点轮次 {}，日志文件可能被替换，跳过回放", fileEpoch, checkpointEpoch);
+        }
+
+        if (start >= HEADER_SIZE) {
+            final Map<String, Long> deltas = new HashMap<>();
+            final int end = scan(fileEpoch, start, deltas);
+            final Map<Long, Long> stockDeltas = new HashMap<>();
+            deltas.forEach((productCode, delta) -> {
+                final Stock stock = queryTarget(productCode);
+                if (null == stock) {
+                    log.warn("[StockWriteBehindJournal#recover] - 商品 {} 不存在，扣减 {} 未能同步", productCode, delta);
+                } else {
+                    stockDeltas.put(stock.getId(), delta);
+                }
+            });
+            if (!stockDeltas.isEmpty()) {
+                apply(stockDeltas, fileEpoch, end);
+            }
+            log.info("[StockWriteBehindJournal#recover] - 库存日志 {} 从位置 {} 回放到 {}，同步扣减：{}", this.journalId, start, end, deltas);
+        }
+        roll(Math.max(fileEpoch, checkpointEpoch) + 1);
+    }
+
+    /**
+     * 扫描日志，累计各商品的扣减量
+     *
+     * @return 最后一条有效记录之后的位置
+     */
+    private int scan(long epoch, int start, Map<String, Long> deltas) {
+        final ByteBuffer readBuffer = this.buffer.duplicate();
+        final CRC32 readCrc = new CRC32();
+        int offset = start;
+        while (offset + RECORD_OVERHEAD <= this.capacity) {
+            final int length = readBuffer.getShort(offset) & 0xFFFF;
+            if (length == 0 || length > MAX_CODE_BYTES || offset + RECORD_OVERHEAD + length > this.capacity) {
+                break;
+            }
+            final byte[] code = new byte[length];
+            readBuffer.position(offset + 2);
+            readBuffer.get(code);
+            final int count = readBuffer.getInt();
+            if (readBuffer.getInt() != crc(readCrc, epoch, code, count)) {
+                // 写了一半的记录或者上一轮残留的记录
+                break;
+            }
+            deltas.merge(new String(code, StandardCharsets.UTF_8), (long) count, Long::sum);
+            offset += RECORD_OVERHEAD + length;
+        }
+        return offset;
+    }
+
+    private static int crc(CRC32 crc, long epoch, byte[] code, int count) {
+        crc.reset();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (epoch >>> shift));
+        }
+        crc.update(code, 0, code.length);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            crc.update(count >>> shift);
+        }
+        return (int) crc.getValue();
+    }
+
+    private void awaitSync(long written) {
+        synchronized (this.syncMonitor) {
+            // 唤醒落盘线程
+            this.syncMonitor.notifyAll();
+            while (this.syncedBytes < written) {
+                if (!this.running) {
+                    throw new IllegalStateException("库存日志已关闭！");
+                }
+                try {
+                    this.syncMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("等待库存日志落盘时被中断！", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 落盘线程：GROUP 模式下有新的写入就立即落盘，等待期间到达的请求合并到下一次落盘；INTERVAL 模式下按固定间隔落盘
+     */
+    private void syncLoop() {
+        while (this.running) {
+            try {
+                final long target;
+                synchronized (this.syncMonitor) {
+                    if (this.syncMode == SyncMode.INTERVAL || this.writtenBytes == this.syncedBytes) {
+                        this.syncMonitor.wait(this.fsyncIntervalMillis);
+                    }
+                    target = this.writtenBytes;
+                    if (target == this.syncedBytes) {
+                        continue;
+                    }
+                }
+                this.buffer.force();
+                synchronized (this.syncMonitor) {
+                    this.syncedBytes = target;
+                    this.syncMonitor.notifyAll();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("[StockWriteBehindJournal#syncLoop] - 库存日志落盘失败", e);
+            }
+        }
+    }
+
+    /**
+     * 日志落盘方式
+     */
+    public enum SyncMode {
+        /**
+         * 等待落盘后返回，多个请求共用一次 fsync
+         */
+        GROUP,
+        /**
+         * 写入 mmap 即返回，按固定间隔落盘
+         */
+        INTERVAL
+    }
+
+    /**
+     * 单个商品的内存库存，字段只在持有 appendLock 时修改
+     */
+    private static class ProductStock {
+        /**
+         * 接管的库存记录 id，商品不存在时为空（剩余库存为 0，不会产生扣减）
+         */
+        private final Long stockId;
+        private final String warehouse;
+        private volatile long available;
+        /**
+         * 已写入日志、还未同步到数据库的扣减量
+         */
+        private long pending;
+
+        private ProductStock(Long stockId, String warehouse, long available) {
+            this.stockId = stockId;
+            this.warehouse = warehouse;
+            this.available = available;
+        }
+    }
+}
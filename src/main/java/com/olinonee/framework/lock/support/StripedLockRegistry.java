@@ -0,0 +1,82 @@
+package com.olinonee.framework.lock.support;
+
+import cn.hutool.core.lang.Assert;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按 key（商品编号）分段的 JVM 本地锁注册表
+ * <p>
+ * 预先创建固定数量的锁，通过 key 的哈希值映射到其中一段，同一个商品始终拿到同一把锁，不同商品大概率落在不同的段上，
+ * 从而不再因为一把全局锁而相互阻塞。由于段数固定，内存占用与商品数量无关；代价是哈希冲突的两个商品会共用一把锁。
+ * <p>
+ * 同时提供 {@link ReentrantLock} 和普通对象监视器两种形式，分别给 ReentrantLock 和 synchronized 的示例使用。
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public class StripedLockRegistry {
+
+    private final ReentrantLock[] locks;
+    private final Object[] monitors;
+    private final int mask;
+
+    /**
+     * 段数上限，避免配置过大时占用过多内存
+     */
+    private static final int MAX_STRIPES = 1 << 16;
+
+    public StripedLockRegistry(int stripes) {
+        Assert.isTrue(stripes > 0, "分段数必须大于 0！");
+        final int size = ceilingPowerOfTwo(Math.min(stripes, MAX_STRIPES));
+        this.locks = new ReentrantLock[size];
+        this.monitors = new Object[size];
+        for (int i = 0; i < size; i++) {
+            this.locks[i] = new ReentrantLock();
+            this.monitors[i] = new Object();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 获取 key 对应的 ReentrantLock
+     *
+     * @param key 商品编号
+     * @return ReentrantLock
+     */
+    public ReentrantLock getLock(String key) {
+        return this.locks[indexFor(key)];
+    }
+
+    /**
+     * 获取 key 对应的对象监视器，供 synchronized 代码块使用
+     *
+     * @param key 商品编号
+     * @return 监视器对象
+     */
+    public Object getMonitor(String key) {
+        return this.monitors[indexFor(key)];
+    }
+
+    /**
+     * 段数
+     *
+     * @return 段数
+     */
+    public int size() {
+        return this.locks.length;
+    }
+
+    int indexFor(String key) {
+        Assert.notNull(key, "key 不能为空！");
+        final int h = key.hashCode();
+        // 高位参与运算，和 HashMap 的扰动函数一致
+        return (h ^ (h >>> 16)) & this.mask;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        final int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
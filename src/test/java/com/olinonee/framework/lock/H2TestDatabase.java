@@ -0,0 +1,106 @@
+package com.olinonee.framework.lock;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import com.olinonee.framework.lock.config.MybatisPlusConfiguration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 测试用的 H2 内存库（MySQL 兼容模式），表结构见 schema-h2.sql，mapper 使用 src/main/java 下的 XML，SQL 和线上一致
+ * <p>
+ * 每个实例是一个独立的库，不使用连接池，每次取连接都新建，便于在多个线程里开启各自的事务
+ *
+ * @author olinH, olinone666@gmail.com
+ * @version v1.0.0
+ * @since 2026-10-17
+ */
+public final class H2TestDatabase implements AutoCloseable {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final SqlSessionTemplate sqlSessionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public H2TestDatabase() {
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:stock_test_" + SEQUENCE.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).execute(dataSource);
+        this.dataSource = dataSource;
+        this.transactionManager = new DataSourceTransactionManager(dataSource);
+        this.sqlSessionFactory = sqlSessionFactory(dataSource);
+        this.sqlSessionTemplate = new SqlSessionTemplate(this.sqlSessionFactory);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public DataSource dataSource() {
+        return this.dataSource;
+    }
+
+    public PlatformTransactionManager transactionManager() {
+        return this.transactionManager;
+    }
+
+    public SqlSessionFactory sqlSessionFactory() {
+        return this.sqlSessionFactory;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return this.jdbcTemplate;
+    }
+
+    /**
+     * 参与 Spring 事务的 mapper，和线上一样在 TransactionTemplate 中调用时使用同一个连接
+     */
+    public <T> T mapper(Class<T> mapperClass) {
+        return this.sqlSessionTemplate.getMapper(mapperClass);
+    }
+
+    @Override
+    public void close() {
+        // 不通过 JdbcTemplate 执行：SHUTDOWN 之后连接已经关闭，开启 DEBUG 日志时 JdbcTemplate 还会去读取 SQL 警告而报错
+        try (Connection connection = this.dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            throw new IllegalStateException("关闭 H2 数据库失败！", e);
+        }
+    }
+
+    private static SqlSessionFactory sqlSessionFactory(DataSource dataSource) {
+        final GlobalConfig globalConfig = GlobalConfigUtils.defaults();
+        globalConfig.setBanner(false);
+        // 和 application.yml 中的 mybatis-plus.global-config 一致
+        globalConfig.setDbConfig(new GlobalConfig.DbConfig().setTablePrefix("tb_").setIdType(IdType.AUTO));
+        final MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setGlobalConfig(globalConfig);
+        // 和线上注册同样的插件（乐观锁），带 @Version 的实体 updateById 才能执行
+        factoryBean.setPlugins(new MybatisPlusConfiguration().mybatisPlusInterceptor());
+        try {
+            factoryBean.setMapperLocations(new PathMatchingResourcePatternResolver().getResources("classpath*:/com/olinonee/framework/lock/mapper/*.xml"));
+            return factoryBean.getObject();
+        } catch (Exception e) {
+            throw new IllegalStateException("创建 SqlSessionFactory 失败！", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.olinonee.framework.lock.controller;
+
+import com.olinonee.framework.lock.service.IDistributedLockStockService;
+import com.olinonee.framework.lock.service.ISingletonPatternStockService;
+import com.olinonee.framework.lock.service.ITransactionalDbLockStockService;
+import com.olinonee.framework.lock.service.ITransactionalStockService;
+import com.olinonee.framework.lock.support.StockDeductionExecutor;
+import com.olinonee.framework.lock.support.StockMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AsyncStockControllerTests {
+
+    /**
+     * 减库存先等待它打开，模拟锁等待和慢 SQL
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final StockDeductionExecutor executor = new StockDeductionExecutor(1, 1, new StockMetrics(new SimpleMeterRegistry(), 16));
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AsyncStockController(
+            service(ISingletonPatternStockService.class), service(ITransactionalStockService.class),
+            service(ITransactionalDbLockStockService.class), service(IDistributedLockStockService.class), executor))
+            // 和 Spring Boot 自动配置的转换器一致，默认的 StringHttpMessageConverter 按 ISO-8859-1 写出中文
+            .setMessageConverters(new StringHttpMessageConverter(StandardCharsets.UTF_8))
+            .build();
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void deductionCompletesOnExecutorThread() throws Exception {
+        release.countDown();
+        final MvcResult result = mockMvc.perform(get("/stock/async/baseMysqlDeductWithDistributedLock"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[asyncBaseMysqlDeductWithDistributedLock] - 已经成功执行减库存！！"));
+    }
+
+    @Test
+    void fullQueueReturns429() throws Exception {
+        // 1 个请求执行、1 个排队，第 3 个请求在提交时被拒绝，不会进入异步处理
+        mockMvc.perform(get("/stock/async/baseMysqlDeductWithDistributedLock")).andExpect(request().asyncStarted());
+        mockMvc.perform(get("/stock/async/baseMysqlDeductWithDistributedLock")).andExpect(request().asyncStarted());
+        mockMvc.perform(get("/stock/async/baseMysqlDeductWithDistributedLock"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void asyncTimeoutReturns503() throws Exception {
+        final MvcResult result = mockMvc.perform(get("/stock/async/baseMysqlDeductWithDistributedLock"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // 模拟容器触发 spring.mvc.async.request-timeout
+        final MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        assertNotNull(asyncContext);
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isServiceUnavailable());
+
+        // 已经开始执行的减库存不会被取消，超时之后仍然执行完
+        assertEquals(1, executor.getActiveCount());
+        release.countDown();
+        assertTrue(waitUntilIdle());
+    }
+
+    private boolean waitUntilIdle() throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * 所有减库存方法都等待 release 打开后返回
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T service(Class<T> serviceClass) {
+        return (T) Proxy.newProxyInstance(serviceClass.getClassLoader(), new Class<?>[]{serviceClass}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(this, args);
+            }
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+    }
+}
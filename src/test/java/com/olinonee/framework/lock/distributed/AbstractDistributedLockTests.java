@@ -0,0 +1,64 @@
+package com.olinonee.framework.lock.distributed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractDistributedLockTests {
+
+    @Test
+    void reentrantAcquireAndReleaseOnlyOnce() throws InterruptedException {
+        final CountingLock lock = new CountingLock("stock:1001");
+        assertTrue(lock.tryLock(1, TimeUnit.SECONDS));
+        lock.lock();
+        assertTrue(lock.isHeldByCurrentThread());
+        assertEquals(1, lock.acquires.get());
+
+        lock.unlock();
+        assertEquals(0, lock.releases.get());
+        lock.unlock();
+        assertEquals(1, lock.releases.get());
+        assertFalse(lock.isHeldByCurrentThread());
+    }
+
+    @Test
+    void unlockWithoutHoldingFails() {
+        assertThrows(IllegalMonitorStateException.class, () -> new CountingLock("stock:1001").unlock());
+    }
+
+    @Test
+    void pollAcquireTimesOut() throws InterruptedException {
+        final AbstractDistributedLock lock = new CountingLock("stock:1001") {
+            @Override
+            protected boolean acquire(long timeoutNanos) throws InterruptedException {
+                return pollAcquire(timeoutNanos, () -> false);
+            }
+        };
+        final long start = System.nanoTime();
+        assertFalse(lock.tryLock(50, TimeUnit.MILLISECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+    }
+
+    private static class CountingLock extends AbstractDistributedLock {
+        private final AtomicInteger acquires = new AtomicInteger();
+        private final AtomicInteger releases = new AtomicInteger();
+
+        private CountingLock(String key) {
+            super(key);
+        }
+
+        @Override
+        protected boolean acquire(long timeoutNanos) throws InterruptedException {
+            acquires.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        protected void release() {
+            releases.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.olinonee.framework.lock.distributed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalHandoffDistributedLockFactoryTests {
+
+    private final CountingRemoteLockFactory remote = new CountingRemoteLockFactory();
+
+    @Test
+    void handoffCutsRemoteAcquisitions() throws InterruptedException {
+        final LocalHandoffDistributedLockFactory factory = new LocalHandoffDistributedLockFactory(remote, 16, 30000);
+        final int operations = runConcurrently(factory, 8, 200);
+        assertEquals(8 * 200, operations);
+        assertTrue(remote.acquires.get() < operations, "remote acquires: " + remote.acquires.get());
+        assertEquals(remote.acquires.get(), remote.releases.get());
+    }
+
+    @Test
+    void withoutHandoffEveryOperationGoesRemote() throws InterruptedException {
+        final LocalHandoffDistributedLockFactory factory = new LocalHandoffDistributedLockFactory(remote, 0, 30000);
+        final int operations = runConcurrently(factory, 4, 50);
+        assertEquals(operations, remote.acquires.get());
+        assertEquals(operations, remote.releases.get());
+    }
+
+    @Test
+    void remoteIsReleasedAfterWaiterTimesOut() throws InterruptedException {
+        final LocalHandoffDistributedLockFactory factory = new LocalHandoffDistributedLockFactory(remote, 16, 30000);
+        final DistributedLock holder = factory.getLock("stock:1001");
+        holder.lock();
+        final CountDownLatch timedOut = new CountDownLatch(1);
+        new Thread(() -> {
+            try {
+                assertFalse(factory.getLock("stock:1001").tryLock(50, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            timedOut.countDown();
+        }).start();
+        assertTrue(timedOut.await(5, TimeUnit.SECONDS));
+        holder.unlock();
+        assertEquals(1, remote.acquires.get());
+        assertEquals(1, remote.releases.get());
+    }
+
+    private static int runConcurrently(DistributedLockFactory factory, int threads, int loops) throws InterruptedException {
+        final int[] counter = {0};
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < loops; j++) {
+                    final DistributedLock lock = factory.getLock("stock:1001");
+                    lock.lock();
+                    try {
+                        counter[0]++;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        return counter[0];
+    }
+
+    /**
+     * 远端锁替身，只支持单个 key，统计远端加锁、解锁次数，每次加锁耗时 1 毫秒
+     */
+    private static class CountingRemoteLockFactory implements OwnerAwareDistributedLockFactory {
+        private final Semaphore permit = new Semaphore(1);
+        private final AtomicInteger acquires = new AtomicInteger();
+        private final AtomicInteger releases = new AtomicInteger();
+
+        @Override
+        public DistributedLock getLock(String key) {
+            return getLock(key, "thread");
+        }
+
+        @Override
+        public AbstractDistributedLock getLock(String key, String owner) {
+            return new AbstractDistributedLock(key) {
+                @Override
+                protected boolean acquire(long timeoutNanos) throws InterruptedException {
+                    if (!permit.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                        return false;
+                    }
+                    acquires.incrementAndGet();
+                    // 模拟一次网络往返，保证其他线程在本地排队（单核机器上线程可能一口气跑完所有循环，不会出现交接）
+                    TimeUnit.MILLISECONDS.sleep(1);
+                    return true;
+                }
+
+                @Override
+                protected void release() {
+                    releases.incrementAndGet();
+                    permit.release();
+                }
+            };
+        }
+    }
+}
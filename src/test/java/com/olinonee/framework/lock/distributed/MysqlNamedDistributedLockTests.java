@@ -0,0 +1,255 @@
+package com.olinonee.framework.lock.distributed;
+
+import cn.hutool.core.util.StrUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MysqlNamedDistributedLockTests {
+
+    private final InMemoryNamedLockServer server = new InMemoryNamedLockServer();
+    private MysqlNamedDistributedLockFactory factory;
+
+    @AfterEach
+    void shutdown() {
+        if (null != factory) {
+            factory.shutdown();
+        }
+    }
+
+    @Test
+    void ownersSharingSessionAreMutuallyExclusive() throws Exception {
+        // 只有一个会话，两个线程的 GET_LOCK 走同一个连接，在 MySQL 看来是重入
+        factory = new MysqlNamedDistributedLockFactory(server.dataSource(1), 1, 60000);
+        final DistributedLock lock = factory.getLock("stock:1001");
+        lock.lock();
+        assertFalse(tryLockInOtherThread("stock:1001", 50));
+        // 不同名称的锁复用同一个会话
+        assertTrue(tryLockInOtherThread("stock:1002", 50));
+
+        lock.unlock();
+        assertTrue(tryLockInOtherThread("stock:1001", 1000));
+        assertEquals(1, server.opened.get());
+        assertTrue(server.locks.isEmpty());
+    }
+
+    @Test
+    void brokenConnectionIsEvictedAndReplaced() throws Exception {
+        factory = new MysqlNamedDistributedLockFactory(server.dataSource(1), 1, 60000);
+        final DistributedLock lock = factory.getLock("stock:1001");
+        lock.lock();
+
+        // 模拟连接断开：服务端释放该连接的所有命名锁
+        server.killAll();
+        assertTrue(server.locks.isEmpty());
+        assertThrows(IllegalStateException.class, () -> factory.getLock("stock:1002").tryLock(0, TimeUnit.MILLISECONDS));
+        assertEquals(1, server.evicted.get());
+        // 锁已经随连接释放，持有者解锁时能发现
+        assertThrows(IllegalStateException.class, lock::unlock);
+
+        assertTrue(tryLockInOtherThread("stock:1001", 1000));
+        assertEquals(2, server.opened.get());
+    }
+
+    @Test
+    void lostLockIsVisibleToHolder() {
+        factory = new MysqlNamedDistributedLockFactory(server.dataSource(1), 1, 60000);
+        final MysqlNamedDistributedLock lock = (MysqlNamedDistributedLock) factory.getLock("stock:1001");
+        lock.lock();
+        assertTrue(lock.isHeld());
+
+        server.killAll();
+        assertFalse(lock.isHeld());
+        assertEquals(1, server.evicted.get());
+        assertThrows(IllegalStateException.class, lock::unlock);
+    }
+
+    @Test
+    void statementErrorKeepsSessionAndOtherLocks() throws Exception {
+        factory = new MysqlNamedDistributedLockFactory(server.dataSource(1), 1, 60000);
+        final MysqlNamedDistributedLock lock = (MysqlNamedDistributedLock) factory.getLock("stock:1001");
+        lock.lock();
+
+        // 连接正常，只是语句失败：不丢弃连接，同一会话上其他持有者的锁仍然有效
+        server.failNext.set("GET_LOCK");
+        assertThrows(IllegalStateException.class, () -> factory.getLock("stock:1002").tryLock(0, TimeUnit.MILLISECONDS));
+        assertEquals(0, server.evicted.get());
+        assertTrue(lock.isHeld());
+        assertFalse(tryLockInOtherThread("stock:1001", 50));
+
+        lock.unlock();
+        assertTrue(server.locks.isEmpty());
+        assertEquals(1, server.opened.get());
+    }
+
+    @Test
+    void failedReleaseIsRetriedByKeepalive() throws Exception {
+        factory = new MysqlNamedDistributedLockFactory(server.dataSource(1), 1, 50);
+        final DistributedLock lock = factory.getLock("stock:1001");
+        lock.lock();
+
+        server.failNext.set("RELEASE_LOCK");
+        assertThrows(IllegalStateException.class, lock::unlock);
+        // 锁还在服务端，重试释放之前本实例不会在同一连接上重入
+        assertEquals(1, server.locks.size());
+        assertFalse(tryLockInOtherThread("stock:1001", 0));
+
+        assertTrue(tryLockInOtherThread("stock:1001", 2000));
+        assertTrue(server.locks.isEmpty());
+        assertEquals(0, server.evicted.get());
+    }
+
+    @Test
+    void longKeysAreHashed() throws Exception {
+        factory = new MysqlNamedDistributedLockFactory(server.dataSource(2), 2, 60000);
+        final DistributedLock lock = factory.getLock("stock:" + StrUtil.repeat('9', 100));
+        lock.lock();
+        try {
+            assertEquals(1, server.locks.size());
+            final String name = server.locks.keySet().iterator().next();
+            assertTrue(name.startsWith(MysqlNamedDistributedLockFactory.NAME_PREFIX));
+            assertTrue(name.length() <= 64);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean tryLockInOtherThread(String key, long timeoutMillis) throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> {
+                final DistributedLock lock = factory.getLock(key);
+                if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return false;
+                }
+                lock.unlock();
+                return true;
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 按 MySQL 语义实现 GET_LOCK、RELEASE_LOCK 的内存服务端：命名锁属于连接，同一连接可以重入
+     */
+    private static class InMemoryNamedLockServer {
+        /**
+         * 锁名 → 持有锁的连接编号
+         */
+        private final Map<String, Integer> locks = new ConcurrentHashMap<>();
+        private final Map<Integer, Boolean> alive = new ConcurrentHashMap<>();
+        private final AtomicInteger opened = new AtomicInteger();
+        private final AtomicInteger evicted = new AtomicInteger();
+        /**
+         * 下一条包含该函数名的语句以非连接类错误（SQLState HY000）失败，连接保持正常
+         */
+        private final AtomicReference<String> failNext = new AtomicReference<>();
+
+        private HikariDataSource dataSource(int maximumPoolSize) {
+            final HikariDataSource dataSource = new HikariDataSource() {
+                @Override
+                public Connection getConnection() {
+                    return connection(opened.incrementAndGet());
+                }
+
+                @Override
+                public void evictConnection(Connection connection) {
+                    evicted.incrementAndGet();
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            return dataSource;
+        }
+
+        private void killAll() {
+            alive.replaceAll((id, value) -> false);
+            locks.clear();
+        }
+
+        private synchronized Integer execute(int connectionId, String sql, String name) {
+            if (sql.contains("GET_LOCK")) {
+                final Integer holder = locks.putIfAbsent(name, connectionId);
+                return null == holder || holder == connectionId ? 1 : 0;
+            }
+            if (!locks.containsKey(name)) {
+                return null;
+            }
+            return locks.remove(name, connectionId) ? 1 : 0;
+        }
+
+        private Connection connection(int id) {
+            alive.put(id, true);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setAutoCommit":
+                    case "close":
+                        return null;
+                    case "isValid":
+                        return alive.get(id);
+                    case "prepareStatement":
+                        if (!alive.get(id)) {
+                            throw new SQLException("Communications link failure", "08S01");
+                        }
+                        return statement(id, (String) args[0]);
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        private PreparedStatement statement(int connectionId, String sql) {
+            final String[] name = new String[1];
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setString":
+                        name[0] = (String) args[1];
+                        return null;
+                    case "executeQuery":
+                        final String failing = failNext.get();
+                        if (null != failing && sql.contains(failing) && failNext.compareAndSet(failing, null)) {
+                            throw new SQLException("Lock wait timeout exceeded", "HY000");
+                        }
+                        return resultSet(execute(connectionId, sql, name[0]));
+                    case "close":
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        private ResultSet resultSet(Integer value) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        return true;
+                    case "getInt":
+                        return null == value ? 0 : value;
+                    case "wasNull":
+                        return null == value;
+                    case "close":
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+    }
+}
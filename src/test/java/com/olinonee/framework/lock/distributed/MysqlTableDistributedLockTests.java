@@ -0,0 +1,108 @@
+package com.olinonee.framework.lock.distributed;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.mapper.DistributedLockMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MysqlTableDistributedLockTests {
+
+    private static final long LEASE_MILLIS = 300;
+
+    private final H2TestDatabase database = new H2TestDatabase();
+    /**
+     * 两个工厂模拟两个实例，共用同一张锁表
+     */
+    private final MysqlTableDistributedLockFactory instanceA = factory();
+    private final MysqlTableDistributedLockFactory instanceB = factory();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        instanceA.shutdown();
+        instanceB.shutdown();
+        database.close();
+    }
+
+    @Test
+    void instancesAreMutuallyExclusive() throws Exception {
+        final DistributedLock lock = instanceA.getLock("stock:1001");
+        lock.lock();
+        assertFalse(tryLock(instanceB, "stock:1001", 50));
+        // 不同 key 互不影响
+        assertTrue(tryLock(instanceB, "stock:1002", 50));
+
+        lock.unlock();
+        assertNull(owner("stock:1001"));
+        assertTrue(tryLock(instanceB, "stock:1001", 1000));
+    }
+
+    @Test
+    void watchdogKeepsLeaseAliveWhileHeld() throws Exception {
+        final DistributedLock lock = instanceA.getLock("stock:1001");
+        lock.lock();
+        final String owner = owner("stock:1001");
+
+        // 持锁时间远超租约，看门狗续期之后其他实例仍然无法接管
+        Thread.sleep(LEASE_MILLIS * 4);
+        assertFalse(tryLock(instanceB, "stock:1001", 0));
+        assertEquals(owner, owner("stock:1001"));
+        assertTrue(expireTime("stock:1001").after(database.jdbcTemplate().queryForObject("SELECT CURRENT_TIMESTAMP(3)", Timestamp.class)));
+
+        lock.unlock();
+        assertNull(owner("stock:1001"));
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverAfterHolderDies() throws Exception {
+        final DistributedLock lock = instanceA.getLock("stock:1001");
+        lock.lock();
+        // 模拟实例 A 宕机：看门狗停止，租约不再续期
+        instanceA.shutdown();
+
+        Thread.sleep(LEASE_MILLIS * 2);
+        assertTrue(tryLock(instanceB, "stock:1001", 0));
+        final String takenOver = owner("stock:1001");
+        assertNotNull(takenOver);
+
+        // 原持有者解锁时只记录日志，不会删除接管者的锁
+        lock.unlock();
+        assertEquals(takenOver, owner("stock:1001"));
+    }
+
+    @Test
+    void renewOnlyExtendsOwnLock() {
+        final DistributedLockMapper mapper = database.mapper(DistributedLockMapper.class);
+        assertEquals(1, mapper.insertLock("stock:1001", "a", LEASE_MILLIS));
+        assertEquals(0, mapper.renewLock("stock:1001", "b", LEASE_MILLIS));
+        assertEquals(1, mapper.renewLock("stock:1001", "a", LEASE_MILLIS));
+        assertEquals(0, mapper.deleteLock("stock:1001", "b"));
+        assertEquals(1, mapper.deleteLock("stock:1001", "a"));
+    }
+
+    private MysqlTableDistributedLockFactory factory() {
+        return new MysqlTableDistributedLockFactory(database.mapper(DistributedLockMapper.class), database.transactionManager(), LEASE_MILLIS);
+    }
+
+    /**
+     * 在另一个线程中加锁，加锁成功后不释放
+     */
+    private boolean tryLock(MysqlTableDistributedLockFactory factory, String key, long timeoutMillis) throws Exception {
+        return executor.submit(() -> factory.getLock(key).tryLock(timeoutMillis, TimeUnit.MILLISECONDS)).get(5, TimeUnit.SECONDS);
+    }
+
+    private String owner(String key) {
+        return database.jdbcTemplate().query("SELECT owner FROM tb_distributed_lock WHERE lock_key = ?",
+                resultSet -> resultSet.next() ? resultSet.getString(1) : null, key);
+    }
+
+    private Timestamp expireTime(String key) {
+        return database.jdbcTemplate().queryForObject("SELECT expire_time FROM tb_distributed_lock WHERE lock_key = ?", Timestamp.class, key);
+    }
+}
@@ -0,0 +1,158 @@
+package com.olinonee.framework.lock.distributed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisDistributedLockTests {
+
+    private final InMemoryRedisLockClient client = new InMemoryRedisLockClient();
+    private RedisDistributedLockFactory factory;
+
+    @AfterEach
+    void shutdown() {
+        if (null != factory) {
+            factory.shutdown();
+        }
+    }
+
+    @Test
+    void waitersAreWokenByReleaseMessage() {
+        // 租约 30 秒，如果释放消息没有唤醒等待者，测试会超时
+        factory = newFactory(30000);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            final int threads = 8;
+            final int loops = 50;
+            final int[] counter = {0};
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            final CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < loops; j++) {
+                        final DistributedLock lock = factory.getLock("stock:1001");
+                        lock.lock();
+                        try {
+                            counter[0]++;
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            done.await();
+            executor.shutdown();
+            assertEquals(threads * loops, counter[0]);
+        });
+    }
+
+    @Test
+    void releaseDoesNotDeleteOtherOwnersLock() {
+        factory = newFactory(30000);
+        final DistributedLock lock = factory.getLock("stock:1001");
+        lock.lock();
+        // 模拟锁过期后被其他实例拿到
+        client.forceSet("lock:stock:1001", "other-instance:1", 30000);
+        lock.unlock();
+        assertEquals("other-instance:1", client.get("lock:stock:1001"));
+    }
+
+    @Test
+    void watchdogRenewsLeaseWhileHeld() throws InterruptedException {
+        factory = newFactory(60);
+        final DistributedLock lock = factory.getLock("stock:1001");
+        lock.lock();
+        try {
+            Thread.sleep(300);
+            assertNotNull(client.get("lock:stock:1001"));
+        } finally {
+            lock.unlock();
+        }
+        assertNull(client.get("lock:stock:1001"));
+    }
+
+    @Test
+    void tryLockTimesOutWhileHeldElsewhere() throws InterruptedException {
+        factory = newFactory(30000);
+        client.forceSet("lock:stock:1001", "other-instance:1", 30000);
+        final long start = System.nanoTime();
+        assertFalse(factory.getLock("stock:1001").tryLock(50, TimeUnit.MILLISECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+    }
+
+    private RedisDistributedLockFactory newFactory(long leaseMillis) {
+        final RedisDistributedLockFactory created = new RedisDistributedLockFactory(client, leaseMillis);
+        client.subscriber = created::onReleaseMessage;
+        return created;
+    }
+
+    /**
+     * 进程内的 Redis 替身，按 Redis 的语义实现锁用到的命令，释放消息直接回调订阅者
+     */
+    private static class InMemoryRedisLockClient implements RedisLockClient {
+        private final Map<String, String> values = new HashMap<>();
+        private final Map<String, Long> expireAt = new HashMap<>();
+        private volatile Consumer<String> subscriber = channel -> {
+        };
+
+        @Override
+        public synchronized boolean setIfAbsent(String key, String value, long leaseMillis) {
+            if (null != get(key)) {
+                return false;
+            }
+            forceSet(key, value, leaseMillis);
+            return true;
+        }
+
+        @Override
+        public boolean compareAndDelete(String key, String value, String channel) {
+            synchronized (this) {
+                if (!value.equals(get(key))) {
+                    return false;
+                }
+                values.remove(key);
+                expireAt.remove(key);
+            }
+            subscriber.accept(channel);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean compareAndExpire(String key, String value, long leaseMillis) {
+            if (!value.equals(get(key))) {
+                return false;
+            }
+            expireAt.put(key, System.currentTimeMillis() + leaseMillis);
+            return true;
+        }
+
+        @Override
+        public synchronized long pttl(String key) {
+            return null == get(key) ? -2 : expireAt.get(key) - System.currentTimeMillis();
+        }
+
+        synchronized void forceSet(String key, String value, long leaseMillis) {
+            values.put(key, value);
+            expireAt.put(key, System.currentTimeMillis() + leaseMillis);
+        }
+
+        synchronized String get(String key) {
+            final Long expire = expireAt.get(key);
+            if (null != expire && expire <= System.currentTimeMillis()) {
+                values.remove(key);
+                expireAt.remove(key);
+            }
+            return values.get(key);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.olinonee.framework.lock.distributed;
+
+import org.apache.curator.test.TestingServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZookeeperDistributedLockTests {
+
+    private static TestingServer server;
+    private final List<ZookeeperDistributedLockFactory> factories = new ArrayList<>();
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        server = new TestingServer();
+    }
+
+    @AfterAll
+    static void stopServer() throws IOException {
+        server.close();
+    }
+
+    @AfterEach
+    void shutdown() {
+        factories.forEach(ZookeeperDistributedLockFactory::shutdown);
+    }
+
+    @Test
+    void mutualExclusionAcrossInstances() {
+        // 两个工厂模拟两个实例，各自的线程竞争同一把锁
+        final ZookeeperDistributedLockFactory first = newFactory();
+        final ZookeeperDistributedLockFactory second = newFactory();
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            final int threads = 8;
+            final int loops = 25;
+            final int[] counter = {0};
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            final CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                final ZookeeperDistributedLockFactory factory = i % 2 == 0 ? first : second;
+                executor.execute(() -> {
+                    for (int j = 0; j < loops; j++) {
+                        final DistributedLock lock = factory.getLock("stock:1001");
+                        lock.lock();
+                        try {
+                            counter[0]++;
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            done.await();
+            executor.shutdown();
+            assertEquals(threads * loops, counter[0]);
+        });
+    }
+
+    @Test
+    void reentrantAndBoundedTryLock() throws Exception {
+        final ZookeeperDistributedLockFactory factory = newFactory();
+        final DistributedLock lock = factory.getLock("stock:1002");
+        lock.lock();
+        lock.lock();
+        assertFalse(tryLockInOtherThread(factory, "stock:1002", 100));
+
+        lock.unlock();
+        assertFalse(tryLockInOtherThread(factory, "stock:1002", 100));
+
+        lock.unlock();
+        assertTrue(tryLockInOtherThread(factory, "stock:1002", 1000));
+        // 放弃等待、解锁之后不会留下锁节点
+        assertTrue(factory.sortedChildren(factory.parentPath("stock:1002")).isEmpty());
+    }
+
+    @Test
+    void waiterSkipsAbandonedPredecessor() throws Exception {
+        final ZookeeperDistributedLockFactory factory = newFactory();
+        final DistributedLock holder = factory.getLock("stock:1003");
+        holder.lock();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Boolean> abandoned = executor.submit(() -> factory.getLock("stock:1003").tryLock(1000, TimeUnit.MILLISECONDS));
+            // 等第一个等待者排上队，第二个等待者监听的就是它而不是持有者
+            while (factory.sortedChildren(factory.parentPath("stock:1003")).size() < 2) {
+                Thread.sleep(10);
+            }
+            final Future<Boolean> waiting = executor.submit(() -> {
+                final DistributedLock lock = factory.getLock("stock:1003");
+                if (!lock.tryLock(10, TimeUnit.SECONDS)) {
+                    return false;
+                }
+                lock.unlock();
+                return true;
+            });
+            while (factory.sortedChildren(factory.parentPath("stock:1003")).size() < 3) {
+                Thread.sleep(10);
+            }
+
+            assertFalse(abandoned.get());
+            assertEquals(2, factory.sortedChildren(factory.parentPath("stock:1003")).size());
+            holder.unlock();
+            assertTrue(waiting.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void closedSessionReleasesLock() throws Exception {
+        final ZookeeperDistributedLockFactory crashed = newFactory();
+        crashed.getLock("stock:1004").lock();
+        // 模拟实例宕机：不解锁，直接结束会话
+        crashed.shutdown();
+
+        final ZookeeperDistributedLockFactory other = newFactory();
+        assertTrue(tryLockInOtherThread(other, "stock:1004", 5000));
+    }
+
+    @Test
+    void lateExpiryOfOldSessionKeepsLocksOfNewSession() throws Exception {
+        final ZookeeperDistributedLockFactory factory = newFactory();
+        final DistributedLock lock = factory.getLock("stock:1005");
+        lock.lock();
+        // 模拟重连之后才收到上一个会话的过期事件：当前会话上持有的锁不受影响，解锁时照常删除节点
+        factory.onExpired(0);
+        lock.unlock();
+        assertTrue(factory.sortedChildren(factory.parentPath("stock:1005")).isEmpty());
+    }
+
+    private ZookeeperDistributedLockFactory newFactory() {
+        final ZookeeperDistributedLockFactory factory = new ZookeeperDistributedLockFactory(server.getConnectString(), 5000, "/test/locks");
+        factories.add(factory);
+        return factory;
+    }
+
+    private static boolean tryLockInOtherThread(ZookeeperDistributedLockFactory factory, String key, long timeoutMillis) throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> {
+                final DistributedLock lock = factory.getLock(key);
+                if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return false;
+                }
+                lock.unlock();
+                return true;
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.dto.StockDeductLine;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.support.StockMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStockServiceImplTests {
+
+    private final H2TestDatabase database = new H2TestDatabase();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final StockMetrics metrics = new StockMetrics(registry, 16);
+    /**
+     * 每次 queryStocksForUpdate 锁定的商品编号
+     */
+    private final List<List<String>> lockedCodes = new ArrayList<>();
+    /**
+     * 每次 deductStocks 的参数：库存记录 id → 扣减数量
+     */
+    private final List<Map<Long, Integer>> deductions = new ArrayList<>();
+    /**
+     * 为 true 时 deductStocks 照常执行，但报告少更新了一行，模拟并发删除了其中一条库存记录
+     */
+    private boolean shortRows;
+    private final OrderStockServiceImpl service = new OrderStockServiceImpl(stockMapper(), metrics);
+
+    @AfterEach
+    void close() {
+        database.close();
+    }
+
+    @Test
+    void duplicateLinesAreMergedAndLockedInProductOrder() {
+        insertStock("1001", 10);
+        insertStock("1002", 10);
+
+        assertTrue(deduct(line("1002", 1), line("1001", 2), line("1002", 3)));
+        // 一次锁定所有商品，按商品编号升序
+        assertEquals(Collections.singletonList(Arrays.asList("1001", "1002")), lockedCodes);
+        // 一条语句扣减，同一商品的明细已经合并
+        final Map<Long, Integer> expected = new LinkedHashMap<>();
+        expected.put(1L, 2);
+        expected.put(2L, 4);
+        assertEquals(Collections.singletonList(expected), deductions);
+        assertEquals(8, count("1001"));
+        assertEquals(6, count("1002"));
+    }
+
+    @Test
+    void anyInsufficientProductRejectsWholeOrder() {
+        insertStock("1001", 10);
+        insertStock("1002", 3);
+
+        // 单行足够，合并之后不足
+        assertFalse(deduct(line("1001", 1), line("1002", 2), line("1002", 2)));
+        // 不存在的商品同样整单拒绝
+        assertFalse(deduct(line("1001", 1), line("9999", 1)));
+        assertTrue(deductions.isEmpty());
+        assertEquals(10, count("1001"));
+        assertEquals(3, count("1002"));
+        assertEquals(2.0, registry.find("stock.deduct.rejected").counter().count(), 0);
+    }
+
+    @Test
+    void partialUpdateFailsTheOrder() {
+        insertStock("1001", 10);
+        insertStock("1002", 10);
+        shortRows = true;
+
+        // 抛出异常，由 @Transactional 回滚整个订单（回滚本身见 rowCountMismatchRollsBackInDatabase）
+        assertThrows(IllegalStateException.class, () -> deduct(line("1001", 1), line("1002", 1)));
+    }
+
+    @Test
+    void caseUpdateDeductsEveryProductInDatabase() {
+        insertStock("1001", 10);
+        insertStock("1002", 10);
+        insertStock("1003", 10);
+
+        assertEquals(Boolean.TRUE, inTransaction(() -> service.deductOrder(Arrays.asList(line("1002", 3), line("1001", 2), line("1001", 1)))));
+        assertEquals(7, count("1001"));
+        assertEquals(7, count("1002"));
+        // 订单以外的商品不受影响
+        assertEquals(10, count("1003"));
+    }
+
+    @Test
+    void rowCountMismatchRollsBackInDatabase() {
+        insertStock("1001", 10);
+        insertStock("1002", 10);
+        shortRows = true;
+
+        assertThrows(IllegalStateException.class, () -> inTransaction(() -> service.deductOrder(Arrays.asList(line("1001", 1), line("1002", 1)))));
+        assertEquals(10, count("1001"));
+        assertEquals(10, count("1002"));
+    }
+
+    /**
+     * 不经过 Spring 调用，手动开启事务同步（deductOrder 注册了事务同步回调），每条 SQL 各自提交
+     */
+    private boolean deduct(StockDeductLine... lines) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return service.deductOrder(Arrays.asList(lines));
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    /**
+     * 和 @Transactional(rollbackFor = Exception.class) 一样，抛出异常时回滚
+     */
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(database.transactionManager()).execute(status -> action.get());
+    }
+
+    private static StockDeductLine line(String productCode, int count) {
+        return new StockDeductLine(productCode, count);
+    }
+
+    /**
+     * 真实的 mapper，额外记录加锁和扣减的参数
+     */
+    @SuppressWarnings("unchecked")
+    private StockMapper stockMapper() {
+        final StockMapper stockMapper = database.mapper(StockMapper.class);
+        return (StockMapper) Proxy.newProxyInstance(StockMapper.class.getClassLoader(), new Class<?>[]{StockMapper.class}, (proxy, method, args) -> {
+            if ("queryStocksForUpdate".equals(method.getName())) {
+                lockedCodes.add(new ArrayList<>((Collection<String>) args[0]));
+            } else if ("deductStocks".equals(method.getName())) {
+                deductions.add(new LinkedHashMap<>((Map<Long, Integer>) args[0]));
+            }
+            try {
+                final Object result = method.invoke(stockMapper, args);
+                return shortRows && "deductStocks".equals(method.getName()) ? (Integer) result - 1 : result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private void insertStock(String productCode, int count) {
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES (?, '北京仓', ?)", productCode, count);
+    }
+
+    private int count(String productCode) {
+        return database.jdbcTemplate().queryForObject("SELECT count FROM tb_stock WHERE product_code = ?", Integer.class, productCode);
+    }
+}
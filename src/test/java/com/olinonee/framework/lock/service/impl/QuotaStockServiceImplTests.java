@@ -0,0 +1,75 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.support.StockMetrics;
+import com.olinonee.framework.lock.support.StockQuotaAllocator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuotaStockServiceImplTests {
+
+    private final H2TestDatabase database = new H2TestDatabase();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final StockMetrics metrics = new StockMetrics(registry, 16);
+    private final List<String> soldOut = new ArrayList<>();
+    private final StockQuotaAllocator local = new StockQuotaAllocator(database.mapper(StockMapper.class), 2, 0, 60000, 0);
+    private final StockQuotaAllocator remote = new StockQuotaAllocator(database.mapper(StockMapper.class), 2, 0, 60000, 0);
+    private final QuotaStockServiceImpl service = new QuotaStockServiceImpl(metrics, local);
+
+    QuotaStockServiceImplTests() {
+        metrics.setSoldOutListener(soldOut::add);
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES ('1001', '北京仓', 3)");
+    }
+
+    @AfterEach
+    void shutdown() {
+        local.shutdown();
+        remote.shutdown();
+        database.close();
+    }
+
+    @Test
+    void leaseFailureIsRejectedWhileOtherInstanceHoldsQuota() {
+        // 另一个实例租走一块库存，本实例只剩 1 件可以租借
+        assertTrue(remote.deduct("1001", 1));
+        deduct();
+        deduct();
+
+        assertTrue(soldOut.isEmpty());
+        assertEquals(1.0, registry.find("stock.deduct.rejected").counter().count(), 0);
+    }
+
+    @Test
+    void soldOutIsFlaggedOnceNoQuotaIsOutstanding() {
+        assertTrue(remote.deduct("1001", 1));
+        assertTrue(remote.deduct("1001", 1));
+        // 另一个实例关闭时结算配额，之后全局只剩 1 件
+        remote.shutdown();
+        deduct();
+        assertTrue(soldOut.isEmpty());
+        deduct();
+
+        assertEquals(Collections.singletonList("1001"), soldOut);
+        assertEquals(0, column("count"));
+        assertEquals(0, column("leased"));
+    }
+
+    private void deduct() {
+        metrics.begin("deductWithQuota", "1001");
+        service.deductWithQuota("1001");
+        metrics.end(null);
+    }
+
+    private int column(String column) {
+        return database.jdbcTemplate().queryForObject("SELECT " + column + " FROM tb_stock WHERE product_code = '1001'", Integer.class);
+    }
+}
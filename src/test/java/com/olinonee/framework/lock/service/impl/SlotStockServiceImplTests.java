@@ -0,0 +1,146 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.config.StockProperties;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.mapper.StockSlotMapper;
+import com.olinonee.framework.lock.support.StockMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotStockServiceImplTests {
+
+    private final H2TestDatabase database = new H2TestDatabase();
+    private final AtomicInteger countQueries = new AtomicInteger();
+    private final StockMetrics metrics = new StockMetrics(new SimpleMeterRegistry(), 16);
+    private final List<String> soldOut = new ArrayList<>();
+    private final SlotStockServiceImpl service = new SlotStockServiceImpl(database.mapper(StockMapper.class), slotMapper(), metrics, new StockProperties());
+
+    SlotStockServiceImplTests() {
+        metrics.setSoldOutListener(soldOut::add);
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES ('1001', '北京仓', 0)");
+    }
+
+    @AfterEach
+    void close() {
+        database.close();
+    }
+
+    @Test
+    void splitAndMergeKeepTotal() {
+        setBase(10);
+        assertEquals(10, (int) commit(() -> service.splitSlots("1001", 3)));
+        // 余数分给编号靠前的槽位，库存记录清零
+        assertEquals(Arrays.asList(4, 3, 3), slotCounts());
+        assertEquals(0, base());
+        assertEquals(10, service.queryTotalStock("1001"));
+
+        // 补货加到库存记录上，重新拆分时一起收回
+        setBase(base() + 2);
+        assertEquals(12, (int) commit(() -> service.splitSlots("1001", 5)));
+        assertEquals(Arrays.asList(3, 3, 2, 2, 2), slotCounts());
+        assertEquals(12, service.queryTotalStock("1001"));
+
+        assertEquals(12, (int) commit(() -> service.mergeSlots("1001")));
+        assertTrue(slotCounts().isEmpty());
+        assertEquals(12, base());
+        assertEquals(12, service.queryTotalStock("1001"));
+    }
+
+    @Test
+    void emptySlotsFallThroughToNextSlot() {
+        setBase(1);
+        commit(() -> service.splitSlots("1001", 4));
+        // 只有一个槽位有货，不管从哪个槽位开始都能扣减到
+        assertEquals(Arrays.asList(1, 0, 0, 0), slotCounts());
+        service.deductWithSlots("1001");
+        assertEquals(Arrays.asList(0, 0, 0, 0), slotCounts());
+        assertTrue(soldOut.isEmpty());
+    }
+
+    @Test
+    void soldOutSlotsFallBackToBaseRow() {
+        setBase(2);
+        commit(() -> service.splitSlots("1001", 2));
+        service.deductWithSlots("1001");
+        service.deductWithSlots("1001");
+        // 拆分之后的补货在库存记录上，槽位扣完之后扣减库存记录
+        setBase(1);
+        service.deductWithSlots("1001");
+        assertEquals(0, base());
+        assertTrue(soldOut.isEmpty());
+
+        service.deductWithSlots("1001");
+        assertEquals(Collections.singletonList("1001"), soldOut);
+    }
+
+    @Test
+    void slotCountIsReloadedWhenAnotherInstanceSplits() {
+        setBase(1);
+        // 本实例缓存的槽位数为 0
+        service.deductWithSlots("1001");
+        assertEquals(0, base());
+
+        // 其他实例补货并拆分，本实例的缓存没有更新
+        putSlot(0, 1);
+        putSlot(1, 1);
+        service.deductWithSlots("1001");
+        assertEquals(1, slotCounts().stream().mapToInt(Integer::intValue).sum());
+        assertTrue(soldOut.isEmpty());
+        // 重新加载之后不再重复查询槽位数
+        final int queries = countQueries.get();
+        service.deductWithSlots("1001");
+        assertEquals(queries, countQueries.get());
+        assertEquals(0, slotCounts().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    /**
+     * 在数据库事务中执行，提交后触发事务同步回调
+     */
+    private <T> T commit(Supplier<T> action) {
+        return new TransactionTemplate(database.transactionManager()).execute(status -> action.get());
+    }
+
+    /**
+     * 真实的 mapper，额外统计 countSlots 的次数
+     */
+    private StockSlotMapper slotMapper() {
+        final StockSlotMapper slotMapper = database.mapper(StockSlotMapper.class);
+        return (StockSlotMapper) Proxy.newProxyInstance(StockSlotMapper.class.getClassLoader(), new Class<?>[]{StockSlotMapper.class}, (proxy, method, args) -> {
+            if ("countSlots".equals(method.getName())) {
+                countQueries.incrementAndGet();
+            }
+            try {
+                return method.invoke(slotMapper, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private int base() {
+        return database.jdbcTemplate().queryForObject("SELECT count FROM tb_stock WHERE product_code = '1001'", Integer.class);
+    }
+
+    private void setBase(int count) {
+        database.jdbcTemplate().update("UPDATE tb_stock SET count = ? WHERE product_code = '1001'", count);
+    }
+
+    private void putSlot(int slotNo, int count) {
+        database.jdbcTemplate().update("INSERT INTO tb_stock_slot (product_code, slot_no, count) VALUES ('1001', ?, ?)", slotNo, count);
+    }
+
+    private List<Integer> slotCounts() {
+        return database.jdbcTemplate().queryForList("SELECT count FROM tb_stock_slot WHERE product_code = '1001' ORDER BY slot_no", Integer.class);
+    }
+}
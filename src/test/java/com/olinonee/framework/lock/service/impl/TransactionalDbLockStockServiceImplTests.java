@@ -0,0 +1,150 @@
+package com.olinonee.framework.lock.service.impl;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.config.StockProperties;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.support.StockMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionalDbLockStockServiceImplTests {
+
+    private final H2TestDatabase database = new H2TestDatabase();
+    /**
+     * 按顺序记录加锁的库存记录 id
+     */
+    private final List<Long> lockAttempts = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * 不为空时，查出候选仓库之后执行，模拟其他事务在加锁之前修改库存
+     */
+    private volatile Runnable afterCandidates;
+    private final TransactionalDbLockStockServiceImpl service = new TransactionalDbLockStockServiceImpl(
+            stockMapper(), new StockMetrics(new SimpleMeterRegistry(), 16), stockProperties("上海仓", "北京仓"));
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        database.close();
+    }
+
+    @Test
+    void concurrentTransactionsLockDifferentWarehouses() throws Exception {
+        insertStock("北京仓", 10);
+        insertStock("上海仓", 10);
+        final CountDownLatch firstLocked = new CountDownLatch(1);
+        final CountDownLatch secondDone = new CountDownLatch(1);
+
+        // 第一个事务扣减之后不提交，一直持有行锁
+        final Future<?> first = executor.submit(() -> inTransaction(() -> {
+            service.deductWithWarehouseSkipLocked("2001");
+            firstLocked.countDown();
+            await(secondDone);
+        }));
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+        // 第二个事务跳过被锁定的仓库，不等待
+        final Future<?> second = executor.submit(() -> inTransaction(() -> service.deductWithWarehouseSkipLocked("2001")));
+        second.get(5, TimeUnit.SECONDS);
+        secondDone.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        // 优先级最高的上海仓被第一个事务锁定，第二个事务扣减北京仓
+        assertEquals(9, count(2L));
+        assertEquals(9, count(1L));
+        // 加锁只按主键锁定一行：第一个事务锁定上海仓，第二个事务跳过上海仓后锁定北京仓
+        assertEquals(Arrays.asList(2L, 2L, 1L), lockAttempts);
+    }
+
+    @Test
+    void soldOutWarehouseIsSkippedAfterLocking() {
+        insertStock("北京仓", 10);
+        insertStock("上海仓", 1);
+        // 查出候选仓库之后、加锁之前，上海仓被其他事务卖完
+        afterCandidates = () -> database.jdbcTemplate().update("UPDATE tb_stock SET count = 0 WHERE id = 2");
+
+        inTransaction(() -> service.deductWithWarehouseSkipLocked("2001"));
+        assertEquals(0, count(2L));
+        assertEquals(9, count(1L));
+    }
+
+    @Test
+    void allWarehousesLockedFallsBackToWaiting() throws Exception {
+        insertStock("北京仓", 10);
+        final CountDownLatch firstLocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<?> first = executor.submit(() -> inTransaction(() -> {
+            service.deductWithWarehouseSkipLocked("2001");
+            firstLocked.countDown();
+            await(release);
+        }));
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        final Future<?> second = executor.submit(() -> inTransaction(() -> service.deductWithWarehouseSkipLocked("2001")));
+        // 唯一的仓库被锁定，第二个事务等待而不是直接判定售罄
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(8, count(1L));
+    }
+
+    private static StockProperties stockProperties(String... warehousePriority) {
+        final StockProperties stockProperties = new StockProperties();
+        stockProperties.getAllocation().setWarehousePriority(Arrays.asList(warehousePriority));
+        return stockProperties;
+    }
+
+    /**
+     * 在数据库事务中执行，行锁一直持有到事务结束
+     */
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(database.transactionManager()).executeWithoutResult(status -> action.run());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 真实的 mapper，额外记录加锁的库存记录 id，并在查出候选仓库之后执行 afterCandidates
+     */
+    private StockMapper stockMapper() {
+        final StockMapper stockMapper = database.mapper(StockMapper.class);
+        return (StockMapper) Proxy.newProxyInstance(StockMapper.class.getClassLoader(), new Class<?>[]{StockMapper.class}, (proxy, method, args) -> {
+            if ("selectWarehouseSkipLocked".equals(method.getName()) || "selectWarehouseForUpdate".equals(method.getName())) {
+                lockAttempts.add((Long) args[0]);
+            }
+            try {
+                final Object result = method.invoke(stockMapper, args);
+                final Runnable hook = afterCandidates;
+                if ("selectAvailableWarehouseIds".equals(method.getName()) && null != hook) {
+                    hook.run();
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private void insertStock(String warehouse, int count) {
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES ('2001', ?, ?)", warehouse, count);
+    }
+
+    private int count(Long id) {
+        return database.jdbcTemplate().queryForObject("SELECT count FROM tb_stock WHERE id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,70 @@
+package com.olinonee.framework.lock.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    @Test
+    void rejectsBeyondLimit() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.2, 0.9, 10, 100);
+        final long first = limiter.tryAcquire();
+        assertNotEquals(AdaptiveConcurrencyLimiter.REJECTED, first);
+        assertNotEquals(AdaptiveConcurrencyLimiter.REJECTED, limiter.tryAcquire());
+        assertEquals(AdaptiveConcurrencyLimiter.REJECTED, limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(first, false);
+        assertNotEquals(AdaptiveConcurrencyLimiter.REJECTED, limiter.tryAcquire());
+    }
+
+    @Test
+    void growsWhileLatencyStaysLowAndShrinksWhenItRises() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.5, 0.9, 10, 1000);
+        for (int i = 0; i < 20; i++) {
+            fullWindow(limiter, 1);
+        }
+        final int grown = limiter.getLimit();
+        assertTrue(grown > 10, "限制：" + grown);
+
+        for (int i = 0; i < 20; i++) {
+            fullWindow(limiter, 10);
+        }
+        assertTrue(limiter.getLimit() < grown / 2, "限制：" + limiter.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhenUnderused() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.5, 0.9, 10, 1000);
+        for (int i = 0; i < 100; i++) {
+            limiter.release(limiter.tryAcquire() - TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffOnFailures() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.5, 0.5, 1, 1000);
+        limiter.release(limiter.tryAcquire(), true);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    /**
+     * 占满当前限制，全部以指定耗时结束，样本数不小于窗口大小
+     */
+    private static void fullWindow(AdaptiveConcurrencyLimiter limiter, long rttMillis) {
+        final int limit = Math.max(10, limiter.getLimit());
+        final long[] starts = new long[limit];
+        for (int i = 0; i < limit; i++) {
+            starts[i] = limiter.tryAcquire();
+        }
+        for (long start : starts) {
+            if (start != AdaptiveConcurrencyLimiter.REJECTED) {
+                limiter.release(start - TimeUnit.MILLISECONDS.toNanos(rttMillis), false);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.olinonee.framework.lock.support;
+
+import com.olinonee.framework.lock.dto.HotProduct;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotProductDetectorTests {
+
+    @Test
+    void flagsHotProductAndCoolsItDown() {
+        // 窗口很长，由测试手动滑动
+        final HotProductDetector detector = new HotProductDetector(3_600_000, 4, 100, 0.5, 3, 1024, 4);
+        for (int i = 0; i < 150; i++) {
+            detector.record("1001");
+        }
+        for (int i = 0; i < 10; i++) {
+            detector.record("1002");
+        }
+        assertTrue(detector.isHot("1001"));
+        assertFalse(detector.isHot("1002"));
+
+        // 旧的访问次数滑出窗口后，低于冷却阈值
+        for (int i = 0; i < 4; i++) {
+            detector.slide();
+        }
+        assertFalse(detector.isHot("1001"));
+        assertEquals(0, detector.estimate("1001"));
+        detector.shutdown();
+    }
+
+    @Test
+    void keepsTopKByCount() {
+        final HotProductDetector detector = new HotProductDetector(3_600_000, 4, 1_000_000, 0.5, 2, 1024, 4);
+        for (int product = 1; product <= 5; product++) {
+            for (int i = 0; i < product * 10; i++) {
+                detector.record("100" + product);
+            }
+        }
+        final List<HotProduct> top = detector.topProducts();
+        assertEquals(2, top.size());
+        assertEquals("1005", top.get(0).getProductCode());
+        assertEquals("1004", top.get(1).getProductCode());
+        assertTrue(top.get(0).getCount() >= 50);
+        detector.shutdown();
+    }
+}
@@ -0,0 +1,129 @@
+package com.olinonee.framework.lock.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockDeadlockDetectorTests {
+
+    private LockDeadlockDetector detector;
+
+    @AfterEach
+    void shutdown() {
+        if (null != this.detector) {
+            this.detector.shutdown();
+        }
+    }
+
+    @Test
+    void reentrantAndUncontendedLocksAreNotDeadlocks() throws Exception {
+        this.detector = new LockDeadlockDetector(0);
+        final ReentrantLock lock = new ReentrantLock();
+        this.detector.lock(lock, lock::tryLock);
+        this.detector.lock(lock, lock::tryLock);
+        this.detector.unlock(lock, lock::unlock);
+        this.detector.unlock(lock, lock::unlock);
+        assertFalse(lock.isLocked());
+
+        final ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            other.submit(() -> {
+                this.detector.lock(lock, lock::tryLock);
+                this.detector.unlock(lock, lock::unlock);
+            }).get(5, TimeUnit.SECONDS);
+        } finally {
+            other.shutdownNow();
+        }
+        assertEquals(0, this.detector.getDetectedCount());
+    }
+
+    @Test
+    void lockOrderInversionFailsTheYoungestWaiter() {
+        this.detector = new LockDeadlockDetector(0);
+        final ReentrantLock first = new ReentrantLock();
+        final ReentrantLock second = new ReentrantLock();
+        final CountDownLatch bothHeld = new CountDownLatch(2);
+        final AtomicReference<Throwable> olderError = new AtomicReference<>();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            final Thread older = new Thread(() -> {
+                try {
+                    this.detector.lock(first, first::tryLock);
+                    bothHeld.countDown();
+                    bothHeld.await();
+                    this.detector.lock(second, second::tryLock);
+                    this.detector.unlock(second, second::unlock);
+                    this.detector.unlock(first, first::unlock);
+                } catch (Throwable e) {
+                    olderError.set(e);
+                }
+            });
+            older.start();
+
+            this.detector.lock(second, second::tryLock);
+            bothHeld.countDown();
+            bothHeld.await();
+            // 等 older 开始等待 second，当前线程再去等待 first，就会闭合成环
+            while (!second.hasQueuedThread(older)) {
+                Thread.sleep(1);
+            }
+            assertThrows(LockDeadlockException.class, () -> this.detector.lock(first, first::tryLock));
+            this.detector.unlock(second, second::unlock);
+            older.join();
+        });
+
+        assertNull(olderError.get());
+        assertEquals(1, this.detector.getDetectedCount());
+        assertFalse(first.isLocked());
+        assertFalse(second.isLocked());
+    }
+
+    @Test
+    void threadMxBeanScanBreaksCyclesThroughMonitors() {
+        this.detector = new LockDeadlockDetector(20);
+        final Object monitor = new Object();
+        final ReentrantLock lock = new ReentrantLock();
+        final CountDownLatch bothHeld = new CountDownLatch(2);
+        final AtomicReference<Throwable> waiterError = new AtomicReference<>();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            // 持有监视器、在检测器中等待 lock：等待图中看不到监视器，只能由兜底检测发现
+            final Thread waiter = new Thread(() -> {
+                synchronized (monitor) {
+                    try {
+                        bothHeld.countDown();
+                        bothHeld.await();
+                        this.detector.lock(lock, lock::tryLock);
+                        this.detector.unlock(lock, lock::unlock);
+                    } catch (Throwable e) {
+                        waiterError.set(e);
+                    }
+                }
+            });
+            waiter.start();
+
+            this.detector.lock(lock, lock::tryLock);
+            try {
+                bothHeld.countDown();
+                bothHeld.await();
+                while (!lock.hasQueuedThread(waiter)) {
+                    Thread.sleep(1);
+                }
+                synchronized (monitor) {
+                    assertTrue(waiterError.get() instanceof LockDeadlockException);
+                }
+            } finally {
+                this.detector.unlock(lock, lock::unlock);
+            }
+            waiter.join();
+        });
+
+        assertEquals(1, this.detector.getDetectedCount());
+    }
+}
@@ -0,0 +1,53 @@
+package com.olinonee.framework.lock.support;
+
+import com.olinonee.framework.lock.support.OptimisticRetryTemplate.GiveUpPolicy;
+import com.olinonee.framework.lock.support.OptimisticRetryTemplate.Outcome;
+import com.olinonee.framework.lock.support.OptimisticRetryTemplate.RetryResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryTemplateTests {
+
+    @Test
+    void retriesUntilSuccessAndReportsAttempts() {
+        final OptimisticRetryTemplate template = new OptimisticRetryTemplate(5, 0, 0, GiveUpPolicy.FAIL);
+        final AtomicInteger refreshes = new AtomicInteger();
+        final RetryResult result = template.execute(0, v -> {
+            refreshes.incrementAndGet();
+            return v + 1;
+        }, v -> v < 2 ? Outcome.CONFLICT : Outcome.SUCCESS);
+        assertEquals(Outcome.SUCCESS, result.getOutcome());
+        assertEquals(3, result.getAttempts());
+        assertEquals(2, refreshes.get());
+    }
+
+    @Test
+    void rejectedStopsImmediately() {
+        final OptimisticRetryTemplate template = new OptimisticRetryTemplate(5, 0, 0, GiveUpPolicy.FAIL);
+        final RetryResult result = template.execute("1001", v -> v, v -> Outcome.REJECTED);
+        assertEquals(Outcome.REJECTED, result.getOutcome());
+        assertEquals(1, result.getAttempts());
+    }
+
+    @Test
+    void giveUpPolicy() {
+        assertThrows(IllegalStateException.class,
+                () -> new OptimisticRetryTemplate(3, 0, 0, GiveUpPolicy.FAIL).execute(0, v -> v, v -> Outcome.CONFLICT));
+        final RetryResult result = new OptimisticRetryTemplate(3, 0, 0, GiveUpPolicy.IGNORE).execute(0, v -> v, v -> Outcome.CONFLICT);
+        assertEquals(Outcome.CONFLICT, result.getOutcome());
+        assertEquals(3, result.getAttempts());
+    }
+
+    @Test
+    void backoffIsExponentialAndCapped() {
+        final OptimisticRetryTemplate template = new OptimisticRetryTemplate(10, 5, 100, GiveUpPolicy.FAIL);
+        assertEquals(5, template.backoffCeilingMillis(1));
+        assertEquals(10, template.backoffCeilingMillis(2));
+        assertEquals(40, template.backoffCeilingMillis(4));
+        assertEquals(100, template.backoffCeilingMillis(6));
+        assertEquals(100, template.backoffCeilingMillis(40));
+    }
+}
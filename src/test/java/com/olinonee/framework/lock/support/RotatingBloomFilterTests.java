@@ -0,0 +1,45 @@
+package com.olinonee.framework.lock.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RotatingBloomFilterTests {
+
+    @Test
+    void neverForgetsWithinOneWindow() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("req-" + i);
+        }
+        filter.rotate();
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("req-" + i));
+        }
+    }
+
+    @Test
+    void forgetsAfterTwoRotations() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01);
+        filter.put("req-1");
+        filter.rotate();
+        filter.rotate();
+        assertFalse(filter.mightContain("req-1"));
+    }
+
+    @Test
+    void falsePositiveRateCloseToConfigured() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("req-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 期望 1%，留足余量
+        assertTrue(falsePositives < 300, "误判数：" + falsePositives);
+    }
+}
@@ -0,0 +1,54 @@
+package com.olinonee.framework.lock.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoldOutRegistryTests {
+
+    @Test
+    void broadcastsFirstMarkAndClear() {
+        final SoldOutRegistry registry = new SoldOutRegistry(60000);
+        final List<String> messages = new ArrayList<>();
+        registry.setBroadcaster(messages::add);
+
+        registry.markSoldOut("1001");
+        registry.markSoldOut("1001");
+        assertTrue(registry.isSoldOut("1001"));
+        assertFalse(registry.isSoldOut("1002"));
+
+        registry.clear("1001");
+        assertFalse(registry.isSoldOut("1001"));
+        assertEquals(2, messages.size());
+        assertEquals("+1001", messages.get(0));
+        assertEquals("-1001", messages.get(1));
+    }
+
+    @Test
+    void appliesPeerMessagesWithoutForwarding() {
+        final SoldOutRegistry peer = new SoldOutRegistry(60000);
+        final SoldOutRegistry registry = new SoldOutRegistry(60000);
+        final List<String> messages = new ArrayList<>();
+        peer.setBroadcaster(registry::onMessage);
+        registry.setBroadcaster(messages::add);
+
+        peer.markSoldOut("1001");
+        assertTrue(registry.isSoldOut("1001"));
+        peer.clear("1001");
+        assertFalse(registry.isSoldOut("1001"));
+        assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    void expiresAfterTtl() throws InterruptedException {
+        final SoldOutRegistry registry = new SoldOutRegistry(20);
+        registry.markSoldOut("1001");
+        assertTrue(registry.isSoldOut("1001"));
+        Thread.sleep(50);
+        assertFalse(registry.isSoldOut("1001"));
+        assertTrue(registry.soldOutProducts().isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package com.olinonee.framework.lock.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockAuditLoggerTests {
+
+    @Test
+    void zeroSampleRateRecordsNothing() {
+        // 不启动输出线程，队列里的事件保持不动
+        final StockAuditLogger auditLogger = new StockAuditLogger(0, 1, false);
+        for (int i = 0; i < 100; i++) {
+            auditLogger.record("deductLean", "1001", i);
+        }
+        assertEquals(0, auditLogger.getPending());
+        assertEquals(0, auditLogger.getDropped());
+        auditLogger.shutdown();
+    }
+
+    @Test
+    void fullSampleRateRecordsEveryCall() {
+        final StockAuditLogger auditLogger = new StockAuditLogger(1, 1000, false);
+        for (int i = 0; i < 100; i++) {
+            auditLogger.record("deductLean", "1001", i);
+        }
+        assertEquals(100, auditLogger.getPending());
+        auditLogger.shutdown();
+        assertEquals(0, auditLogger.getPending());
+    }
+
+    @Test
+    void partialSampleRateRecordsProportionally() {
+        final StockAuditLogger auditLogger = new StockAuditLogger(0.1, 100000, false);
+        for (int i = 0; i < 100000; i++) {
+            auditLogger.record("deductLean", "1001", i);
+        }
+        // 期望 10000 条，标准差约 95
+        final int pending = auditLogger.getPending();
+        assertTrue(pending > 9000 && pending < 11000, "采样条数：" + pending);
+        assertEquals(0, auditLogger.getDropped());
+        auditLogger.shutdown();
+    }
+
+    @Test
+    void fullQueueDropsAndCounts() {
+        final StockAuditLogger auditLogger = new StockAuditLogger(1, 3, false);
+        for (int i = 0; i < 10; i++) {
+            auditLogger.record("deductLean", "1001", i);
+        }
+        assertEquals(3, auditLogger.getPending());
+        assertEquals(7, auditLogger.getDropped());
+        auditLogger.shutdown();
+    }
+
+    @Test
+    void writerDrainsQueueInBackground() throws InterruptedException {
+        final StockAuditLogger auditLogger = new StockAuditLogger(1, 1000, true);
+        for (int i = 0; i < 100; i++) {
+            auditLogger.record("deductLean", "1001", i);
+        }
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (auditLogger.getPending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, auditLogger.getPending());
+        assertEquals(0, auditLogger.getDropped());
+        auditLogger.shutdown();
+    }
+}
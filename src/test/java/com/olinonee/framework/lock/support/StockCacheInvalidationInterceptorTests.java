@@ -0,0 +1,55 @@
+package com.olinonee.framework.lock.support;
+
+import com.olinonee.framework.lock.entity.Stock;
+import com.olinonee.framework.lock.entity.StockSlot;
+import org.apache.ibatis.binding.MapperMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockCacheInvalidationInterceptorTests {
+
+    @Test
+    void productCodeParameter() {
+        final MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("productCode", "1001");
+        params.put("count", 1);
+        assertEquals(Collections.singleton("1001"), StockCacheInvalidationInterceptor.productCodes(params));
+    }
+
+    @Test
+    void entityParameter() {
+        final Stock stock = new Stock();
+        stock.setProductCode("1001");
+        final MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("et", stock);
+        assertEquals(Collections.singleton("1001"), StockCacheInvalidationInterceptor.productCodes(params));
+        assertEquals(Collections.singleton("1001"), StockCacheInvalidationInterceptor.productCodes(stock));
+    }
+
+    @Test
+    void collectionParameters() {
+        final MapperMethod.ParamMap<Object> codes = new MapperMethod.ParamMap<>();
+        codes.put("productCodes", Arrays.asList("1001", "1002"));
+        assertEquals(new HashSet<>(Arrays.asList("1001", "1002")), StockCacheInvalidationInterceptor.productCodes(codes));
+
+        final StockSlot slot = new StockSlot();
+        slot.setProductCode("3001");
+        final MapperMethod.ParamMap<Object> slots = new MapperMethod.ParamMap<>();
+        slots.put("slots", Arrays.asList(slot, slot));
+        assertEquals(Collections.singleton("3001"), StockCacheInvalidationInterceptor.productCodes(slots));
+    }
+
+    @Test
+    void unknownParametersEvictEverything() {
+        final MapperMethod.ParamMap<Object> deductions = new MapperMethod.ParamMap<>();
+        deductions.put("deductions", Collections.singletonMap(1L, 1));
+        assertNull(StockCacheInvalidationInterceptor.productCodes(deductions));
+        // 实体中没有商品编号（比如按条件更新）
+        final MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("et", new Stock());
+        assertNull(StockCacheInvalidationInterceptor.productCodes(params));
+    }
+}
@@ -0,0 +1,139 @@
+package com.olinonee.framework.lock.support;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockDeductionBatcherTests {
+
+    private final H2TestDatabase database = new H2TestDatabase();
+    private final AtomicInteger updates = new AtomicInteger();
+    /**
+     * 不为空时，updateStock 先等待它打开，模拟提交过程中的慢 SQL
+     */
+    private volatile CountDownLatch updateGate;
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private StockDeductionBatcher batcher;
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+        if (null != batcher) {
+            batcher.shutdown();
+        }
+        database.close();
+    }
+
+    @Test
+    void concurrentRequestsAreMergedIntoFewUpdates() throws Exception {
+        insertStock(100);
+        batcher = new StockDeductionBatcher(stockMapper(), 50, 100, 5000, 1);
+        final List<Future<Boolean>> results = submit(40);
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        assertEquals(60, count());
+        assertTrue(updates.get() < 40, "更新次数：" + updates.get());
+    }
+
+    @Test
+    void insufficientStockRejectsOnlyTheOverflow() throws Exception {
+        insertStock(3);
+        batcher = new StockDeductionBatcher(stockMapper(), 50, 100, 5000, 1);
+        int succeeded = 0;
+        for (Future<Boolean> result : submit(5)) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        assertEquals(3, succeeded);
+        assertEquals(0, count());
+    }
+
+    @Test
+    void fullBatchIsFlushedWithoutWaitingForWindow() throws Exception {
+        insertStock(100);
+        // 时间窗口足够长，只有凑满一批时才会立即提交
+        batcher = new StockDeductionBatcher(stockMapper(), 60000, 2, 5000, 1);
+        for (int round = 0; round < 3; round++) {
+            for (Future<Boolean> result : submit(2)) {
+                assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(94, count());
+    }
+
+    @Test
+    void timedOutRequestIsCancelledAndNeverApplied() {
+        insertStock(100);
+        // 时间窗口远大于等待超时，请求超时的时候还没有被提交
+        batcher = new StockDeductionBatcher(stockMapper(), 500, 100, 50, 1);
+        assertThrows(IllegalStateException.class, () -> batcher.deduct("1001", 1));
+
+        batcher.shutdown();
+        assertEquals(100, count());
+        assertEquals(0, updates.get());
+    }
+
+    @Test
+    void claimedRequestWaitsForCommitInsteadOfFailing() throws Exception {
+        insertStock(100);
+        updateGate = new CountDownLatch(1);
+        batcher = new StockDeductionBatcher(stockMapper(), 0, 100, 50, 1);
+        final Future<Boolean> result = callers.submit(() -> batcher.deduct("1001", 1));
+
+        // 超时时间已过，但请求已经在提交中，调用方拿到的必须是真实的提交结果
+        Thread.sleep(200);
+        assertFalse(result.isDone());
+        updateGate.countDown();
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+        assertEquals(99, count());
+    }
+
+    private List<Future<Boolean>> submit(int requests) {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Boolean>> results = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return batcher.deduct("1001", 1);
+            }));
+        }
+        start.countDown();
+        return results;
+    }
+
+    /**
+     * 真实的 mapper，额外统计 updateStock 的次数；updateGate 不为空时先等待它打开
+     */
+    private StockMapper stockMapper() {
+        final StockMapper stockMapper = database.mapper(StockMapper.class);
+        return (StockMapper) Proxy.newProxyInstance(StockMapper.class.getClassLoader(), new Class<?>[]{StockMapper.class}, (proxy, method, args) -> {
+            if ("updateStock".equals(method.getName())) {
+                final CountDownLatch gate = updateGate;
+                if (null != gate) {
+                    gate.await();
+                }
+                updates.incrementAndGet();
+            }
+            return method.invoke(stockMapper, args);
+        });
+    }
+
+    private void insertStock(int count) {
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES ('1001', '北京仓', ?)", count);
+    }
+
+    private int count() {
+        return database.jdbcTemplate().queryForObject("SELECT count FROM tb_stock WHERE product_code = '1001'", Integer.class);
+    }
+}
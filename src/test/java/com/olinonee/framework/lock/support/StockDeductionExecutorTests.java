@@ -0,0 +1,64 @@
+package com.olinonee.framework.lock.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockDeductionExecutorTests {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final StockMetrics metrics = new StockMetrics(registry, 16);
+    private final StockDeductionExecutor executor = new StockDeductionExecutor(1, 1, metrics);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        metrics.detach();
+        executor.shutdown();
+    }
+
+    @Test
+    void metricsContextIsPropagatedToExecutorThread() throws Exception {
+        metrics.begin("asyncDeduct", "1001");
+        final String thread = executor.submit(() -> {
+            // 执行线程上记录的指标仍然归属于提交它的请求
+            metrics.rejected();
+            return Thread.currentThread().getName();
+        }).get(5, TimeUnit.SECONDS);
+        metrics.detach();
+
+        assertTrue(thread.startsWith("stock-deduct-"), thread);
+        assertEquals(1, registry.find("stock.deduct").tags("strategy", "asyncDeduct", "outcome", "rejected").timer().count());
+        assertEquals(1.0, registry.find("stock.deduct.rejected").tags("strategy", "asyncDeduct", "product", metrics.bucket("1001")).counter().count(), 0);
+    }
+
+    @Test
+    void fullQueueIsRejectedAndRecordedAsError() throws Exception {
+        // 1 个线程执行、1 个排队，第 3 个任务被拒绝
+        executor.submit(this::block);
+        executor.submit(this::block);
+
+        metrics.begin("asyncDeduct", "1001");
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(this::block));
+        assertEquals(1, registry.find("stock.deduct").tags("strategy", "asyncDeduct", "outcome", "error").timer().count());
+        assertEquals(1, executor.getQueueSize());
+        assertEquals(1, executor.getActiveCount());
+    }
+
+    private Boolean block() {
+        try {
+            return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.olinonee.framework.lock.support;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.mapper.StockJournalCheckpointMapper;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import com.olinonee.framework.lock.mapper.StockMovementMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockLedgerTests {
+
+    private final H2TestDatabase database = new H2TestDatabase();
+    private final GatedTransactionManager transactionManager = new GatedTransactionManager(database.transactionManager());
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private StockLedger ledger;
+
+    @AfterEach
+    void shutdown() {
+        transactionManager.open();
+        callers.shutdownNow();
+        if (null != ledger) {
+            ledger.shutdown();
+        }
+        database.close();
+    }
+
+    @Test
+    void concurrentDeductionsAreAppendedInBatches() throws Exception {
+        insertStock(100);
+        ledger = ledger(5000);
+        // 第一批提交时被拦住，期间到达的流水攒成下一批
+        transactionManager.close();
+        final List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final String requestId = "request-" + i;
+            results.add(callers.submit(() -> ledger.deduct(requestId, "1001", 1)));
+        }
+        Thread.sleep(200);
+        transactionManager.open();
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+        }
+
+        assertTrue(transactionManager.commits.get() < 10, "提交次数：" + transactionManager.commits.get());
+        assertEquals(50, movements());
+        // 扣减只追加流水，不修改库存快照
+        assertEquals(100, snapshotCount());
+        assertEquals(50, ledger.queryStock("1001"));
+        assertFalse(ledger.deduct("request-50", "1001", 51));
+    }
+
+    @Test
+    void snapshotFoldsMovementsAndAdvancesCheckpoint() throws Exception {
+        insertStock(100);
+        ledger = ledger(5000);
+        assertTrue(ledger.deduct("request-1", "1001", 3));
+        assertTrue(ledger.deduct("request-2", "1001", 2));
+        // 只合并写入时间早于当前时间的流水
+        Thread.sleep(10);
+
+        // 同一商品、仓库的流水汇总成一条
+        assertEquals(1, ledger.snapshot());
+        assertEquals(95, snapshotCount());
+        assertEquals(maxMovementId(), flushedOffset());
+        assertEquals(95, ledger.queryStock("1001"));
+
+        // 检查点之后没有新的流水
+        assertEquals(0, ledger.snapshot());
+        assertEquals(95, snapshotCount());
+    }
+
+    @Test
+    void queryStockIsSnapshotPlusTail() throws Exception {
+        insertStock(100);
+        ledger = ledger(5000);
+        assertTrue(ledger.deduct("request-1", "1001", 5));
+        Thread.sleep(10);
+        ledger.snapshot();
+        assertTrue(ledger.deduct("request-2", "1001", 4));
+
+        // 快照 95 + 检查点之后的流水 -4，已经合并的流水不会重复计算
+        assertEquals(95, snapshotCount());
+        assertEquals(91, ledger.queryStock("1001"));
+        // 直接修改快照（补货）同样反映在当前库存中
+        database.jdbcTemplate().update("UPDATE tb_stock SET count = count + 10 WHERE product_code = '1001'");
+        assertEquals(101, ledger.queryStock("1001"));
+    }
+
+    @Test
+    void timedOutMovementIsCancelledAndStockRestored() throws Exception {
+        insertStock(2);
+        ledger = ledger(100);
+        transactionManager.close();
+        // 第一条流水已经被写入线程取走，卡在提交中
+        final Future<Boolean> claimed = callers.submit(() -> ledger.deduct("request-1", "1001", 1));
+        Thread.sleep(50);
+        // 第二条流水在队列中等待超时，被取消
+        assertThrows(IllegalStateException.class, () -> ledger.deduct("request-2", "1001", 1));
+
+        transactionManager.open();
+        // 已经取走的流水等到真实的提交结果，而不是超时失败
+        assertTrue(claimed.get(5, TimeUnit.SECONDS));
+        // 取消的流水还原了内存库存，可以再次扣减
+        assertTrue(ledger.deduct("request-3", "1001", 1));
+        assertFalse(ledger.deduct("request-4", "1001", 1));
+
+        assertEquals(0, (int) database.jdbcTemplate().queryForObject(
+                "SELECT COUNT(*) FROM tb_stock_movement WHERE request_id = 'request-2'", Integer.class));
+        assertEquals(2, movements());
+        assertEquals(0, ledger.queryStock("1001"));
+    }
+
+    @Test
+    void restockIsAppendedAsMovementAndVisibleToDeductions() {
+        insertStock(1);
+        ledger = ledger(5000);
+        assertTrue(ledger.deduct("request-1", "1001", 1));
+        assertFalse(ledger.deduct("request-2", "1001", 1));
+
+        // 补货追加一条正数流水，提交后内存库存随之增加，不需要重新加载
+        assertTrue(ledger.supports("1001"));
+        ledger.restock("1001", "北京仓", 3);
+        assertTrue(ledger.deduct("request-3", "1001", 3));
+        assertFalse(ledger.deduct("request-4", "1001", 1));
+        assertEquals(3, movements());
+        assertEquals(0, ledger.queryStock("1001"));
+        assertThrows(IllegalArgumentException.class, () -> ledger.restock("1001", "上海仓", 1));
+    }
+
+    @Test
+    void multiWarehouseProductIsRejected() {
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES ('2001', '北京仓', 10), ('2001', '上海仓', 10)");
+        ledger = ledger(5000);
+        // 流水只记录一个仓库，多仓库商品不能通过账本扣减
+        assertFalse(ledger.supports("2001"));
+        assertThrows(IllegalArgumentException.class, () -> ledger.deduct("request-1", "2001", 1));
+        assertEquals(0, movements());
+    }
+
+    private StockLedger ledger(long timeoutMillis) {
+        // 快照间隔足够长，测试中手动合并；快照延迟为 0
+        final StockLedger ledger = new StockLedger(database.sqlSessionFactory(), database.mapper(StockMapper.class),
+                database.mapper(StockMovementMapper.class), database.mapper(StockJournalCheckpointMapper.class),
+                new TransactionTemplate(transactionManager), 100, timeoutMillis, 60000, 0);
+        ledger.start();
+        return ledger;
+    }
+
+    private void insertStock(int count) {
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES ('1001', '北京仓', ?)", count);
+    }
+
+    private int snapshotCount() {
+        return database.jdbcTemplate().queryForObject("SELECT count FROM tb_stock WHERE product_code = '1001'", Integer.class);
+    }
+
+    private int movements() {
+        return database.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM tb_stock_movement", Integer.class);
+    }
+
+    private long maxMovementId() {
+        return database.jdbcTemplate().queryForObject("SELECT MAX(id) FROM tb_stock_movement", Long.class);
+    }
+
+    private long flushedOffset() {
+        return database.jdbcTemplate().queryForObject("SELECT flushed_offset FROM tb_stock_journal_checkpoint WHERE journal_id = ?",
+                Long.class, StockLedger.CHECKPOINT_ID);
+    }
+
+    /**
+     * 关闭时，开启事务先等待重新打开，模拟慢提交；同时统计提交次数
+     */
+    private static class GatedTransactionManager implements PlatformTransactionManager {
+        private final PlatformTransactionManager delegate;
+        private final AtomicInteger commits = new AtomicInteger();
+        private volatile CountDownLatch gate;
+
+        private GatedTransactionManager(PlatformTransactionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        private void close() {
+            this.gate = new CountDownLatch(1);
+        }
+
+        private void open() {
+            final CountDownLatch current = this.gate;
+            if (null != current) {
+                current.countDown();
+            }
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            final CountDownLatch current = this.gate;
+            if (null != current) {
+                try {
+                    current.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return this.delegate.getTransaction(definition);
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            this.delegate.commit(status);
+            this.commits.incrementAndGet();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            this.delegate.rollback(status);
+        }
+    }
+}
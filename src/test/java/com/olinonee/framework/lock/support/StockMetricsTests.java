@@ -0,0 +1,124 @@
+package com.olinonee.framework.lock.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockMetricsTests {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final StockMetrics metrics = new StockMetrics(registry, 16);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void cleanUp() {
+        // 失败的测试可能留下上下文，避免影响同一线程上的其他测试
+        metrics.detach();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void outcomeIsTaggedBySuccessRejectionAndError() {
+        metrics.begin("deduct", "1001");
+        metrics.end(null);
+
+        metrics.begin("deduct", "1001");
+        metrics.rejected();
+        metrics.end(null);
+
+        metrics.begin("deduct", "1001");
+        metrics.rejected();
+        metrics.end(new IllegalStateException("boom"));
+
+        assertEquals(1, deductTimer("success").count());
+        assertEquals(1, deductTimer("rejected").count());
+        // 异常优先于库存不足
+        assertEquals(1, deductTimer("error").count());
+        assertEquals(2.0, registry.find("stock.deduct.rejected").tag("strategy", "deduct").counter().count(), 0);
+    }
+
+    @Test
+    void metricsCarryStrategyAndProductBucket() {
+        metrics.begin("deductWithLock", "1001");
+        metrics.lockReleased(metrics.lockAcquired(System.nanoTime()));
+        metrics.recordStatement("updateStock", 1000);
+        metrics.recordAttempts(3);
+        metrics.end(null);
+
+        final String bucket = metrics.bucket("1001");
+        assertTrue(bucket.startsWith("bucket-"));
+        assertEquals(1, registry.find("stock.lock.wait").tags("strategy", "deductWithLock", "product", bucket).timer().count());
+        assertEquals(1, registry.find("stock.lock.hold").tags("strategy", "deductWithLock", "product", bucket).timer().count());
+        assertEquals(1, registry.find("stock.db.statement").tags("strategy", "deductWithLock", "statement", "updateStock").timer().count());
+        assertEquals(3.0, registry.find("stock.optimistic.attempts").tag("strategy", "deductWithLock").summary().totalAmount(), 0);
+    }
+
+    @Test
+    void metricsOutsideRequestAreTaggedNone() {
+        metrics.rejected();
+        metrics.end(null);
+        assertEquals(1.0, registry.find("stock.deduct.rejected").tags("strategy", "none", "product", "none").counter().count(), 0);
+        assertNull(registry.find("stock.deduct").timer());
+        assertEquals("none", metrics.bucket(null));
+    }
+
+    @Test
+    void propagateEndsRequestOnExecutorThread() throws Exception {
+        metrics.begin("async", "1001");
+        final Supplier<Boolean> task = metrics.propagate(() -> {
+            metrics.rejected();
+            return false;
+        });
+        metrics.detach();
+
+        assertFalse(CompletableFuture.supplyAsync(task, executor).get(5, TimeUnit.SECONDS));
+        assertEquals(1, registry.find("stock.deduct").tags("strategy", "async", "outcome", "rejected").timer().count());
+        // 请求线程已经解绑，结束时不会重复记录
+        metrics.end(null);
+        assertEquals(1, registry.find("stock.deduct").tag("strategy", "async").timer().count());
+    }
+
+    @Test
+    void propagateRecordsErrorAndRethrows() {
+        metrics.begin("async", "1001");
+        final Supplier<Boolean> task = metrics.propagate(() -> {
+            throw new IllegalStateException("boom");
+        });
+        metrics.detach();
+
+        assertThrows(IllegalStateException.class, task::get);
+        assertEquals(1, registry.find("stock.deduct").tags("strategy", "async", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void propagateWithoutContextReturnsTaskUnchanged() {
+        final Supplier<Boolean> task = () -> true;
+        assertSame(task, metrics.propagate(task));
+    }
+
+    @Test
+    void soldOutRejectsAndNotifiesListener() {
+        final String[] notified = new String[1];
+        metrics.setSoldOutListener(productCode -> notified[0] = productCode);
+        metrics.begin("deduct", "1001");
+        metrics.soldOut("1001");
+        metrics.end(null);
+
+        assertEquals("1001", notified[0]);
+        assertEquals(1, deductTimer("rejected").count());
+    }
+
+    private Timer deductTimer(String outcome) {
+        return registry.find("stock.deduct").tags("strategy", "deduct", "outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,208 @@
+package com.olinonee.framework.lock.support;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockQuotaAllocatorTests {
+
+    private final H2TestDatabase database = new H2TestDatabase();
+    private final StockMapper stockMapper = database.mapper(StockMapper.class);
+
+    @AfterEach
+    void close() {
+        database.close();
+    }
+
+    @Test
+    void neverOversellsAndWritesOncePerBlock() throws InterruptedException {
+        insertStock("北京仓", 1000);
+        final AtomicInteger leases = new AtomicInteger();
+        final StockQuotaAllocator allocator = new StockQuotaAllocator(countingLeases(leases), 200, 40, 60000, 1000);
+        final AtomicInteger succeeded = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(16);
+        final CountDownLatch done = new CountDownLatch(16);
+        for (int i = 0; i < 16; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 100; j++) {
+                    if (allocator.deduct("1001", 1)) {
+                        succeeded.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        allocator.shutdown();
+
+        assertEquals(1000, succeeded.get());
+        assertEquals(0, total());
+        assertEquals(0, leased());
+        assertTrue(leases.get() <= 10, "leases: " + leases.get());
+    }
+
+    @Test
+    void unusedQuotaIsReturnedOnShutdown() {
+        insertStock("北京仓", 1000);
+        final StockQuotaAllocator allocator = new StockQuotaAllocator(stockMapper, 200, 40, 60000, 1000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(allocator.deduct("1001", 1));
+        }
+        assertEquals(800, total());
+        assertEquals(200, leased());
+        allocator.shutdown();
+        assertEquals(990, total());
+        assertEquals(0, leased());
+    }
+
+    @Test
+    void expiredQuotaIsReturned() throws InterruptedException {
+        insertStock("北京仓", 1000);
+        final StockQuotaAllocator allocator = new StockQuotaAllocator(stockMapper, 200, 40, 50, 1000);
+        assertTrue(allocator.deduct("1001", 1));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertEquals(999, total());
+        assertEquals(0, leased());
+        assertEquals(0, allocator.available("1001"));
+        allocator.shutdown();
+    }
+
+    @Test
+    void settledProductLeasesAgainAfterStockIsReset() {
+        insertStock("北京仓", 1000);
+        final StockQuotaAllocator allocator = new StockQuotaAllocator(stockMapper, 200, 40, 60000, 1000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(allocator.deduct("1001", 1));
+        }
+        allocator.settle("1001");
+        assertEquals(990, total());
+        assertEquals(0, leased());
+        assertEquals(0, allocator.available("1001"));
+
+        // 人工重置库存之后重新租借，不会用到重置之前租借的配额
+        database.jdbcTemplate().update("UPDATE tb_stock SET count = 5 WHERE product_code = '1001'");
+        int succeeded = 0;
+        while (allocator.deduct("1001", 1)) {
+            succeeded++;
+        }
+        allocator.shutdown();
+        assertEquals(5, succeeded);
+        assertEquals(0, total());
+        assertEquals(0, leased());
+    }
+
+    @Test
+    void multiWarehouseLeasesAndReturnsOneRow() {
+        insertStock("北京仓", 100);
+        insertStock("上海仓", 500);
+        final StockQuotaAllocator allocator = new StockQuotaAllocator(stockMapper, 200, 40, 60000, 1000);
+        assertTrue(allocator.deduct("1001", 1));
+        // 从剩余最多的仓库租借，另一个仓库不受影响
+        assertEquals(100, count("北京仓"));
+        assertEquals(300, count("上海仓"));
+
+        allocator.shutdown();
+        assertEquals(100, count("北京仓"));
+        assertEquals(499, count("上海仓"));
+    }
+
+    @Test
+    void partialLeaseTakesWhatIsLeftAcrossRows() {
+        insertStock("北京仓", 30);
+        insertStock("上海仓", 50);
+        final StockQuotaAllocator allocator = new StockQuotaAllocator(stockMapper, 200, 40, 60000, 1000);
+        int succeeded = 0;
+        while (allocator.deduct("1001", 1)) {
+            succeeded++;
+        }
+        allocator.shutdown();
+        assertEquals(80, succeeded);
+        assertEquals(0, total());
+        assertEquals(0, leased());
+    }
+
+    @Test
+    void soldOutOnlyWhenNoInstanceHoldsQuota() {
+        insertStock("北京仓", 300);
+        final StockQuotaAllocator first = new StockQuotaAllocator(stockMapper, 200, 0, 60000, 0);
+        final StockQuotaAllocator second = new StockQuotaAllocator(stockMapper, 200, 0, 60000, 0);
+        assertTrue(first.deduct("1001", 1));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(second.deduct("1001", 1));
+        }
+
+        // 第二个实例租不到库存，但第一个实例还持有配额
+        assertFalse(second.deduct("1001", 1));
+        assertFalse(second.isSoldOut("1001"));
+        assertEquals(200, leased());
+
+        for (int i = 0; i < 199; i++) {
+            assertTrue(first.deduct("1001", 1));
+        }
+        assertFalse(first.deduct("1001", 1));
+        assertTrue(first.isSoldOut("1001"));
+        assertFalse(second.deduct("1001", 1));
+        assertTrue(second.isSoldOut("1001"));
+        assertEquals(0, total());
+        assertEquals(0, leased());
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    void returnedQuotaClearsSoldOut() {
+        insertStock("北京仓", 10);
+        final StockQuotaAllocator first = new StockQuotaAllocator(stockMapper, 200, 0, 60000, 0);
+        final StockQuotaAllocator second = new StockQuotaAllocator(stockMapper, 200, 0, 60000, 0);
+        assertTrue(first.deduct("1001", 1));
+        assertFalse(second.deduct("1001", 1));
+        assertFalse(second.isSoldOut("1001"));
+
+        // 第一个实例关闭时归还未用完的配额，第二个实例可以继续租借
+        first.shutdown();
+        assertTrue(second.deduct("1001", 1));
+        assertFalse(second.isSoldOut("1001"));
+        second.shutdown();
+        assertEquals(8, total());
+    }
+
+    /**
+     * 真实的 mapper，额外统计租借（写库）的次数
+     */
+    private StockMapper countingLeases(AtomicInteger leases) {
+        return (StockMapper) Proxy.newProxyInstance(StockMapper.class.getClassLoader(), new Class<?>[]{StockMapper.class}, (proxy, method, args) -> {
+            if ("leaseStock".equals(method.getName())) {
+                leases.incrementAndGet();
+            }
+            return method.invoke(stockMapper, args);
+        });
+    }
+
+    private void insertStock(String warehouse, int count) {
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES ('1001', ?, ?)", warehouse, count);
+    }
+
+    private int count(String warehouse) {
+        return database.jdbcTemplate().queryForObject("SELECT count FROM tb_stock WHERE product_code = '1001' AND warehouse = ?",
+                Integer.class, warehouse);
+    }
+
+    private int total() {
+        return database.jdbcTemplate().queryForObject("SELECT SUM(count) FROM tb_stock WHERE product_code = '1001'", Integer.class);
+    }
+
+    private int leased() {
+        return database.jdbcTemplate().queryForObject("SELECT SUM(leased) FROM tb_stock WHERE product_code = '1001'", Integer.class);
+    }
+}
@@ -0,0 +1,142 @@
+package com.olinonee.framework.lock.support;
+
+import com.olinonee.framework.lock.H2TestDatabase;
+import com.olinonee.framework.lock.mapper.StockJournalCheckpointMapper;
+import com.olinonee.framework.lock.mapper.StockMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockWriteBehindJournalTests {
+
+    private final H2TestDatabase database = new H2TestDatabase();
+
+    @AfterEach
+    void close() {
+        database.close();
+    }
+
+    @Test
+    void deductsInMemoryAndFlushesNetDelta() throws IOException {
+        insertStock("1001", "北京仓", 100);
+        final StockWriteBehindJournal journal = open(Files.createTempDirectory("journal"), 1 << 20);
+        int succeeded = 0;
+        for (int i = 0; i < 150; i++) {
+            if (journal.deduct("1001", 1)) {
+                succeeded++;
+            }
+        }
+        assertEquals(100, succeeded);
+        assertEquals(100, count("1001", "北京仓"));
+
+        journal.flush(false);
+        assertEquals(0, count("1001", "北京仓"));
+        journal.shutdown();
+    }
+
+    @Test
+    void replaysUnflushedRecordsOnRestart() throws IOException {
+        insertStock("1001", "北京仓", 100);
+        final Path dir = Files.createTempDirectory("journal");
+        final StockWriteBehindJournal crashed = open(dir, 1 << 20);
+        for (int i = 0; i < 30; i++) {
+            assertTrue(crashed.deduct("1001", 1));
+        }
+        crashed.flush(false);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(crashed.deduct("1001", 1));
+        }
+        // 不调用 shutdown，模拟进程崩溃，只有前 30 个扣减同步到了数据库
+        assertEquals(70, count("1001", "北京仓"));
+
+        final StockWriteBehindJournal restarted = open(dir, 1 << 20);
+        assertEquals(50, count("1001", "北京仓"));
+        restarted.shutdown();
+
+        // 回放之后开始新一轮日志，再次重启不会重复回放
+        open(dir, 1 << 20).shutdown();
+        assertEquals(50, count("1001", "北京仓"));
+    }
+
+    @Test
+    void rollsOverWhenJournalIsFull() throws IOException {
+        insertStock("1001", "北京仓", 10000);
+        final StockWriteBehindJournal journal = new StockWriteBehindJournal(database.mapper(StockMapper.class),
+                database.mapper(StockJournalCheckpointMapper.class), new TransactionTemplate(database.transactionManager()),
+                Files.createTempDirectory("journal"), "stock", 4096, StockWriteBehindJournal.SyncMode.INTERVAL, 10, 3600000);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(journal.deduct("1001", 1));
+        }
+        journal.shutdown();
+        assertEquals(9000, count("1001", "北京仓"));
+        // 启动时是第 1 轮，写满之后从头开始写，检查点记录的轮次随之前进
+        assertTrue(database.jdbcTemplate().queryForObject(
+                "SELECT epoch FROM tb_stock_journal_checkpoint WHERE journal_id = 'stock'", Long.class) > 1);
+    }
+
+    @Test
+    void multiWarehouseProductDeductsOnlyTheFirstRow() throws IOException {
+        insertStock("2001", "北京仓", 10);
+        insertStock("2001", "上海仓", 10);
+        insertStock("2001", "广州仓", 10);
+        final Path dir = Files.createTempDirectory("journal");
+        final StockWriteBehindJournal crashed = open(dir, 1 << 20);
+        // 只接管 id 最小的一行，另外两个仓库的库存不受影响
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i < 10, crashed.deduct("2001", 1));
+        }
+        crashed.flush(false);
+        assertEquals(0, count("2001", "北京仓"));
+        assertEquals(10, count("2001", "上海仓"));
+        assertEquals(10, count("2001", "广州仓"));
+
+        // 回放时按同样的规则找到同一行
+        database.jdbcTemplate().update("UPDATE tb_stock SET count = 5 WHERE product_code = '2001' AND warehouse = '北京仓'");
+        final StockWriteBehindJournal restarted = open(dir, 1 << 20);
+        assertTrue(restarted.deduct("2001", 2));
+        restarted.shutdown();
+        assertEquals(3, count("2001", "北京仓"));
+        assertEquals(10, count("2001", "上海仓"));
+        assertEquals(10, count("2001", "广州仓"));
+    }
+
+    @Test
+    void restockIsVisibleToInMemoryStock() throws IOException {
+        insertStock("2001", "北京仓", 1);
+        insertStock("2001", "上海仓", 0);
+        final StockWriteBehindJournal journal = open(Files.createTempDirectory("journal"), 1 << 20);
+        assertTrue(journal.deduct("2001", 1));
+        assertFalse(journal.deduct("2001", 1));
+
+        // 补货到日志接管的那一行，内存库存随之增加；补货到其他仓库只修改数据库
+        journal.restock("2001", "北京仓", 2);
+        journal.restock("2001", "上海仓", 5);
+        assertEquals(2, journal.available("2001"));
+        assertTrue(journal.deduct("2001", 2));
+        assertFalse(journal.deduct("2001", 1));
+        journal.shutdown();
+        assertEquals(0, count("2001", "北京仓"));
+        assertEquals(5, count("2001", "上海仓"));
+    }
+
+    private StockWriteBehindJournal open(Path dir, int capacity) {
+        // 同步间隔设置得足够长，只通过 flush、shutdown 同步
+        return new StockWriteBehindJournal(database.mapper(StockMapper.class), database.mapper(StockJournalCheckpointMapper.class),
+                new TransactionTemplate(database.transactionManager()), dir, "stock", capacity, StockWriteBehindJournal.SyncMode.GROUP, 10, 3600000);
+    }
+
+    private void insertStock(String productCode, String warehouse, int count) {
+        database.jdbcTemplate().update("INSERT INTO tb_stock (product_code, warehouse, count) VALUES (?, ?, ?)", productCode, warehouse, count);
+    }
+
+    private int count(String productCode, String warehouse) {
+        return database.jdbcTemplate().queryForObject("SELECT count FROM tb_stock WHERE product_code = ? AND warehouse = ?",
+                Integer.class, productCode, warehouse);
+    }
+}
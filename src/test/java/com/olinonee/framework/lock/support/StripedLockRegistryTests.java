@@ -0,0 +1,33 @@
+package com.olinonee.framework.lock.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLockRegistryTests {
+
+    @Test
+    void stripesRoundUpToPowerOfTwo() {
+        assertEquals(64, new StripedLockRegistry(50).size());
+        assertEquals(1, new StripedLockRegistry(1).size());
+    }
+
+    @Test
+    void sameKeySameLock() {
+        final StripedLockRegistry registry = new StripedLockRegistry(16);
+        assertSame(registry.getLock("1001"), registry.getLock(new String("1001")));
+        assertSame(registry.getMonitor("1001"), registry.getMonitor(new String("1001")));
+    }
+
+    @Test
+    void differentKeysSpreadAcrossStripes() {
+        final StripedLockRegistry registry = new StripedLockRegistry(16);
+        final long distinct = IntStream.range(0, 1000)
+                .map(i -> registry.indexFor(String.valueOf(1000 + i)))
+                .distinct()
+                .count();
+        assertEquals(16, distinct);
+    }
+}
@@ -0,0 +1,65 @@
+-- 与 benchmarks/src/main/resources/schema-h2.sql 的表结构一致，不含初始数据和命名锁函数，每个测试自己准备数据
+DROP TABLE IF EXISTS `tb_stock`;
+CREATE TABLE `tb_stock`
+(
+    `id`           BIGINT      NOT NULL AUTO_INCREMENT,
+    `product_code` VARCHAR(20) NOT NULL,
+    `warehouse`    VARCHAR(20) NOT NULL,
+    `count`        INT         NOT NULL,
+    `leased`       INT         NOT NULL DEFAULT 0,
+    `version`      INT         NOT NULL DEFAULT 0,
+    `gmt_modified` TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`)
+);
+CREATE INDEX `idx_product_code` ON `tb_stock` (`product_code`);
+
+DROP TABLE IF EXISTS `tb_distributed_lock`;
+CREATE TABLE `tb_distributed_lock`
+(
+    `lock_key`    VARCHAR(64)  NOT NULL,
+    `owner`       VARCHAR(64)  NOT NULL,
+    `expire_time` TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (`lock_key`)
+);
+
+DROP TABLE IF EXISTS `tb_stock_journal_checkpoint`;
+CREATE TABLE `tb_stock_journal_checkpoint`
+(
+    `journal_id`     VARCHAR(64) NOT NULL,
+    `epoch`          BIGINT      NOT NULL,
+    `flushed_offset` BIGINT      NOT NULL,
+    PRIMARY KEY (`journal_id`)
+);
+
+DROP TABLE IF EXISTS `tb_stock_slot`;
+CREATE TABLE `tb_stock_slot`
+(
+    `product_code` VARCHAR(20) NOT NULL,
+    `slot_no`      INT         NOT NULL,
+    `count`        INT         NOT NULL,
+    PRIMARY KEY (`product_code`, `slot_no`)
+);
+
+DROP TABLE IF EXISTS `tb_stock_request`;
+CREATE TABLE `tb_stock_request`
+(
+    `request_id`   VARCHAR(64)  NOT NULL,
+    `product_code` VARCHAR(20)  NOT NULL,
+    `count`        INT          NOT NULL,
+    `gmt_create`   TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (`request_id`)
+);
+CREATE INDEX `idx_gmt_create` ON `tb_stock_request` (`gmt_create`);
+
+DROP TABLE IF EXISTS `tb_stock_movement`;
+CREATE TABLE `tb_stock_movement`
+(
+    `id`           BIGINT       NOT NULL AUTO_INCREMENT,
+    `request_id`   VARCHAR(64),
+    `product_code` VARCHAR(20)  NOT NULL,
+    `warehouse`    VARCHAR(20)  NOT NULL,
+    `delta`        INT          NOT NULL,
+    `gmt_create`   TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (`id`)
+);
+CREATE INDEX `idx_product_code_id` ON `tb_stock_movement` (`product_code`, `id`);